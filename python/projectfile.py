@@ -73,6 +73,57 @@ def write_utf(f: BinaryIO, s: str):
     f.write(data)
 
 
+class _Columns:
+    """Reader of the column data of version 12 (after the memory flags)."""
+
+    def __init__(self, data: bytes):
+        self.data = data
+        self.pos = 0
+
+    def _get(self, fmt: str, count: int):
+        values = struct.unpack_from('>%d%s' % (count, fmt), self.data, self.pos)
+        self.pos += struct.calcsize('>%d%s' % (count, fmt))
+        return values
+
+    def get_int(self) -> int:
+        return self._get('i', 1)[0]
+
+    def get_ints(self, count: int):
+        return self._get('i', count)
+
+    def get_bytes(self, count: int):
+        return self._get('B', count)
+
+    def get_chars(self, count: int):
+        return self._get('H', count)
+
+    def get_longs(self, count: int):
+        return self._get('Q', count)
+
+    def get_raw(self, size: int) -> bytes:
+        data = self.data[self.pos:self.pos + size]
+        self.pos += size
+        return data
+
+
+def _pool_index(pool: List[str], index: Dict[str, int], value: Optional[str]) -> int:
+    """Index of value in the string pool (0 is None, n is pool[n-1])."""
+    if value is None:
+        return 0
+    if value not in index:
+        pool.append(value)
+        index[value] = len(pool)
+    return index[value]
+
+
+def _pool_string(pool: List[str], index: int) -> Optional[str]:
+    return None if index == 0 else pool[index - 1]
+
+
+def _bits(words, i: int) -> bool:
+    return (words[i >> 6] >> (i & 63)) & 1 == 1
+
+
 @dataclass
 class MemoryEntry:
     address: int
@@ -117,7 +168,7 @@ class Freeze:
 
 @dataclass
 class ProjectFile:
-    version: int = 11
+    version: int = 13
     name: str = ''
     file: str = ''
     description: str = ''
@@ -147,234 +198,425 @@ class ProjectFile:
         opener = gzip.open if gz else open
         with opener(path, 'rb') as f:
             pf.version = read_ubyte(f)
-            pf.name = read_utf(f)
-            pf.file = read_utf(f)
-            pf.description = read_utf(f)
-            pf.file_type = read_utf(f)
-            pf.target_type = read_utf(f) if pf.version > 0 else 'C64'
+            if pf.version > 12:
+                f.read(read_int(f))  # header with the label counts
+                with gzip.GzipFile(fileobj=f) as body:
+                    pf._load_body(body)
+            else:
+                pf._load_body(f)
 
+        return pf
+
+    def _load_body(self, f: BinaryIO):
+        """Read all the values after the version (and the header)."""
+        self.name = read_utf(f)
+        self.file = read_utf(f)
+        self.description = read_utf(f)
+        self.file_type = read_utf(f)
+        self.target_type = read_utf(f) if self.version > 0 else 'C64'
+
+        size = read_int(f)
+        self.inB = f.read(size)
+
+        size = read_int(f)
+        self.memory_flags = f.read(size)
+
+        if self.version > 11:
+            self._load_columns(_Columns(f.read()))
+            return
+
+        size = read_int(f)
+        for _ in range(size):
+            mem = MemoryEntry(address=read_int(f))
+            if read_boolean(f):
+                mem.dasm_comment = read_utf(f)
+            if read_boolean(f):
+                mem.user_comment = read_utf(f)
+            if read_boolean(f):
+                mem.user_block_comment = read_utf(f)
+            if read_boolean(f):
+                mem.dasm_location = read_utf(f)
+            if read_boolean(f):
+                mem.user_location = read_utf(f)
+            mem.is_inside = read_boolean(f)
+            mem.is_code = read_boolean(f)
+            mem.is_data = read_boolean(f)
+            if self.version > 0:
+                mem.is_garbage = read_boolean(f)
+                mem.data_type = read_utf(f)
+            mem.copy = read_ubyte(f)
+            mem.related = read_int(f)
+            mem.type = read_char(f)
+            if self.version > 2:
+                mem.index = read_ubyte(f)
+            if self.version > 8:
+                mem.related_address_base = read_int(f)
+                mem.related_address_dest = read_int(f)
+            if self.version > 9:
+                mem.basic_type = read_utf(f)
+            self.memory.append(mem)
+
+        if self.version > 1:
+            self.chip = read_int(f)
+
+        if self.version > 2:
+            for i in range(MIN_COLS):
+                for j in range(MIN_ROWS):
+                    if read_boolean(f):
+                        self.constant_table[(i, j)] = read_utf(f)
+
+        if self.version > 3:
             size = read_int(f)
-            pf.inB = f.read(size)
+            for _ in range(size):
+                self.relocates.append(
+                    Relocate(
+                        read_int(f),
+                        read_int(f),
+                        read_int(f),
+                        read_int(f)
+                    )
+                )
 
+        if self.version > 4:
             size = read_int(f)
-            pf.memory_flags = f.read(size)
+            for _ in range(size):
+                self.patches.append(Patch(read_int(f), read_int(f)))
 
+        if self.version > 5:
+            for i in range(MIN_COLS):
+                for j in range(MIN_ROWS, ROWS):
+                    if read_boolean(f):
+                        self.constant_table[(i, j)] = read_utf(f)
+
+        if self.version > 6:
             size = read_int(f)
             for _ in range(size):
-                mem = MemoryEntry(address=read_int(f))
-                if read_boolean(f):
-                    mem.dasm_comment = read_utf(f)
-                if read_boolean(f):
-                    mem.user_comment = read_utf(f)
-                if read_boolean(f):
-                    mem.user_block_comment = read_utf(f)
-                if read_boolean(f):
-                    mem.dasm_location = read_utf(f)
+                name = read_utf(f)
                 if read_boolean(f):
-                    mem.user_location = read_utf(f)
-                mem.is_inside = read_boolean(f)
-                mem.is_code = read_boolean(f)
-                mem.is_data = read_boolean(f)
-                if pf.version > 0:
-                    mem.is_garbage = read_boolean(f)
-                    mem.data_type = read_utf(f)
-                mem.copy = read_ubyte(f)
-                mem.related = read_int(f)
-                mem.type = read_char(f)
-                if pf.version > 2:
-                    mem.index = read_ubyte(f)
-                if pf.version > 8:
-                    mem.related_address_base = read_int(f)
-                    mem.related_address_dest = read_int(f)
-                if pf.version > 9:
-                    mem.basic_type = read_utf(f)
-                pf.memory.append(mem)
-
-            if pf.version > 1:
-                pf.chip = read_int(f)
-
-            if pf.version > 2:
-                for i in range(MIN_COLS):
-                    for j in range(MIN_ROWS):
-                        if read_boolean(f):
-                            pf.constant_table[(i, j)] = read_utf(f)
-
-            if pf.version > 3:
-                size = read_int(f)
-                for _ in range(size):
-                    pf.relocates.append(
-                        Relocate(
-                            read_int(f),
-                            read_int(f),
-                            read_int(f),
-                            read_int(f)
-                        )
-                    )
+                    size2 = read_int(f)
+                    text = f.read(size2).decode('utf-8')
+                else:
+                    text = read_utf(f)
+                self.freezes.append(Freeze(name, text))
 
-            if pf.version > 4:
-                size = read_int(f)
-                for _ in range(size):
-                    pf.patches.append(Patch(read_int(f), read_int(f)))
-
-            if pf.version > 5:
-                for i in range(MIN_COLS):
-                    for j in range(MIN_ROWS, ROWS):
-                        if read_boolean(f):
-                            pf.constant_table[(i, j)] = read_utf(f)
-
-            if pf.version > 6:
-                size = read_int(f)
-                for _ in range(size):
-                    name = read_utf(f)
+        if self.version > 7:
+            for i in range(MIN_COLS, COLS):
+                for j in range(ROWS):
                     if read_boolean(f):
-                        size2 = read_int(f)
-                        text = f.read(size2).decode('utf-8')
-                    else:
-                        text = read_utf(f)
-                    pf.freezes.append(Freeze(name, text))
-
-            if pf.version > 7:
-                for i in range(MIN_COLS, COLS):
-                    for j in range(ROWS):
-                        if read_boolean(f):
-                            pf.constant_table[(i, j)] = read_utf(f)
-
-            if pf.version > 9:
-                for i in range(COLS):
-                    for j in range(ROWS):
-                        if read_boolean(f):
-                            pf.constant_comment[(i, j)] = read_utf(f)
-
-            if pf.version > 10:
-                pf.bin_address = read_int(f)
+                        self.constant_table[(i, j)] = read_utf(f)
 
-        return pf
+        if self.version > 9:
+            for i in range(COLS):
+                for j in range(ROWS):
+                    if read_boolean(f):
+                        self.constant_comment[(i, j)] = read_utf(f)
+
+        if self.version > 10:
+            self.bin_address = read_int(f)
+
+    def _load_columns(self, buf: _Columns):
+        """Read the values after the memory flags stored in columns (version 12)."""
+        lengths = buf.get_ints(buf.get_int())
+        pool = [buf.get_raw(length).decode('utf-8') for length in lengths]
+
+        size = buf.get_int()
+        words = (size + 63) // 64
+        address = buf.get_ints(size)
+        strings = [buf.get_ints(size) for _ in range(5)]
+        is_inside = buf.get_longs(words)
+        is_code = buf.get_longs(words)
+        is_data = buf.get_longs(words)
+        is_garbage = buf.get_longs(words)
+        data_types = [pool[i - 1] for i in buf.get_ints(buf.get_int())]
+        basic_types = [pool[i - 1] for i in buf.get_ints(buf.get_int())]
+        data_type = buf.get_bytes(size)
+        basic_type = buf.get_bytes(size)
+        type_ = buf.get_chars(size)
+        copy = buf.get_bytes(size)
+        index = buf.get_bytes(size)
+        related = buf.get_ints(size)
+        related_address_base = buf.get_ints(size)
+        related_address_dest = buf.get_ints(size)
+
+        for i in range(size):
+            self.memory.append(MemoryEntry(
+                address=address[i],
+                dasm_comment=_pool_string(pool, strings[0][i]),
+                user_comment=_pool_string(pool, strings[1][i]),
+                user_block_comment=_pool_string(pool, strings[2][i]),
+                dasm_location=_pool_string(pool, strings[3][i]),
+                user_location=_pool_string(pool, strings[4][i]),
+                is_inside=_bits(is_inside, i),
+                is_code=_bits(is_code, i),
+                is_data=_bits(is_data, i),
+                is_garbage=_bits(is_garbage, i),
+                data_type=data_types[data_type[i]],
+                copy=copy[i],
+                related=related[i],
+                type=chr(type_[i]),
+                index=index[i],
+                related_address_base=related_address_base[i],
+                related_address_dest=related_address_dest[i],
+                basic_type=basic_types[basic_type[i]],
+            ))
+
+        self.chip = buf.get_int()
+
+        # constants as cell, value, comment (only the defined cells)
+        constants = buf.get_ints(buf.get_int() * 3)
+        for k in range(0, len(constants), 3):
+            cell = (constants[k] // ROWS, constants[k] % ROWS)
+            value = _pool_string(pool, constants[k + 1])
+            comment = _pool_string(pool, constants[k + 2])
+            if value is not None:
+                self.constant_table[cell] = value
+            if comment is not None:
+                self.constant_comment[cell] = comment
+
+        for _ in range(buf.get_int()):
+            self.relocates.append(Relocate(*buf.get_ints(4)))
+
+        for _ in range(buf.get_int()):
+            self.patches.append(Patch(*buf.get_ints(2)))
+
+        for _ in range(buf.get_int()):
+            name, text = buf.get_ints(2)
+            self.freezes.append(Freeze(_pool_string(pool, name), _pool_string(pool, text)))
+
+        self.bin_address = buf.get_int()
+
+    def _save_columns(self) -> bytes:
+        """Values after the memory flags stored in columns (version 12)."""
+        pool: List[str] = []
+        index: Dict[str, int] = {}
+
+        size = len(self.memory)
+        words = (size + 63) // 64
+        strings = [[_pool_index(pool, index, getattr(mem, name)) for mem in self.memory]
+                   for name in ('dasm_comment', 'user_comment', 'user_block_comment',
+                                'dasm_location', 'user_location')]
+
+        data_types: List[str] = []
+        basic_types: List[str] = []
+        for mem in self.memory:
+            if mem.data_type not in data_types:
+                data_types.append(mem.data_type)
+            if mem.basic_type not in basic_types:
+                basic_types.append(mem.basic_type)
+        data_type_names = [_pool_index(pool, index, name) for name in data_types]
+        basic_type_names = [_pool_index(pool, index, name) for name in basic_types]
+
+        constants = []
+        for cell in sorted(set(self.constant_table) | set(self.constant_comment)):
+            constants += [cell[0] * ROWS + cell[1],
+                          _pool_index(pool, index, self.constant_table.get(cell)),
+                          _pool_index(pool, index, self.constant_comment.get(cell))]
+
+        freezes = []
+        for fr in self.freezes:
+            freezes += [_pool_index(pool, index, fr.name), _pool_index(pool, index, fr.text)]
+
+        def bits(name: str):
+            values = [0] * words
+            for i, mem in enumerate(self.memory):
+                if getattr(mem, name):
+                    values[i >> 6] |= 1 << (i & 63)
+            return values
+
+        def ints(values) -> bytes:
+            return struct.pack('>%di' % len(values), *values)
+
+        utf = [val.encode('utf-8') for val in pool]
+        out = [ints([len(utf)]), ints([len(val) for val in utf]), b''.join(utf)]
+
+        out.append(ints([size]))
+        out.append(ints([mem.address for mem in self.memory]))
+        for column in strings:
+            out.append(ints(column))
+        for name in ('is_inside', 'is_code', 'is_data', 'is_garbage'):
+            out.append(struct.pack('>%dQ' % words, *bits(name)))
+        out.append(ints([len(data_type_names)] + data_type_names))
+        out.append(ints([len(basic_type_names)] + basic_type_names))
+        out.append(bytes(data_types.index(mem.data_type) for mem in self.memory))
+        out.append(bytes(basic_types.index(mem.basic_type) for mem in self.memory))
+        out.append(struct.pack('>%dH' % size, *[ord(mem.type) for mem in self.memory]))
+        out.append(bytes(mem.copy & 0xFF for mem in self.memory))
+        out.append(bytes(mem.index & 0xFF for mem in self.memory))
+        out.append(ints([mem.related for mem in self.memory]))
+        out.append(ints([mem.related_address_base for mem in self.memory]))
+        out.append(ints([mem.related_address_dest for mem in self.memory]))
+
+        out.append(ints([self.chip]))
+        out.append(ints([len(constants) // 3] + constants))
+
+        out.append(ints([len(self.relocates)]))
+        for r in self.relocates:
+            out.append(ints([r.from_start, r.from_end, r.to_start, r.to_end]))
+
+        out.append(ints([len(self.patches)]))
+        for p in self.patches:
+            out.append(ints([p.address, p.value]))
+
+        out.append(ints([len(self.freezes)] + freezes))
+        out.append(ints([self.bin_address]))
+        return b''.join(out)
 
     def save(self, path: str, gzipped: bool = True):
+        if self.version > 12:
+            # version and header are never compressed, the rest always is
+            with open(path, 'wb') as f:
+                write_ubyte(f, self.version)
+                self._save_header(f)
+                with gzip.GzipFile(fileobj=f, mode='wb') as body:
+                    self._save_body(body)
+            return
+
         opener = gzip.open if gzipped else open
         with opener(path, 'wb') as f:
             write_ubyte(f, self.version)
-            write_utf(f, self.name)
-            write_utf(f, self.file)
-            write_utf(f, self.description)
-            write_utf(f, self.file_type)
-            write_utf(f, self.target_type)
-
-            write_int(f, len(self.inB))
-            f.write(self.inB)
-
-            write_int(f, len(self.memory_flags))
-            f.write(self.memory_flags)
-
-            write_int(f, len(self.memory))
-            for mem in self.memory:
-                write_int(f, mem.address)
-                if mem.dasm_comment is not None:
-                    write_boolean(f, True)
-                    write_utf(f, mem.dasm_comment)
-                else:
-                    write_boolean(f, False)
-
-                if mem.user_comment is not None:
-                    write_boolean(f, True)
-                    write_utf(f, mem.user_comment)
-                else:
-                    write_boolean(f, False)
-
-                if mem.user_block_comment is not None:
+            self._save_body(f)
+
+    def _save_header(self, f: BinaryIO):
+        """Write the not compressed header of version 13: its size, the total
+        labels and the labels named by user."""
+        total = 0
+        done = 0
+        for mem in self.memory:
+            if not mem.is_inside or mem.is_garbage:
+                continue
+            if mem.user_location is not None:
+                total += 1
+                done += 1
+            elif mem.dasm_location is not None:
+                total += 1
+        write_int(f, 8)
+        write_int(f, total)
+        write_int(f, done)
+
+    def _save_body(self, f: BinaryIO):
+        """Write all the values after the version (and the header)."""
+        write_utf(f, self.name)
+        write_utf(f, self.file)
+        write_utf(f, self.description)
+        write_utf(f, self.file_type)
+        write_utf(f, self.target_type)
+
+        write_int(f, len(self.inB))
+        f.write(self.inB)
+
+        write_int(f, len(self.memory_flags))
+        f.write(self.memory_flags)
+
+        if self.version > 11:
+            f.write(self._save_columns())
+            return
+
+        write_int(f, len(self.memory))
+        for mem in self.memory:
+            write_int(f, mem.address)
+            if mem.dasm_comment is not None:
+                write_boolean(f, True)
+                write_utf(f, mem.dasm_comment)
+            else:
+                write_boolean(f, False)
+
+            if mem.user_comment is not None:
+                write_boolean(f, True)
+                write_utf(f, mem.user_comment)
+            else:
+                write_boolean(f, False)
+
+            if mem.user_block_comment is not None:
+                write_boolean(f, True)
+                write_utf(f, mem.user_block_comment)
+            else:
+                write_boolean(f, False)
+
+            if mem.dasm_location is not None:
+                write_boolean(f, True)
+                write_utf(f, mem.dasm_location)
+            else:
+                write_boolean(f, False)
+
+            if mem.user_location is not None:
+                write_boolean(f, True)
+                write_utf(f, mem.user_location)
+            else:
+                write_boolean(f, False)
+
+            write_boolean(f, mem.is_inside)
+            write_boolean(f, mem.is_code)
+            write_boolean(f, mem.is_data)
+            write_boolean(f, mem.is_garbage)
+            write_utf(f, mem.data_type)
+            write_ubyte(f, mem.copy)
+            write_int(f, mem.related)
+            write_char(f, mem.type)
+            write_ubyte(f, mem.index)
+            write_int(f, mem.related_address_base)
+            write_int(f, mem.related_address_dest)
+            write_utf(f, mem.basic_type)
+
+        write_int(f, self.chip)
+
+        for i in range(MIN_COLS):
+            for j in range(MIN_ROWS):
+                val = self.constant_table.get((i, j))
+                if val is not None:
                     write_boolean(f, True)
-                    write_utf(f, mem.user_block_comment)
+                    write_utf(f, val)
                 else:
                     write_boolean(f, False)
 
-                if mem.dasm_location is not None:
+        write_int(f, len(self.relocates))
+        for r in self.relocates:
+            write_int(f, r.from_start)
+            write_int(f, r.from_end)
+            write_int(f, r.to_start)
+            write_int(f, r.to_end)
+
+        write_int(f, len(self.patches))
+        for p in self.patches:
+            write_int(f, p.address)
+            write_int(f, p.value)
+
+        for i in range(MIN_COLS):
+            for j in range(MIN_ROWS, ROWS):
+                val = self.constant_table.get((i, j))
+                if val is not None:
                     write_boolean(f, True)
-                    write_utf(f, mem.dasm_location)
+                    write_utf(f, val)
                 else:
                     write_boolean(f, False)
 
-                if mem.user_location is not None:
+        write_int(f, len(self.freezes))
+        for fr in self.freezes:
+            write_utf(f, fr.name)
+            data = fr.text.encode('utf-8')
+            if len(data) > 0xFFFF:
+                write_boolean(f, True)
+                write_int(f, len(data))
+                f.write(data)
+            else:
+                write_boolean(f, False)
+                write_utf(f, fr.text)
+
+        for i in range(MIN_COLS, COLS):
+            for j in range(ROWS):
+                val = self.constant_table.get((i, j))
+                if val is not None:
                     write_boolean(f, True)
-                    write_utf(f, mem.user_location)
+                    write_utf(f, val)
                 else:
                     write_boolean(f, False)
 
-                write_boolean(f, mem.is_inside)
-                write_boolean(f, mem.is_code)
-                write_boolean(f, mem.is_data)
-                write_boolean(f, mem.is_garbage)
-                write_utf(f, mem.data_type)
-                write_ubyte(f, mem.copy)
-                write_int(f, mem.related)
-                write_char(f, mem.type)
-                write_ubyte(f, mem.index)
-                write_int(f, mem.related_address_base)
-                write_int(f, mem.related_address_dest)
-                write_utf(f, mem.basic_type)
-
-            write_int(f, self.chip)
-
-            for i in range(MIN_COLS):
-                for j in range(MIN_ROWS):
-                    val = self.constant_table.get((i, j))
-                    if val is not None:
-                        write_boolean(f, True)
-                        write_utf(f, val)
-                    else:
-                        write_boolean(f, False)
-
-            write_int(f, len(self.relocates))
-            for r in self.relocates:
-                write_int(f, r.from_start)
-                write_int(f, r.from_end)
-                write_int(f, r.to_start)
-                write_int(f, r.to_end)
-
-            write_int(f, len(self.patches))
-            for p in self.patches:
-                write_int(f, p.address)
-                write_int(f, p.value)
-
-            for i in range(MIN_COLS):
-                for j in range(MIN_ROWS, ROWS):
-                    val = self.constant_table.get((i, j))
-                    if val is not None:
-                        write_boolean(f, True)
-                        write_utf(f, val)
-                    else:
-                        write_boolean(f, False)
-
-            write_int(f, len(self.freezes))
-            for fr in self.freezes:
-                write_utf(f, fr.name)
-                data = fr.text.encode('utf-8')
-                if len(data) > 0xFFFF:
+        for i in range(COLS):
+            for j in range(ROWS):
+                val = self.constant_comment.get((i, j))
+                if val is not None:
                     write_boolean(f, True)
-                    write_int(f, len(data))
-                    f.write(data)
+                    write_utf(f, val)
                 else:
                     write_boolean(f, False)
-                    write_utf(f, fr.text)
-
-            for i in range(MIN_COLS, COLS):
-                for j in range(ROWS):
-                    val = self.constant_table.get((i, j))
-                    if val is not None:
-                        write_boolean(f, True)
-                        write_utf(f, val)
-                    else:
-                        write_boolean(f, False)
-
-            for i in range(COLS):
-                for j in range(ROWS):
-                    val = self.constant_comment.get((i, j))
-                    if val is not None:
-                        write_boolean(f, True)
-                        write_utf(f, val)
-                    else:
-                        write_boolean(f, False)
-
-            write_int(f, self.bin_address)
-
-
 
+        write_int(f, self.bin_address)
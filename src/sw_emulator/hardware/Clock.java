@@ -25,6 +25,8 @@
 package sw_emulator.hardware;
 
 import sw_emulator.util.Monitor;
+import sw_emulator.util.Latch;
+import sw_emulator.util.BatchMonitor;
 
 
 /**
@@ -36,7 +38,7 @@ import sw_emulator.util.Monitor;
  * @author Ice
  * @version 1.00 19/09/1999
  */
-public class Clock extends Thread {
+public class Clock extends Thread implements clocked {
 
   /** The monitor used to synchronized at 8Mhz */
   public Monitor monitor=new Monitor("Clock at 8Mhz");
@@ -44,14 +46,23 @@ public class Clock extends Thread {
   public static final int PAL=1;
   public static final int NTSC=2;
 
+  /** Frequency of the PAL clock in Hz */
+  public static final int PAL_FREQUENCY=7881984;
+
+  /** Frequency of the NTSC clock in Hz */
+  public static final int NTSC_FREQUENCY=8181816;
+
+  /** Ticks between two TOD signals high */
+  public static final int TOD_TICKS=160000;
+
   /** The type of clock (for PAL or NTSC) */
   private int type=PAL;
 
   /** Coefficient for real time */
   private double realTime=1;
 
-  /** True if clock is started */
-  private boolean started=false;
+  /** Latch opened when the clock is started */
+  private Latch started=new Latch("Clock");
   
   /** Cycle before calling a tod */
   private int cycleTod=0;
@@ -59,6 +70,9 @@ public class Clock extends Thread {
   /** devices that can receive TOD signal */
   private signaller[] devices=null;
 
+  /** Time in ns where the ticks were last aligned with real time */
+  private long realTimeNs=0;
+
   /**
    * Create a clock of 8Mhz for PAL or NTSC
    *
@@ -68,7 +82,6 @@ public class Clock extends Thread {
     setType(type);
     setPriority(MIN_PRIORITY);
     setName("CLOCK");              // new name for this thread
-    start();
   }
 
   /**
@@ -82,9 +95,24 @@ public class Clock extends Thread {
     else this.type=PAL;   
   }
 
+  /**
+   * Set the number of ticks that the clock can signal before the clocked
+   * threads have executed them: with more than one tick a
+   * <code>BatchMonitor</code> is used, so the threads meet once every these
+   * ticks and at every TOD signal.
+   * It must be called before the monitor is given to the clocked chips.
+   *
+   * @param ticks the number of ticks
+   */
+  public void setBatch(int ticks) {
+    if (ticks>1) monitor=new BatchMonitor("Clock at 8Mhz", ticks);
+    else monitor=new Monitor("Clock at 8Mhz");
+  }
+
   /**
    * Select the real time of the clock.
-   * A 1 means real time, <1 means accelerate time, >1 means slow time
+   * A 1 means real time, <1 means accelerate time, >1 means slow time, and
+   * 0 means as fast as possible
    *
    * @param realTime the coefficient for real time
    */
@@ -103,66 +131,82 @@ public class Clock extends Thread {
   }
   
   /**
-   * Starts the clock tick emulation
+   * Starts the clock tick emulation.
+   * The thread is started the first time, so a clock used only by a scheduler
+   * (with <code>tick</code>) has not a thread.
    */
   public synchronized void startClock() {
-    started=true;
+    started.open();
+    if (getState()==State.NEW) start();
   }
 
   /**
    * Stops the clock tick emulation
    */
   public synchronized void stopClock() {
-    started=false;
+    started.close();
   }
 
   /**
    * Notify a clock tick in the monitor
    */
   public void run() {
-    ///long start=0;
     while (true) {
-      while (started==false) {       // attend a start command
-        this.yield();
-      }
-
-      
-      //if (type==NTSC) wait((int)(12*realTime), (int)(222*realTime));
-      //else            wait((int)(12*realTime), (int)(690*realTime));
-       
-      // attend that the connected circuits have finish
- //     while (!monitor.isFinish()) {
- //       yield();
- //       //monitor.opWait2();
- //     }
-      
+      started.attendOpen();          // attend a start command
       
       monitor.opSignal();
-      
-      // test for generating a tod high signal
-      if (--cycleTod<=0) {
-        cycleTod=160000;        /// to fix for pal/ntsc
-        if (devices!=null) { 
-          for (int i=0; i<devices.length; i++) {
-            devices[i].notifySignal(signaller.S_TOD, 1); // 0 to 1
-          }
+      tick();
+    }
+  }
+
+  /**
+   * Execute the operations of one clock tick without the monitor: the TOD
+   * signal to the registered devices and the alignment with real time.
+   */
+  public void tick() {
+    // test for generating a tod high signal
+    if (--cycleTod<=0) {
+      cycleTod=TOD_TICKS;       /// to fix for pal/ntsc
+      if (devices!=null) { 
+        monitor.opSync();       // the chips are at this tick
+        for (int i=0; i<devices.length; i++) {
+          devices[i].notifySignal(signaller.S_TOD, 1); // 0 to 1
         }
-        
-       /// start = System.nanoTime();
       }
+      alignRealTime();
+    }
       
-      // test for generating a tod low signal
-      if (cycleTod==80000) {      /// to fix for pal/ntsc
-        if (devices!=null) { 
-          for (int i=0; i<devices.length; i++) {
-            devices[i].notifySignal(signaller.S_TOD, 0); // 1 to 0
+    // test for generating a tod low signal
+    if (cycleTod==TOD_TICKS/2) {  /// to fix for pal/ntsc
+      if (devices!=null) { 
+        monitor.opSync();       // the chips are at this tick
+        for (int i=0; i<devices.length; i++) {
+          devices[i].notifySignal(signaller.S_TOD, 0); // 1 to 0
+        }
+      }   
+    }     
+  }
+
+  /**
+   * Wait for aligning the last TOD_TICKS ticks with the real time coefficient.
+   * If the emulation is slower than that, the time is only remembered.
+   */
+  private void alignRealTime() {
+    long now=System.nanoTime();
+
+    if (realTime>0 && realTimeNs!=0) {
+      long next=realTimeNs+(long)(TOD_TICKS*1e9*realTime/
+                            (type==NTSC ? NTSC_FREQUENCY : PAL_FREQUENCY));
+      if (next>now) {
+        try {
+          Thread.sleep((next-now)/1000000, (int)((next-now)%1000000));
+        } catch (InterruptedException e) {
+            System.err.println("Thread error for clock: "+e);
           }
-        }   
-        
-       /// long finish = System.nanoTime();
-       /// long timeElapsed = finish - start;
-       /// System.err.println(timeElapsed/1000000);
-      }     
+        realTimeNs=next;
+        return;
+      }
     }
+    realTimeNs=now;
   }
-}
\ No newline at end of file
+}
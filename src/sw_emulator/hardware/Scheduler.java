@@ -0,0 +1,283 @@
+/**
+ * @(#)Scheduler.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import sw_emulator.util.Monitor;
+import sw_emulator.util.Latch;
+
+/**
+ * Execute all the clocked chips in the thread of the cpu.
+ * The scheduler is given to the cpu as its monitor: when the cpu ends a cycle
+ * and waits the clock with <code>opWait</code>, the scheduler executes in
+ * order:
+ * <ul>
+ *  <li>the cycle of the chips clocked at 1Mhz (like the CIAs)</li>
+ *  <li>the ticks of dot clock (and of the 8Mhz clock) until the phase 2 of
+ *      the next cycle, where the Vic executes fi0low and fi0high</li>
+ * </ul>
+ * and then the cpu executes its next cycle. So there are not barriers between
+ * threads for every cycle, and the order of the chips is always the same.
+ * The clocked chips must be created without monitor, so that they have not a
+ * thread.
+ *
+ * The chips clocked at 1Mhz are kept in a queue ordered by the cycle of
+ * their next tick: a <code>skippable</code> chip reports how many ticks
+ * don't change its state, and it is not executed until then, or until it is
+ * accessed from the outside and calls <code>wake</code>. The skipped ticks
+ * are executed together before its next tick.
+ *
+ * The components that still have their thread (like the cartridges) must not
+ * change the state of the chips directly, but <code>post</code> the change,
+ * that is executed in the cpu thread at the end of its actual cycle.
+ *
+ * @author Ice
+ * @version 1.00 17/10/2026
+ */
+public class Scheduler extends Monitor {
+  /**
+   * A chip in the queue
+   */
+  private static class Event implements Comparable<Event> {
+    /** The chip */
+    final clocked chip;
+
+    /** The chip that can skip ticks (null if not skippable) */
+    final skippable idler;
+
+    /** Position of chip in the order of execution of a cycle */
+    final int order;
+
+    /** Cycle of the next tick to execute */
+    long next;
+
+    /** Cycle of the first tick not yet executed (or skipped) */
+    long done;
+
+    /**
+     * Construct the event of the chip
+     *
+     * @param chip the chip
+     * @param order the position in the order of execution of a cycle
+     */
+    Event(clocked chip, int order) {
+      this.chip=chip;
+      this.order=order;
+      idler=chip instanceof skippable ? (skippable)chip : null;
+    }
+
+    /**
+     * Execute the tick of the given cycle (and the skipped ones before it)
+     * and calculate the next tick
+     *
+     * @param cycle the cycle of tick
+     */
+    void tick(long cycle) {
+      if (idler==null) {
+        chip.tick();
+        next=cycle+1;
+      } else {
+          catchUp(cycle);
+          chip.tick();
+
+          long idle=idler.idleTicks();
+          if (idle>=Long.MAX_VALUE-cycle-1) next=Long.MAX_VALUE;
+          else next=cycle+1+idle;
+        }
+      done=cycle+1;
+    }
+
+    /**
+     * Execute the skipped ticks before the given cycle
+     *
+     * @param cycle the cycle
+     */
+    void catchUp(long cycle) {
+      if (done<cycle) {
+        idler.skip(cycle-done);
+        done=cycle;
+      }
+    }
+
+    @Override
+    public int compareTo(Event event) {
+      if (next!=event.next) return next<event.next ? -1 : 1;
+      return order-event.order;
+    }
+  }
+
+  /** Number of dot clock ticks in a cycle */
+  public static final int DOTS=8;
+
+  /** Dot clock tick where the Vic executes phase 2 (fi0high) */
+  public static final int FI0_HIGH=5;
+
+  /** The 8Mhz clock */
+  protected clocked clock;
+
+  /** The chip clocked by the dot clock (the Vic) */
+  protected clocked vic;
+
+  /** The events of the chips clocked at 1Mhz */
+  private final Event[] events;
+
+  /** The queue of the events ordered by cycle of the next tick */
+  private final PriorityQueue<Event> queue=new PriorityQueue<>();
+
+  /** Cycle of the first event in queue */
+  private long nextEvent=Long.MAX_VALUE;
+
+  /** Actual cycle (the number of cycles executed) */
+  private long cycle=0;
+
+  /** Number of dot clock ticks in the actual cycle */
+  private int dot=0;
+
+  /** The tasks posted by other threads to execute in the cpu thread */
+  private final ConcurrentLinkedQueue<Runnable> tasks=new ConcurrentLinkedQueue<>();
+
+  /** Latch opened when the scheduler is started */
+  private final Latch started=new Latch("Scheduler");
+
+  /**
+   * Construct the scheduler
+   *
+   * @param clock the 8Mhz clock
+   * @param vic the chip clocked by the dot clock
+   * @param chips the chips clocked at 1Mhz (executed in this order)
+   */
+  public Scheduler(clocked clock, clocked vic, clocked[] chips) {
+    super("Scheduler");
+    this.clock=clock;
+    this.vic=vic;
+
+    events=new Event[chips.length];
+    for (int i=0; i<chips.length; i++) {
+      events[i]=new Event(chips[i], i);
+      queue.add(events[i]);
+      if (chips[i] instanceof skippable) ((skippable)chips[i]).setScheduler(this);
+    }
+    if (!queue.isEmpty()) nextEvent=0;
+  }
+
+  /**
+   * Starts the execution of the chips
+   */
+  public void start() {
+    started.open();
+  }
+
+  /**
+   * Stops the execution of the chips: the cpu is suspended at the end of its
+   * actual cycle
+   */
+  public void stop() {
+    started.close();
+  }
+
+  /**
+   * Get the actual cycle
+   *
+   * @return the number of cycles executed
+   */
+  public long getCycle() {
+    return cycle;
+  }
+
+  /**
+   * Execute the chips until the phase 2 of the next cycle.
+   * This is called by the cpu at the end of its cycle.
+   */
+  @Override
+  public void opWait() {
+    started.attendOpen();
+
+    if (!tasks.isEmpty()) runTasks();
+    if (nextEvent==cycle) execute();
+    cycle++;
+
+    do {
+      clock.tick();
+      vic.tick();
+      if (++dot==DOTS) dot=0;
+    } while (dot!=FI0_HIGH);
+  }
+
+  /**
+   * Post a task from another thread, to execute in the cpu thread at the end
+   * of its actual cycle
+   *
+   * @param task the task to execute
+   */
+  public void post(Runnable task) {
+    tasks.add(task);
+  }
+
+  /**
+   * Execute the tasks posted by other threads
+   */
+  private void runTasks() {
+    Runnable task;
+
+    while ((task=tasks.poll())!=null) task.run();
+  }
+
+  /**
+   * Execute the ticks of the chips that are in queue for the actual cycle
+   */
+  private void execute() {
+    Event event;
+
+    while ((event=queue.peek())!=null && event.next==cycle) {
+      queue.poll();
+      event.tick(cycle);
+      queue.add(event);
+    }
+    nextEvent=event==null ? Long.MAX_VALUE : queue.peek().next;
+  }
+
+  /**
+   * Wake a skippable chip that is going to be accessed from the outside.
+   * The skipped ticks are executed, so the chip is in the state of the actual
+   * cycle, and it will be ticked again from the actual cycle.
+   *
+   * @param chip the chip to wake
+   */
+  public void wake(skippable chip) {
+    for (Event event: events) {
+      if (event.chip==chip) {
+        if (event.next>cycle) {
+          event.catchUp(cycle);
+          queue.remove(event);
+          event.next=cycle;
+          queue.add(event);
+          nextEvent=cycle;
+        }
+        return;
+      }
+    }
+  }
+}
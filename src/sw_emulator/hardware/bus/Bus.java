@@ -24,6 +24,8 @@
 
 package sw_emulator.hardware.bus;
 
+import sw_emulator.util.Latch;
+
 /**
  * Provide methods for writing and reading from a bus for different
  * device bus view.
@@ -46,6 +48,11 @@ public abstract class Bus {
    */
   public int previous=0;
 
+  /**
+   * Latch opened when the bus is correctly initialized
+   */
+  protected Latch initialized=new Latch("Bus");
+
   /**
    * Store a byte value in address position to a chip connected to the bus using
    * approprite device view.
@@ -74,6 +81,21 @@ public abstract class Bus {
    * @return true if bus is initialized correctly
    */
   public abstract boolean isInitialized();
+
+  /**
+   * Subspend the thread until the bus is correctly initialized
+   */
+  public void attendInitialized() {
+    initialized.attendOpen();
+  }
+
+  /**
+   * Open the initialized latch if the bus is now correctly initialized.
+   * It is to be called when the bus is set up.
+   */
+  protected void checkInitialized() {
+    if (isInitialized()) initialized.open();
+  }
 }
 
 
@@ -26,6 +26,9 @@ package sw_emulator.hardware.bus;
 
 import sw_emulator.hardware.bus.Bus;
 import sw_emulator.hardware.memory.ColorRAM;
+import sw_emulator.hardware.memory.Memory;
+import sw_emulator.hardware.memory.DRAM;
+import sw_emulator.hardware.memory.ROM;
 import sw_emulator.math.Unsigned;
 
 /**
@@ -45,11 +48,59 @@ import sw_emulator.math.Unsigned;
  *  <li>VIC: AEC high means tri-states</li>
  * </ul>
  * AEC is low if it is 0, high otherwise.
+ * The pages of the tables that are plain RAM or ROM chips are also given as
+ * their byte arrays with the offset of the page, so reading and writing them
+ * is an array access, and only the I/O pages are called by their interface.
  *
  * @author Ice
  * @version 1.00 15/10/1999
  */
 public class C64Bus extends Bus{
+  /**
+   * The pages of a table that are plain memory, as their memory arrays.
+   * It is replaced as a whole when the table changes, so the array and the
+   * offset of a page are always of the same chip.
+   */
+  protected static class Pages {
+    /** Memory array of every page (null if not plain memory) */
+    final byte[][] memory;
+
+    /** Offset of every page in its memory array */
+    final int[] offset;
+
+    /**
+     * Construct the pages, all not plain memory
+     *
+     * @param size the number of pages
+     */
+    Pages(int size) {
+      memory=new byte[size][];
+      offset=new int[size];
+    }
+
+    /**
+     * Construct the pages of a table that are plain RAM (or ROM for
+     * reading), where a read or write is only the access to the element of
+     * the array.
+     *
+     * @param table the table of chips of every page
+     * @param read true if the table is for reading
+     */
+    Pages(Object[] table, boolean read) {
+      this(table.length);
+      for (int i=0; i<table.length; i++) {
+        Object chip=table[i];
+
+        if (chip!=null && (chip.getClass()==DRAM.class ||
+                           (read && chip.getClass()==ROM.class))) {
+          Memory mem=(Memory)chip;
+          memory[i]=mem.memory;
+          offset[i]=((i<<8)-mem.address) & (mem.size-1);
+        }
+      }
+    }
+  }
+
   // available views
   public static final int V_CPU=0; // cpu view
   public static final int V_VIC=1; // vic view
@@ -74,6 +125,21 @@ public class C64Bus extends Bus{
    */
   protected ColorRAM color;
 
+  /**
+   * Pages read by the Cpu as memory arrays
+   */
+  protected Pages readPagesCpu=new Pages(256);
+
+  /**
+   * Pages written by the Cpu as memory arrays
+   */
+  protected Pages writePagesCpu=new Pages(256);
+
+  /**
+   * Pages read by the Vic as memory arrays
+   */
+  protected Pages readPagesVic=new Pages(0x4000>>8);
+
   /**
    * Construct a bus for the cpu and vic
    * Cpu use read and write to bus, Vic use only read.
@@ -110,7 +176,10 @@ public class C64Bus extends Bus{
     switch (view) {
       case V_CPU:
         if (aec!=0) {
-          writeTableCpu[addr>>8].write(addr,(byte)value);
+          Pages pages=writePagesCpu;
+          byte[] page=pages.memory[addr>>8];
+          if (page!=null) page[pages.offset[addr>>8]+(addr & 0xFF)]=(byte)value;
+          else writeTableCpu[addr>>8].write(addr,(byte)value);
           // use previous byte for vic
           previous=value;
         } else {
@@ -135,7 +204,10 @@ public class C64Bus extends Bus{
     switch (view) {
       case V_CPU:
         if (aec!=0) {
+          Pages pages=readPagesCpu;
+          byte[] page=pages.memory[addr>>8];
           // use previous value for vic
+          if (page!=null) return previous=page[pages.offset[addr>>8]+(addr & 0xFF)] & 0xFF;
           return previous=Unsigned.done(readTableCpu[addr>>8].read(addr));
         } else {
             // address line are tri-states
@@ -143,8 +215,11 @@ public class C64Bus extends Bus{
           }
       case V_VIC:
          if (aec==0) {
+           Pages pages=readPagesVic;
+           byte[] page=pages.memory[(addr & 0x3FFF)>>8];
            // use previous value for cpu I/O operation
-           previous=Unsigned.done(readTableVic[(addr & 0x3FFF)>>8].read((addr & 0x3FFF)));
+           if (page!=null) previous=page[pages.offset[(addr & 0x3FFF)>>8]+(addr & 0xFF)] & 0xFF;
+           else previous=Unsigned.done(readTableVic[(addr & 0x3FFF)>>8].read((addr & 0x3FFF)));
            return previous+
                   ((color.read(addr)& 0x0F)<<8);
          } else {
@@ -165,6 +240,9 @@ public class C64Bus extends Bus{
   public void setTableCpu(readableBus[] readTableCpu, writeableBus[] writeTableCpu) {
     this.readTableCpu=readTableCpu;
     this.writeTableCpu=writeTableCpu;
+    if (readTableCpu!=null) readPagesCpu=new Pages(readTableCpu, true);
+    if (writeTableCpu!=null) writePagesCpu=new Pages(writeTableCpu, false);
+    checkInitialized();
   }
 
   /**
@@ -174,6 +252,8 @@ public class C64Bus extends Bus{
    */
   public void setTableVic(readableBus[] readTableVic) {
     this.readTableVic=readTableVic;
+    if (readTableVic!=null) readPagesVic=new Pages(readTableVic, true);
+    checkInitialized();
   }
 
   /**
@@ -183,6 +263,7 @@ public class C64Bus extends Bus{
    */
   public void setColor(ColorRAM color) {
     this.color=color;
+    checkInitialized();
   }
   
   /**
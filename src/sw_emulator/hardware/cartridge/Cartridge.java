@@ -25,6 +25,7 @@
 package sw_emulator.hardware.cartridge;
 
 import sw_emulator.util.Monitor;
+import sw_emulator.util.Latch;
 import sw_emulator.hardware.bus.readableBus;
 import sw_emulator.hardware.bus.writeableBus;
 import sw_emulator.hardware.bus.Bus;
@@ -47,6 +48,9 @@ public class Cartridge extends Thread implements powered, signaller,
   /** The state of power */
   protected boolean power=false;
 
+  /** Latch opened when power is on */
+  protected Latch powerLatch=new Latch("Cartridge power");
+
   /** A monitor where synchronizer with clock */
   protected Monitor clock;
 
@@ -103,6 +107,7 @@ public class Cartridge extends Thread implements powered, signaller,
    */
   public void powerOn() {
       power=true;                                  // power is on
+      powerLatch.open();
   }
 
   /**
@@ -110,6 +115,7 @@ public class Cartridge extends Thread implements powered, signaller,
    */
   public void powerOff() {
       power=false;                                 // power is off
+      powerLatch.close();
   }
 
   /**
@@ -89,16 +89,12 @@ public class GameCartridge extends Cartridge {
    */
   public void run() {
     while (true) {
-      while (!power) {
-        this.yield();
-      }                                                  // give mutex to other
+      powerLatch.attendOpen();                           // attend power
 
       io.notifySignal(S_GAME, 0);
       io.notifySignal(S_EXROM, 0);
 
-      while (power) {
-        this.yield();                                         // give mutex to other
-      }
+      powerLatch.attendClose();                          // attend power off
     }
   }
 }
\ No newline at end of file
@@ -25,6 +25,9 @@
 package sw_emulator.hardware.chip;
 
 import sw_emulator.hardware.powered;
+import sw_emulator.hardware.clocked;
+import sw_emulator.hardware.skippable;
+import sw_emulator.hardware.Scheduler;
 import sw_emulator.hardware.signaller;
 import sw_emulator.hardware.bus.readableBus;
 import sw_emulator.hardware.bus.writeableBus;
@@ -35,6 +38,7 @@ import sw_emulator.util.FlipFlop;
 import sw_emulator.util.FlipFlopClock;
 import sw_emulator.util.Counter;
 import sw_emulator.util.FlipFlopDelayClock;
+import sw_emulator.util.Latch;
 
 /**
  * MOS 6526 cia chip implementation
@@ -45,7 +49,7 @@ import sw_emulator.util.FlipFlopDelayClock;
  * @author Ice
  * @version 1.00 23/10/1999
  */
-public class M6526 extends Thread implements powered, signaller,
+public class M6526 extends Thread implements powered, signaller, skippable,
                                              readableBus, writeableBus{
   public static final int NTSC=0;
   public static final int PAL=1;
@@ -57,6 +61,12 @@ public class M6526 extends Thread implements powered, signaller,
   /** The state of power */
   protected boolean power=false;
 
+  /** Latch opened when power is on */
+  protected Latch powerLatch=new Latch("CIA power");
+
+  /** Latch opened when io is connected */
+  protected Latch ioLatch=new Latch("CIA io");
+
   /** The actual input FLAG signal */
   protected int inputFLAG=1;
   
@@ -66,8 +76,11 @@ public class M6526 extends Thread implements powered, signaller,
   /** The I/O of M6526 */
   public M6526IO io;
   
-  /** The clock monitor */
+  /** The clock monitor (null if clocked by a scheduler) */
   protected Monitor monitor;
+
+  /** The scheduler that skips the idle cycles (null if not used) */
+  protected Scheduler scheduler;
   
   
   // states are n bits for better managing
@@ -295,25 +308,28 @@ public class M6526 extends Thread implements powered, signaller,
   public int timerTodHr;
   
   /**
-   * Construct the cia chip
+   * Construct the cia chip.
+   * If the clock monitor is null, the thread is not started, and the cycles
+   * are to be given with <code>tick</code>.
    *
    * @param type the type of cia (NTSC, PAL)
-   * @param monitor the clock monitor at 1Mhz
+   * @param monitor the clock monitor at 1Mhz (can be null)
    * @param io the io of the chip
    */
   public M6526(int type, Monitor monitor, M6526IO io) {
     if (type==NTSC) MAX_TOD=6;
     this.monitor=monitor;
     this.io=io;
+    if (io!=null) ioLatch.open();
     setName("CIA1");               // use this name for the thread
-    start();
+    if (monitor!=null) start();
   }
   
   /**
    * Construct the cia chip with a special signal for the irq
    *
    * @param type the type of cia (NTSC, PAL)
-   * @param monitor the clock monitor at 1Mhz
+   * @param monitor the clock monitor at 1Mhz (can be null)
    * @param io the io of the chip
    * @param sig_irq signal to use for irq
    */
@@ -322,8 +338,9 @@ public class M6526 extends Thread implements powered, signaller,
     if (type==NTSC) MAX_TOD=6;
     this.monitor=monitor;
     this.io=io;
+    if (io!=null) ioLatch.open();
     setName("CIA2");               // use this name for the thread    
-    start();    
+    if (monitor!=null) start();
   }
 
   /**
@@ -334,6 +351,7 @@ public class M6526 extends Thread implements powered, signaller,
    */
   @Override
   public void write(int addr, byte value) {
+    if (scheduler!=null) scheduler.wake(this);
     addr&=0x0F;
     switch (addr) {
       case 0x00:                                     // Port A data        
@@ -447,6 +465,7 @@ public class M6526 extends Thread implements powered, signaller,
    */
   @Override
   public byte read(int addr) {
+    if (scheduler!=null) scheduler.wake(this);
     addr&=0x0F;
     switch (addr) {
       case 0x00:                                     // Port A data
@@ -535,6 +554,7 @@ public class M6526 extends Thread implements powered, signaller,
    */
   @Override
   public void notifySignal(int type, int value) {
+    if (scheduler!=null) scheduler.wake(this);
     switch (type) {
       case S_TOD:
         inputTOD=value;                            // store in buffer the value
@@ -568,6 +588,7 @@ public class M6526 extends Thread implements powered, signaller,
    */
   public void setIO(M6526IO io) {
     this.io=io;
+    ioLatch.set(io!=null);
   }
   
   /**
@@ -738,26 +759,79 @@ public class M6526 extends Thread implements powered, signaller,
   public void run() {
     monitor.opNotify();                         // notify that we will use it      
       
-    while(io==null) {
-      this.yield();
-    }  
+    ioLatch.attendOpen();                       // attend the io connection
     
     while(true) {   
-      while (!power) {
-        this.yield();                              // give mutex to other threads
-      }      
+      powerLatch.attendOpen();                  // attend power      
       
-      bodyAsync();                            // execute tha async part of body 
-      bodySync();                             // execute the cia clock boby      
+      tick();                                 // execute the cia cycle
       monitor.opWait();                       // attend clock signal 
     }  
   }
+
+  /**
+   * Execute one cycle of the cia
+   */
+  public void tick() {
+    bodyAsync();                              // execute tha async part of body 
+    bodySync();                               // execute the cia clock boby      
+  }
+
+  /**
+   * Get the number of next cycles that only decrement the timers.
+   * It is the case when all the flip flops are stable, there are not loads,
+   * underflows, tod or interrupt to manage, so a cycle is only the decrement
+   * of timer B (timer A is not decremented as fCountA3 is never set).
+   *
+   * @return the number of cycles, or Long.MAX_VALUE if timers are stopped
+   */
+  @Override
+  public long idleTicks() {
+    if (isTodToIncrement || fInterrupt1.isSet() || (C_ALRM==1 && M_ALRM==1)) return 0;
+    if (outTimerA!=0 || outTimerB!=0) return 0;
+
+    // cnt and force load are in progress
+    if (fCountA0.isSet() || fCountA1.isSet() || fLoadA0.isSet() || fLoadA1.isSet()) return 0;
+    if (fCountB0.isSet() || fCountB1.isSet() || fLoadB0.isSet() || fLoadB1.isSet()) return 0;
+
+    // count flip flops are going to change
+    if (fCountA3.isSet() || fCountB3.isSet()!=fCountB2.isSet()) return 0;
+    if (fCountA2.isReset() && fTimerA.isSet() && CRA5==0) return 0;
+    if (fCountB2.isReset() && fTimerB.isSet() && CRB56==0) return 0;
+
+    // timer A is at underflow
+    if (fCountA2.isSet() && timerA.isZero()) return 0;
+
+    if (fCountB3.isSet()) return timerB.counter;    // cycles until underflow
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * Execute together the given number of idle cycles
+   *
+   * @param ticks the number of cycles
+   */
+  @Override
+  public void skip(long ticks) {
+    if (fCountB3.isSet()) timerB.counter-=(int)ticks;
+  }
+
+  /**
+   * Set the scheduler to wake before registers or signals are accessed
+   *
+   * @param scheduler the scheduler
+   */
+  @Override
+  public void setScheduler(Scheduler scheduler) {
+    this.scheduler=scheduler;
+  }
     
   /**
    * Power on the electronic component
    */
   public void powerOn() {
       power=true;   // power is on
+      powerLatch.open();
   }
 
   /**
@@ -765,6 +839,7 @@ public class M6526 extends Thread implements powered, signaller,
    */
   public void powerOff() {
       power=false;   // power is off
+      powerLatch.close();
   }
   
   private void dumpInternal(String event) {
@@ -34,6 +34,7 @@ import sw_emulator.hardware.bus.C64Bus;
 import sw_emulator.hardware.bus.readableBus;
 import sw_emulator.hardware.bus.writeableBus;
 import sw_emulator.util.Monitor1;
+import sw_emulator.util.Latch;
 
 /**
  * Emulate the PLA 82S100 chip of a Commodore 64 computer.
@@ -61,11 +62,17 @@ public class PLA82S100 extends Thread implements powered, signaller {
   /** The state of power */
   private boolean power=false;
 
+  /** Latch opened when power is on */
+  private Latch powerLatch=new Latch("PLA power");
+
   /** True if it is a ultimax configuration */
   private boolean ultimax=false;
 
-  /** The monitor where PLA attend a signal that changing value */
-  public Monitor1 monitor=new Monitor1("PLA 82S100");
+  /**
+   * The monitor where PLA attend a signal that changing value (null if the
+   * PLA has not a thread and chooses the tables when notified)
+   */
+  public Monitor1 monitor;
 
   /** A copy of actual C64 bus. */
   protected C64Bus bus;
@@ -251,6 +258,46 @@ public class PLA82S100 extends Thread implements powered, signaller {
                    ROM basic, ROM kernal, ROM chargen,
                    VicII vic, Sid sid, ColorRAM color,
                    M6526 cia1, M6526 cia2) {
+    this(new Monitor1("PLA 82S100"), bus, exp,
+         ram0, ram1, ram2, ram3, ram4, ram5, ram6, ram7,
+         basic, kernal, chargen, vic, sid, color, cia1, cia2);
+  }
+
+  /**
+   * Construct a PLA82S100 that attends the signals changes in the given
+   * monitor. If the monitor is null, the thread is not started, and the
+   * tables are chosen in the thread that notifies the changes (that must be
+   * the cpu thread).
+   *
+   * @param monitor the monitor where attend the signals changes (can be null)
+   * @param bus the C64 bus where changing tables
+   * @param exp the cartridge expansion port.
+   * @param ram0 8Kb of Ram memory address 0x0000 0x1FFF
+   * @param ram1 8Kb of Ram memory address 0x2000 0x3FFF
+   * @param ram2 8Kb of Ram memory address 0x4000 0x5FFF
+   * @param ram3 8Kb of Ram memory address 0x6000 0x7FFF
+   * @param ram4 8Kb of Ram memory address 0x8000 0x9FFF
+   * @param ram5 8Kb of Ram memory address 0xA000 0xBFFF
+   * @param ram6 8Kb of Ram memory address 0xC000 0xDFFF
+   * @param ram7 8Kb of Ram memory address 0xE000 0xFFFF
+   * @param basic the 8Kb of Basic ROM
+   * @param kernal the 8Kb of kernal ROM
+   * @param chargen the 4Kb of char ROM
+   * @param vic the 40h bytes of VIC I/O
+   * @param sid the 20h bytes of SID I/O
+   * @param color the 1Kbyte of color ram
+   * @param cia1 the 10h bytes of CIA1
+   * @param cia2 the 10h bytes of CIA2
+   */
+  public PLA82S100(Monitor1 monitor,
+                   C64Bus bus,
+                   Cartridge exp,
+                   Memory ram0, Memory ram1, Memory ram2, Memory ram3,
+                   Memory ram4, Memory ram5, Memory ram6, Memory ram7,
+                   ROM basic, ROM kernal, ROM chargen,
+                   VicII vic, Sid sid, ColorRAM color,
+                   M6526 cia1, M6526 cia2) {
+    this.monitor=monitor;
     // make copy of C64 bus.
     this.bus=bus;
 
@@ -283,7 +330,7 @@ public class PLA82S100 extends Thread implements powered, signaller {
     buildVicTables();
 
     setName("PLA");               // use this name for the thread
-    start();
+    if (monitor!=null) start();
   }
 
   /**
@@ -707,15 +754,22 @@ public class PLA82S100 extends Thread implements powered, signaller {
    */
   public void run() {
     while (true) {
-      while (!power) {          // is there power?
-        this.yield();                // no, attend power
-      }
+      powerLatch.attendOpen();  // attend power
       chooseTables();           // calculate the right tables for bus
       ///monitor.opSignal2();
       monitor.opWait();         // attend a signal changes value
     }
   }
 
+  /**
+   * Notify that some signals have changed value, so the tables are to be
+   * chosen again: by the PLA thread or now if there is not a thread.
+   */
+  public void signalChanged() {
+    if (monitor!=null) monitor.opSignal();  // resume the pla
+    else if (power) chooseTables();
+  }
+
   /**
    * Choose the right tables for the vic and cpu bus view.
    * It reads the actual value of LORAM, HIRAM, EXROM, GAME and CHAREN signals
@@ -862,6 +916,8 @@ public class PLA82S100 extends Thread implements powered, signaller {
    */
   public void powerOn() {
       power=true;   // power is on
+      powerLatch.open();
+      if (monitor==null) chooseTables();
   }
 
   /**
@@ -869,5 +925,6 @@ public class PLA82S100 extends Thread implements powered, signaller {
    */
   public void powerOff() {
       power=false;   // power is off
+      powerLatch.close();
   }
 }
@@ -30,6 +30,7 @@ import sw_emulator.hardware.signaller;
 import sw_emulator.hardware.bus.readableBus;
 import sw_emulator.hardware.bus.writeableBus;
 import sw_emulator.util.Monitor2;
+import sw_emulator.util.Latch;
 
 /**
  * Emulate the Sid chip.
@@ -45,6 +46,11 @@ public /*abstract*/ class Sid extends Thread implements powered, signaller,
    */
   private boolean power=false;
 
+  /**
+   * Latch opened when power is on
+   */
+  private Latch powerLatch=new Latch("SID power");
+
   /**
    * The monitor where synchronization with a clock
    */
@@ -81,10 +87,7 @@ public /*abstract*/ class Sid extends Thread implements powered, signaller,
    */
   public void run() {
     while (true) {
-      if (!power)                                  // there's power ?
-        while (!power) {                           // no, attend power
-          this.yield();                                  // give mutex
-        }
+      powerLatch.attendOpen();                     // attend power
 
       ///monitor.opSignal2();
       monitor.opWait();                            // attend synchronization
@@ -115,6 +118,7 @@ public /*abstract*/ class Sid extends Thread implements powered, signaller,
    */
   public void powerOn() {
       power=true;   // power is on
+      powerLatch.open();
   }
 
   /**
@@ -122,5 +126,6 @@ public /*abstract*/ class Sid extends Thread implements powered, signaller,
    */
   public void powerOff() {
       power=false;   // power is off
+      powerLatch.close();
   }
 }
\ No newline at end of file
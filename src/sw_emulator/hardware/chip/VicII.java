@@ -26,6 +26,7 @@ package sw_emulator.hardware.chip;
 
 import sw_emulator.util.Monitor;
 import sw_emulator.hardware.powered;
+import sw_emulator.hardware.clocked;
 import sw_emulator.hardware.signaller;
 import sw_emulator.hardware.bus.readableBus;
 import sw_emulator.hardware.bus.writeableBus;
@@ -34,6 +35,7 @@ import sw_emulator.hardware.memory.dinamic;
 import sw_emulator.hardware.io.VicII_IO;
 import sw_emulator.hardware.device.raster;
 import sw_emulator.util.FlipFlop;
+import sw_emulator.util.Latch;
 
 /**
  * Emulate the Vic II chip.
@@ -60,7 +62,7 @@ import sw_emulator.util.FlipFlop;
  * @author Ice
  * @version 1.00 16/10/1999
  */
-public abstract class VicII extends Thread implements powered,
+public abstract class VicII extends Thread implements powered, clocked,
                                                readableBus, writeableBus{
 
   // idle state if all value different from below
@@ -122,7 +124,7 @@ public abstract class VicII extends Thread implements powered,
   /** Number of (raster) lines */
   public int linesNumber;
 
-  /** External monitor of the dot clock */
+  /** External monitor of the dot clock (null if clocked by a scheduler) */
   public Monitor extMonitor;
 
   /** Internal monitor for generate clock at 1/8 of dot clock */
@@ -131,6 +133,9 @@ public abstract class VicII extends Thread implements powered,
   /** Actual VIC cycle */
   protected int cycle;
 
+  /** Number of dot clock ticks in the actual cycle */
+  protected int dot;
+
   /** State of bad line (true means this is a bad line) */
   protected boolean badLine;
 
@@ -143,6 +148,12 @@ public abstract class VicII extends Thread implements powered,
   /** The state of power */
   private boolean power=false;
 
+  /** Latch opened when power is on */
+  private Latch powerLatch=new Latch("Vic power");
+
+  /** Latch opened when io is connected */
+  private Latch ioLatch=new Latch("Vic io");
+
   /** The bus view of the Vic */
   protected int view;
 
@@ -387,8 +398,10 @@ public abstract class VicII extends Thread implements powered,
 
   /**
    * Construct a VicII chip.
+   * If the external clock monitor is null, the thread is not started, and the
+   * dot clock ticks are to be given with <code>tick</code>.
    *
-   * @param extMonitor the external clock monitor
+   * @param extMonitor the external clock monitor (can be null)
    * @param bus the bus
    * @param view the vic bus view
    * @param io the vic io
@@ -401,10 +414,11 @@ public abstract class VicII extends Thread implements powered,
     this.bus=bus;
     this.view=view;
     this.io=io;
+    if (io!=null) ioLatch.open();
     this.devicesToRefresh=devicesToRefresh;
     this.tv=tv;
     setName("VicII");               // use this name for the thread
-    start();
+    if (extMonitor!=null) start();
   }
 
   /**
@@ -415,6 +429,7 @@ public abstract class VicII extends Thread implements powered,
    */
   public void setIO(VicII_IO io) {
     this.io=io;
+    ioLatch.set(io!=null);
   }
 
   /**
@@ -422,59 +437,58 @@ public abstract class VicII extends Thread implements powered,
    * The power state is looked only 1 time over 8.
    */
   public void run() {
-    int tick=0;                                    // number of dot clock ticks
     extMonitor.opNotify();                         // notify that we will use it
 
-    cycle=1;                                       // this is supposed
-    rasterX=firstXCoo+4;                           // +4 is the pixels needed
-                                                   // for cycle=1
+    firstCycle();
 
     // do nothing until io connection are inserted
-    while (io==null) {
-      this.yield();
-    }
+    ioLatch.attendOpen();
+
+    // do nothing until the bus is available
+    bus.attendInitialized();
 
     while (true) {
 
       // do nothig until the power is arrived   
-      while (!power) {                             // there's power ?
-        this.yield();                                   // no, attend power
-      }
-      
-      // do nothing until the bus is available
-      while (!bus.isInitialized())  {              // there's a bus?
-        this.yield();                                   // no, attend power
-      }
-      
-
+      powerLatch.attendOpen();
 
       extMonitor.opWait();                         // attend dot clock tick
-      dotClock();                                  // execute dot clock operat.
-      switch (++tick) {
-        case 1:
-          fi0low();                                // execute oper. in 1° phase
-          break;
-        case 5:
-          fi0high();                               // execute oper. in 2° phase
-
-          
-          // attend that the connected circuits have finish
-        ///  while (!intMonitor.isFinish()) {
-        ///    yield();
-            ///intMonitor.opWait2();
-        ///  }          
-          intMonitor.opSignal();                   // clock tick at 1/8 of dot
-          break;
-        case 8:
-          cycle++;                                 // increment cycle counter
-          if (cycle>maxCycle)                      // are at the last cycle
-            cycle=1;                               // reset cycle counter
-
-          tick=0;                                  // reset tick counter
-          break;
-      }
-      
-      ///extMonitor.opSignal2();
+      tick();                                      // execute dot clock tick
+      if (dot==5) intMonitor.opSignal();           // clock tick at 1/8 of dot
+    }
+  }
+
+  /**
+   * Set the position of the first cycle of the emulation
+   */
+  protected void firstCycle() {
+    dot=0;
+    cycle=1;                                       // this is supposed
+    rasterX=firstXCoo+4;                           // +4 is the pixels needed
+                                                   // for cycle=1
+  }
+
+  /**
+   * Execute one tick of the dot clock.
+   * Phase 1 of the cycle is executed at the first tick, and phase 2 at the
+   * fifth, where the 1Mhz clock goes high.
+   */
+  public void tick() {
+    dotClock();                                    // execute dot clock operat.
+    switch (++dot) {
+      case 1:
+        fi0low();                                  // execute oper. in 1° phase
+        break;
+      case 5:
+        fi0high();                                 // execute oper. in 2° phase
+        break;
+      case 8:
+        cycle++;                                   // increment cycle counter
+        if (cycle>maxCycle)                        // are at the last cycle
+          cycle=1;                                 // reset cycle counter
+
+        dot=0;                                     // reset tick counter
+        break;
     }
   }
 
@@ -2397,7 +2411,9 @@ public abstract class VicII extends Thread implements powered,
    * Power on the electronic component
    */
   public void powerOn() {
+      if (extMonitor==null && !power) firstCycle();  // no thread: start here
       power=true;     // power is on
+      powerLatch.open();
   }
 
   /**
@@ -2405,5 +2421,6 @@ public abstract class VicII extends Thread implements powered,
    */
   public void powerOff() {
       power=false;    // power is off
+      powerLatch.close();
   }
 }
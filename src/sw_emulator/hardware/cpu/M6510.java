@@ -26,6 +26,7 @@ package sw_emulator.hardware.cpu;
 
 import sw_emulator.math.Unsigned;
 import sw_emulator.util.Monitor;
+import sw_emulator.util.Latch;
 import sw_emulator.hardware.bus.Bus;
 import sw_emulator.hardware.io.M6510IO;
 import sw_emulator.hardware.powered;
@@ -143,6 +144,12 @@ public class M6510 extends Thread implements powered, signaller {
   /** Power alimentation state */
   private boolean power=false;
 
+  /** Latch opened when power is on */
+  private Latch powerLatch=new Latch("CPU power");
+
+  /** Latch opened when io port is connected */
+  private Latch ioLatch=new Latch("CPU io");
+
   /** The fetched byte */
   protected int p0;
 
@@ -204,6 +211,7 @@ public class M6510 extends Thread implements powered, signaller {
     this.bus=bus;
     this.view=view;
     this.ioPort=ioPort;
+    if (ioPort!=null) ioLatch.open();
     setName("CPU");               // use this name for the thread
     //setPriority(MAX_PRIORITY);
     start();
@@ -217,6 +225,7 @@ public class M6510 extends Thread implements powered, signaller {
    */
   public void setIO(M6510IO ioPort) {
     this.ioPort=ioPort;
+    ioLatch.set(ioPort!=null);
   }
 
 
@@ -3488,14 +3497,10 @@ public class M6510 extends Thread implements powered, signaller {
   public void run() {
     monitor.opNotify();                         // notify that we will use it
     
-    while(ioPort==null) {
-      this.yield();
-    }
+    ioLatch.attendOpen();
     
-      // do nothing until the bus is available
-      while (!bus.isInitialized())  {              // there's a bus?
-        this.yield();                                   // no, attend power
-      }
+    // do nothing until the bus is available
+    bus.attendInitialized();
    
     regA=0;
     regX=0;
@@ -3504,6 +3509,10 @@ public class M6510 extends Thread implements powered, signaller {
     regS=0x1FF;
     regPC=0xFCE2;
 
+    // the first power on always starts from here, so the start is the same
+    // whatever thread arrives first
+    powerLatch.attendOpen();
+
     while(true) {
       if (sigRESET==1) {
         //reset();
@@ -3518,9 +3527,7 @@ public class M6510 extends Thread implements powered, signaller {
         regPC=0xFFFC;
         // attend that power returned
 
-        while (!power) {
-          this.yield();                              // give mutex to other threads
-        }
+        powerLatch.attendOpen();
         regPC=bus.load(regPC, view, sigAEC)+
              (bus.load(regPC+1, view, sigAEC)<<8);
         
@@ -3577,6 +3584,7 @@ public class M6510 extends Thread implements powered, signaller {
    */
   public void powerOn() {
     power=true;     // power is on
+    powerLatch.open();
   }
 
   /**
@@ -3584,6 +3592,7 @@ public class M6510 extends Thread implements powered, signaller {
    */
   public void powerOff() {
     power=false;    // power is off
+    powerLatch.close();
   }
   
   
@@ -26,6 +26,7 @@ package sw_emulator.hardware.device;
 
 import sw_emulator.util.Monitor;
 import sw_emulator.util.WireAnd;
+import sw_emulator.util.Latch;
 import sw_emulator.hardware.io.C64Cia1IO;
 
 /**
@@ -107,6 +108,11 @@ public class C64Keyboard extends Keyboard{
    */
   public Monitor monitor=new Monitor("CIA 1");
 
+  /**
+   * Latch opened when the Cia 1 I/O ports are connected
+   */
+  protected Latch ciaLatch=new Latch("Keyboard io");
+
   /**
    * Construct the C64 matrix keyboard.
    *
@@ -115,6 +121,7 @@ public class C64Keyboard extends Keyboard{
   public C64Keyboard(C64Cia1IO cia){
     super(c64Matrix);
     this.cia=cia;
+    if (cia!=null) ciaLatch.open();
   }
 
   /**
@@ -124,6 +131,7 @@ public class C64Keyboard extends Keyboard{
    */
   public void setIO(C64Cia1IO cia){
     this.cia=cia;
+    ciaLatch.set(cia!=null);
   }
 
   /**
@@ -162,8 +170,7 @@ public class C64Keyboard extends Keyboard{
    * Attend input changes and then calculate output
    */
   public void run(){
-    while (cia==null)
-      this.yield();
+    ciaLatch.attendOpen();                    // attend the cia connection
 
     while (true) {
       monitor.opWait();                       // attend cia or joystick event
@@ -24,6 +24,7 @@
 
 package sw_emulator.hardware.io;
 
+import sw_emulator.hardware.Scheduler;
 import sw_emulator.hardware.signaller;
 import sw_emulator.hardware.cpu.M6510;
 import sw_emulator.hardware.chip.PLA82S100;
@@ -45,6 +46,8 @@ import sw_emulator.util.AndPort;
  * Note that the DMA signal is send to two AND port: one for generating the CAEC
  * cpu signal (with AEC from VIC), the second for generating RDY cpu signal
  * (with BA from VIC).
+ * Without threads for the chips, the GAME and EXROM signals are given to the
+ * PLA by the scheduler in the cpu thread, as the cartridge has its own thread.
  *
  * @author Ice
  * @version 1.00 19/01/2000
@@ -71,6 +74,11 @@ public class C64CartridgeIO extends CartridgeIO {
    */
   protected AndPort and3;
 
+  /**
+   * The scheduler of the chips in the cpu thread (null if threaded)
+   */
+  protected Scheduler scheduler;
+
   /**
    * Construct the connection in the C64 needed by the Cartridge io signals.
    *
@@ -80,10 +88,26 @@ public class C64CartridgeIO extends CartridgeIO {
    * @param and3 the and port 3 of 74LS08 in the C64
    */
   public C64CartridgeIO(M6510 cpu, PLA82S100 pla, AndPort and6, AndPort and3) {
+    this(cpu, pla, and6, and3, null);
+  }
+
+  /**
+   * Construct the connection in the C64 needed by the Cartridge io signals,
+   * with the chips executed by the scheduler.
+   *
+   * @param cpu the 6510 cpu
+   * @param pla the PLA C64 chip
+   * @param and6 the and port 6 of 74LS08 in the C64
+   * @param and3 the and port 3 of 74LS08 in the C64
+   * @param scheduler the scheduler of the chips (null if threaded)
+   */
+  public C64CartridgeIO(M6510 cpu, PLA82S100 pla, AndPort and6, AndPort and3,
+                        Scheduler scheduler) {
     this.cpu=cpu;
     this.pla=pla;
     this.and6=and6;
     this.and3=and3;
+    this.scheduler=scheduler;
   }
 
   /**
@@ -110,8 +134,16 @@ public class C64CartridgeIO extends CartridgeIO {
     switch (type) {
       case S_GAME:
       case S_EXROM:
+        if (scheduler!=null) {
+          // the PLA tables are changed only in the cpu thread
+          scheduler.post(() -> {
+            pla.notifySignal(type, value);
+            pla.signalChanged();
+          });
+          break;
+        }
         pla.notifySignal(type, value);               // send signal to PLA
-        pla.monitor.opSignal();                      // resume PLA thread
+        pla.signalChanged();                         // resume PLA thread
         break;
       case S_NMI:
         cpu.notifySignal(type, value);               // send NMI to cpu
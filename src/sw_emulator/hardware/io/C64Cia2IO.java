@@ -78,7 +78,7 @@ public class C64Cia2IO extends M6526IO {
       /*if ((value & 0x03)!=0) {
         if ((value & 0x01)!=0)*/ pla.notifySignal(S_VA14, portA.getP0());
        /* if ((value & 0x02)!=0)*/ pla.notifySignal(S_VA15, portA.getP1());
-        pla.monitor.opSignal();     // resume the pla for managing the changes
+        pla.signalChanged();        // resume the pla for managing the changes
       //}
 
       if ((value & 0x04)!=0) ;
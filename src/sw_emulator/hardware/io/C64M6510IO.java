@@ -59,7 +59,7 @@ public class C64M6510IO extends M6510IO {
       if ((value & 0x04)!=0)
         pla.notifySignal(signaller.S_CHAREN, port.getP2());
 
-      pla.monitor.opSignal();       // resume the pla for managing the changes
+      pla.signalChanged();          // resume the pla for managing the changes
     }
   }
 
@@ -32,6 +32,8 @@ import sw_emulator.hardware.memory.DRAM;
 import sw_emulator.hardware.memory.ColorRAM;
 import sw_emulator.hardware.memory.ROM;
 import sw_emulator.hardware.Clock;
+import sw_emulator.hardware.Scheduler;
+import sw_emulator.hardware.clocked;
 import sw_emulator.hardware.cartridge.Cartridge;
 import sw_emulator.hardware.cartridge.GameCartridge;
 import sw_emulator.hardware.cpu.M6510;
@@ -48,10 +50,14 @@ import sw_emulator.hardware.device.C64Keyboard;
 import sw_emulator.hardware.device.TV;
 import sw_emulator.hardware.device.C64Form;
 import sw_emulator.util.AndPort;
+import sw_emulator.util.Monitor;
+import sw_emulator.util.Monitor1;
 import sw_emulator.software.cartridge.FileCartridge;
 
 /**
  * Emulate the Commodore 64 computer.
+ * The chips can be executed every one in its thread, synchronized at every
+ * clock tick by monitors, or all in the cpu thread by a scheduler.
  *
  * @author Ice
  * @version 1.00 19/09/1999
@@ -61,6 +67,9 @@ public class C64 implements powered{
   /** Path where the roms images are stored */
   public static final String ROM_PATH="/rom/";
 
+  /** Number of dot clock ticks in a batch of the batched threaded mode */
+  public static final int DOT_BATCH=64;
+
   /** 8Kb of Ram memory address 0x0000 0x1FFF */
   protected DRAM ram0=new DRAM(8*1024, 0x0000);
 
@@ -115,74 +124,95 @@ public class C64 implements powered{
   public C64Form c64Form=new C64Form();
 
   /** The M6569 Vic II */
-  public M6569 vic=new M6569(clock.monitor, bus, C64Bus.V_VIC, null,
-                             dinamicMemories, tv);
+  public M6569 vic;
 
   /** The Mos 6510 cpu */
-  public M6510 cpu=new M6510(vic.intMonitor, bus, C64Bus.V_CPU, null);
+  public M6510 cpu;
 
   /** The Mos SID chip */
   public Sid sid=new Sid(); // to modify
 
   /** The cartridge port */
-  public Cartridge exp=new Cartridge(null, vic.intMonitor, bus);
+  public Cartridge exp;
 
   /** The Cia 1 chip */
-  public M6526 cia1=new M6526(M6526.PAL, vic.intMonitor, null);
+  public M6526 cia1;
 
   /** The Cia2 chip */
-  public M6526 cia2=new M6526(M6526.PAL, vic.intMonitor, null, signaller.S_NMI);
+  public M6526 cia2;
   
   /** Devices that will need tod signal */
-  protected signaller[] devicesTod={cia1, cia2};
+  protected signaller[] devicesTod;
+
+  /** The scheduler of the chips in the cpu thread (null if threaded) */
+  public Scheduler scheduler;
 
   /** The PLA82S100 chip of C64 */
-  public PLA82S100 pla=new PLA82S100(bus, exp,
-                                     ram0, ram1, ram2, ram3,
-                                     ram4, ram5, ram6, ram7,
-                                     basic, kernal, chargen,
-                                     vic, sid,
-                                     color, cia1, cia2);
+  public PLA82S100 pla;
 
   /** The C64 keyboard */
   public C64Keyboard keyb=new C64Keyboard(null);
 
   /** The IO signals of C64 cpu */
-  public C64M6510IO cpuIO=new C64M6510IO(pla);
+  public C64M6510IO cpuIO;
 
   /**
    * The 74LS08 And port with output pin 6.
    * This give AEC signal to Cpu.
    */
-  protected AndPort and6=new AndPort(cpu, signaller.S_AEC, signaller.S_DMA,
-                                     signaller.S_AEC);
+  protected AndPort and6;
 
   /**
    * The 74LS08 And port with output pin 3.
    * This give RDY signal to Cpu.
    */
-  protected AndPort and3=new AndPort(cpu, signaller.S_BA, signaller.S_DMA,
-                                     signaller.S_RDY);
+  protected AndPort and3;
 
   /** The Vic IO signals connections */
-  public C64VicII_IO vicIO=new C64VicII_IO(cpu, exp, and6, and3);
+  public C64VicII_IO vicIO;
 
   /** The Cia 1 IO signals connections */
-  public C64Cia1IO cia1IO=new C64Cia1IO(cpu, exp, keyb.monitor, keyb.colLines);
+  public C64Cia1IO cia1IO;
 
   /** The Cia 2 IO signals connections */
-  public C64Cia2IO cia2IO=new C64Cia2IO(cpu, exp, pla);
+  public C64Cia2IO cia2IO;
 
   /** The expansion IO signals connections  */
-  public C64CartridgeIO expIO=new C64CartridgeIO(cpu, pla, and6, and3);
+  public C64CartridgeIO expIO;
   
   /** Manage file cartridge */
-  public FileCartridge fileCart=new FileCartridge(expIO, vic.intMonitor, bus);  
+  public FileCartridge fileCart;
   
   /** A game Cartridge */
   public GameCartridge gameExp;
 
+  /**
+   * Construct the C64 with the chips executed by the scheduler
+   */
   public C64() {
+    this(false);
+  }
+
+  /**
+   * Construct the C64
+   *
+   * @param threaded true for executing every chip in its thread
+   */
+  public C64(boolean threaded) {
+    this(threaded, 1);
+  }
+
+  /**
+   * Construct the C64 with the dot clock in batch of ticks.
+   * The clock thread signals up to this number of ticks ahead of the Vic,
+   * instead of meeting it at every tick.
+   *
+   * @param threaded true for executing every chip in its thread
+   * @param batch the number of dot clock ticks in a batch (1 for none)
+   */
+  public C64(boolean threaded, int batch) {
+    if (threaded) clock.setBatch(batch);
+    buildChips(threaded);
     clock.registerTod(devicesTod);  // register cia for using tod from the clock
     initMemory();
     c64Form.addTV(tv);
@@ -214,11 +244,64 @@ public class C64 implements powered{
     clock.setRealTime(1); ///debug: use slow clock
 
     System.out.println("Start the clock...");
-    clock.startClock();
+    if (scheduler!=null) scheduler.start();
+    else clock.startClock();
   }
 
+  /**
+   * Build the chips and their connections.
+   * Without threads, the clocked chips have not a monitor, and the cpu uses
+   * the scheduler that executes them.
+   *
+   * @param threaded true for executing every chip in its thread
+   */
+  protected void buildChips(boolean threaded) {
+    Monitor dotMonitor=threaded ? clock.monitor : null;
+
+    vic=new M6569(dotMonitor, bus, C64Bus.V_VIC, null, dinamicMemories, tv);
+
+    Monitor fiMonitor=threaded ? vic.intMonitor : null;
+
+    cia1=new M6526(M6526.PAL, fiMonitor, null);
+    cia2=new M6526(M6526.PAL, fiMonitor, null, signaller.S_NMI);
+    devicesTod=new signaller[] {cia1, cia2};
+
+    if (!threaded) {
+      scheduler=new Scheduler(clock, vic, new clocked[] {cia1, cia2});
+      fiMonitor=scheduler;
+    }
+
+    cpu=new M6510(fiMonitor, bus, C64Bus.V_CPU, null);
+    exp=new Cartridge(null, vic.intMonitor, bus);
+    pla=new PLA82S100(threaded ? new Monitor1("PLA 82S100") : null,
+                      bus, exp,
+                      ram0, ram1, ram2, ram3,
+                      ram4, ram5, ram6, ram7,
+                      basic, kernal, chargen,
+                      vic, sid,
+                      color, cia1, cia2);
+
+    cpuIO=new C64M6510IO(pla);
+    and6=new AndPort(cpu, signaller.S_AEC, signaller.S_DMA, signaller.S_AEC);
+    and3=new AndPort(cpu, signaller.S_BA, signaller.S_DMA, signaller.S_RDY);
+    vicIO=new C64VicII_IO(cpu, exp, and6, and3);
+    cia1IO=new C64Cia1IO(cpu, exp, keyb.monitor, keyb.colLines);
+    cia2IO=new C64Cia2IO(cpu, exp, pla);
+    expIO=new C64CartridgeIO(cpu, pla, and6, and3, scheduler);
+    fileCart=new FileCartridge(expIO, vic.intMonitor, bus);
+  }
+
+  /**
+   * Start the emulator.
+   * Use -threaded for executing every chip in its thread, and -batched for
+   * executing them in threads with the dot clock in batch of ticks.
+   *
+   * @param args the command line arguments
+   */
   public static void main(String[] args) {
-   C64 c64 = new C64();
+   String mode=args.length>0 ? args[0] : "";
+   C64 c64 = new C64(mode.equals("-threaded") || mode.equals("-batched"),
+                     mode.equals("-batched") ? DOT_BATCH : 1);
   }
 
   /**
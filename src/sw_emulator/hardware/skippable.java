@@ -0,0 +1,63 @@
+/**
+ * @(#)skippable.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.hardware;
+
+/**
+ * The interface <code>skippable</code> represents a clocked component that
+ * for many ticks doesn't change its state, or changes it in a predictable
+ * way (like a timer that counts down).
+ * The scheduler doesn't execute these ticks one by one: it executes them all
+ * together with <code>skip</code> when the component is ticked again, or when
+ * the component notifies with <code>Scheduler.wake</code> that it is accessed
+ * from the outside (registers and signals).
+ *
+ * @author Ice
+ * @version 1.00 17/10/2026
+ */
+public interface skippable extends clocked {
+  /**
+   * Get the number of next ticks that can be skipped, as they don't change
+   * the state of the component other than as <code>skip</code> does.
+   *
+   * @return the number of ticks, or Long.MAX_VALUE if the component is idle
+   *         until it is accessed from the outside
+   */
+  public long idleTicks();
+
+  /**
+   * Execute together the given number of idle ticks
+   *
+   * @param ticks the number of ticks
+   */
+  public void skip(long ticks);
+
+  /**
+   * Set the scheduler to wake before the component is accessed from the
+   * outside
+   *
+   * @param scheduler the scheduler
+   */
+  public void setScheduler(Scheduler scheduler);
+}
@@ -60,7 +60,7 @@ public class Assembler {
    * 
    * @return the spaces/tabs
    */
-  protected static String getDataSpacesTabs() {
+  protected String getDataSpacesTabs() {
     return SPACES.substring(0, option.numDataSpaces)+TABS.substring(0, option.numDataTabs);
   } 
   
@@ -70,7 +70,7 @@ public class Assembler {
    * @param skip dimension to skip
    * @return the spaces/tabs
    */
-  protected static String getDataCSpacesTabs(int skip) {
+  protected String getDataCSpacesTabs(int skip) {
     return SPACES.substring(0, (option.numDataCSpaces-skip<0 ? 1: option.numDataCSpaces-skip))+TABS.substring(0, option.numDataCTabs);
   }   
     
@@ -158,7 +158,7 @@ public class Assembler {
    * @param bin the bin to convert
    * @return the converted peace
    */
-  protected static String BinToMono(String bin) {
+  protected String BinToMono(String bin) {
     String d0="";
     String d1="";    
       
@@ -183,7 +183,7 @@ public class Assembler {
    * @param bin the bin to convert
    * @return the converted peace
    */
-  protected static String BinToMulti(String bin) {
+  protected String BinToMulti(String bin) {
     String d00="";
     String d11="";
     String d01="";
@@ -219,25 +219,27 @@ public class Assembler {
      /**
       * Flush the actual data to the output stream
       * 
+      * @param asm the assembler with the state of output
       * @param str the output stream
       */   
-      void flush(StringBuilder str);
+      void flush(Assembler asm, StringBuilder str);
       
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem
-       * @param option the option to use
        */
-      void putValue(StringBuilder str, MemoryDasm mem, Option option);
+      void putValue(Assembler asm, StringBuilder str, MemoryDasm mem);
       
       /** 
        * Setting up the action type if this is the case
        * 
+       * @param asm the assembler with the state of output
        * @param str the output stream
        */
-      default void setting(StringBuilder str) {};
+      default void setting(Assembler asm, StringBuilder str) {};
    } 
     
    /** 
@@ -329,40 +331,40 @@ public class Assembler {
        
        
       @Override
-      public void flush(StringBuilder str) {
-        switch (aStarting) {
+      public void flush(Assembler asm, StringBuilder str) {
+        switch (asm.aStarting) {
           case PROC:
-            str.append(getDataSpacesTabs()).append("processor 6502\n\n");
+            str.append(asm.getDataSpacesTabs()).append("processor 6502\n\n");
             break;
           case FAKE:
-            str.append(getDataSpacesTabs()).append("cpu = 6502\n\n");
+            str.append(asm.getDataSpacesTabs()).append("cpu = 6502\n\n");
             break; 
           case FAKEZ:
-            str.append(getDataSpacesTabs()).append("cpu: equ 80\n\n");
+            str.append(asm.getDataSpacesTabs()).append("cpu: equ 80\n\n");
             break;            
           case DOT_CPU_A:
-            str.append(getDataSpacesTabs()).append(".cpu \"6502\"\n\n");  
+            str.append(asm.getDataSpacesTabs()).append(".cpu \"6502\"\n\n");  
             break;
           case DOT_CPU:
-            str.append(getDataSpacesTabs()).append(".cpu 6502\n\n");
+            str.append(asm.getDataSpacesTabs()).append(".cpu 6502\n\n");
             break;
           case DOT_CPU_UND:
-            str.append(getDataSpacesTabs()).append(".cpu _6502\n\n");
+            str.append(asm.getDataSpacesTabs()).append(".cpu _6502\n\n");
             break;  
           case DOT_SETCPU:
-            str.append(getDataSpacesTabs()).append(".setcpu \"6502x\"\n\n");
+            str.append(asm.getDataSpacesTabs()).append(".setcpu \"6502x\"\n\n");
             break; 
           case DOT_P02:
-            str.append(getDataSpacesTabs()).append(".p02\n\n");
+            str.append(asm.getDataSpacesTabs()).append(".p02\n\n");
             break;    
           case MARK_CPU:
-            str.append(getDataSpacesTabs()).append("!cpu 6510\n\n");
+            str.append(asm.getDataSpacesTabs()).append("!cpu 6510\n\n");
             break;     
           case CPU_M:
-            str.append(getDataSpacesTabs()).append("cpu 6502\n\n");
+            str.append(asm.getDataSpacesTabs()).append("cpu 6502\n\n");
             break;    
           case CPU_I:
-            str.append(getDataSpacesTabs()).append("cpu 8048\n\n");
+            str.append(asm.getDataSpacesTabs()).append("cpu 8048\n\n");
             break;                         
         }  
       }
@@ -370,12 +372,12 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {       
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {       
       }
    } 
    
@@ -394,22 +396,22 @@ public class Assembler {
       ORG_H;            //  org xxyyh
            
       @Override
-      public void flush(StringBuilder str) {
-        switch (aOrigin) {
+      public void flush(Assembler asm, StringBuilder str) {
+        switch (asm.aOrigin) {
           case ORG:
-              str.append(getDataSpacesTabs()).append("org $").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(asm.getDataSpacesTabs()).append("org $").append(ShortToExe(asm.lastPC)).append("\n\n");
             break;
           case DOT_ORG:
-              str.append(getDataSpacesTabs()).append(".org $").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(asm.getDataSpacesTabs()).append(".org $").append(ShortToExe(asm.lastPC)).append("\n\n");
             break;
           case ASTERISK:
-              str.append(getDataSpacesTabs()).append("*=$").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(asm.getDataSpacesTabs()).append("*=$").append(ShortToExe(asm.lastPC)).append("\n\n");
             break;
           case DOT_PC:
-              str.append(getDataSpacesTabs()).append(".pc $").append(ShortToExe(lastPC)).append("\n\n");
+              str.append(asm.getDataSpacesTabs()).append(".pc $").append(ShortToExe(asm.lastPC)).append("\n\n");
             break;
           case ORG_H:
-              str.append(getDataSpacesTabs()).append("org ").append(ShortToExe(lastPC)).append("h\n\n");
+              str.append(asm.getDataSpacesTabs()).append("org ").append(ShortToExe(asm.lastPC)).append("h\n\n");
             break;  
         }    
       }
@@ -417,12 +419,12 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {     
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {     
       }      
    }
    
@@ -436,16 +438,16 @@ public class Assembler {
       NAME_COLON;         // xxxx:
     
       @Override
-      public void flush(StringBuilder str) {
+      public void flush(Assembler asm, StringBuilder str) {
         // add the label if it was declared by dasm or user   
         String label=null;
         
         int start=str.length();
          
-        if (lastMem.userLocation!=null && !"".equals(lastMem.userLocation)) label=lastMem.userLocation;
-        else if (lastMem.dasmLocation!=null && !"".equals(lastMem.dasmLocation)) label=lastMem.dasmLocation;
+        if (asm.lastMem.userLocation!=null && !"".equals(asm.lastMem.userLocation)) label=asm.lastMem.userLocation;
+        else if (asm.lastMem.dasmLocation!=null && !"".equals(asm.lastMem.dasmLocation)) label=asm.lastMem.dasmLocation;
           
-        switch (aLabel) {
+        switch (asm.aLabel) {
           case NAME:
             str.append(label);  
             break; 
@@ -454,18 +456,18 @@ public class Assembler {
             break;
         }
         
-        carets.add(start, str.length(), lastMem, Type.LABEL);
+        asm.carets.add(start, str.length(), asm.lastMem, Type.LABEL);
       }
       
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {       
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {       
       }
     }    
    
@@ -482,9 +484,9 @@ public class Assembler {
       DOUBLE_BAR;      // // xxx 
     
       @Override
-      public void flush(StringBuilder str) {
-        String comment=lastMem.dasmComment;
-        if (lastMem.userComment != null /*&& !"".equals(lastMem.userComment)*/) comment=lastMem.userComment;
+      public void flush(Assembler asm, StringBuilder str) {
+        String comment=asm.lastMem.dasmComment;
+        if (asm.lastMem.userComment != null /*&& !"".equals(lastMem.userComment)*/) comment=asm.lastMem.userComment;
         
         if (comment==null || "".equals(comment)) {
           str.append("\n");
@@ -493,7 +495,7 @@ public class Assembler {
         
         int start=str.length();
         
-        switch (aComment) {
+        switch (asm.aComment) {
           case SEMICOLON:
             str.append("; ").append(comment).append("\n");
             break;
@@ -505,18 +507,18 @@ public class Assembler {
             break;
         }
         
-        carets.add(start, str.length(), lastMem, Type.COMMENT);
+        asm.carets.add(start, str.length(), asm.lastMem, Type.COMMENT);
       }
       
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {        
       }      
     }  
    
@@ -545,16 +547,16 @@ public class Assembler {
       DOT_COMMENT;     // .comment xxx .endc// .comment xxx .endc
     
       @Override
-      public void flush(StringBuilder str) {
-        if (lastMem==null || lastMem.userBlockComment==null) return;
+      public void flush(Assembler asm, StringBuilder str) {
+        if (asm.lastMem==null || asm.lastMem.userBlockComment==null) return;
         
         int start=str.length();
           
         // split by new line
-        String[] lines = lastMem.userBlockComment.split("\\r?\\n");  
+        String[] lines = asm.lastMem.userBlockComment.split("\\r?\\n");  
         
         // there macro in comment?
-        if (lastMem.userBlockComment.contains("[<")) {
+        if (asm.lastMem.userBlockComment.contains("[<")) {
 
           // expand them  
           String tmp;
@@ -562,7 +564,7 @@ public class Assembler {
           
           ArrayList<String> alist=new ArrayList();
           for (String line : lines) {
-            tmp=getMacro(line);
+            tmp=getMacro(asm, line);
             // if length differs, then it was exploded
             if (tmp.length()>line.length()) {
               tmpLines=tmp.split("\\r?\\n");
@@ -579,7 +581,7 @@ public class Assembler {
           }
         }
      
-        switch (aBlockComment) {
+        switch (asm.aBlockComment) {
           case SEMICOLON:    
             for (String line : lines) {
               if (" ".equals(line)) str.append("\n");
@@ -727,18 +729,18 @@ public class Assembler {
             break;  
         } 
               
-        carets.add(start, str.length(), lastMem, Type.BLOCK_COMMENT);
+        asm.carets.add(start, str.length(), asm.lastMem, Type.BLOCK_COMMENT);
       }
       
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {  
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {  
       }      
       
       /** Enum for direction of blocks in memory */
@@ -780,11 +782,12 @@ public class Assembler {
        * <li>[<SPRITE#MULTI#NxM#DNUP>]</li>
        * </ul>
        * 
+       * @param asm the assembler with the state of output
        * @param line the line to process
        * 
        * @return the line or macro explosion
        */
-      private String getMacro(String line) {
+      private String getMacro(Assembler asm, String line) {
         Dir dir; 
         Chars chars=Chars.NONE;
         Sprites sprites=Sprites.NONE;
@@ -839,8 +842,8 @@ public class Assembler {
                  for (int i=0; i<8; i++) {
                    buf.append(" ");
                    for (int c=0; c<left; c++) {
-                     if (chars==Chars.MONO) buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
-                     else buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
+                     if (chars==Chars.MONO) buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
+                     else buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+8*(r*left+c)+i].copy & 0xFF) + 0x100).substring(1)));
                    }
                    buf.append("\n");
                  } 
@@ -851,8 +854,8 @@ public class Assembler {
                   for (int i=0; i<8; i++) {
                     buf.append(" ");
                     for (int c=0; c<left; c++) {
-                      if (chars==Chars.MONO) buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
-                      else buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
+                      if (chars==Chars.MONO) buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
+                      else buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+8*(c*right+r)+i].copy & 0xFF) + 0x100).substring(1)));
                     }
                     buf.append("\n");
                    } 
@@ -870,13 +873,13 @@ public class Assembler {
                    buf.append(" ");
                    for (int c=0; c<left; c++) {
                      if (sprites==Sprites.MONO) {
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
                      } else {
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(r*left+c)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(r*left+c)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(r*left+c)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
                        }
                    }
                    buf.append("\n");
@@ -889,13 +892,13 @@ public class Assembler {
                     buf.append(" ");
                     for (int c=0; c<left; c++) {
                       if (sprites==Sprites.MONO) {
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                        buf.append(BinToMono(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                        buf.append(asm.BinToMono(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));
                       } else {
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
-                          buf.append(BinToMulti(Integer.toBinaryString((memory[lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));                          
+                          buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(c*right+r)+(i*3)].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(c*right+r)+(i*3)+1].copy & 0xFF) + 0x100).substring(1)));
+                          buf.append(asm.BinToMulti(Integer.toBinaryString((asm.memory[asm.lastMem.address+64*(c*right+r)+(i*3)+2].copy & 0xFF) + 0x100).substring(1)));                          
                         }
                     }
                     buf.append("\n");
@@ -941,18 +944,9 @@ public class Assembler {
       DB_BYTE,            //    db $xx
       DB_BYTE_H;          //    db xxh
       
-      BasicDetokenize basicList=new BasicDetokenize();
-      
-      /**
-       * Clear the BASIC list
-       */
-      public void clearBasic() {
-        basicList.clear();
-      }
-      
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return; 
+      public void flush(Assembler asm, StringBuilder str) {
+        if (asm.list.isEmpty()) return; 
         
         MemoryDasm mem;
         MemoryDasm memRel;
@@ -964,54 +958,54 @@ public class Assembler {
         int start=initial;
         
         // create starting command according to the kind of byte
-        switch (aByte) {
+        switch (asm.aByte) {
           case DOT_BYTE:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(asm.getDataSpacesTabs()).append((".byte "));
             break;
           case DOT_CHAR:
-            str.append(getDataSpacesTabs()).append((".char "));
+            str.append(asm.getDataSpacesTabs()).append((".char "));
             break;  
           case DOT_BY_BYTE:
-            str.append(getDataSpacesTabs()).append((".by "));
+            str.append(asm.getDataSpacesTabs()).append((".by "));
             break;  
           case BYTE:
-            str.append(getDataSpacesTabs()).append(("byte "));
+            str.append(asm.getDataSpacesTabs()).append(("byte "));
             break;
           case DC_BYTE:
-            str.append(getDataSpacesTabs()).append(("dc "));   
+            str.append(asm.getDataSpacesTabs()).append(("dc "));   
             break;
           case DC_B_BYTE:
-            str.append(getDataSpacesTabs()).append(("dc.b "));
+            str.append(asm.getDataSpacesTabs()).append(("dc.b "));
             break;
           case MARK_BY_BYTE:
-            str.append(getDataSpacesTabs()).append(("!by "));  
+            str.append(asm.getDataSpacesTabs()).append(("!by "));  
             break;  
           case DOT_BYT_BYTE:
-            str.append(getDataSpacesTabs()).append((".byt "));  
+            str.append(asm.getDataSpacesTabs()).append((".byt "));  
             break;
           case MARK_BYTE:
-            str.append(getDataSpacesTabs()).append(("!byte "));   
+            str.append(asm.getDataSpacesTabs()).append(("!byte "));   
             break;  
           case EIGHT_BYTE:
-            str.append(getDataSpacesTabs()).append(("!8 "));  
+            str.append(asm.getDataSpacesTabs()).append(("!8 "));  
             break;  
           case ZEROEIGHT_BYTE:
-            str.append(getDataSpacesTabs()).append(("!08 "));  
+            str.append(asm.getDataSpacesTabs()).append(("!08 "));  
             break;    
           case DB_BYTE:
           case DB_BYTE_H:     
-            str.append(getDataSpacesTabs()).append(("db "));    
+            str.append(asm.getDataSpacesTabs()).append(("db "));    
             break;            
         }
           
-        Iterator<MemoryDasm> iter=list.iterator();
+        Iterator<MemoryDasm> iter=asm.list.iterator();
         while (iter.hasNext()) {
           // accodate each bytes in the format choosed
           mem=iter.next();
-          memRel=listRel.pop();
-          memRel2=listRel2.pop();
-          memBase=listBase.pop();
-          memDest=listDest.pop();
+          memRel=asm.listRel.pop();
+          memRel2=asm.listRel2.pop();
+          memBase=asm.listBase.pop();
+          memDest=asm.listDest.pop();
           
           if (mem.type==TYPE_MINOR || 
               mem.type==TYPE_MAJOR || 
@@ -1044,79 +1038,79 @@ public class Assembler {
                   /// this is a memory in table label
                   int rel=memRel.related;
                   int pos=memRel.address-memRel.related;
-                  str.append(getLocationPos(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationPos(asm, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;
                 case TYPE_PLUS_MAJOR:
                 case TYPE_PLUS_MINOR:    
                   /// this is a memory in table label
                   rel=(memRel.related>>16) & 0xFFFF;
                   pos=memRel.address-rel;
-                  str.append(getLocationPos(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationPos(asm, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;
                 case TYPE_MINUS_MAJOR:
                 case TYPE_MINUS_MINOR:    
                   /// this is a memory in table label
                   rel=(memRel.related>>16) & 0xFFFF;
                   pos=memRel.address-rel;
-                  str.append(getLocationNeg(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationNeg(asm, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;                  
                 case TYPE_MINUS:
                   /// this is a memory in table label
                   rel=memRel.related;
                   pos=memRel.address-memRel.related;
-                  str.append(getLocationNeg(mem, memBase, memDest, memRel2, rel, pos, type));
+                  str.append(getLocationNeg(asm, mem, memBase, memDest, memRel2, rel, pos, type));
                   break;             
                 default:
-                  str.append(getLocation(mem, memBase, memDest, memRel, type));           
+                  str.append(getLocation(asm, mem, memBase, memDest, memRel, type));           
                   break;
               }                
             }           
-            else str.append(getLocation(mem, memBase, memDest, memRel, type));               
-          } else str.append(getByteType(mem.dataType, mem.copy, mem.index));
+            else str.append(getLocation(asm, mem, memBase, memDest, memRel, type));               
+          } else str.append(getByteType(asm, mem.dataType, mem.copy, mem.index));
           
-          carets.add(start, str.length(), mem, Type.BYTE);
+          asm.carets.add(start, str.length(), mem, Type.BYTE);
           
-          if (!listRel.isEmpty()) str.append(", ");  
+          if (!asm.listRel.isEmpty()) str.append(", ");  
           else {
             if (mem.dasmLocation==null && mem.userLocation==null) {
-              str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
-              MemoryDasm tmp=lastMem;
-              lastMem=mem;
-              aComment.flush(str);  
-              lastMem=tmp;
+              str.append(asm.getDataCSpacesTabs(str.length()-initial-asm.getDataSpacesTabs().length()));
+              MemoryDasm tmp=asm.lastMem;
+              asm.lastMem=mem;
+              asm.aComment.flush(asm, str);  
+              asm.lastMem=tmp;
             } else str.append("\n");            
           }
           
           start=str.length();
         }
-        list.clear();
+        asm.list.clear();
       }  
       
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {        
         // look if it is time to aggregate data
-        if (list.size()==option.maxByteAggregate) flush(str);     
+        if (asm.list.size()==asm.option.maxByteAggregate) flush(asm, str);     
         
         if (mem.basicType!=BasicType.NONE) {
-          basicList.add(mem.copy);
+          asm.basicList.add(mem.copy);
           
-          if (basicList.isComplete()) mem.dasmComment=basicList.detokenizedCommand(mem.basicType);
+          if (asm.basicList.isComplete()) mem.dasmComment=asm.basicList.detokenizedCommand(mem.basicType);
         } else {
-           basicList.clear();
+           asm.basicList.clear();
         }
        
         if (mem.dasmLocation==null && mem.userLocation==null) {
           // look for comment inside
-          String comment=lastMem.dasmComment;
-          if (lastMem.userComment != null) comment=lastMem.userComment;        
-          if (!(comment==null || "".equals(comment))) flush(str);  
+          String comment=asm.lastMem.dasmComment;
+          if (asm.lastMem.userComment != null) comment=asm.lastMem.userComment;        
+          if (!(comment==null || "".equals(comment))) flush(asm, str);  
         }          
       }      
       
@@ -1127,16 +1121,17 @@ public class Assembler {
        * 
        * Note: As uses xx % $FF,  xx>>8
        * 
+       * @param asm the assembler with the state of output
        * @param type the type to valuate
        * @param value the value 
        * @return the right type value
        */
-      private String getRightType(char type, String value) {
+      private String getRightType(Assembler asm, char type, String value) {
         // add () if there are relative address to avoid compilation errors like in Dasm
         if (value.contains("+") || value.contains("-")) value="("+value+")";
-        switch (aByte) {
+        switch (asm.aByte) {
             case DB_BYTE:
-              if (option.assembler==Name.AS) {
+              if (asm.option.assembler==Name.AS) {
                   if (type==TYPE_MINOR) return value+" & $FF";
                   else return value+">>8";
               } else {
@@ -1151,6 +1146,7 @@ public class Assembler {
       /**
        * Get the location (positive)
        * 
+       * @param asm the assembler with the state of output
        * @param mem the memory location
        * @param memBase the base memory location
        * @param memDest the destination memory location
@@ -1160,8 +1156,8 @@ public class Assembler {
        * @param type the type 
        * @return the string of the location 
        */
-      private String getLocationPos(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);
+      private String getLocationPos(Assembler asm, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
+        boolean defaultMode=(asm.aByte!=DB_BYTE_H);
           
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1175,19 +1171,20 @@ public class Assembler {
           else if (memDest.dasmLocation!=null && !"".equals(memDest.dasmLocation)) dest=memDest.dasmLocation;
           else dest=HexNum(ShortToExe(memDest.address), defaultMode);
           
-          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.userLocation+"+"+pos);
-          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.dasmLocation+"+"+pos);
-          else return getRightType(type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+"+"+pos);
+          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(asm, type, base+"-"+dest+"+"+memRel.userLocation+"+"+pos);
+          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(asm, type, base+"-"+dest+"+"+memRel.dasmLocation+"+"+pos);
+          else return getRightType(asm, type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+"+"+pos);
         } else {
-            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, memRel.userLocation+"+"+pos);
-            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, memRel.dasmLocation+"+"+pos);
-            else return getRightType(type,HexNum(ShortToExe(rel), defaultMode)+"+"+pos);
+            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(asm, type, memRel.userLocation+"+"+pos);
+            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(asm, type, memRel.dasmLocation+"+"+pos);
+            else return getRightType(asm, type,HexNum(ShortToExe(rel), defaultMode)+"+"+pos);
           }
       }
       
        /**
        * Get the location (negative)
        * 
+       * @param asm the assembler with the state of output
        * @param mem the memory location
        * @param memBase the base memory location
        * @param memDest the destination memory location
@@ -1197,8 +1194,8 @@ public class Assembler {
        * @param type the type 
        * @return the string of the location 
        */
-      private String getLocationNeg(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);  
+      private String getLocationNeg(Assembler asm, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos, char type) {
+        boolean defaultMode=(asm.aByte!=DB_BYTE_H);  
           
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1212,19 +1209,20 @@ public class Assembler {
           else if (memDest.dasmLocation!=null && !"".equals(memDest.dasmLocation)) dest=memDest.dasmLocation;
           else dest=HexNum(ShortToExe(memDest.address), defaultMode);
           
-          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.userLocation+pos);
-          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.dasmLocation+pos);
-          else return getRightType(type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+pos);
+          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(asm, type, base+"-"+dest+"+"+memRel.userLocation+pos);
+          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(asm, type, base+"-"+dest+"+"+memRel.dasmLocation+pos);
+          else return getRightType(asm, type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode)+pos);
         } else {
-            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, memRel.userLocation+pos);  
-            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, memRel.dasmLocation+pos);
-            else return getRightType(type, HexNum(ShortToExe(rel), defaultMode)+pos);
+            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(asm, type, memRel.userLocation+pos);  
+            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(asm, type, memRel.dasmLocation+pos);
+            else return getRightType(asm, type, HexNum(ShortToExe(rel), defaultMode)+pos);
           }
       }
       
       /**
        * Get the location
        * 
+       * @param asm the assembler with the state of output
        * @param mem the memory location
        * @param memBase the base memory location
        * @param memDest the destination memory location
@@ -1232,8 +1230,8 @@ public class Assembler {
        * @param type the type
        * @return 
        */
-      private String getLocation(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, char type) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);  
+      private String getLocation(Assembler asm, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, char type) {
+        boolean defaultMode=(asm.aByte!=DB_BYTE_H);  
           
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1247,28 +1245,29 @@ public class Assembler {
           else if (memDest.dasmLocation!=null && !"".equals(memDest.dasmLocation)) dest=memDest.dasmLocation;
           else dest=HexNum(ShortToExe(memDest.address), defaultMode);
           
-          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.userLocation);
-          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, base+"-"+dest+"+"+memRel.dasmLocation);
-          else return getRightType(type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode));
+          if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(asm, type, base+"-"+dest+"+"+memRel.userLocation);
+          else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(asm, type, base+"-"+dest+"+"+memRel.dasmLocation);
+          else return getRightType(asm, type,base+"-"+dest+"+"+ HexNum(ShortToExe(memRel.address), defaultMode));
         } else {
-            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(type, memRel.userLocation);
-            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(type, memRel.dasmLocation);
-            else return getRightType(type, HexNum(ShortToExe(memRel.address), defaultMode));
+            if (memRel.userLocation!=null && !"".equals(memRel.userLocation)) return getRightType(asm, type, memRel.userLocation);
+            else if (memRel.dasmLocation!=null && !"".equals(memRel.dasmLocation)) return getRightType(asm, type, memRel.dasmLocation);
+            else return getRightType(asm, type, HexNum(ShortToExe(memRel.address), defaultMode));
           }    
       }
       
       /**
        * Return the byte represented as by the given type
        * 
+       * @param asm the assembler with the state of output
        * @param dataType the type to use 
        * @param value the byte value
        * @param index the index of constant
        * @return the converted string
        */
-      private String getByteType(DataType dataType, byte value, byte index) {
-        boolean defaultMode=(aByte!=DB_BYTE_H);          
+      private String getByteType(Assembler asm, DataType dataType, byte value, byte index) {
+        boolean defaultMode=(asm.aByte!=DB_BYTE_H);          
           
-        if (aByte==DOT_CHAR && value<0) {
+        if (asm.aByte==DOT_CHAR && value<0) {
           switch (dataType)   {
               case BYTE_DEC:
                 return "-"+Math.abs(value);
@@ -1283,7 +1282,7 @@ public class Assembler {
            }            
         } else {
             if (index!=-1) {
-              String res=constant.table[index][value & 0xFF];  
+              String res=asm.constant.get(index, value & 0xFF);  
               if (res!=null && !"".equals(res)) return res;
             } 
             
@@ -1294,35 +1293,35 @@ public class Assembler {
                 return BinNum(Integer.toBinaryString((value & 0xFF) + 0x100).substring(1), defaultMode);
               case BYTE_CHAR:
                 int val=(value & 0xFF);
-                switch (option.assembler) {
+                switch (asm.option.assembler) {
                   case DASM:
                     if (
-                       (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                       (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                       (!asm.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                       (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else return "'"+(char)Unsigned.done(value); 
                   case TMPX:
                     if (
-                        (!option.allowUtf && (val<=0x19) || (val==0x22) || (val>127)) ||    
-                        (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                        (!asm.option.allowUtf && (val<=0x19) || (val==0x22) || (val>127)) ||    
+                        (asm.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else return "'"+(char)Unsigned.done(value); 
                   case CA65:
                     if (
-                        (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                        (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                        (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                        (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else if (val>=0x20) return "'"+(char)Unsigned.done(value)+"'"; 
                          else return "\""+(char)Unsigned.done(value)+"\""; 
                   case ACME:
                     if (
-                        (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                        (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                        (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                        (asm.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);
                     else  if (val==0x27 || val==0x5C) return "'\\"+(char)Unsigned.done(value)+"'"; 
                           else return "'"+(char)Unsigned.done(value)+"'";   
                   case KICK:
-                    if (!option.allowUtf &&  (val<=0x1F || val>=0x80)) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);                        
+                    if (!asm.option.allowUtf &&  (val<=0x1F || val>=0x80)) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);                        
                     if (val==0x0A || (val>=0x0C && val<=0x0F) 
                                   || val==0x040 || val==0x05B 
                                   || val==0x05D
@@ -1334,8 +1333,8 @@ public class Assembler {
                     else return "'"+(char)Unsigned.done(value)+"'";      
                   case TASS64:
                     if (
-                        (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                        (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) ||
+                        (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                        (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) ||
                          (val==0x22) || (val>127)))                      
                        ) return HexNum(ByteToExe(Unsigned.done(value)), defaultMode);    
                     else return "\""+(char)Unsigned.done(value)+"\"";
@@ -1376,8 +1375,8 @@ public class Assembler {
      DW_WORD_H;           //     dw xxyyh
      
      @Override
-     public void flush(StringBuilder str) {         
-       if (list.isEmpty()) return; 
+     public void flush(Assembler asm, StringBuilder str) {         
+       if (asm.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -1394,61 +1393,61 @@ public class Assembler {
        int start=pos1;
        
        // create starting command according to the kind of byte
-       switch (aWord) {
+       switch (asm.aWord) {
          case DOT_WORD:
-           str.append(getDataSpacesTabs()).append((".word "));  
+           str.append(asm.getDataSpacesTabs()).append((".word "));  
            break;
          case DOT_WO_WORD:
-           str.append(getDataSpacesTabs()).append((".wo "));  
+           str.append(asm.getDataSpacesTabs()).append((".wo "));  
            break;  
          case DOT_SINT:
-           str.append(getDataSpacesTabs()).append((".sint "));  
+           str.append(asm.getDataSpacesTabs()).append((".sint "));  
            break;           
          case WORD:
-           str.append(getDataSpacesTabs()).append(("word "));   
+           str.append(asm.getDataSpacesTabs()).append(("word "));   
            break;
          case DC_W_WORD:
-           str.append(getDataSpacesTabs()).append(("dc.w "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc.w "));  
            break;
          case DOT_DBYTE:
-           str.append(getDataSpacesTabs()).append((".dbyte "));   
+           str.append(asm.getDataSpacesTabs()).append((".dbyte "));   
            break;
          case MARK_WORD:
-           str.append(getDataSpacesTabs()).append(("!word "));   
+           str.append(asm.getDataSpacesTabs()).append(("!word "));   
            break;
          case SIXTEEN_WORD:
-           str.append(getDataSpacesTabs()).append(("!16 "));  
+           str.append(asm.getDataSpacesTabs()).append(("!16 "));  
            break;  
          case DW_WORD:
          case DW_WORD_H:
-           str.append(getDataSpacesTabs()).append(("dw "));   
+           str.append(asm.getDataSpacesTabs()).append(("dw "));   
            break;
        }
        
        int pos2=str.length();   // store final position
        boolean isFirst=true;       // true if this is the first output
        
-       while (!list.isEmpty()) {
+       while (!asm.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (asm.list.size()==1) {
            if (isFirst) {
               str.replace(pos1, pos2, "");
               isFirst=false;                    
            }  
-           aByte.flush(str);
+           asm.aByte.flush(asm, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           memRel2Low=listRel2.pop();
-           memBaseLo=listBase.pop();
-           memDestLo=listDest.pop();
+           memLow=asm.list.pop();
+           memRelLow=asm.listRel.pop();
+           memRel2Low=asm.listRel2.pop();
+           memBaseLo=asm.listBase.pop();
+           memDestLo=asm.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop();           
-           memRel2High=listRel2.pop();
-           memBaseHi=listBase.pop();
-           memDestHi=listDest.pop();
+           memHigh=asm.list.pop();
+           memRelHigh=asm.listRel.pop();           
+           memRel2High=asm.listRel2.pop();
+           memBaseHi=asm.listBase.pop();
+           memDestHi=asm.listDest.pop();
            
            if ((
                  ((memLow.type==TYPE_MINOR || memLow.type==TYPE_PLUS_MINOR) && 
@@ -1466,37 +1465,37 @@ public class Assembler {
                    /// this is a memory in table label
                    int rel=memRelLow.related;
                    int pos=memRelLow.address-memRelLow.related;
-                   str.append(getLocationPos(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationPos(asm, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;
                  case TYPE_PLUS_MAJOR:
                  case TYPE_PLUS_MINOR:    
                    /// this is a memory in table label
                    rel=(memRelLow.related>>16) & 0xFFFF;
                    pos=memRelLow.address-rel;
-                   str.append(getLocationPos(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationPos(asm, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;
                 case TYPE_MINUS_MAJOR:
                  case TYPE_MINUS_MINOR:    
                    /// this is a memory in table label
                    rel=(memRelLow.related>>16) & 0xFFFF;
                    pos=memRelLow.address-rel;
-                   str.append(getLocationNeg(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationNeg(asm, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;                   
                  case TYPE_MINUS:
                    /// this is a memory in table label
                    rel=memRelLow.related;
                    pos=memRelLow.address-memRelLow.related;
-                   str.append(getLocationNeg(memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
+                   str.append(getLocationNeg(asm, memLow, memBaseLo, memDestLo, memRel2Low, rel, pos));
                    break;             
                  default:
-                   str.append(getLocation(memLow, memBaseLo, memDestLo, memRelLow));         
+                   str.append(getLocation(asm, memLow, memBaseLo, memDestLo, memRelLow));         
                    break;
                }                
              }  else {        
                   if (memRelLow.dasmLocation==null || "".equals(memRelLow.dasmLocation)) {
                      memRelLow.dasmLocation="W"+ShortToExe(memRelLow.address);
                   }               
-                  str.append(getLocation(memLow, memBaseLo, memDestLo, memRelLow));  
+                  str.append(getLocation(asm, memLow, memBaseLo, memDestLo, memRelLow));  
                 }
              isFirst=false;
            } else {
@@ -1513,31 +1512,31 @@ public class Assembler {
                    memHigh.type==TYPE_PLUS_MINOR || 
                    memHigh.type==TYPE_MINUS_MAJOR || 
                    memHigh.type==TYPE_MINUS_MINOR )  {
-                 list.addFirst(memHigh);
-                 list.addFirst(memLow);
-                 listRel.addFirst(memRelHigh);
-                 listRel.addFirst(memRelLow);
-                 listRel2.addFirst(null);
-                 listRel2.addFirst(null);
-                 listBase.addFirst(null);
-                 listBase.addFirst(null);
-                 listDest.addFirst(null);
-                 listDest.addFirst(null);
+                 asm.list.addFirst(memHigh);
+                 asm.list.addFirst(memLow);
+                 asm.listRel.addFirst(memRelHigh);
+                 asm.listRel.addFirst(memRelLow);
+                 asm.listRel2.addFirst(null);
+                 asm.listRel2.addFirst(null);
+                 asm.listBase.addFirst(null);
+                 asm.listBase.addFirst(null);
+                 asm.listDest.addFirst(null);
+                 asm.listDest.addFirst(null);
                  
                  if (isFirst) {
                    str.replace(pos1, pos2, "");
                    isFirst=false;
                  }
-                 aByte.flush(str);
+                 asm.aByte.flush(asm, str);
                }
                else {
-                 if (aWord==DOT_SINT && memHigh.copy<0) str.append("-$").append(ByteToExe(Math.abs(memHigh.copy))).append(ByteToExe(Unsigned.done(memLow.copy)));
+                 if (asm.aWord==DOT_SINT && memHigh.copy<0) str.append("-$").append(ByteToExe(Math.abs(memHigh.copy))).append(ByteToExe(Unsigned.done(memLow.copy)));
                  else {
-                   boolean defaultMode=(aWord!=DW_WORD_H);
+                   boolean defaultMode=(asm.aWord!=DW_WORD_H);
                    
                    // look for constant  
                    if (memLow.index!=-1 && memHigh.index!=-1 && memLow.index==memHigh.index) {
-                     String res=constant.table[memLow.index][(memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8)];  
+                     String res=asm.constant.get(memLow.index, (memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8));  
                      if (res!=null && !"".equals(res)) str.append(res);
                      else str.append(
                               HexNum(ByteToExe(Unsigned.done(memHigh.copy))+ByteToExe(Unsigned.done(memLow.copy)), defaultMode)
@@ -1549,17 +1548,17 @@ public class Assembler {
                  isFirst=false;  
                }    
              }
-           carets.add(start, str.length(), memLow, Type.WORD);
+           asm.carets.add(start, str.length(), memLow, Type.WORD);
            
            
-           if (list.size()>=2) str.append(", ");
+           if (asm.list.size()>=2) str.append(", ");
            else {
              if (memHigh.dasmLocation==null && memHigh.userLocation==null) {
-               str.append(getDataCSpacesTabs(str.length()-pos1-getDataSpacesTabs().length()));
-               MemoryDasm tmp=lastMem;
-               lastMem=memHigh;
-               aComment.flush(str);  
-               lastMem=tmp;
+               str.append(asm.getDataCSpacesTabs(str.length()-pos1-asm.getDataSpacesTabs().length()));
+               MemoryDasm tmp=asm.lastMem;
+               asm.lastMem=memHigh;
+               asm.aComment.flush(asm, str);  
+               asm.lastMem=tmp;
              } else str.append("\n");            
            }
            
@@ -1571,25 +1570,26 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {        
         // look if it is time to aggregate data
-        if (list.size()==option.maxWordAggregate*2) flush(str);   
+        if (asm.list.size()==asm.option.maxWordAggregate*2) flush(asm, str);   
        
         if (mem.dasmLocation==null && mem.userLocation==null) {
           // look for comment inside
-          String comment=lastMem.dasmComment;
-          if (lastMem.userComment != null) comment=lastMem.userComment;        
-          if (!(comment==null || "".equals(comment))) flush(str);  
+          String comment=asm.lastMem.dasmComment;
+          if (asm.lastMem.userComment != null) comment=asm.lastMem.userComment;        
+          if (!(comment==null || "".equals(comment))) flush(asm, str);  
         }
       }
      
      /**
       * Get location (positive)
+      * @param asm the assembler with the state of output
       * @param mem the memory location
       * @param memBase the base memory location
       * @param memDest the destination memory location
@@ -1598,8 +1598,8 @@ public class Assembler {
       * @param pos the offset position
       * @return the location
       */
-     private String getLocationPos(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
-        boolean defaultMode=(aWord!=DW_WORD_H);
+     private String getLocationPos(Assembler asm, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
+        boolean defaultMode=(asm.aWord!=DW_WORD_H);
        
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {          
           String base;
@@ -1626,6 +1626,7 @@ public class Assembler {
      /**
       * Get location (negative)
       * 
+      * @param asm the assembler with the state of output
       * @param mem the memory location
       * @param memBase the base memory location
       * @param memDest the destination memory location
@@ -1634,8 +1635,8 @@ public class Assembler {
       * @param pos the offset position
       * @return the location
       */
-     private String getLocationNeg(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
-       boolean defaultMode=(aWord!=DW_WORD_H);
+     private String getLocationNeg(Assembler asm, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel, int rel, int pos) {
+       boolean defaultMode=(asm.aWord!=DW_WORD_H);
        
        if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1662,14 +1663,15 @@ public class Assembler {
      /**
       * Get the location
       * 
+      * @param asm the assembler with the state of output
       * @param mem the memory location
       * @param memBase the base memory location
       * @param memDest the destination memory location
       * @param memRel the memory relative location
       * @return the location
       */
-     private String getLocation(MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel) {
-        boolean defaultMode=(aWord!=DW_WORD_H);
+     private String getLocation(Assembler asm, MemoryDasm mem, MemoryDasm memBase, MemoryDasm memDest, MemoryDasm memRel) {
+        boolean defaultMode=(asm.aWord!=DW_WORD_H);
         
         if (mem.relatedAddressBase+mem.relatedAddressDest !=0) {
           String base;
@@ -1711,8 +1713,8 @@ public class Assembler {
         ;
 
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+     public void flush(Assembler asm, StringBuilder str) {
+       if (asm.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -1720,31 +1722,31 @@ public class Assembler {
        MemoryDasm memRelHigh;
        
        // we have a min of 1 or a max of 8 word swapped, so use the right call for macro
-       int index=(int)(list.size()/2);
+       int index=(int)(asm.list.size()/2);
        
        int pos1=str.length();      // store initial position
        int start=pos1;
         
        // create starting command according to the kind of byte
-       switch (aWordSwapped) {
+       switch (asm.aWordSwapped) {
          case DC_DOT_S_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("dc.s ");  
+           str.append(asm.getDataSpacesTabs()).append("dc.s ");  
            break;
          case DOT_DTYB:
-           str.append(getDataSpacesTabs()).append(".dtyb ");  
+           str.append(asm.getDataSpacesTabs()).append(".dtyb ");  
            break;           
          case MACRO1_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("Swapped").append(index).append("(");   // must close the )
+           str.append(asm.getDataSpacesTabs()).append("Swapped").append(index).append("(");   // must close the )
            break;
          case MACRO2_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("+Swapped").append(index).append(" ");  
+           str.append(asm.getDataSpacesTabs()).append("+Swapped").append(index).append(" ");  
            break;
          case MACRO4_WORD_SWAPPED:
-           str.append(getDataSpacesTabs()).append("#Swapped").append(index).append(" ");    
+           str.append(asm.getDataSpacesTabs()).append("#Swapped").append(index).append(" ");    
            break;
          case MACRO5_WORD_SWAPPED:
          case MACRO6_WORD_SWAPPED:  
-           str.append(getDataSpacesTabs()).append("Swapped").append(index).append(" ");    
+           str.append(asm.getDataSpacesTabs()).append("Swapped").append(index).append(" ");    
            break;   
        }
        
@@ -1752,29 +1754,29 @@ public class Assembler {
        boolean isFirst=true;       // true if this is the first output
        
        // we use byte, so check for his default mode
-       boolean defaultMode=(aByte!=DB_BYTE_H);  
+       boolean defaultMode=(asm.aByte!=DB_BYTE_H);  
        
-       while (!list.isEmpty()) {
+       while (!asm.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (asm.list.size()==1) {
            if (isFirst) {
              str.replace(pos1, pos2, "");
              isFirst=false;                    
            }  
-           aByte.flush(str);
+           asm.aByte.flush(asm, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memLow=asm.list.pop();
+           memRelLow=asm.listRel.pop();
+           asm.listRel2.pop();
+           asm.listBase.pop();
+           asm.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop();  
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memHigh=asm.list.pop();
+           memRelHigh=asm.listRel.pop();  
+           asm.listRel2.pop();
+           asm.listBase.pop();
+           asm.listDest.pop();
                      
            if ((
                  ((memLow.type==TYPE_MINOR || memLow.type==TYPE_PLUS_MINOR) && 
@@ -1802,22 +1804,22 @@ public class Assembler {
                  memHigh.type==TYPE_PLUS_MINOR || 
                  memHigh.type==TYPE_MINUS_MAJOR || 
                  memHigh.type==TYPE_MINUS_MINOR)  {
-               list.addFirst(memHigh);
-               list.addFirst(memLow);
-               listRel.addFirst(memRelHigh);
-               listRel.addFirst(memRelLow);
-               listRel2.addFirst(null);
-               listRel2.addFirst(null);
-               listBase.addFirst(null);
-               listBase.addFirst(null);
-               listDest.addFirst(null);
-               listDest.addFirst(null);
+               asm.list.addFirst(memHigh);
+               asm.list.addFirst(memLow);
+               asm.listRel.addFirst(memRelHigh);
+               asm.listRel.addFirst(memRelLow);
+               asm.listRel2.addFirst(null);
+               asm.listRel2.addFirst(null);
+               asm.listBase.addFirst(null);
+               asm.listBase.addFirst(null);
+               asm.listDest.addFirst(null);
+               asm.listDest.addFirst(null);
                
                if (isFirst) {
                  str.replace(pos1, pos2, "");
                  isFirst=false;
                }
-               aByte.flush(str);
+               asm.aByte.flush(asm, str);
              }
              else {
                str.append(HexNum(ByteToExe(Unsigned.done(memLow.copy))+ByteToExe(Unsigned.done(memHigh.copy)), defaultMode));
@@ -1825,17 +1827,17 @@ public class Assembler {
              }                            
            }
            
-           carets.add(start, str.length(), memLow, Type.WORD_SWAPPED);
+           asm.carets.add(start, str.length(), memLow, Type.WORD_SWAPPED);
            
-           if (list.size()>=2) str.append(", ");           
+           if (asm.list.size()>=2) str.append(", ");           
            else {
             if (memHigh.dasmLocation==null && memHigh.userLocation==null) {
-              str.append(getDataCSpacesTabs(str.length()-pos1-getDataSpacesTabs().length()));
-              MemoryDasm tmp=lastMem;
-              lastMem=memHigh;
-              aComment.flush(str);  
-              lastMem=tmp;
-            } else if (aWordSwapped==MACRO1_WORD_SWAPPED) str.append(")\n");
+              str.append(asm.getDataCSpacesTabs(str.length()-pos1-asm.getDataSpacesTabs().length()));
+              MemoryDasm tmp=asm.lastMem;
+              asm.lastMem=memHigh;
+              asm.aComment.flush(asm, str);  
+              asm.lastMem=tmp;
+            } else if (asm.aWordSwapped==MACRO1_WORD_SWAPPED) str.append(")\n");
                    else str.append("\n");   
             
             start=str.length();
@@ -1847,29 +1849,29 @@ public class Assembler {
     /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
              // look if it is time to aggregate data
-       if (list.size()==option.maxSwappedAggregate*2) flush(str);   
+       if (asm.list.size()==asm.option.maxSwappedAggregate*2) flush(asm, str);   
        
        if (mem.dasmLocation==null && mem.userLocation==null) {
          // look for comment inside
-         String comment=lastMem.dasmComment;
-         if (lastMem.userComment != null) comment=lastMem.userComment;        
-         if (!(comment==null || "".equals(comment))) flush(str);  
+         String comment=asm.lastMem.dasmComment;
+         if (asm.lastMem.userComment != null) comment=asm.lastMem.userComment;        
+         if (!(comment==null || "".equals(comment))) flush(asm, str);  
        }
     }     
 
     
      @Override
-     public void setting(StringBuilder str) {
-       String spaces=getDataSpacesTabs(); 
+     public void setting(Assembler asm, StringBuilder str) {
+       String spaces=asm.getDataSpacesTabs(); 
          
-       switch (aWordSwapped) {
+       switch (asm.aWordSwapped) {
          case MACRO1_WORD_SWAPPED:
            str.append(spaces).append(".macro Swapped1 (twobyte) {\n")
               .append(spaces).append("   .byte twobyte & 255, ( twobyte >> 8) & 255\n")
@@ -2161,11 +2163,11 @@ public class Assembler {
      MARK_TWENTYFOUR_TRIBYTE   //     !24 $xxyyzz
      ;
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+     public void flush(Assembler asm, StringBuilder str) {
+       if (asm.list.isEmpty()) return; 
        
-       if (list.size()<=2) {
-         aByte.flush(str);
+       if (asm.list.size()<=2) {
+         asm.aByte.flush(asm, str);
          return;
        }
        
@@ -2174,45 +2176,45 @@ public class Assembler {
        
        MemoryDasm mem;
        
-       Iterator<MemoryDasm> iter=list.iterator();
+       Iterator<MemoryDasm> iter=asm.list.iterator();
        while (iter.hasNext()) {
          mem=iter.next();
          // we cannot handle memory reference inside tribyte
          if (mem.type==TYPE_MINOR || mem.type==TYPE_MAJOR || 
              mem.type==TYPE_PLUS_MAJOR || mem.type==TYPE_PLUS_MINOR) {
            // force all to be as byte even if this breaks layout
-           aByte.flush(str);
+           asm.aByte.flush(asm, str);
            return;
          }
        }              
        
        // we have a min of 1 or a max of 8 tribyte, so use the right call for macro
-       int index=(int)(list.size()/3);
+       int index=(int)(asm.list.size()/3);
         
        // create starting command according to the kind of byte
-       switch (aTribyte) {
+       switch (asm.aTribyte) {
          case MACRO_TRIBYTE:
          case MACRO3_TRIBYTE:    
-           str.append(getDataSpacesTabs()).append("Tribyte").append(index).append(" ");  
+           str.append(asm.getDataSpacesTabs()).append("Tribyte").append(index).append(" ");  
            break;
          case MACRO1_TRIBYTE:
-           str.append(getDataSpacesTabs()).append("Tribyte").append(index).append("(");   // must close the )
+           str.append(asm.getDataSpacesTabs()).append("Tribyte").append(index).append("(");   // must close the )
            break;           
          case MACRO4_TRIBYTE:
-           str.append(getDataSpacesTabs()).append("#Tribyte").append(index).append(" ");  
+           str.append(asm.getDataSpacesTabs()).append("#Tribyte").append(index).append(" ");  
            break;
          case MACRO5_TRIBYTE:  
          case MACRO6_TRIBYTE:  
-           str.append(getDataSpacesTabs()).append("Tribyte").append(index).append(" ");  
+           str.append(asm.getDataSpacesTabs()).append("Tribyte").append(index).append(" ");  
            break;          
          case DOT_LINT_TRIBYTE:
-           str.append(getDataSpacesTabs()).append((".lint "));   
+           str.append(asm.getDataSpacesTabs()).append((".lint "));   
            break;
          case DOT_LONG_TRIBYTE:
-           str.append(getDataSpacesTabs()).append((".long "));   
+           str.append(asm.getDataSpacesTabs()).append((".long "));   
            break;
          case MARK_TWENTYFOUR_TRIBYTE:
-           str.append(getDataSpacesTabs()).append(("!24 "));  
+           str.append(asm.getDataSpacesTabs()).append(("!24 "));  
            break;  
        }
        
@@ -2221,33 +2223,33 @@ public class Assembler {
        MemoryDasm mem3;
        
        // we use byte, so check for his default mode
-       boolean defaultMode=(aByte!=DB_BYTE_H);  
+       boolean defaultMode=(asm.aByte!=DB_BYTE_H);  
        
-       while (!list.isEmpty()) {
+       while (!asm.list.isEmpty()) {
          // if only 1 or 2 bytes left, use byte coding
-         if (list.size()<=2) aByte.flush(str);
+         if (asm.list.size()<=2) asm.aByte.flush(asm, str);
          else {
-           mem1=list.pop();
-           mem2=list.pop();
-           mem3=list.pop();
+           mem1=asm.list.pop();
+           mem2=asm.list.pop();
+           mem3=asm.list.pop();
            
-           listRel.pop();
-           listRel.pop();
-           listRel.pop();
+           asm.listRel.pop();
+           asm.listRel.pop();
+           asm.listRel.pop();
            
-           listRel2.pop();
-           listRel2.pop();
-           listRel2.pop();
+           asm.listRel2.pop();
+           asm.listRel2.pop();
+           asm.listRel2.pop();
            
-           listBase.pop();
-           listBase.pop();
-           listBase.pop();
+           asm.listBase.pop();
+           asm.listBase.pop();
+           asm.listBase.pop();
            
-           listDest.pop();
-           listDest.pop();
-           listDest.pop();
+           asm.listDest.pop();
+           asm.listDest.pop();
+           asm.listDest.pop();
            
-           if (aTribyte==DOT_LINT_TRIBYTE && mem1.copy<0) {
+           if (asm.aTribyte==DOT_LINT_TRIBYTE && mem1.copy<0) {
               str.append("-").append(
                   HexNum(ByteToExe(Math.abs(mem1.copy))+
                          ByteToExe(Unsigned.done(mem2.copy))+
@@ -2261,17 +2263,17 @@ public class Assembler {
                   );        
            }
            
-           carets.add(start, str.length(), mem1, Type.TRIBYTE);
+           asm.carets.add(start, str.length(), mem1, Type.TRIBYTE);
            
-           if (list.size()>=3) str.append(", ");
+           if (asm.list.size()>=3) str.append(", ");
            else {
             if (mem3.dasmLocation==null && mem3.userLocation==null) {
-              str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
-              MemoryDasm tmp=lastMem;
-              lastMem=mem3;
-              aComment.flush(str);  
-              lastMem=tmp;
-            } else if (aTribyte==MACRO1_TRIBYTE) str.append(")\n");
+              str.append(asm.getDataCSpacesTabs(str.length()-initial-asm.getDataSpacesTabs().length()));
+              MemoryDasm tmp=asm.lastMem;
+              asm.lastMem=mem3;
+              asm.aComment.flush(asm, str);  
+              asm.lastMem=tmp;
+            } else if (asm.aTribyte==MACRO1_TRIBYTE) str.append(")\n");
                 else str.append("\n");       
            }  
            
@@ -2283,33 +2285,34 @@ public class Assembler {
      /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
       // look if it is time to aggregate data
-      if (list.size()==option.maxTribyteAggregate*3) flush(str);        
+      if (asm.list.size()==asm.option.maxTribyteAggregate*3) flush(asm, str);        
        
       if (mem.dasmLocation==null && mem.userLocation==null) {
         // look for comment inside
-        String comment=lastMem.dasmComment;
-        if (lastMem.userComment != null) comment=lastMem.userComment;        
-        if (!(comment==null || "".equals(comment))) flush(str);  
+        String comment=asm.lastMem.dasmComment;
+        if (asm.lastMem.userComment != null) comment=asm.lastMem.userComment;        
+        if (!(comment==null || "".equals(comment))) flush(asm, str);  
       }
     }
      
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param asm the assembler with the state of output
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {
-       String spaces=getDataSpacesTabs(); 
+     public void setting(Assembler asm, StringBuilder str) {
+       String spaces=asm.getDataSpacesTabs(); 
        
-       switch (aTribyte) {
+       switch (asm.aTribyte) {
          case MACRO_TRIBYTE:
            str.append(spaces).append(".mac Tribyte1 \n")
               .append(spaces).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
@@ -2653,11 +2656,11 @@ public class Assembler {
      MACRO4_LONG           // [.mac] $xxyyzzkk  (TMPx)
         ;      
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+     public void flush(Assembler asm, StringBuilder str) {
+       if (asm.list.isEmpty()) return; 
        
-       if (list.size()<=3) {
-         aByte.flush(str);
+       if (asm.list.size()<=3) {
+         asm.aByte.flush(asm, str);
          return;
        }
        
@@ -2666,49 +2669,49 @@ public class Assembler {
        
        MemoryDasm mem;
        
-       Iterator<MemoryDasm> iter=list.iterator();
+       Iterator<MemoryDasm> iter=asm.list.iterator();
        while (iter.hasNext()) {
          mem=iter.next();
          // we cannot handle memory reference inside long
          if (mem.type==TYPE_MINOR || mem.type==TYPE_MAJOR || 
              mem.type==TYPE_PLUS_MAJOR || mem.type==TYPE_PLUS_MINOR) {
            // force all to be as byte even if this breaks layout
-           aByte.flush(str);
+           asm.aByte.flush(asm, str);
            return;
          }
        }  
                     
-       switch (aLong) {
+       switch (asm.aLong) {
          case LONG:
-           str.append(getDataSpacesTabs()).append("long ");  
+           str.append(asm.getDataSpacesTabs()).append("long ");  
            break;             
          case DOT_LONG:
-           str.append(getDataSpacesTabs()).append(".long ");   
+           str.append(asm.getDataSpacesTabs()).append(".long ");   
            break;    
          case DOT_DC_L_LONG:
-           str.append(getDataSpacesTabs()).append(".dc.l ");   
+           str.append(asm.getDataSpacesTabs()).append(".dc.l ");   
            break;  
          case DOT_DWORD_LONG:
-           str.append(getDataSpacesTabs()).append(".dword ");  
+           str.append(asm.getDataSpacesTabs()).append(".dword ");  
            break;  
          case DOT_DW_LONG:
-           str.append(getDataSpacesTabs()).append(".dw ");  
+           str.append(asm.getDataSpacesTabs()).append(".dw ");  
            break;    
          case DOT_DLINT_LONG:
-           str.append(getDataSpacesTabs()).append(".dlint ");  
+           str.append(asm.getDataSpacesTabs()).append(".dlint ");  
            break;        
          case DD_LONG:
          case DD_LONG_H:
-           str.append(getDataSpacesTabs()).append("dd ");  
+           str.append(asm.getDataSpacesTabs()).append("dd ");  
            break;   
          case MARK_THIRTYTWO_LONG:
-           str.append(getDataSpacesTabs()).append("!32 ");  
+           str.append(asm.getDataSpacesTabs()).append("!32 ");  
            break;                                  
          case MACRO4_LONG: 
            // we have a min of 1 or a max of 8 tribyte, so use the right call for macro
-           int index=(int)(list.size()/4);
+           int index=(int)(asm.list.size()/4);
         
-           str.append(getDataSpacesTabs()).append("#Long").append(index).append(" ");  
+           str.append(asm.getDataSpacesTabs()).append("#Long").append(index).append(" ");  
            break;  
        }
         
@@ -2717,38 +2720,38 @@ public class Assembler {
        MemoryDasm mem3;
        MemoryDasm mem4;
        
-       while (!list.isEmpty()) {
+       while (!asm.list.isEmpty()) {
          // if only 1..3 bytes left, use byte coding
-         if (list.size()<=3) aByte.flush(str);
+         if (asm.list.size()<=3) asm.aByte.flush(asm, str);
          else {
-           mem1=list.pop();
-           mem2=list.pop();
-           mem3=list.pop();
-           mem4=list.pop();
+           mem1=asm.list.pop();
+           mem2=asm.list.pop();
+           mem3=asm.list.pop();
+           mem4=asm.list.pop();
            
-           listRel.pop();
-           listRel.pop();
-           listRel.pop();
-           listRel.pop();
+           asm.listRel.pop();
+           asm.listRel.pop();
+           asm.listRel.pop();
+           asm.listRel.pop();
            
-           listRel2.pop();
-           listRel2.pop();
-           listRel2.pop();
-           listRel2.pop();
+           asm.listRel2.pop();
+           asm.listRel2.pop();
+           asm.listRel2.pop();
+           asm.listRel2.pop();
            
-           listBase.pop();
-           listBase.pop();
-           listBase.pop();
-           listBase.pop();
+           asm.listBase.pop();
+           asm.listBase.pop();
+           asm.listBase.pop();
+           asm.listBase.pop();
            
-           listDest.pop();
-           listDest.pop();
-           listDest.pop();
-           listDest.pop();
+           asm.listDest.pop();
+           asm.listDest.pop();
+           asm.listDest.pop();
+           asm.listDest.pop();
            
-           boolean defaultMode=(aLong!=DD_LONG_H);
+           boolean defaultMode=(asm.aLong!=DD_LONG_H);
            
-           if (aLong==DOT_DLINT_LONG && mem1.copy<0) {
+           if (asm.aLong==DOT_DLINT_LONG && mem1.copy<0) {
               str.append("-").append(
                                 HexNum(
                                   ByteToExe(Math.abs(mem1.copy))+
@@ -2766,16 +2769,16 @@ public class Assembler {
                          );
            }
            
-           carets.add(start, str.length(), mem1, Type.LONG);
+           asm.carets.add(start, str.length(), mem1, Type.LONG);
            
-           if (list.size()>=4) str.append(", ");
+           if (asm.list.size()>=4) str.append(", ");
            else {
              if (mem4.dasmLocation==null && mem4.userLocation==null) {
-               str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
-               MemoryDasm tmp=lastMem;
-               lastMem=mem4;
-               aComment.flush(str);  
-               lastMem=tmp;
+               str.append(asm.getDataCSpacesTabs(str.length()-initial-asm.getDataSpacesTabs().length()));
+               MemoryDasm tmp=asm.lastMem;
+               asm.lastMem=mem4;
+               asm.aComment.flush(asm, str);  
+               asm.lastMem=tmp;
              } else str.append("\n");       
            }
            
@@ -2787,20 +2790,20 @@ public class Assembler {
     /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
       // look if it is time to aggregate data
-      if (list.size()==option.maxLongAggregate*4) flush(str);  
+      if (asm.list.size()==asm.option.maxLongAggregate*4) flush(asm, str);  
 
       if (mem.dasmLocation==null && mem.userLocation==null) {
         // look for comment inside
-        String comment=lastMem.dasmComment;
-        if (lastMem.userComment != null) comment=lastMem.userComment;        
-        if (!(comment==null || "".equals(comment))) flush(str);  
+        String comment=asm.lastMem.dasmComment;
+        if (asm.lastMem.userComment != null) comment=asm.lastMem.userComment;        
+        if (!(comment==null || "".equals(comment))) flush(asm, str);  
       }  
     }
      
@@ -2808,11 +2811,12 @@ public class Assembler {
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param asm the assembler with the state of output
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {        
-       switch (aLong) {  
+     public void setting(Assembler asm, StringBuilder str) {        
+       switch (asm.aLong) {  
          case MACRO4_LONG:         
            str.append(
              "Long1 .macro \n" +
@@ -2895,8 +2899,8 @@ public class Assembler {
      SIXTEEN_WORD_ADDR;        //    !16 $xxyy//    !16 $xxyy
      
      @Override
-     public void flush(StringBuilder str) {         
-       if (list.isEmpty()) return; 
+     public void flush(Assembler asm, StringBuilder str) {         
+       if (asm.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -2907,59 +2911,59 @@ public class Assembler {
        int start=pos1;
        
        // create starting command according to the kind of byte
-       switch (aAddress) {
+       switch (asm.aAddress) {
          case DOT_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append((".word "));  
+           str.append(asm.getDataSpacesTabs()).append((".word "));  
            break;
          case DOT_WO_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append((".wo "));  
+           str.append(asm.getDataSpacesTabs()).append((".wo "));  
            break;           
          case WORD_ADDR:
-           str.append(getDataSpacesTabs()).append(("word "));   
+           str.append(asm.getDataSpacesTabs()).append(("word "));   
            break;
          case DC_W_ADDR:
-           str.append(getDataSpacesTabs()).append(("dc.w "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc.w "));  
            break;
          case DW_ADDR:
          case DW_ADDR_H:  
-           str.append(getDataSpacesTabs()).append(("dw "));  
+           str.append(asm.getDataSpacesTabs()).append(("dw "));  
            break;  
          case DOT_ADDR_ADDR:
-           str.append(getDataSpacesTabs()).append((".addr "));   
+           str.append(asm.getDataSpacesTabs()).append((".addr "));   
            break;
          case MARK_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append(("!word "));   
+           str.append(asm.getDataSpacesTabs()).append(("!word "));   
            break;
          case SIXTEEN_WORD_ADDR:
-           str.append(getDataSpacesTabs()).append(("!16 "));  
+           str.append(asm.getDataSpacesTabs()).append(("!16 "));  
            break;  
        }
        
        int pos2=str.length();   // store final position
        boolean isFirst=true;       // true if this is the first output
-       boolean defaultMode=(aAddress!=DW_ADDR_H);
+       boolean defaultMode=(asm.aAddress!=DW_ADDR_H);
        
-       while (!list.isEmpty()) {
+       while (!asm.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (asm.list.size()==1) {
            if (isFirst) {
               str.replace(pos1, pos2, "");
               isFirst=false;                    
            }  
-           aByte.flush(str);
+           asm.aByte.flush(asm, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memLow=asm.list.pop();
+           memRelLow=asm.listRel.pop();
+           asm.listRel2.pop();
+           asm.listBase.pop();
+           asm.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop(); 
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memHigh=asm.list.pop();
+           memRelHigh=asm.listRel.pop(); 
+           asm.listRel2.pop();
+           asm.listBase.pop();
+           asm.listDest.pop();
            
            if ((memLow.type==TYPE_MINOR || memLow.type==TYPE_PLUS_MINOR) && 
                (memHigh.type==TYPE_MAJOR || memHigh.type==TYPE_PLUS_MAJOR) && 
@@ -2984,27 +2988,27 @@ public class Assembler {
                    memHigh.type==TYPE_MAJOR || 
                    memHigh.type==TYPE_PLUS_MAJOR || 
                    memHigh.type==TYPE_PLUS_MINOR)  {
-                 list.addFirst(memHigh);
-                 list.addFirst(memLow);
-                 listRel.addFirst(memRelHigh);
-                 listRel.addFirst(memRelLow);
-                 listRel2.addFirst(null);
-                 listRel2.addFirst(null);
-                 listBase.addFirst(null);
-                 listBase.addFirst(null);
-                 listDest.addFirst(null);
-                 listDest.addFirst(null);
+                 asm.list.addFirst(memHigh);
+                 asm.list.addFirst(memLow);
+                 asm.listRel.addFirst(memRelHigh);
+                 asm.listRel.addFirst(memRelLow);
+                 asm.listRel2.addFirst(null);
+                 asm.listRel2.addFirst(null);
+                 asm.listBase.addFirst(null);
+                 asm.listBase.addFirst(null);
+                 asm.listDest.addFirst(null);
+                 asm.listDest.addFirst(null);
                  
                  if (isFirst) {
                    str.replace(pos1, pos2, "");
                    isFirst=false;
                  }
-                 aByte.flush(str);
+                 asm.aByte.flush(asm, str);
                }
                else {
                  // look fopr constant  
                  if (memLow.index!=-1 && memHigh.index!=-1 && memLow.index==memHigh.index) {
-                   String res=constant.table[memLow.index][(memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8)];  
+                   String res=asm.constant.get(memLow.index, (memLow.copy & 0xFF) + ((memHigh.copy & 0xFF)<<8));  
                    if (res!=null && !"".equals(res)) str.append(res);
                    else str.append(HexNum(ByteToExe(Unsigned.done(memHigh.copy))+ByteToExe(Unsigned.done(memLow.copy)), defaultMode));
                  } else str.append(HexNum(ByteToExe(Unsigned.done(memHigh.copy))+ByteToExe(Unsigned.done(memLow.copy)), defaultMode));                         
@@ -3012,16 +3016,16 @@ public class Assembler {
                }    
              }
            
-           carets.add(start, str.length(), memLow, Type.ADDRESS);
+           asm.carets.add(start, str.length(), memLow, Type.ADDRESS);
            
-           if (list.size()>=2) str.append(", ");
+           if (asm.list.size()>=2) str.append(", ");
            else {
              if (memHigh.dasmLocation==null && memHigh.userLocation==null) {
-               str.append(getDataCSpacesTabs(str.length()-pos1-getDataSpacesTabs().length()));
-               MemoryDasm tmp=lastMem;
-               lastMem=memHigh;
-               aComment.flush(str);  
-               lastMem=tmp;
+               str.append(asm.getDataCSpacesTabs(str.length()-pos1-asm.getDataSpacesTabs().length()));
+               MemoryDasm tmp=asm.lastMem;
+               asm.lastMem=memHigh;
+               asm.aComment.flush(asm, str);  
+               asm.lastMem=tmp;
              } else str.append("\n");       
            }
            
@@ -3033,20 +3037,20 @@ public class Assembler {
                /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxAddressAggregate*2) flush(str); 
+       if (asm.list.size()==asm.option.maxAddressAggregate*2) flush(asm, str); 
        
        if (mem.dasmLocation==null && mem.userLocation==null) {
          // look for comment inside
-         String comment=lastMem.dasmComment;
-         if (lastMem.userComment != null) comment=lastMem.userComment;        
-         if (!(comment==null || "".equals(comment))) flush(str);  
+         String comment=asm.lastMem.dasmComment;
+         if (asm.lastMem.userComment != null) comment=asm.lastMem.userComment;        
+         if (!(comment==null || "".equals(comment))) flush(asm, str);  
        }
     }
    }   
@@ -3083,28 +3087,28 @@ public class Assembler {
      ;      
      
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return; 
+      public void flush(Assembler asm, StringBuilder str) {
+        if (asm.list.isEmpty()) return; 
         
         // we must receive a list of 3 or 1 final byte (if 2, uses as bytes)
-        if (list.size()>=3) {    
-          MemoryDasm mem1=list.pop(); 
-          MemoryDasm mem2=list.pop();
-          MemoryDasm mem3=list.pop(); 
+        if (asm.list.size()>=3) {    
+          MemoryDasm mem1=asm.list.pop(); 
+          MemoryDasm mem2=asm.list.pop();
+          MemoryDasm mem3=asm.list.pop(); 
           StringBuilder tmp;
           String tmpS;
            
           // add a dasm comment with pixels
-          mem3.dasmComment=BinToMono(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMono(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMono(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
-          lastMem=mem3;
+          mem3.dasmComment=asm.BinToMono(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
+                           asm.BinToMono(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
+                           asm.BinToMono(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
+          asm.lastMem=mem3;
           
           int initial=str.length();
           int start=initial;
           
           // now we have one row of 3 bytes
-          switch (aMonoSprite) {
+          switch (asm.aMonoSprite) {
             case BYTE_HEX:
               mem1=mem1.clone();
               mem2=mem2.clone();
@@ -3112,12 +3116,12 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_HEX;
               mem2.dataType=DataType.BYTE_HEX;
               mem3.dataType=DataType.BYTE_HEX;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              asm.list.push(mem3);
+              asm.list.push(mem2);
+              asm.list.push(mem1);
               
               tmp=new StringBuilder();
-              aByte.flush(tmp);  
+              asm.aByte.flush(asm, tmp);  
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
@@ -3128,190 +3132,192 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_BIN;
               mem2.dataType=DataType.BYTE_BIN;
               mem3.dataType=DataType.BYTE_BIN;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              asm.list.push(mem3);
+              asm.list.push(mem2);
+              asm.list.push(mem1);
               
               tmp=new StringBuilder();
-              aByte.flush(tmp); 
+              asm.aByte.flush(asm, tmp); 
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
             case TWENTYFOUR_HEX:
-              str.append(getDataSpacesTabs()).append("!24 $")
+              str.append(asm.getDataSpacesTabs()).append("!24 $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case TWENTYFOUR_BIN:
-              str.append(getDataSpacesTabs()).append("!24 %")
+              str.append(asm.getDataSpacesTabs()).append("!24 %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;                
             case MACRO_HEX:
             case MACRO3_HEX: 
             case MACRO5_HEX:
             case MACRO6_HEX:  
-              str.append(getDataSpacesTabs())
+              str.append(asm.getDataSpacesTabs())
                  .append("MonoSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO_BIN:
             case MACRO3_BIN:
             case MACRO5_BIN:  
             case MACRO6_BIN:   
-              str.append(getDataSpacesTabs())
+              str.append(asm.getDataSpacesTabs())
                  .append("MonoSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;  
             case MACRO1_HEX:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))
+              str.append(asm.getDataSpacesTabs())
+                 .append((asm.option.kickColonMacro ? ":":""))
                  .append("MonoSpriteLine($")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append(")  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO1_BIN:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))     
+              str.append(asm.getDataSpacesTabs())
+                 .append((asm.option.kickColonMacro ? ":":""))     
                  .append("MonoSpriteLine(%")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append(")  ");
-              emptyPop();
+              emptyPop(asm);
               break; 
             case MACRO2_HEX:
-              str.append(getDataSpacesTabs()).append("+MonoSpriteLine $")
+              str.append(asm.getDataSpacesTabs()).append("+MonoSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO2_BIN:
-              str.append(getDataSpacesTabs()).append("+MonoSpriteLine %")
+              str.append(asm.getDataSpacesTabs()).append("+MonoSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;    
             case MACRO4_HEX:
-              str.append(getDataSpacesTabs()).append("#MonoSpriteLine $")
+              str.append(asm.getDataSpacesTabs()).append("#MonoSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO4_BIN:
-              str.append(getDataSpacesTabs()).append("#MonoSpriteLine %")
+              str.append(asm.getDataSpacesTabs()).append("#MonoSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;               
             }
-          carets.add(start, str.length(), mem1, Type.MONO_SPRITE);
+          asm.carets.add(start, str.length(), mem1, Type.MONO_SPRITE);
           ///start=str.length();
           
-          str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
+          str.append(asm.getDataCSpacesTabs(str.length()-initial-asm.getDataSpacesTabs().length()));
           // flush comment only for macro as byte flush it itself
-          if (aMonoSprite!=BYTE_HEX && aMonoSprite!=BYTE_BIN) aComment.flush(str);
+          if (asm.aMonoSprite!=BYTE_HEX && asm.aMonoSprite!=BYTE_BIN) asm.aComment.flush(asm, str);
           else str.append("\n");
           
         } else {
             // force to be as byte
-            aByte.flush(str);
+            asm.aByte.flush(asm, str);
           }            
       }   
       
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
-         if ((sizeMonoSpriteBlock % 3)==0) flush(str);
-         else if (sizeMonoSpriteBlock>=64) {
-           flush(str);
-           sizeMonoSpriteBlock=0;
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
+         if ((asm.sizeMonoSpriteBlock % 3)==0) flush(asm, str);
+         else if (asm.sizeMonoSpriteBlock>=64) {
+           flush(asm, str);
+           asm.sizeMonoSpriteBlock=0;
          }
       }      
       
       /**
        * Empty pop to have stack corrected
+       * @param asm the assembler with the state of output
        */
-      private void emptyPop() {
-        listRel.pop();
-        listRel.pop();
-        listRel.pop();
+      private void emptyPop(Assembler asm) {
+        asm.listRel.pop();
+        asm.listRel.pop();
+        asm.listRel.pop();
               
-        listRel2.pop();
-        listRel2.pop();
-        listRel2.pop();
+        asm.listRel2.pop();
+        asm.listRel2.pop();
+        asm.listRel2.pop();
               
-        listBase.pop();
-        listBase.pop();
-        listBase.pop();
+        asm.listBase.pop();
+        asm.listBase.pop();
+        asm.listBase.pop();
               
-        listDest.pop();
-        listDest.pop();
-        listDest.pop();
+        asm.listDest.pop();
+        asm.listDest.pop();
+        asm.listDest.pop();
       }
       
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param asm the assembler with the state of output
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {
-       switch (aMonoSprite) {
+     public void setting(Assembler asm, StringBuilder str) {
+       switch (asm.aMonoSprite) {
          case MACRO_HEX:
          case MACRO_BIN:
-           str.append(getDataSpacesTabs()).append(".mac MonoSpriteLine \n")
-              .append(getDataSpacesTabs()).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
-              .append(getDataSpacesTabs()).append(".endm \n\n");          
+           str.append(asm.getDataSpacesTabs()).append(".mac MonoSpriteLine \n")
+              .append(asm.getDataSpacesTabs()).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
+              .append(asm.getDataSpacesTabs()).append(".endm \n\n");          
            break;
          case MACRO1_HEX:
          case MACRO1_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MonoSpriteLine (tribyte) {\n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");
+           str.append(asm.getDataSpacesTabs()).append(".macro MonoSpriteLine (tribyte) {\n")
+              .append(asm.getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("}\n\n");
            break;  
          case MACRO2_HEX:
          case MACRO2_BIN:
-           str.append(getDataSpacesTabs()).append("!macro MonoSpriteLine tribyte {\n")
-              .append(getDataSpacesTabs()).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");               
+           str.append(asm.getDataSpacesTabs()).append("!macro MonoSpriteLine tribyte {\n")
+              .append(asm.getDataSpacesTabs()).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("}\n\n");               
            break; 
          case MACRO3_HEX:
          case MACRO3_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MonoSpriteLine tribyte \n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append(".endmacro\n\n");                         
+           str.append(asm.getDataSpacesTabs()).append(".macro MonoSpriteLine tribyte \n")
+              .append(asm.getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append(".endmacro\n\n");                         
            break;    
          case MACRO4_HEX:
          case MACRO4_BIN:
@@ -3323,15 +3329,15 @@ public class Assembler {
            break;  
          case MACRO5_HEX:  
          case MACRO5_BIN:          
-           str.append(getDataSpacesTabs()).append("MonoSpriteLine: macro ?tribyte \n")
-              .append(getDataSpacesTabs()).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(asm.getDataSpacesTabs()).append("MonoSpriteLine: macro ?tribyte \n")
+              .append(asm.getDataSpacesTabs()).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("endm\n\n");                         
            break;   
          case MACRO6_HEX:  
          case MACRO6_BIN:          
-           str.append(getDataSpacesTabs()).append("MonoSpriteLine: macro tribyte \n")
-              .append(getDataSpacesTabs()).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(asm.getDataSpacesTabs()).append("MonoSpriteLine: macro tribyte \n")
+              .append(asm.getDataSpacesTabs()).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("endm\n\n");                         
            break;           
        }
      };
@@ -3370,28 +3376,28 @@ public class Assembler {
      MACRO6_BIN,    // [.macro] %b..  (AS)    
      ;      
      @Override
-     public void flush(StringBuilder str) {
-        if (list.isEmpty()) return; 
+     public void flush(Assembler asm, StringBuilder str) {
+        if (asm.list.isEmpty()) return; 
         
         // we must receive a list of 3 or 1 final byte (if 2, uses as bytes)
-        if (list.size()>=3) {    
-          MemoryDasm mem1=list.pop(); 
-          MemoryDasm mem2=list.pop();
-          MemoryDasm mem3=list.pop(); 
+        if (asm.list.size()>=3) {    
+          MemoryDasm mem1=asm.list.pop(); 
+          MemoryDasm mem2=asm.list.pop();
+          MemoryDasm mem3=asm.list.pop(); 
           StringBuilder tmp;
           String tmpS;
            
           // add a dasm comment with pixels
-          mem3.dasmComment=BinToMulti(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMulti(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
-                           BinToMulti(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
-          lastMem=mem3;
+          mem3.dasmComment=asm.BinToMulti(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))+
+                           asm.BinToMulti(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))+
+                           asm.BinToMulti(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1));
+          asm.lastMem=mem3;
           
           int initial=str.length();
           int start=initial;
           
           // now we have one row of 3 bytes
-          switch (aMultiSprite) {
+          switch (asm.aMultiSprite) {
             case BYTE_HEX:
               mem1=mem1.clone();
               mem2=mem2.clone();
@@ -3399,11 +3405,11 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_HEX;
               mem2.dataType=DataType.BYTE_HEX;
               mem3.dataType=DataType.BYTE_HEX;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              asm.list.push(mem3);
+              asm.list.push(mem2);
+              asm.list.push(mem1);
               tmp=new StringBuilder();
-              aByte.flush(tmp);  
+              asm.aByte.flush(asm, tmp);  
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
@@ -3414,187 +3420,189 @@ public class Assembler {
               mem1.dataType=DataType.BYTE_BIN;
               mem2.dataType=DataType.BYTE_BIN;
               mem3.dataType=DataType.BYTE_BIN;
-              list.push(mem3);
-              list.push(mem2);
-              list.push(mem1);
+              asm.list.push(mem3);
+              asm.list.push(mem2);
+              asm.list.push(mem1);
               tmp=new StringBuilder();
-              aByte.flush(tmp); 
+              asm.aByte.flush(asm, tmp); 
               tmpS=tmp.toString();
               str.append(tmpS.substring(0, tmpS.length()-1)).append("  ");
               break;
             case TWENTYFOUR_HEX:
-              str.append(getDataSpacesTabs()).append("!24 $")
+              str.append(asm.getDataSpacesTabs()).append("!24 $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case TWENTYFOUR_BIN:
-              str.append(getDataSpacesTabs()).append("!24 %")
+              str.append(asm.getDataSpacesTabs()).append("!24 %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;               
             case MACRO_HEX:
             case MACRO3_HEX:    
             case MACRO5_HEX:
             case MACRO6_HEX: 
-              str.append(getDataSpacesTabs()).append("MultiSpriteLine $")
+              str.append(asm.getDataSpacesTabs()).append("MultiSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO_BIN:
             case MACRO3_BIN:  
             case MACRO5_BIN:    
             case MACRO6_BIN:   
-              str.append(getDataSpacesTabs()).append("MultiSpriteLine %")
+              str.append(asm.getDataSpacesTabs()).append("MultiSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;  
             case MACRO1_HEX:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))     
+              str.append(asm.getDataSpacesTabs())
+                 .append((asm.option.kickColonMacro ? ":":""))     
                  .append("MultiSpriteLine($")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append(")  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO1_BIN:
-              str.append(getDataSpacesTabs())
-                 .append((option.kickColonMacro ? ":":""))       
+              str.append(asm.getDataSpacesTabs())
+                 .append((asm.option.kickColonMacro ? ":":""))       
                  .append("MultiSpriteLine(%")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append(")  ");
-              emptyPop();
+              emptyPop(asm);
               break; 
             case MACRO2_HEX:
-              str.append(getDataSpacesTabs()).append("+MultiSpriteLine $")
+              str.append(asm.getDataSpacesTabs()).append("+MultiSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO2_BIN:
-              str.append(getDataSpacesTabs()).append("+MultiSpriteLine %")
+              str.append(asm.getDataSpacesTabs()).append("+MultiSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;   
             case MACRO4_HEX:
-              str.append(getDataSpacesTabs()).append("#MultiSpriteLine $")
+              str.append(asm.getDataSpacesTabs()).append("#MultiSpriteLine $")
                  .append(ByteToExe(Unsigned.done(mem1.copy)))
                  .append(ByteToExe(Unsigned.done(mem2.copy)))
                  .append(ByteToExe(Unsigned.done(mem3.copy)))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;
             case MACRO4_BIN:
-              str.append(getDataSpacesTabs()).append("#MultiSpriteLine %")
+              str.append(asm.getDataSpacesTabs()).append("#MultiSpriteLine %")
                  .append(Integer.toBinaryString((mem1.copy & 0xFF) + 0x100).substring(1))
                  .append(Integer.toBinaryString((mem2.copy & 0xFF) + 0x100).substring(1))        
                  .append(Integer.toBinaryString((mem3.copy & 0xFF) + 0x100).substring(1))
                  .append("  ");
-              emptyPop();
+              emptyPop(asm);
               break;               
             }      
-          carets.add(start, str.length(), mem1, Type.MULTI_SPRITE);
+          asm.carets.add(start, str.length(), mem1, Type.MULTI_SPRITE);
           
-          str.append(getDataCSpacesTabs(str.length()-initial-getDataSpacesTabs().length()));
+          str.append(asm.getDataCSpacesTabs(str.length()-initial-asm.getDataSpacesTabs().length()));
           // flush comment only for macro as byte flush it itself
-          if (aMultiSprite!=BYTE_HEX && aMultiSprite!=BYTE_BIN) aComment.flush(str);
+          if (asm.aMultiSprite!=BYTE_HEX && asm.aMultiSprite!=BYTE_BIN) asm.aComment.flush(asm, str);
           else str.append("\n");
           
           //start=str.length();
         } else {
             // force to be as byte
-            aByte.flush(str);
+            asm.aByte.flush(asm, str);
           }    
      }   
      
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {        
-         if ((sizeMultiSpriteBlock % 3)==0) flush(str);
-         else if (sizeMultiSpriteBlock>=64) {
-           flush(str);
-           sizeMultiSpriteBlock=0;
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {        
+         if ((asm.sizeMultiSpriteBlock % 3)==0) flush(asm, str);
+         else if (asm.sizeMultiSpriteBlock>=64) {
+           flush(asm, str);
+           asm.sizeMultiSpriteBlock=0;
          }          
       }     
      
       /**
        * Empty pop to have stack corrected
+       * @param asm the assembler with the state of output
        */
-      private void emptyPop() {
-        listRel.pop();
-        listRel.pop();
-        listRel.pop();
+      private void emptyPop(Assembler asm) {
+        asm.listRel.pop();
+        asm.listRel.pop();
+        asm.listRel.pop();
               
-        listRel2.pop();
-        listRel2.pop();
-        listRel2.pop();
+        asm.listRel2.pop();
+        asm.listRel2.pop();
+        asm.listRel2.pop();
               
-        listBase.pop();
-        listBase.pop();
-        listBase.pop();
+        asm.listBase.pop();
+        asm.listBase.pop();
+        asm.listBase.pop();
               
-        listDest.pop();
-        listDest.pop();
-        listDest.pop();
+        asm.listDest.pop();
+        asm.listDest.pop();
+        asm.listDest.pop();
       }
       
      /** 
       * Setting up the action type if this is the case
       * 
+      * @param asm the assembler with the state of output
       * @param str the output stream
       */
      @Override
-     public void setting(StringBuilder str) {
-       switch (aMultiSprite) {
+     public void setting(Assembler asm, StringBuilder str) {
+       switch (asm.aMultiSprite) {
          case MACRO_HEX:
          case MACRO_BIN:
-           str.append(getDataSpacesTabs()).append(".mac MultiSpriteLine \n")
-              .append(getDataSpacesTabs()).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
-              .append(getDataSpacesTabs()).append(".endm \n\n");
+           str.append(asm.getDataSpacesTabs()).append(".mac MultiSpriteLine \n")
+              .append(asm.getDataSpacesTabs()).append("  .byte {1} >> 16, ( {1} >> 8) & 255,  {1} & 255\n")
+              .append(asm.getDataSpacesTabs()).append(".endm \n\n");
            break;
          case MACRO1_HEX:
          case MACRO1_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MultiSpriteLine (tribyte) {\n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");               
+           str.append(asm.getDataSpacesTabs()).append(".macro MultiSpriteLine (tribyte) {\n")
+              .append(asm.getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("}\n\n");               
            break;  
          case MACRO2_HEX:
          case MACRO2_BIN:
-           str.append(getDataSpacesTabs()).append("!macro MultiSpriteLine tribyte {\n")
-              .append(getDataSpacesTabs()).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("}\n\n");           
+           str.append(asm.getDataSpacesTabs()).append("!macro MultiSpriteLine tribyte {\n")
+              .append(asm.getDataSpacesTabs()).append("  !byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("}\n\n");           
            break;      
          case MACRO3_HEX:
          case MACRO3_BIN:
-           str.append(getDataSpacesTabs()).append(".macro MultiSpriteLine tribyte \n")
-              .append(getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append(".endmacro\n\n");  
+           str.append(asm.getDataSpacesTabs()).append(".macro MultiSpriteLine tribyte \n")
+              .append(asm.getDataSpacesTabs()).append("  .byte tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append(".endmacro\n\n");  
          case MACRO4_HEX:
          case MACRO4_BIN:
            str.append(
@@ -3605,15 +3613,15 @@ public class Assembler {
            break;  
          case MACRO5_HEX:  
          case MACRO5_BIN:          
-           str.append(getDataSpacesTabs()).append("MultiSpriteLine: macro ?tribyte \n")
-              .append(getDataSpacesTabs()).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(asm.getDataSpacesTabs()).append("MultiSpriteLine: macro ?tribyte \n")
+              .append(asm.getDataSpacesTabs()).append(" db ?tribyte >> 16, ( ?tribyte >> 8) & 255,  ?tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("endm\n\n");                         
            break;  
          case MACRO6_HEX:  
          case MACRO6_BIN:          
-           str.append(getDataSpacesTabs()).append("MultiSpriteLine: macro tribyte \n")
-              .append(getDataSpacesTabs()).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
-              .append(getDataSpacesTabs()).append("endm\n\n");                         
+           str.append(asm.getDataSpacesTabs()).append("MultiSpriteLine: macro tribyte \n")
+              .append(asm.getDataSpacesTabs()).append(" db tribyte >> 16, ( tribyte >> 8) & 255,  tribyte & 255\n")
+              .append(asm.getDataSpacesTabs()).append("endm\n\n");                         
            break;    
        }
      };      
@@ -3647,8 +3655,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+      public void flush(Assembler asm, StringBuilder str) {
+        if (asm.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -3658,36 +3666,36 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aText) {
+        switch (asm.aText) {
           case DOT_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(asm.getDataSpacesTabs()).append((".byte "));
             break;
           case DOT_BYT_TEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(asm.getDataSpacesTabs()).append((".byt "));
             break;  
           case DB_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("db "));  
+            str.append(asm.getDataSpacesTabs()).append(("db "));  
             break;            
           case BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(asm.getDataSpacesTabs()).append(("byte "));  
             break;
           case DC_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc "));  
             break;
           case DC_B_BYTE_TEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc.b "));  
             break;
           case MARK_TEXT:
-            str.append(getDataSpacesTabs()).append(("!text "));  
+            str.append(asm.getDataSpacesTabs()).append(("!text "));  
             break;
           case MARK_TX_TEXT:
-            str.append(getDataSpacesTabs()).append(("!tx "));  
+            str.append(asm.getDataSpacesTabs()).append(("!tx "));  
             break; 
           case MARK_RAW_TEXT:
-            str.append(getDataSpacesTabs()).append(("!raw "));  
+            str.append(asm.getDataSpacesTabs()).append(("!raw "));  
             break;            
           case DOT_TEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(asm.getDataSpacesTabs()).append((".text "));   
             break;  
         }       
         
@@ -3696,22 +3704,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!asm.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=asm.list.pop();
+          memRel=asm.listRel.pop();
+          asm.listRel2.pop();
+          asm.listBase.pop();
+          asm.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (asm.option.assembler) {
             case DASM:
               if (
-                 (!option.allowUtf && ((val<0x20 || val==0x22 || (val>127)))) ||     
-                 (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                 (!asm.option.allowUtf && ((val<0x20 || val==0x22 || (val>127)))) ||     
+                 (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )     
               {
                   if (isString) {
@@ -3736,8 +3744,8 @@ public class Assembler {
               break;
             case TMPX:
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  ) {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -3748,13 +3756,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  asm.list.push(mem);
+                  asm.listRel.push(memRel);
+                  asm.listRel2.push(null);
+                  asm.listBase.push(null);
+                  asm.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  asm.aByte.flush(asm, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -3769,8 +3777,8 @@ public class Assembler {
               break;  
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  ) {
                   if (isString) {
                     str.append("\"");
@@ -3794,8 +3802,8 @@ public class Assembler {
               break;
             case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  ) {
                   if (isString) {
                     str.append("\"");
@@ -3826,13 +3834,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (asm.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -3861,8 +3869,8 @@ public class Assembler {
               break; 
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (asm.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -3951,8 +3959,8 @@ public class Assembler {
               break;
             case AS:
               if (
-                 (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                 (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
+                 (!asm.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                 (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
                  )     
               {
                   if (isString) {
@@ -3976,12 +3984,12 @@ public class Assembler {
                 }                  
               break;
           }         
-          carets.add(start, str.length(), mem, Type.TEXT);
+          asm.carets.add(start, str.length(), mem, Type.TEXT);
           
-          if (list.isEmpty()) { 
+          if (asm.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (asm.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -3991,14 +3999,14 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) { 
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) { 
         // look if it is time to aggregate data
-        if (list.size()==option.maxTextAggregate) flush(str);    
+        if (asm.list.size()==asm.option.maxTextAggregate) flush(asm, str);    
       }      
    }
    
@@ -4022,8 +4030,8 @@ public class Assembler {
      ;     
 
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return;    
+     public void flush(Assembler asm, StringBuilder str) {
+       if (asm.list.isEmpty()) return;    
          
        boolean isString=false;
        boolean isFirst=true;  
@@ -4031,42 +4039,42 @@ public class Assembler {
        int pos1=str.length();
        int start=pos1;
          
-       switch (aNumText) {
+       switch (asm.aNumText) {
          case DOT_PTEXT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".ptext "));
+           str.append(asm.getDataSpacesTabs()).append((".ptext "));
            break; 
          case DOT_TEXT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".text "));
+           str.append(asm.getDataSpacesTabs()).append((".text "));
            break;   
          case DOT_TEXT_P_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".text p"));
+           str.append(asm.getDataSpacesTabs()).append((".text p"));
            break;  
          case DOT_BYTE_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".byte "));
+           str.append(asm.getDataSpacesTabs()).append((".byte "));
            break;
          case DOT_BYT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append((".byt "));
+           str.append(asm.getDataSpacesTabs()).append((".byt "));
            break;     
          case DB_BYTE_NUMTEXT:
-            str.append(getDataSpacesTabs()).append(("db "));  
+            str.append(asm.getDataSpacesTabs()).append(("db "));  
             break;     
          case MARK_TEXT_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("!text "));
+           str.append(asm.getDataSpacesTabs()).append(("!text "));
            break;   
          case MARK_TX_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("!tx "));
+           str.append(asm.getDataSpacesTabs()).append(("!tx "));
            break; 
          case MARK_RAW_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("!raw "));
+           str.append(asm.getDataSpacesTabs()).append(("!raw "));
            break;            
          case BYTE_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("byte "));  
+           str.append(asm.getDataSpacesTabs()).append(("byte "));  
            break;
          case DC_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("dc "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc "));  
            break;
          case DC_DOT_B_NUMTEXT:
-           str.append(getDataSpacesTabs()).append(("dc.b "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc.b "));  
            break;  
        }  
        
@@ -4075,35 +4083,35 @@ public class Assembler {
        MemoryDasm mem;
        MemoryDasm memRel;
        
-       if (option.assembler==Assembler.Name.TMPX || option.assembler==Assembler.Name.TASS64)  {
+       if (asm.option.assembler==Assembler.Name.TMPX || asm.option.assembler==Assembler.Name.TASS64)  {
          // this byte is calculated by instruction
-         list.pop();
-         listRel.pop();
-         listRel2.pop();
-         listBase.pop();
-         listDest.pop();
+         asm.list.pop();
+         asm.listRel.pop();
+         asm.listRel2.pop();
+         asm.listBase.pop();
+         asm.listDest.pop();
        }
       
-        while (!list.isEmpty()) {
+        while (!asm.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=asm.list.pop();
+          memRel=asm.listRel.pop();
+          asm.listRel2.pop();
+          asm.listBase.pop();
+          asm.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (asm.option.assembler) {
             case DASM:
               if (isFirst) {  
                str.append("$").append(ByteToExe(val)); 
                isFirst=false;                   
               } else {  
                   if (
-                      (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                      (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                      (!asm.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                      (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                      )  {
                       if (isString) {
                         str.append("\"");
@@ -4128,8 +4136,8 @@ public class Assembler {
               break;
             case TMPX:
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -4140,13 +4148,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  asm.list.push(mem);
+                  asm.listRel.push(memRel);
+                  asm.listRel2.push(null);
+                  asm.listBase.push(null);
+                  asm.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  asm.aByte.flush(asm, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -4165,8 +4173,8 @@ public class Assembler {
                isFirst=false;                   
               } else {  
                   if (
-                      (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                      (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                      (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                      (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                      )  {
                     if (isString) {
                       str.append("\"");
@@ -4195,8 +4203,8 @@ public class Assembler {
                isFirst=false;                   
               } else {  
                 if (
-                    (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                    (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                    (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                    (asm.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                    )  {
                     if (isString) {
                        str.append("\"");
@@ -4227,13 +4235,13 @@ public class Assembler {
                 isFirst=false; 
               } else {   
                   if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (asm.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -4255,8 +4263,8 @@ public class Assembler {
               break;    
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (asm.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -4356,8 +4364,8 @@ public class Assembler {
                isFirst=false;                   
               } else {  
                   if (
-                      (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                      (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
+                      (!asm.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                      (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
                      )  {
                       if (isString) {
                         str.append("\"");
@@ -4382,9 +4390,9 @@ public class Assembler {
               break;
           }   
           
-          carets.add(start, str.length(), mem, Type.NUM_TEXT);
+          asm.carets.add(start, str.length(), mem, Type.NUM_TEXT);
           
-          if (list.isEmpty()) { 
+          if (asm.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
           }
@@ -4396,18 +4404,18 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
         
-        if (numText==null) numText=mem;
+        if (asm.numText==null) asm.numText=mem;
         // look if it is time to aggregate data
-        if (list.size()==numText.copy+1) {
-          flush(str);
-          numText=null;
+        if (asm.list.size()==asm.numText.copy+1) {
+          flush(asm, str);
+          asm.numText=null;
         }   
         
       }     
@@ -4432,8 +4440,8 @@ public class Assembler {
      ;
 
      @Override
-     public void flush(StringBuilder str) {
-       if (list.isEmpty()) return;  
+     public void flush(Assembler asm, StringBuilder str) {
+       if (asm.list.isEmpty()) return;  
        
        boolean isString=false;
        boolean isFirst=true;
@@ -4443,42 +4451,42 @@ public class Assembler {
        int pos1=str.length(); 
        int start=pos1;
          
-       switch (aZeroText) {
+       switch (asm.aZeroText) {
          case DOT_NULL_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".null "));
+           str.append(asm.getDataSpacesTabs()).append((".null "));
            break; 
          case DOT_TEXT_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".text "));
+           str.append(asm.getDataSpacesTabs()).append((".text "));
            break;   
          case DOT_TEXT_N_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".text n"));
+           str.append(asm.getDataSpacesTabs()).append((".text n"));
            break;  
          case DOT_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".byte "));
+           str.append(asm.getDataSpacesTabs()).append((".byte "));
            break;
          case DOT_ASCIIZ_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append((".asciiz "));
+           str.append(asm.getDataSpacesTabs()).append((".asciiz "));
            break;     
          case DB_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(asm.getDataSpacesTabs()).append(("db "));
            break;  
          case MARK_TEXT_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("!text "));
+           str.append(asm.getDataSpacesTabs()).append(("!text "));
            break;   
          case MARK_TX_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("!tx "));
+           str.append(asm.getDataSpacesTabs()).append(("!tx "));
            break; 
          case MARK_RAW_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("!raw "));
+           str.append(asm.getDataSpacesTabs()).append(("!raw "));
            break;            
          case BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("byte "));  
+           str.append(asm.getDataSpacesTabs()).append(("byte "));  
            break;
          case DC_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("dc "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc "));  
            break;
          case DC_B_BYTE_ZEROTEXT:
-           str.append(getDataSpacesTabs()).append(("dc.b "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc.b "));  
            break;   
        }
        
@@ -4487,22 +4495,22 @@ public class Assembler {
        MemoryDasm mem;
        MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!asm.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=asm.list.pop();
+          memRel=asm.listRel.pop();
+          asm.listRel2.pop();
+          asm.listBase.pop();
+          asm.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (asm.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!asm.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4526,8 +4534,8 @@ public class Assembler {
               break;
            case TMPX:
               if (
-                  (!option.allowUtf && (val<0x08) || ((val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && (val<0x08) || ((val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -4538,13 +4546,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  asm.list.push(mem);
+                  asm.listRel.push(memRel);
+                  asm.listRel2.push(null);
+                  asm.listBase.push(null);
+                  asm.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  asm.aByte.flush(asm, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -4556,19 +4564,19 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }   
-              if (list.size()==1) {
+              if (asm.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                asm.list.pop();
+                asm.listRel.pop();
+                asm.listRel2.pop();
+                asm.listBase.pop();
+                asm.listDest.pop();
               }
               break; 
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4589,19 +4597,19 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }   
-              if (list.size()==1) {
+              if (asm.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                asm.list.pop();
+                asm.listRel.pop();
+                asm.listRel2.pop();
+                asm.listBase.pop();
+                asm.listDest.pop();
               }
               break;  
            case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4623,13 +4631,13 @@ public class Assembler {
                   if  (val==0x5C) str.append("\\");
                   str.append((char)val);  
                 }  
-              if (list.size()==1) {
+              if (asm.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                asm.list.pop();
+                asm.listRel.pop();
+                asm.listRel2.pop();
+                asm.listBase.pop();
+                asm.listDest.pop();
               }
               break;  
             case KICK:
@@ -4640,13 +4648,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (asm.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -4674,8 +4682,8 @@ public class Assembler {
               break;         
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (asm.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -4699,13 +4707,13 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }   
-              if (list.size()==1) {
+              if (asm.list.size()==1) {
                   // terminating 0 is ommitted
-                list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                asm.list.pop();
+                asm.listRel.pop();
+                asm.listRel2.pop();
+                asm.listBase.pop();
+                asm.listDest.pop();
               }
               break;   
             case GLASS:
@@ -4772,8 +4780,8 @@ public class Assembler {
               break;  
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
+                  (!asm.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4797,12 +4805,12 @@ public class Assembler {
               break;  
           }   
           
-          carets.add(start, str.length(), mem, Type.ZERO_TEXT);
+          asm.carets.add(start, str.length(), mem, Type.ZERO_TEXT);
           
-          if (list.isEmpty()) { 
+          if (asm.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (asm.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -4812,14 +4820,14 @@ public class Assembler {
       /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {  
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {  
         // look if it is time to aggregate data
-        if (mem.copy==0) flush(str);  
+        if (mem.copy==0) flush(asm, str);  
       }     
    }
    
@@ -4843,8 +4851,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-      if (list.isEmpty()) return;  
+      public void flush(Assembler asm, StringBuilder str) {
+      if (asm.list.isEmpty()) return;  
        
        boolean isString=false;
        boolean isFirst=true;
@@ -4852,42 +4860,42 @@ public class Assembler {
        int pos1=str.length(); 
        int start=pos1;
          
-       switch (aHighText) {
+       switch (asm.aHighText) {
          case DOT_SHIFT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".shift "));
+           str.append(asm.getDataSpacesTabs()).append((".shift "));
            break;  
          case DOT_TEXT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".text "));
+           str.append(asm.getDataSpacesTabs()).append((".text "));
            break;            
          case DOT_TEXT_S_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".text s"));
+           str.append(asm.getDataSpacesTabs()).append((".text s"));
            break;  
          case DOT_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".byte "));
+           str.append(asm.getDataSpacesTabs()).append((".byte "));
            break;
          case DOT_BYT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append((".byt "));
+           str.append(asm.getDataSpacesTabs()).append((".byt "));
            break; 
          case DB_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(asm.getDataSpacesTabs()).append(("db "));
            break;   
          case MARK_TEXT_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("!text "));
+           str.append(asm.getDataSpacesTabs()).append(("!text "));
            break;   
          case MARK_TX_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("!tx "));
+           str.append(asm.getDataSpacesTabs()).append(("!tx "));
            break; 
          case MARK_RAW_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("!raw "));
+           str.append(asm.getDataSpacesTabs()).append(("!raw "));
            break;            
          case BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("byte "));  
+           str.append(asm.getDataSpacesTabs()).append(("byte "));  
            break;
          case DC_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("dc "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc "));  
            break;
          case DC_B_BYTE_HIGHTEXT:
-           str.append(getDataSpacesTabs()).append(("dc.b "));  
+           str.append(asm.getDataSpacesTabs()).append(("dc.b "));  
            break;   
        }
        
@@ -4895,22 +4903,22 @@ public class Assembler {
        
        MemoryDasm mem;
        MemoryDasm memRel;
-       while (!list.isEmpty()) {
+       while (!asm.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=asm.list.pop();
+          memRel=asm.listRel.pop();
+          asm.listRel2.pop();
+          asm.listBase.pop();
+          asm.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (asm.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!asm.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -4933,19 +4941,19 @@ public class Assembler {
                 }  
               break;
            case TMPX:
-              if (list.size()==1) {
+              if (asm.list.size()==1) {
                 // terminating has 1 converted to 0
-                mem=list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                mem=asm.list.pop();
+                asm.listRel.pop();
+                asm.listRel2.pop();
+                asm.listBase.pop();
+                asm.listDest.pop();
                 
                 str.append((char)(mem.copy & 0x7F));  
               } 
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -4956,13 +4964,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  asm.list.push(mem);
+                  asm.listRel.push(memRel);
+                  asm.listRel2.push(null);
+                  asm.listBase.push(null);
+                  asm.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  asm.aByte.flush(asm, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -4977,8 +4985,8 @@ public class Assembler {
               break; 
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5002,8 +5010,8 @@ public class Assembler {
               break;  
            case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5033,13 +5041,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (asm.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -5064,8 +5072,8 @@ public class Assembler {
               break;         
             case TASS64:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (asm.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -5089,13 +5097,13 @@ public class Assembler {
                         }  
                   str.append((char)val);  
                 }            
-              if (list.size()==1) {
+              if (asm.list.size()==1) {
                 // terminating has 1 converted to 0
-                mem=list.pop();
-                listRel.pop();
-                listRel2.pop();
-                listBase.pop();
-                listDest.pop();
+                mem=asm.list.pop();
+                asm.listRel.pop();
+                asm.listRel2.pop();
+                asm.listBase.pop();
+                asm.listDest.pop();
                 
                 str.append((char)(mem.copy & 0x7F));  
               }
@@ -5164,8 +5172,8 @@ public class Assembler {
               break;   
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
+                  (!asm.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5189,9 +5197,9 @@ public class Assembler {
               break;
           }   
           
-          carets.add(start, str.length(), mem, Type.HIGH_TEXT);
+          asm.carets.add(start, str.length(), mem, Type.HIGH_TEXT);
            
-          if (list.isEmpty()) { 
+          if (asm.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
 
@@ -5204,14 +5212,14 @@ public class Assembler {
             /**
        * Put a value to the stream
        * 
+       * @param asm the assembler with the state of output
        * @param str the otput stream
        * @param mem the memory dasm
-       * @param option the option to use
        */
       @Override
-      public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+      public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
         // look if it is time to aggregate data
-        if ((mem.copy & 0X80) !=0) flush(str); 
+        if ((mem.copy & 0X80) !=0) flush(asm, str); 
       }
    }
    
@@ -5234,8 +5242,8 @@ public class Assembler {
       ;
 
         @Override
-        public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+        public void flush(Assembler asm, StringBuilder str) {
+        if (asm.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -5245,42 +5253,42 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aShiftText) {
+        switch (asm.aShiftText) {
           case DOT_BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(asm.getDataSpacesTabs()).append((".byte "));
             break;
           case DOT_BYT_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(asm.getDataSpacesTabs()).append((".byt "));
             break;  
           case BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(asm.getDataSpacesTabs()).append(("byte "));  
             break;
           case DC_BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc "));  
             break;
           case DC_B_BYTE_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc.b "));  
             break;
          case DB_BYTE_SHIFTTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(asm.getDataSpacesTabs()).append(("db "));
            break;   
           case MARK_TEXT_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("!text "));  
+            str.append(asm.getDataSpacesTabs()).append(("!text "));  
             break;
           case MARK_TX_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("!tx "));  
+            str.append(asm.getDataSpacesTabs()).append(("!tx "));  
             break; 
           case MARK_RAW_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append(("!raw "));  
+            str.append(asm.getDataSpacesTabs()).append(("!raw "));  
             break;            
           case DOT_TEXT_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(asm.getDataSpacesTabs()).append((".text "));   
             break;  
           case DOT_TEXT_L_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".text l"));   
+            str.append(asm.getDataSpacesTabs()).append((".text l"));   
             break;      
           case DOT_SHIFTL_SHIFTTEXT:
-            str.append(getDataSpacesTabs()).append((".shiftl "));   
+            str.append(asm.getDataSpacesTabs()).append((".shiftl "));   
             break;              
         }       
         
@@ -5289,22 +5297,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!asm.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=asm.list.pop();
+          memRel=asm.listRel.pop();
+          asm.listRel2.pop();
+          asm.listBase.pop();
+          asm.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (asm.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!asm.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5329,8 +5337,8 @@ public class Assembler {
             case TMPX:
               val>>=1;
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -5341,13 +5349,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  asm.list.push(mem);
+                  asm.listRel.push(memRel);
+                  asm.listRel2.push(null);
+                  asm.listBase.push(null);
+                  asm.listDest.push(null);
                           
-                  aByte.flush(str);   
+                  asm.aByte.flush(asm, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -5362,8 +5370,8 @@ public class Assembler {
               break;    
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5387,8 +5395,8 @@ public class Assembler {
               break;
             case ACME:                
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5419,13 +5427,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (asm.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -5454,8 +5462,8 @@ public class Assembler {
             case TASS64:
               val>>=1;  
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (asm.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -5544,8 +5552,8 @@ public class Assembler {
               break;  
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5569,12 +5577,12 @@ public class Assembler {
               break;
             }       
           
-          carets.add(start, str.length(), mem, Type.SHIFT_TEXT);
+          asm.carets.add(start, str.length(), mem, Type.SHIFT_TEXT);
           
-          if (list.isEmpty()) { 
+          if (asm.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (asm.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -5584,14 +5592,14 @@ public class Assembler {
        /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxTextAggregate) flush(str);   
+       if (asm.list.size()==asm.option.maxTextAggregate) flush(asm, str);   
     }        
    }  
    
@@ -5611,8 +5619,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+      public void flush(Assembler asm, StringBuilder str) {
+        if (asm.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -5622,33 +5630,33 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aScreenText) {
+        switch (asm.aScreenText) {
           case DOT_BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(asm.getDataSpacesTabs()).append((".byte "));
             break;
           case DOT_BYT_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(asm.getDataSpacesTabs()).append((".byt "));
             break;  
           case BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(asm.getDataSpacesTabs()).append(("byte "));  
             break;
           case DC_BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc "));  
             break;
           case DC_B_BYTE_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc.b "));  
             break;
           case DB_BYTE_SCREENTEXT:
-           str.append(getDataSpacesTabs()).append(("db "));
+           str.append(asm.getDataSpacesTabs()).append(("db "));
            break;    
           case MARK_SCR_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append(("!scr "));  
+            str.append(asm.getDataSpacesTabs()).append(("!scr "));  
             break;            
           case DOT_TEXT_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(asm.getDataSpacesTabs()).append((".text "));   
             break;  
           case DOT_SCREEN_SCREENTEXT:
-            str.append(getDataSpacesTabs()).append((".screen "));   
+            str.append(asm.getDataSpacesTabs()).append((".screen "));   
             break;                  
         }     
         
@@ -5657,22 +5665,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!asm.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=asm.list.pop();
+          memRel=asm.listRel.pop();
+          asm.listRel2.pop();
+          asm.listBase.pop();
+          asm.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (asm.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!asm.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5707,13 +5715,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  asm.list.push(mem);
+                  asm.listRel.push(memRel);
+                  asm.listRel2.push(null);
+                  asm.listBase.push(null);
+                  asm.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  asm.aByte.flush(asm, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -5733,8 +5741,8 @@ public class Assembler {
               break;    
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5794,13 +5802,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (asm.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -5828,8 +5836,8 @@ public class Assembler {
               break; 
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (asm.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -5918,8 +5926,8 @@ public class Assembler {
               break;   
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -5943,12 +5951,12 @@ public class Assembler {
               break;
           }     
           
-          carets.add(start, str.length(), mem, Type.SCREEN_TEXT);
+          asm.carets.add(start, str.length(), mem, Type.SCREEN_TEXT);
           
-          if (list.isEmpty()) { 
+          if (asm.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (asm.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -5958,14 +5966,14 @@ public class Assembler {
                 /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxTextAggregate) flush(str);   
+       if (asm.list.size()==asm.option.maxTextAggregate) flush(asm, str);   
     }
    }  
    
@@ -5984,8 +5992,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-        if (list.isEmpty()) return;    
+      public void flush(Assembler asm, StringBuilder str) {
+        if (asm.list.isEmpty()) return;    
         
         boolean isString=false;
         boolean isFirst=true;
@@ -5995,30 +6003,30 @@ public class Assembler {
         int pos1=str.length();
         int start=pos1;
                
-        switch (aPetasciiText) {
+        switch (asm.aPetasciiText) {
           case DOT_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append((".byte "));
+            str.append(asm.getDataSpacesTabs()).append((".byte "));
             break;
           case DOT_BYT_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append((".byt "));
+            str.append(asm.getDataSpacesTabs()).append((".byt "));
             break;  
           case BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("byte "));  
+            str.append(asm.getDataSpacesTabs()).append(("byte "));  
             break;
           case DC_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("dc "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc "));  
             break;
           case DC_B_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("dc.b "));  
+            str.append(asm.getDataSpacesTabs()).append(("dc.b "));  
             break;
           case DB_BYTE_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("db "));  
+            str.append(asm.getDataSpacesTabs()).append(("db "));  
             break;  
           case MARK_PET_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append(("!pet "));  
+            str.append(asm.getDataSpacesTabs()).append(("!pet "));  
             break;            
           case DOT_TEXT_PETASCIITEXT:
-            str.append(getDataSpacesTabs()).append((".text "));   
+            str.append(asm.getDataSpacesTabs()).append((".text "));   
             break;                  
         }
         
@@ -6027,22 +6035,22 @@ public class Assembler {
         MemoryDasm mem;
         MemoryDasm memRel;
       
-        while (!list.isEmpty()) {
+        while (!asm.list.isEmpty()) {
           // accodate each bytes in the format choosed
-          mem=list.pop();
-          memRel=listRel.pop();
-          listRel2.pop();
-          listBase.pop();
-          listDest.pop();
+          mem=asm.list.pop();
+          memRel=asm.listRel.pop();
+          asm.listRel2.pop();
+          asm.listBase.pop();
+          asm.listDest.pop();
           
           // not all char can be converted in string
           
           int val=(mem.copy & 0xFF);  
-          switch (option.assembler) {
+          switch (asm.option.assembler) {
             case DASM:
               if (
-                  (!option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
+                  (!asm.option.allowUtf && (val<0x20 || val==0x22 || (val>127))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x22) || (val>127)))  
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6066,8 +6074,8 @@ public class Assembler {
               break;
             case TMPX:
               if (
-                  (!option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x08) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )   {                                    
                   // sorry, we force to be bytes as tmpx did not supports byte in line of text
                   if (isFirst) {
@@ -6078,13 +6086,13 @@ public class Assembler {
                         str.append("\"\n");
                         isString=false;  
                       }                  
-                  list.push(mem);
-                  listRel.push(memRel);
-                  listRel2.push(null);
-                  listBase.push(null);
-                  listDest.push(null);
+                  asm.list.push(mem);
+                  asm.listRel.push(memRel);
+                  asm.listRel2.push(null);
+                  asm.listBase.push(null);
+                  asm.listDest.push(null);
                   
-                  aByte.flush(str);   
+                  asm.aByte.flush(asm, str);   
               } else {
                  if (isFirst) {
                       isFirst=false;
@@ -6099,8 +6107,8 @@ public class Assembler {
               break;    
             case CA65:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ((val==0x0A) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6124,8 +6132,8 @@ public class Assembler {
               break;
             case ACME:                 
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
-                  (option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) ||    
+                  (asm.option.allowUtf && ( (val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val>127)))   
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6160,13 +6168,13 @@ public class Assembler {
                 isFirst=false;  
               }    
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x40) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x40) ||
                     (val==0x5B) ||
                     (val==0x5D) ||
                     (val>=0x61 && val<=0x7A) ||
                     (val==0x7F) ||
                     (val>=0xA0))) ||    
-                  (option.allowUtf && ((val<=0x02) ||
+                  (asm.option.allowUtf && ((val<=0x02) ||
                     (val==0x0A) ||
                     (val==0x0C) ||    
                     (val==0x0D) ||
@@ -6194,8 +6202,8 @@ public class Assembler {
               break; 
             case TASS64:
               if (
-                  (!option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
-                  (option.allowUtf && ((val==0x0A) ||
+                  (!asm.option.allowUtf && ((val<=0x1F) || (val==0x22) || (val>127))) || 
+                  (asm.option.allowUtf && ((val==0x0A) ||
                    (val==0x0D) ||
                    (val==0x22) ||
                    (val>127)))                      
@@ -6284,8 +6292,8 @@ public class Assembler {
               break;    
             case AS:
               if (
-                  (!option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
-                  (option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
+                  (!asm.option.allowUtf && ((val<0x20 || val==0x22 || val==0x5c || (val>127)))) ||     
+                  (asm.option.allowUtf && ((val==0x00) || (val==0x0A) || (val==0x0D) || (val==0x22) || (val==0x5c) || (val>127))) 
                  )  {
                   if (isString) {
                     str.append("\"");
@@ -6309,12 +6317,12 @@ public class Assembler {
               break;
           }           
           
-          carets.add(start, str.length(), mem, Type.PETASCII_TEXT);
+          asm.carets.add(start, str.length(), mem, Type.PETASCII_TEXT);
           
-          if (list.isEmpty()) { 
+          if (asm.list.isEmpty()) { 
             if (isString) str.append("\"\n");
             else str.append("\n");
-            if (option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
+            if (asm.option.assembler==Assembler.Name.KICK && !isSpecial) str.setCharAt(position, ' ');
           }
           
           start=str.length();
@@ -6324,14 +6332,14 @@ public class Assembler {
           /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {
        // look if it is time to aggregate data
-       if (list.size()==option.maxTextAggregate) flush(str);   
+       if (asm.list.size()==asm.option.maxTextAggregate) flush(asm, str);   
     }
    }  
    
@@ -6349,8 +6357,8 @@ public class Assembler {
       ;
 
       @Override
-      public void flush(StringBuilder str) {
-       if (list.isEmpty()) return; 
+      public void flush(Assembler asm, StringBuilder str) {
+       if (asm.list.isEmpty()) return; 
        
        MemoryDasm memLow;
        MemoryDasm memHigh;
@@ -6359,24 +6367,24 @@ public class Assembler {
      
        int pos1=str.length();  // store initial position
        int start=pos1;
-       int index=(int)(list.size()/2);
+       int index=(int)(asm.list.size()/2);
        
        // create starting command according to the kind of byte
-       switch (aStackWord) {
+       switch (asm.aStackWord) {
          case DOT_RTA_STACKWORD:
-           str.append(getDataSpacesTabs()).append((".rta "));  
+           str.append(asm.getDataSpacesTabs()).append((".rta "));  
            break;
          case MACRO_STACKWORD:
          case MACRO3_STACKWORD: 
          case MACRO4_STACKWORD:     
          case MACRO5_STACKWORD:     
-           str.append(getDataSpacesTabs()).append("Stack").append(index).append(" ");  
+           str.append(asm.getDataSpacesTabs()).append("Stack").append(index).append(" ");  
            break;           
          case MACRO1_STACKWORD:
-           str.append(getDataSpacesTabs()).append("Stack").append(index).append("(");   // must close the )
+           str.append(asm.getDataSpacesTabs()).append("Stack").append(index).append("(");   // must close the )
            break;
          case MACRO2_STACKWORD:
-           str.append(getDataSpacesTabs()).append("+Stack").append(index).append(" ");  
+           str.append(asm.getDataSpacesTabs()).append("+Stack").append(index).append(" ");  
            break;
        }
        
@@ -6384,30 +6392,30 @@ public class Assembler {
        boolean isFirst=true;    // true if this is the first output
        
        // we use word, so check for his default mode
-       boolean defaultMode=(aWord!=DW_WORD_H);  
+       boolean defaultMode=(asm.aWord!=DW_WORD_H);  
        
        
-       while (!list.isEmpty()) {
+       while (!asm.list.isEmpty()) {
          // if only 1 byte left, use byte coding
-         if (list.size()==1) {
+         if (asm.list.size()==1) {
            if (isFirst) {
               str.replace(pos1, pos2, "");
               isFirst=false;                    
            }  
-           aByte.flush(str);
+           asm.aByte.flush(asm, str);
          }
          else {
-           memLow=list.pop();
-           memRelLow=listRel.pop();
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memLow=asm.list.pop();
+           memRelLow=asm.listRel.pop();
+           asm.listRel2.pop();
+           asm.listBase.pop();
+           asm.listDest.pop();
            
-           memHigh=list.pop();
-           memRelHigh=listRel.pop();           
-           listRel2.pop();
-           listBase.pop();
-           listDest.pop();
+           memHigh=asm.list.pop();
+           memRelHigh=asm.listRel.pop();           
+           asm.listRel2.pop();
+           asm.listBase.pop();
+           asm.listDest.pop();
            
            if (memLow.type==TYPE_MINOR && memHigh.type==TYPE_MAJOR && memLow.related==memHigh.related) {
              if (memRelLow.userLocation!=null && !"".equals(memRelLow.userLocation)) str.append(memRelLow.userLocation).append("+1");
@@ -6424,20 +6432,20 @@ public class Assembler {
                    memHigh.type==TYPE_MAJOR || 
                    memHigh.type==TYPE_PLUS_MAJOR || 
                    memHigh.type==TYPE_PLUS_MINOR)  {
-                 list.addFirst(memHigh);
-                 list.addFirst(memLow);
-                 listRel.addFirst(memRelHigh);
-                 listRel.addFirst(memRelLow);
-                 listRel2.addFirst(null);
-                 listRel2.addFirst(null);
-                 listBase.push(null);
-                 listDest.push(null);
+                 asm.list.addFirst(memHigh);
+                 asm.list.addFirst(memLow);
+                 asm.listRel.addFirst(memRelHigh);
+                 asm.listRel.addFirst(memRelLow);
+                 asm.listRel2.addFirst(null);
+                 asm.listRel2.addFirst(null);
+                 asm.listBase.push(null);
+                 asm.listDest.push(null);
                  
                  if (isFirst) {
                    str.replace(pos1, pos2, "");
                    isFirst=false;
                  }
-                 aByte.flush(str);
+                 asm.aByte.flush(asm, str);
                }
                else {
                  str.append(
@@ -6446,10 +6454,10 @@ public class Assembler {
                  isFirst=false;  
                }    
              }
-           carets.add(start, str.length(), memLow, Type.STACK_WORD);
+           asm.carets.add(start, str.length(), memLow, Type.STACK_WORD);
            
-           if (list.size()>=2) str.append(", ");
-           else if (aStackWord==MACRO1_STACKWORD) str.append(")\n");
+           if (asm.list.size()>=2) str.append(", ");
+           else if (asm.aStackWord==MACRO1_STACKWORD) str.append(")\n");
            else str.append("\n");
            
            start=str.length();
@@ -6460,21 +6468,21 @@ public class Assembler {
     /**
      * Put a value to the stream
      * 
+     * @param asm the assembler with the state of output
      * @param str the otput stream
      * @param mem the memory dasm
-     * @param option the option to use
      */
     @Override
-    public void putValue(StringBuilder str, MemoryDasm mem, Option option) {   
+    public void putValue(Assembler asm, StringBuilder str, MemoryDasm mem) {   
        // look if it is time to aggregate data
-       if (list.size()==option.maxStackWordAggregate*2) flush(str);
+       if (asm.list.size()==asm.option.maxStackWordAggregate*2) flush(asm, str);
     }   
 
       @Override
-      public void setting(StringBuilder str) {
-        String spaces=getDataSpacesTabs();           
+      public void setting(Assembler asm, StringBuilder str) {
+        String spaces=asm.getDataSpacesTabs();           
           
-        switch (aStackWord) {
+        switch (asm.aStackWord) {
          case MACRO_STACKWORD:
            str.append(spaces).append(".mac Stack1 \n")
               .append(spaces).append("  .word {1}-1 \n")
@@ -6805,101 +6813,101 @@ public class Assembler {
 
    
    /** Fifo list of memory locations */
-   protected static LinkedList<MemoryDasm> list=new LinkedList();
+   protected LinkedList<MemoryDasm> list=new LinkedList();
    
    /** Fifo list of related memory locations */
-   protected static LinkedList<MemoryDasm> listRel=new LinkedList();   
+   protected LinkedList<MemoryDasm> listRel=new LinkedList();   
    
    /** Fifo list of related memory locations of second kind */
-   protected static LinkedList<MemoryDasm> listRel2=new LinkedList();
+   protected LinkedList<MemoryDasm> listRel2=new LinkedList();
    
    /** Fifo list of memory locations base  */
-   protected static LinkedList<MemoryDasm> listBase=new LinkedList();
+   protected LinkedList<MemoryDasm> listBase=new LinkedList();
    
    /** Fifo list of memory locations destination */
-   protected static LinkedList<MemoryDasm> listDest=new LinkedList();
+   protected LinkedList<MemoryDasm> listDest=new LinkedList();
    
    /** Option to use */
-   protected static Option option;
+   protected Option option;
          
    /** Last used memory dasm */
-   protected static MemoryDasm lastMem=null;   
+   protected MemoryDasm lastMem=null;   
    
    /** Last program counter */
-   protected static int lastPC=0;
+   protected int lastPC=0;
    
    
    /** Assembler starting to use */
-   protected static Assembler.Starting aStarting; 
+   protected Assembler.Starting aStarting; 
    
    /** Assembler origin to use */
-   protected static Assembler.Origin aOrigin; 
+   protected Assembler.Origin aOrigin; 
    
    /** Assembler label to use */
-   protected static Assembler.Label aLabel;
+   protected Assembler.Label aLabel;
    
    /** Assembler block comment to use */
-   protected static Assembler.BlockComment aBlockComment;  
+   protected Assembler.BlockComment aBlockComment;  
    
    /** Assembler comment to use */
-   protected static Assembler.Comment aComment;  
+   protected Assembler.Comment aComment;  
   
    /** Assembler byte type */
-   protected static Assembler.Byte aByte;
+   protected Assembler.Byte aByte;
   
    /** Assembler word type */
-   protected static Assembler.Word aWord;
+   protected Assembler.Word aWord;
    
    /** Assembler word swapped type */
-   protected static Assembler.WordSwapped aWordSwapped;
+   protected Assembler.WordSwapped aWordSwapped;
    
    /** Assembler tribyte type */
-   protected static Assembler.Tribyte aTribyte;
+   protected Assembler.Tribyte aTribyte;
      
    /** Assembler long type */
-   protected static Assembler.Long aLong;  
+   protected Assembler.Long aLong;  
    
    /** Assembler address type */
-   protected static Assembler.Address aAddress;   
+   protected Assembler.Address aAddress;   
    
    /** Assembler stack word type */
-   protected static Assembler.StackWord aStackWord;   
+   protected Assembler.StackWord aStackWord;   
    
    /** Assembler mono color sprite type */
-   protected static Assembler.MonoSprite aMonoSprite;
+   protected Assembler.MonoSprite aMonoSprite;
    
    /** Assembler multi color sprite type */
-   protected static Assembler.MultiSprite aMultiSprite;
+   protected Assembler.MultiSprite aMultiSprite;
    
    /** Assembler text type */
-   protected static Assembler.Text aText;
+   protected Assembler.Text aText;
    
    /** Assembler text with num char type */
-   protected static Assembler.NumText aNumText;   
+   protected Assembler.NumText aNumText;   
    
    /** Assembler zero text type */
-   protected static Assembler.ZeroText aZeroText;
+   protected Assembler.ZeroText aZeroText;
    
    /** Assembler high text type */
-   protected static Assembler.HighText aHighText;
+   protected Assembler.HighText aHighText;
    
    /** Assembler left shift text type */
-   protected static Assembler.ShiftText aShiftText;  
+   protected Assembler.ShiftText aShiftText;  
    
    /** Assembler text to screen code type */
-   protected static Assembler.ScreenText aScreenText;  
+   protected Assembler.ScreenText aScreenText;  
    
    /** Assembler text to petascii code type */
-   protected static Assembler.PetasciiText aPetasciiText; 
+   protected Assembler.PetasciiText aPetasciiText; 
    
    /** Memory constant */
-   protected static Constant constant;
+   protected Constant constant;
    
    /** Carets to use */
-   protected static Carets carets;
+   protected Carets carets;
    
    /** Memory dasm for block macro comments **/
-   protected static MemoryDasm[] memory;
+   protected MemoryDasm[] memory;
    
    /** Actual type being processed */
    ActionType actualType=null;
@@ -6908,16 +6916,19 @@ public class Assembler {
    boolean isMonoSpriteBlock=false;
    
    /** Actual size of monocromatic sprite block */
-   protected static int sizeMonoSpriteBlock=0;
+   protected int sizeMonoSpriteBlock=0;
    
    /** True if this is a block of multicolor sprite */
    boolean isMultiSpriteBlock=false;
    
    /** Actual size of multicolor sprite block */
-   protected static int sizeMultiSpriteBlock=0;
+   protected int sizeMultiSpriteBlock=0;
+   
+   /** BASIC tokens for detokenize */
+   protected BasicDetokenize basicList=new BasicDetokenize();
    
    /** Memory dasm with num or chars */
-   protected static MemoryDasm numText;
+   protected MemoryDasm numText;
      
         
    /**
@@ -6975,28 +6986,28 @@ public class Assembler {
                          Carets carets,
                          MemoryDasm[] memory
                          ) {
-     Assembler.aStarting=aStarting;  
-     Assembler.option=option;
-     Assembler.aOrigin=aOrigin;
-     Assembler.aLabel=aLabel;
-     Assembler.aComment=aComment;
-     Assembler.aBlockComment=aBlockComment;
-     Assembler.aByte=aByte;
-     Assembler.aWord=aWord;
-     Assembler.aWordSwapped=aWordSwapped;
-     Assembler.aTribyte=aTribyte;
-     Assembler.aLong=aLong;
-     Assembler.aAddress=aAddress;
-     Assembler.aStackWord=aStackWord;
-     Assembler.aMonoSprite=aMonoSprite;
-     Assembler.aMultiSprite=aMultiSprite;
-     Assembler.aText=aText;
-     Assembler.aNumText=aNumText;
-     Assembler.aZeroText=aZeroText;
-     Assembler.aHighText=aHighText;
-     Assembler.aShiftText=aShiftText;
-     Assembler.aScreenText=aScreenText;
-     Assembler.aPetasciiText=aPetasciiText;
+     this.aStarting=aStarting;  
+     this.option=option;
+     this.aOrigin=aOrigin;
+     this.aLabel=aLabel;
+     this.aComment=aComment;
+     this.aBlockComment=aBlockComment;
+     this.aByte=aByte;
+     this.aWord=aWord;
+     this.aWordSwapped=aWordSwapped;
+     this.aTribyte=aTribyte;
+     this.aLong=aLong;
+     this.aAddress=aAddress;
+     this.aStackWord=aStackWord;
+     this.aMonoSprite=aMonoSprite;
+     this.aMultiSprite=aMultiSprite;
+     this.aText=aText;
+     this.aNumText=aNumText;
+     this.aZeroText=aZeroText;
+     this.aHighText=aHighText;
+     this.aShiftText=aShiftText;
+     this.aScreenText=aScreenText;
+     this.aPetasciiText=aPetasciiText;
       
      isMonoSpriteBlock=false;
      sizeMonoSpriteBlock=0;
@@ -7013,7 +7024,7 @@ public class Assembler {
      listRel2.clear();
      listBase.clear();
      listDest.clear();
-     aByte.clearBasic();
+     basicList.clear();
    } 
    
    /**
@@ -7064,14 +7075,14 @@ public class Assembler {
        // we can have only one label in a memory row, so process it if this is the case
        if (type==aLabel) {
          int size=str.length();         
-         type.flush(str);             // write back the label         
+         type.flush(this, str);             // write back the label         
        
          // check if there is a comment for the label
          if (lastMem.userComment!=null) {
            size=str.length()-size;      // get number of chars used  
            str.append(getDataCSpacesTabs(size-getDataSpacesTabs().length()));
            type=aComment;
-           type.flush(str);
+           type.flush(this, str);
          } else str.append("\n");  // close label by going in a new line
        }   
               
@@ -7090,7 +7101,7 @@ public class Assembler {
      listBase.add(memBase);
      listDest.add(memDest);
      
-     actualType.putValue(str, mem, option);
+     actualType.putValue(this, str, mem);
    }
    
    /**
@@ -7099,7 +7110,7 @@ public class Assembler {
     * @param str the stream for output
     */
    public void setStarting(StringBuilder str) {
-     aStarting.flush(str);
+     aStarting.flush(this, str);
    }   
    
    /**
@@ -7110,7 +7121,7 @@ public class Assembler {
     */
    public void setOrg(StringBuilder str, int pc) {
      lastPC=pc;
-     aOrigin.flush(str);
+     aOrigin.flush(this, str);
    }      
    
    /**
@@ -7128,9 +7139,10 @@ public class Assembler {
      for (int i=0; i<Constant.COLS; i++) {
        already=false;
        
-       for (int j=0; j<Constant.ROWS; j++) {
-         val=constant.table[i][j];
-         comment=constant.comment[i][j];
+       for (int k=0; k<constant.size(i); k++) {
+         int j=constant.getRow(i, k);
+         val=constant.get(i, j);
+         comment=constant.getComment(i, j);
          if (val!=null && !"".equals(val) && constant.isConstant(val)) {
            if (!already) {             
              // show block comment for the connstant type  
@@ -7191,12 +7203,12 @@ public class Assembler {
        if (mem.dataType==DataType.STACK) hasStack=true;
      }
      
-     if (hasMonoSprite) aMonoSprite.setting(str);
-     if (hasMultiSprite) aMultiSprite.setting(str);
-     if (hasWordSwapped) aWordSwapped.setting(str);
-     if (hasTribyte) aTribyte.setting(str);
-     if (hasLong) aLong.setting(str);
-     if (hasStack) aStackWord.setting(str);
+     if (hasMonoSprite) aMonoSprite.setting(this, str);
+     if (hasMultiSprite) aMultiSprite.setting(this, str);
+     if (hasWordSwapped) aWordSwapped.setting(this, str);
+     if (hasTribyte) aTribyte.setting(this, str);
+     if (hasLong) aLong.setting(this, str);
+     if (hasStack) aStackWord.setting(this, str);
    }
    
    /**
@@ -7341,7 +7353,7 @@ public class Assembler {
      //    str.deleteCharAt(str.length()-1);            // remove \n
      //    size=str.length()-size;                      // get number of chars used  
      //    str.append(SPACES.substring(0, SPACES.length()-size));
-     //   aComment.flush(str);  
+     //   aComment.flush(this, str);  
      // }
    }
    
@@ -7421,7 +7433,7 @@ public class Assembler {
     */
    public void setComment(StringBuilder str, MemoryDasm mem) {
      lastMem=mem;
-     aComment.flush(str);
+     aComment.flush(this, str);
    }
    
    /**
@@ -7432,7 +7444,7 @@ public class Assembler {
     */
    public void setLabel(StringBuilder str, MemoryDasm mem) {
      lastMem=mem;
-     aLabel.flush(str);
+     aLabel.flush(this, str);
    }   
    
    /**
@@ -7443,7 +7455,7 @@ public class Assembler {
     */
    public void setBlockComment(StringBuilder str, MemoryDasm mem) {
      lastMem=mem;
-     aBlockComment.flush(str);
+     aBlockComment.flush(this, str);
    }   
    
    /**
@@ -7452,7 +7464,7 @@ public class Assembler {
     * @param str the output stream
     */
    public void flush(StringBuilder str) {
-     if (actualType!=null) actualType.flush(str);
+     if (actualType!=null) actualType.flush(this, str);
    }
    
    /**
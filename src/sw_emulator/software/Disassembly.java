@@ -24,9 +24,16 @@
 package sw_emulator.software;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 import sw_emulator.math.Unsigned;
 import sw_emulator.software.cpu.CpuDasm;
 import sw_emulator.software.cpu.I8048Dasm;
@@ -68,6 +75,39 @@ public class Disassembly {
   /** Actual carets being used */
   private Carets actualCarets;
   
+  /** True if only the changed segments of blocks are disassembled again */
+  public boolean incremental=true;
+  
+  /** Eventual check for stopping the running disassembly (it throws CancellationException) */
+  public BooleanSupplier cancel;
+  
+  /** Cache of blocks for source area */
+  private final DisassemblyCache cacheSource=new DisassemblyCache();
+  
+  /** Cache of blocks for preview area */
+  private final DisassemblyCache cachePreview=new DisassemblyCache();
+  
+  /** Actual cache being used */
+  private DisassemblyCache actualCache;
+  
+  /** Disassembly of source when done in parallel with the preview */
+  private Disassembly sourceDasm;
+  
+  /** True if last disassembly did not change the memory, so next can be in parallel */
+  private boolean stable;
+  
+  /** Copy of memory where the source is disassembled */
+  private MemoryDasm[] sourceMemory;
+  
+  /** Values of memory before the parallel disassembly */
+  private MemoryDasm[] startMemory;
+  
+  /** Engine for SID frequency tables */
+  private final SidFreq sidFreq=new SidFreq();
+  
+  /** Detector of SID players with the shared configuration */
+  private final SidId sidId=new SidId(SidId.instance);
+  
   
   /** Buffer of data to disassemble */
   private byte[] inB;
@@ -143,31 +183,34 @@ public class Disassembly {
   protected Assembler.StackWord aStackWord; 
   
   /** Assembler mono color sprite type */
-  protected static Assembler.MonoSprite aMonoSprite;
+  protected Assembler.MonoSprite aMonoSprite;
    
   /** Asembler multi color sprite type */
-  protected static Assembler.MultiSprite aMultiSprite;
+  protected Assembler.MultiSprite aMultiSprite;
    
   /** Asembler text type */
-  protected static Assembler.Text aText;
+  protected Assembler.Text aText;
    
   /** Asembler text with number of chars type */
-  protected static Assembler.NumText aNumText;   
+  protected Assembler.NumText aNumText;   
    
   /** Asembler text zero terminated type */
-  protected static Assembler.ZeroText aZeroText;   
+  protected Assembler.ZeroText aZeroText;   
    
   /** Asembler text terminated with high bit 1 */
-  protected static Assembler.HighText aHighText;  
+  protected Assembler.HighText aHighText;  
    
   /** Asembler text left shifted */
-  protected static Assembler.ShiftText aShiftText;  
+  protected Assembler.ShiftText aShiftText;  
    
   /** Asembler text to screen code */
-  protected static Assembler.ScreenText aScreenText;    
+  protected Assembler.ScreenText aScreenText;    
   
   /** Asembler text to screen code */
-  protected static Assembler.PetasciiText aPetasciiText; 
+  protected Assembler.PetasciiText aPetasciiText; 
+  
+  /** Size of the segments of blocks used in incremental disassembly */
+  private static final int SEGMENT_SIZE=256;
   
   /** Reuse a string builder to avoid too much GC */
   private final StringBuilder builder=new StringBuilder();
@@ -206,17 +249,172 @@ public class Disassembly {
     this.memory=memory;
     
     // clear previus carets identification and associate the actual caret to use
-    if (asSource) actualCarets=caretsSource;
-    else actualCarets=caretsPreview;
+    if (asSource) {
+      actualCarets=caretsSource;
+      actualCache=cacheSource;
+    } else {
+        actualCarets=caretsPreview;
+        actualCache=cachePreview;
+      }
     actualCarets.clear();
      
     // avoid to process null data  
     if (inB==null) {
       source="";
       disassembly="";
+      actualCache.invalidate();
       return;
     }    
     
+    if (!incremental) actualCache.invalidate();
+    actualCache.begin(fileType, inB, option, memory, constant, mpr, relocates,
+                      patches, chip, binAddress, targetType);
+    
+    disassemblyFile(asSource, targetType);
+    actualCache.end();
+    actualCarets.index();
+  }
+  
+  /**
+   * Disassemble the given data both as preview and as source.
+   * The source is disassembled on its own copy of memory, in parallel with
+   * the preview when the previous ones did not create labels or comments: if
+   * the preview changes what the source can use, the source is done again 
+   * after it. What the source creates is then copied into memory.
+   * 
+   * @param fileType the file type
+   * @param inB the buffer
+   * @param option for disassembler
+   * @param memory the memory for dasm
+   * @param constant the constants to use
+   * @param mpr eventual MPR blocks to use
+   * @param relocates eventual relocates to use
+   * @param patches eventual patches to apply
+   * @param chip eventual CRT chip
+   * @param binAddress eventual raw binary starting address
+   * @param targetType target machine type
+   * @param executor the executor for the source disassembly
+   */
+  public void dissassembly(FileType fileType, byte[] inB, Option option,  
+                           MemoryDasm[] memory, Constant constant, MPR mpr,
+                           Relocate[] relocates, Patch[] patches,
+                           int chip, int binAddress, TargetType targetType, 
+                           ExecutorService executor) {
+    if (sourceDasm==null) sourceDasm=new Disassembly();
+    sourceDasm.incremental=incremental;
+    sourceDasm.cancel=cancel;
+    
+    boolean done=false;
+    
+    if (stable) {
+      sourceMemory=copyOf(memory, sourceMemory);
+      startMemory=copyOf(memory, startMemory);
+      MemoryDasm[] copy=sourceMemory;
+      
+      Future<?> future=executor.submit(() -> 
+        sourceDasm.dissassembly(fileType, inB, option, copy, constant, mpr,
+                                relocates, patches, chip, binAddress, targetType,
+                                true));
+      try {
+        dissassembly(fileType, inB, option, memory, constant, mpr, relocates, 
+                     patches, chip, binAddress, targetType, false);    
+      } finally {
+          try {
+            future.get();
+          } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              throw new CancellationException();
+          } catch (ExecutionException e) {
+              if (e.getCause() instanceof RuntimeException) throw (RuntimeException)e.getCause();
+              throw new RuntimeException(e.getCause());
+            }
+        }
+      
+      // the source is valid if the preview did not change memory
+      done=Arrays.equals(memory, startMemory);
+    } else dissassembly(fileType, inB, option, memory, constant, mpr, relocates, 
+                        patches, chip, binAddress, targetType, false);
+    
+    // labels created by preview: do the source after it
+    if (!done) {
+      sourceMemory=copyOf(memory, sourceMemory);
+      sourceDasm.dissassembly(fileType, inB, option, sourceMemory, constant, mpr,
+                              relocates, patches, chip, binAddress, targetType,
+                              true);
+    }
+    
+    // take what the source created
+    stable=true;
+    for (int i=0; i<memory.length; i++) {
+      if (!memory[i].equals(sourceMemory[i])) {
+        memory[i].set(sourceMemory[i]);
+        stable=false;
+      }
+    }
+    
+    Carets carets=caretsSource;
+    
+    source=sourceDasm.source;
+    caretsSource=sourceDasm.caretsSource;
+    caretsSource.remap(sourceMemory, memory);
+    sourceDasm.caretsSource=carets;
+  }
+  
+  /**
+   * Copy the values of memory into the given copy, creating it if needed
+   * 
+   * @param memory the memory to copy
+   * @param copy the actual copy or null
+   * @return the copy
+   */
+  private static MemoryDasm[] copyOf(MemoryDasm[] memory, MemoryDasm[] copy) {
+    if (copy==null || copy.length!=memory.length) {
+      copy=new MemoryDasm[memory.length];  
+      for (int i=0; i<memory.length; i++) copy[i]=memory[i].clone();
+    } else {
+        for (int i=0; i<memory.length; i++) copy[i].set(memory[i]);
+      }  
+    return copy;
+  }
+  
+  /**
+   * Detach the actual result of disassembly into a new object, so that the
+   * next disassembly does not change it
+   * 
+   * @return the disassembly result
+   */
+  public Disassembly detach() {
+    Disassembly res=new Disassembly();
+    
+    res.source=source;
+    res.disassembly=disassembly;
+    res.caretsSource=caretsSource;
+    res.caretsPreview=caretsPreview;
+    res.blocks=blocks;
+    res.constant=constant;
+    res.memory=memory;
+    
+    caretsSource=new Carets();
+    caretsPreview=new Carets();
+    
+    return res;
+  }
+  
+  /**
+   * Invalidate the blocks already disassembled, so next disassembly is a full one
+   */
+  public void invalidate() {
+    cacheSource.invalidate();
+    cachePreview.invalidate();
+  }
+  
+  /**
+   * Disassemble the actual file
+   * 
+   * @param asSource true if disassembly output should be as a source file
+   * @param targetType target machine type
+   */
+  private void disassemblyFile(boolean asSource, TargetType targetType) {
     blocks=new ArrayList();
     
     switch (fileType) {
@@ -1259,7 +1457,7 @@ public class Disassembly {
     // sort by asc memory address
     Collections.sort(blocks, (Block block2, Block block1) -> block2.startAddress-block1.startAddress);
     
-    if (option.useSidFreq) SidFreq.instance.reset();    
+    if (option.useSidFreq) sidFreq.reset();    
     
     actualCarets.setOffset(tmp.length());
     tmp.append(assembler.addConstants(memory));
@@ -1274,7 +1472,7 @@ public class Disassembly {
      
       // search for SID frequency table
       if (option.useSidFreq) {
-          SidFreq.instance.identifyFreq(block.inB, memory, block.startBuffer, 
+          sidFreq.identifyFreq(block.inB, memory, block.startBuffer, 
              block.endBuffer, block.startAddress-block.startBuffer,
              option.sidFreqLoLabel, option.sidFreqHiLabel, 
              option.sidFreqMarkMem, option.sidFreqCreateLabel,
@@ -1298,14 +1496,7 @@ public class Disassembly {
       String player="";
       
       if (option.showSidId) {
-        int[] buf=new int[block.endAddress-block.startAddress+1];
-        int j=0;
-        for (int i=block.startBuffer; i<=block.startBuffer+block.endAddress-block.startAddress; i++) {
-          buf[j]=(char)block.inB[i] & 0xFF;
-          j++;
-        }                 
-        
-        player=SidId.instance.identifyBuffer(buf, buf.length);
+        player=sidId.identifyBuffer(block.inB, block.startBuffer, block.endAddress-block.startAddress+1);
       }
 
       // add an offset due to previous strings added
@@ -1322,13 +1513,77 @@ public class Disassembly {
                                " \n"; 
           assembler.setBlockComment(builder, mem);
         }
-        actualCarets.setOffset(tmp.length());
-        tmp.append(prg.csdasm(block.inB, block.startBuffer, block.endBuffer, block.startAddress));
-      } else {    
-          actualCarets.setOffset(tmp.length());
-          tmp.append(prg.cdasm(block.inB, block.startBuffer, block.endBuffer, block.startAddress));
-        }       
+      } 
+      actualCarets.setOffset(tmp.length());
+      tmp.append(disassemblyBlock(asSource, prg, block));
     }
+    prg.setReferences(null);
+  }
+  
+  /**
+   * Disassembly a block, one segment at time, taking from cache the segments 
+   * that are not changed.
+   * A segment always ends with an instruction, so that the disassembly of 
+   * following segment is the same as a single disassembly of the block. 
+   * 
+   * @param asSource true if the disassembly is as source
+   * @param prg the disassembler to use
+   * @param block the block to disassemble
+   * @return the disassembly of the block
+   */
+  private String disassemblyBlock(boolean asSource, CpuDasm prg, Block block) {
+    StringBuilder tmp=new StringBuilder();
+    DisassemblyCache.Entry entry;
+    MemoryDasm mem;
+    BitSet references;
+    String text;
+    int pos=block.startBuffer;
+    int offset=actualCarets.getOffset();
+    int start;
+    int end;
+    int stop;
+    int mark;
+    
+    while (pos<=block.endBuffer) {
+      if (cancel!=null && cancel.getAsBoolean()) throw new CancellationException();
+        
+      start=block.startAddress+pos-block.startBuffer;  
+      
+      // search an instruction for ending the segment
+      end=pos+SEGMENT_SIZE-1;
+      while (end<block.endBuffer) {
+        mem=memory[(block.startAddress+end-block.startBuffer) & 0xFFFF];
+        if ((mem.isCode || (!mem.isData && option.useAsCode)) && !mem.isGarbage) break;
+        end++;
+      }
+      if (end>block.endBuffer) end=block.endBuffer;
+      
+      actualCarets.setOffset(offset+tmp.length());
+      entry=actualCache.get(start, start+end-pos, block.inB, pos, end+3, actualCarets);
+      if (entry!=null) {
+        tmp.append(entry.text);
+        pos+=entry.stopAddress-start;
+        continue;
+      }
+      
+      references=new BitSet();
+      mark=actualCarets.size();
+    
+      prg.setReferences(references);
+      if (asSource) text=prg.csdasm(block.inB, pos, end, start);
+      else text=prg.cdasm(block.inB, pos, end, start);
+      
+      stop=prg.getPos();
+      if (stop<=pos) stop=block.endBuffer+1;
+    
+      actualCache.put(start, start+end-pos, start+stop-pos, block.inB, pos, end+3, text, 
+                      actualCarets.extract(mark), references);
+      tmp.append(text);
+      pos=stop;
+    }
+    
+    actualCarets.setOffset(offset);
+    return tmp.toString();
   }
   
   /**
@@ -0,0 +1,533 @@
+/**
+ * @(#)DisassemblyCache.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Objects;
+import sw_emulator.swing.main.Carets;
+import sw_emulator.swing.main.Constant;
+import sw_emulator.swing.main.FileType;
+import sw_emulator.swing.main.Option;
+import sw_emulator.swing.main.Patch;
+import sw_emulator.swing.main.Relocate;
+import sw_emulator.swing.main.TargetType;
+
+/**
+ * Cache of the disassembly of block segments for one kind of pass (preview 
+ * or source).
+ *
+ * A copy of the values of memory is kept at the end of every pass, so the 
+ * next pass knows which locations were changed by the user (or by the 
+ * previous pass) and only the segments that contain them, or that use a label
+ * that was changed, are disassembled again. All the others are spliced from 
+ * the cache.
+ * Inside a pass, a disassembled segment can change only its own locations and
+ * the ones it references, so only these are compared again before using the
+ * next cached segment.
+ *
+ * @author ice
+ */
+class DisassemblyCache {
+  /**
+   * A disassembled segment of a block
+   */
+  static class Entry {
+    /** Start address of segment */
+    int startAddress;
+
+    /** End address of segment */
+    int endAddress;
+
+    /** Address where the disassembly of segment stopped */
+    int stopAddress;
+
+    /** Bytes of segment */
+    byte[] bytes;
+
+    /** The disassembly text of the segment */
+    String text;
+
+    /** Carets of the segment (relative to the segment start) */
+    Carets carets;
+
+    /** Addresses whose label is used by the segment */
+    BitSet references;
+  }
+
+  /**
+   * The inputs of disassembly that are not in memory
+   */
+  private static class Inputs {
+    /** The file type */
+    FileType fileType;
+
+    /** The buffer */
+    byte[] inB;
+
+    /** Eventual MPR blocks */
+    Object mpr;
+
+    /** Copy of constants */
+    Constant constant;
+
+    /** Eventual CRT chip */
+    int chip;
+
+    /** Eventual raw binary starting address */
+    int binAddress;
+
+    /** Target machine type */
+    TargetType targetType;
+
+    /** Relocates as from/to values */
+    int[] relocates;
+
+    /** Patches as address/value */
+    int[] patches;
+
+    /** Values of the public option fields */
+    Object[] option;
+
+    /**
+     * Test if the given inputs are the same as these
+     *
+     * @param constant the actual constants
+     * @param other the other inputs (without constants)
+     * @return true if they are the same
+     */
+    boolean isSame(Constant constant, Inputs other) {
+      return fileType==other.fileType && inB==other.inB && mpr==other.mpr &&
+             chip==other.chip && binAddress==other.binAddress &&
+             targetType==other.targetType &&
+             Arrays.equals(relocates, other.relocates) &&
+             Arrays.equals(patches, other.patches) &&
+             Arrays.equals(option, other.option) &&
+             Objects.equals(this.constant, constant);
+    }
+  }
+
+  /** Public option fields to compare */
+  private static Field[] optionFields;
+
+  /** Entries of the last pass by start address */
+  private HashMap<Integer, Entry> entries=new HashMap<>();
+
+  /** Entries of the actual pass by start address */
+  private HashMap<Integer, Entry> actEntries=new HashMap<>();
+
+  /** Memory of last pass */
+  private MemoryDasm[] memory;
+
+  /** Inputs of the last pass */
+  private Inputs inputs;
+
+  /** Copy of the values of memory as last known */
+  private MemoryDasm[] known;
+
+  /** True if the actual pass can use the cache */
+  private boolean usable;
+
+  /** True if a pass is begun and not ended (it was cancelled if in begin) */
+  private boolean running;
+
+  /** Locations to compare again before using the cache (changed by disassembled segments) */
+  private final BitSet toCheck=new BitSet();
+
+  /** Locations changed since last pass */
+  private final BitSet changed=new BitSet();
+
+  /** Locations whose label (or the label of the related) has changed since last pass */
+  private final BitSet changedLabel=new BitSet();
+
+  /** Locations changed by the actual pass itself */
+  private final BitSet passChanged=new BitSet();
+
+
+  /**
+   * Invalidate the cache, so next pass will be a full one
+   */
+  public void invalidate() {
+    entries.clear();
+    memory=null;
+    inputs=null;
+    known=null;
+    passChanged.clear();
+  }
+
+  /**
+   * Begin a pass, determing what changed since the last one
+   *
+   * @param fileType the file type
+   * @param inB the buffer
+   * @param option for disassembler
+   * @param memory the memory for dasm
+   * @param constant the constants to use
+   * @param mpr eventual MPR blocks to use
+   * @param relocates eventual relocates to use
+   * @param patches eventual patches to apply
+   * @param chip eventual CRT chip
+   * @param binAddress eventual raw binary starting address
+   * @param targetType target machine type
+   */
+  public void begin(FileType fileType, byte[] inB, Option option,
+                    MemoryDasm[] memory, Constant constant, Object mpr,
+                    Relocate[] relocates, Patch[] patches,
+                    int chip, int binAddress, TargetType targetType) {
+    Inputs actInputs=getInputs(fileType, inB, option, mpr, relocates,
+                               patches, chip, binAddress, targetType);
+
+    actEntries=new HashMap<>();
+    toCheck.clear();
+    changed.clear();
+    changedLabel.clear();
+
+    // a cancelled pass has taken values of memory without using them
+    usable=!running && this.memory==memory && known!=null && 
+           inputs!=null && inputs.isSame(constant, actInputs);
+    running=true;
+
+    // the constants are copied only when changed
+    if (inputs!=null && Objects.equals(inputs.constant, constant)) actInputs.constant=inputs.constant;
+    else actInputs.constant=(constant==null ? null : (Constant)constant.clone());
+    inputs=actInputs;
+
+    if (!usable) {
+      this.memory=memory;
+      known=new MemoryDasm[memory.length];
+      for (int i=0; i<memory.length; i++) known[i]=memory[i].clone();
+      passChanged.clear();
+      return;
+    }
+
+    // what changed in the last pass is still to do
+    changed.or(passChanged);
+    changedLabel.or(passChanged);
+    passChanged.clear();
+
+    boolean newLabel=false;
+    for (int i=0; i<memory.length; i++) {
+      newLabel|=compare(i);
+    }
+    if (newLabel || !changedLabel.isEmpty()) addRelated();
+  }
+
+  /**
+   * Compare a location with the known values, marking it as changed if it 
+   * differs, and taking its actual values
+   *
+   * @param pos the position of location
+   * @return true if the label of location has changed
+   */
+  private boolean compare(int pos) {
+    MemoryDasm mem=memory[pos];
+    MemoryDasm old=known[pos];
+    boolean label=false;
+
+    if (!isSameLabel(mem, old)) {
+      changedLabel.set(pos);
+      changed.set(pos);
+      label=true;
+    } else if (!isSameLocal(mem, old)) changed.set(pos);
+      else return false;
+
+    copy(mem, old);
+    return label;
+  }
+
+  /**
+   * Mark as changed label the locations that are related to a changed label
+   */
+  private void addRelated() {
+    // labels are used also from the location that are related to them
+    for (int k=0; k<2; k++) {
+      BitSet related=new BitSet();
+      for (int i=0; i<memory.length; i++) {
+        if (changedLabel.get(i)) continue;
+
+        int rel=memory[i].related;
+        if (rel==-1) continue;
+        if (changedLabel.get(rel & 0xFFFF) || changedLabel.get((rel>>16) & 0xFFFF)) related.set(i);
+      }
+      changedLabel.or(related);
+    }
+  }
+
+  /**
+   * Get the cached disassembly of the given segment if it is still valid
+   *
+   * @param startAddress the start address of segment
+   * @param endAddress the end address of segment
+   * @param inB the buffer
+   * @param from the first position of segment bytes in buffer
+   * @param to the last position of segment bytes in buffer (inclusive)
+   * @param carets the carets where to add the cached ones
+   * @return the cached segment or null if it must be disassembled again
+   */
+  public Entry get(int startAddress, int endAddress, byte[] inB, int from,
+                   int to, Carets carets) {
+    if (!usable) return null;
+
+    Entry entry=entries.get(startAddress);
+    if (entry==null || 
+        entry.endAddress!=endAddress ||
+        !isSameBytes(entry.bytes, inB, from, to)) return null;
+
+    // previous segments of this pass could have changed memory
+    if (!toCheck.isEmpty()) {
+      boolean newLabel=false;
+      for (int i=toCheck.nextSetBit(0); i>=0; i=toCheck.nextSetBit(i+1)) {
+        if (compare(i)) {
+          newLabel=true;
+          passChanged.set(i);
+        } else if (changed.get(i)) passChanged.set(i);
+      }
+      toCheck.clear();
+      if (newLabel) addRelated();
+    }
+
+    int pos=changed.nextSetBit(startAddress);
+    if (pos!=-1 && pos<entry.stopAddress) return null;
+    if (entry.references.intersects(changedLabel)) return null;
+
+    carets.append(entry.carets);
+    actEntries.put(startAddress, entry);
+    return entry;
+  }
+
+  /**
+   * Store the disassembly of the given segment
+   *
+   * @param startAddress the start address of segment
+   * @param endAddress the end address of segment
+   * @param stopAddress the address where the disassembly stopped
+   * @param inB the buffer
+   * @param from the first position of segment bytes in buffer
+   * @param to the last position of segment bytes in buffer (inclusive)
+   * @param text the disassembly of the segment
+   * @param carets the carets of the segment (relative to the segment start)
+   * @param references the addresses whose label was used by the segment
+   */
+  public void put(int startAddress, int endAddress, int stopAddress, 
+                  byte[] inB, int from, int to,
+                  String text, Carets carets, BitSet references) {
+    Entry entry=new Entry();
+    MemoryDasm mem;
+
+    // add the label used by data declarations
+    for (int i=startAddress; i<stopAddress && i<memory.length; i++) {
+      mem=memory[i];
+      if (mem.related!=-1) {
+        references.set(mem.related & 0xFFFF);
+        references.set((mem.related>>16) & 0xFFFF);
+      }
+      references.set(mem.relatedAddressBase);
+      references.set(mem.relatedAddressDest);
+    }
+
+    entry.startAddress=startAddress;
+    entry.endAddress=endAddress;
+    entry.stopAddress=stopAddress;
+    entry.bytes=Arrays.copyOfRange(inB, from, Math.max(from, Math.min(to+1, inB.length)));
+    entry.text=text;
+    entry.carets=carets;
+    entry.references=references;
+
+    actEntries.put(startAddress, entry);
+
+    // the segment can have changed its locations and the referenced ones
+    if (usable) {
+      toCheck.set(startAddress, Math.min(Math.max(stopAddress, startAddress), memory.length));
+      toCheck.or(references);
+    }
+  }
+
+  /**
+   * End the actual pass, taking the values of memory.
+   * The locations changed by the pass itself are left as changed, as the 
+   * segments disassembled before the change must be done again.
+   */
+  public void end() {
+    for (int i=0; i<memory.length; i++) {
+      if (!isSameLabel(memory[i], known[i]) || !isSameLocal(memory[i], known[i])) {
+        copy(memory[i], known[i]);
+        passChanged.set(i);
+      }
+    }
+
+    entries=actEntries;
+    toCheck.clear();
+    running=false;
+  }
+
+  /**
+   * Test if the bytes of a segment are the same of the buffer ones
+   *
+   * @param bytes the bytes of segment
+   * @param inB the buffer
+   * @param from the first position in buffer
+   * @param to the last position in buffer (inclusive)
+   * @return true if they are the same
+   */
+  private static boolean isSameBytes(byte[] bytes, byte[] inB, int from, int to) {
+    int end=Math.max(from, Math.min(to+1, inB.length));
+
+    return Arrays.equals(bytes, 0, bytes.length, inB, from, end);
+  }
+
+  /**
+   * Test if the fields of memory that are used by others locations are the 
+   * same
+   *
+   * @param mem the memory location
+   * @param old the known values of location
+   * @return true if they are the same
+   */
+  private static boolean isSameLabel(MemoryDasm mem, MemoryDasm old) {
+    return Objects.equals(mem.dasmLocation, old.dasmLocation) &&
+           Objects.equals(mem.userLocation, old.userLocation) &&
+           mem.related==old.related &&
+           mem.type==old.type &&
+           mem.index==old.index &&
+           mem.relatedAddressBase==old.relatedAddressBase &&
+           mem.relatedAddressDest==old.relatedAddressDest;
+  }
+
+  /**
+   * Test if the fields of memory that are used only by the location itself 
+   * are the same
+   *
+   * @param mem the memory location
+   * @param old the known values of location
+   * @return true if they are the same
+   */
+  private static boolean isSameLocal(MemoryDasm mem, MemoryDasm old) {
+    return Objects.equals(mem.dasmComment, old.dasmComment) &&
+           Objects.equals(mem.userComment, old.userComment) &&
+           Objects.equals(mem.userBlockComment, old.userBlockComment) &&
+           mem.isInside==old.isInside &&
+           mem.isCode==old.isCode &&
+           mem.isData==old.isData &&
+           mem.isGarbage==old.isGarbage &&
+           mem.copy==old.copy &&
+           mem.dataType==old.dataType &&
+           mem.basicType==old.basicType;
+  }
+
+  /**
+   * Copy the values of a location into the known ones
+   *
+   * @param mem the memory location
+   * @param old the known values of location
+   */
+  private static void copy(MemoryDasm mem, MemoryDasm old) {
+    old.dasmLocation=mem.dasmLocation;
+    old.userLocation=mem.userLocation;
+    old.related=mem.related;
+    old.type=mem.type;
+    old.index=mem.index;
+    old.relatedAddressBase=mem.relatedAddressBase;
+    old.relatedAddressDest=mem.relatedAddressDest;
+    old.dasmComment=mem.dasmComment;
+    old.userComment=mem.userComment;
+    old.userBlockComment=mem.userBlockComment;
+    old.isInside=mem.isInside;
+    old.isCode=mem.isCode;
+    old.isData=mem.isData;
+    old.isGarbage=mem.isGarbage;
+    old.copy=mem.copy;
+    old.dataType=mem.dataType;
+    old.basicType=mem.basicType;
+  }
+
+  /**
+   * Get all the inputs of disassembly that are not in memory (constants 
+   * excluded, as they are copied only when changed)
+   *
+   * @return the inputs
+   */
+  private static Inputs getInputs(FileType fileType, byte[] inB, Option option,
+                                  Object mpr, Relocate[] relocates, 
+                                  Patch[] patches, int chip, int binAddress, 
+                                  TargetType targetType) {
+    Inputs res=new Inputs();
+    res.fileType=fileType;
+    res.inB=inB;
+    res.mpr=mpr;
+    res.chip=chip;
+    res.binAddress=binAddress;
+    res.targetType=targetType;
+
+    if (relocates!=null) {
+      res.relocates=new int[relocates.length*4];
+      for (int i=0; i<relocates.length; i++) {
+        res.relocates[i*4]=relocates[i].fromStart;
+        res.relocates[i*4+1]=relocates[i].fromEnd;
+        res.relocates[i*4+2]=relocates[i].toStart;
+        res.relocates[i*4+3]=relocates[i].toEnd;
+      }
+    }
+
+    if (patches!=null) {
+      res.patches=new int[patches.length*2];
+      for (int i=0; i<patches.length; i++) {
+        res.patches[i*2]=patches[i].address;
+        res.patches[i*2+1]=patches[i].value;
+      }
+    }
+
+    res.option=getOptionValues(option);
+    return res;
+  }
+
+  /**
+   * Get the values of the public fields of option (all immutable types)
+   *
+   * @param option the option
+   * @return the values
+   */
+  private static Object[] getOptionValues(Option option) {
+    if (optionFields==null) {
+      ArrayList<Field> list=new ArrayList<>();
+      for (Field field: Option.class.getFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) list.add(field);
+      }
+      optionFields=list.toArray(new Field[0]);
+    }
+
+    Object[] res=new Object[optionFields.length];
+    try {
+      for (int i=0; i<optionFields.length; i++) {
+        res[i]=optionFields[i].get(option);
+      }
+    } catch (IllegalAccessException e) {
+        System.err.println(e);
+      }
+    return res;
+  }
+}
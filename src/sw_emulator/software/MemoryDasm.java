@@ -142,6 +142,7 @@ public class MemoryDasm implements Cloneable, Serializable {
     if (this.related != d.related) return false;
     if (this.type != d.type) return false;
     if (this.dataType != d.dataType) return false;
+    if (this.basicType != d.basicType) return false;
     if (this.index != d.index) return false;
     if (this.relatedAddressBase != d.relatedAddressBase) return false;
     if (this.relatedAddressDest != d.relatedAddressDest) return false;
@@ -167,11 +168,38 @@ public class MemoryDasm implements Cloneable, Serializable {
         hash = 53 * hash + this.type;
         hash = 53 * hash + this.index;
         hash = 53 * hash + Objects.hashCode(this.dataType);
+        hash = 53 * hash + Objects.hashCode(this.basicType);
         hash = 53 * hash + this.relatedAddressBase;
         hash = 53 * hash + this.relatedAddressDest;
         return hash;
     }
 
+  /**
+   * Set all the values of this memory (address included) from the given one
+   * 
+   * @param m the memory to copy
+   */
+  public void set(MemoryDasm m) {
+    address=m.address;
+    copy=m.copy;
+    dasmComment=m.dasmComment;
+    dasmLocation=m.dasmLocation;
+    isCode=m.isCode;
+    isData=m.isData;
+    isGarbage=m.isGarbage;    
+    isInside=m.isInside;
+    related=m.related;
+    type=m.type;
+    userBlockComment=m.userBlockComment;
+    userComment=m.userComment;
+    userLocation=m.userLocation;
+    dataType=m.dataType;
+    basicType=m.basicType;
+    index=m.index;
+    relatedAddressBase=m.relatedAddressBase;
+    relatedAddressDest=m.relatedAddressDest;
+  }
+  
  @Override
   public MemoryDasm clone() {
     MemoryDasm m = new MemoryDasm();
@@ -190,6 +218,7 @@ public class MemoryDasm implements Cloneable, Serializable {
     m.userComment=this.userComment;
     m.userLocation=this.userLocation;
     m.dataType=this.dataType;
+    m.basicType=this.basicType;
     m.index=this.index;
     m.relatedAddressBase=this.relatedAddressBase;
     m.relatedAddressDest=this.relatedAddressDest;
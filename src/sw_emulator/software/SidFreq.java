@@ -27,6 +27,13 @@ import sw_emulator.math.Unsigned;
 /**
  * Modified version of SidFreq by XSidPlay2
  * 
+ * The engine keeps the state of the scan, so every thread (every Disassembly)
+ * uses its own engine.
+ * 
+ * The buffer is indexed once for every identification (see SidFreqIndex):
+ * every table shape tests only the positions that start as its high table and
+ * the low tables that can satisfy the octave relation with it.
+ * 
  * @author ice
  */
 public class SidFreq {        
@@ -93,13 +100,25 @@ public class SidFreq {
   /** Actual index (-1=no find) */
   int actIndex=-1;
   
-  /** Instance of the class as singleton */
-  public static final SidFreq instance=new SidFreq();
+  /** Index of the buffer */
+  SidFreqIndex freqIndex;
+  
+  /** Search of a low table for the given high table */
+  private interface LowSearch {
+    /**
+     * Search the low table in the given position
+     * 
+     * @param high the position of high table
+     * @param index the position where to search
+     * @return true if there is a low table in that position 
+     */
+    boolean search(int high, int index);
+  }
   
   /**
-   * Private constructor
+   * Construct the engine (each concurrent user needs its own engine)
    */
-  private SidFreq() {      
+  public SidFreq() {      
   }
   
   /**
@@ -163,6 +182,7 @@ public class SidFreq {
     this.markMemory=markMemory;
     this.createLabel=createLabel;
     this.createComment=createComment;   
+    this.freqIndex=new SidFreqIndex(inB, end);
     
     try {
       // search for linear table if allowed
@@ -181,7 +201,7 @@ public class SidFreq {
       if (inverseLinearTable) {
         while (linearInverseTable()) {
           this.end=this.start;
-          this.start=Math.min(0, start-TABLE);  
+          this.start=0;  
         }
       }
       this.start=start;
@@ -228,15 +248,15 @@ public class SidFreq {
    * @return true if the table is fount
    */
   private boolean linearScaleTable() {
-    int i;  
     int sid;
     int high=-1;
     int low=-1;   
     
     // check for high frequency table
-    for (i=start; i<end-SCALE_TABLE; i++) {
-      if (searchScaleHigh(i)) {
-        high=i;
+    int[] ones=freqIndex.ones(1);
+    for (int k=SidFreqIndex.first(ones, start); k<ones.length && ones[k]<end-SCALE_TABLE; k++) {
+      if (searchScaleHigh(ones[k])) {
+        high=ones[k];
         break;         
       }
     }  
@@ -245,23 +265,11 @@ public class SidFreq {
     if (high==-1) return false;      
     
     // check for low frequency table (first part)
-    if (high>SCALE_TABLE) {
-      for (i=start; i<=high-SCALE_TABLE; i++) {
-        if (searchScaleLow(high, i)) {
-          low=i;
-          break;
-        }           
-      }
-    }
+    if (high>SCALE_TABLE) low=findLow(this::searchScaleLow, high, start, high-SCALE_TABLE, 7, 0, ERROR);
     
     // check for high frequency table (second part)
     if ((low==-1) && (high<end-SCALE_TABLE*2)) {
-      for (i=high+SCALE_TABLE; i<end-SCALE_TABLE; i++) {
-        if (searchScaleLow(high, i)) {
-          low=i;
-          break;
-        }                 
-      }
+      low=findLow(this::searchScaleLow, high, high+SCALE_TABLE, end-SCALE_TABLE-1, 7, 0, ERROR);
     }
     
     // look if low table was fount
@@ -286,35 +294,16 @@ public class SidFreq {
    * @return true if the table is fount
    */
   private boolean linearTable() {
-    int i;  
     int sid;
     int high=-1;
     int low=-1;   
     
     // check for high frequency table
-    for (int ii=start; ii<end-TABLE; ii++) {
-      if (searchHigh(ii)) {
-        high=ii;
-        
-        // check for low frequency table (first part)
-        if (high>TABLE) {
-          for (i=start; i<=high-TABLE; i++) {
-            if (searchLow(high, i)) {
-              low=i;
-              break;
-            }           
-          }
-        }  
-
-        // check for high frequency table (second part)
-        if ((low==-1) && (high<end-TABLE*2)) {
-          for (i=high+TABLE; i<end-TABLE; i++) {
-            if (searchLow(high, i)) {
-              low=i;
-              break;
-            }                 
-          }
-        }
+    int[] highs=freqIndex.highs();
+    for (int k=SidFreqIndex.first(highs, start); k<highs.length && highs[k]<end-TABLE; k++) {
+      if (searchHigh(highs[k])) {
+        high=highs[k];
+        low=linearLow(high);
         
         if (low!=-1) break;  // exit loop as frequency is fount
         
@@ -325,25 +314,7 @@ public class SidFreq {
           if (++high>end-TABLE) return false;      
           if (!searchHigh(high)) return false;
 
-          // check for low frequency table (first part)
-          if (high>TABLE) {
-            for (i=start; i<=high-TABLE; i++) {
-              if (searchLow(high, i)) {
-                low=i;
-                break;
-              }           
-            }
-          }  
-
-          // check for high frequency table (second part)
-          if ((low==-1) && (high<end-TABLE*2)) {
-            for (i=high+TABLE; i<end-TABLE; i++) {
-              if (searchLow(high, i)) {
-                low=i;
-                break;
-              }                 
-            }
-          }                   
+          low=linearLow(high);
         }         
         if (low!=-1) break;           
       }
@@ -366,6 +337,26 @@ public class SidFreq {
     return true;    
   }
   
+  /**
+   * Search for the low table of a linear table (before and after the high one)
+   * 
+   * @param high the position of high table
+   * @return the position of low table or -1
+   */
+  private int linearLow(int high) {
+    int low=-1;
+    
+    // check for low frequency table (first part)
+    if (high>TABLE) low=findLow(this::searchLow, high, start, high-TABLE, 12, 1, 10);
+
+    // check for high frequency table (second part)
+    if ((low==-1) && (high<end-TABLE*2)) {
+      low=findLow(this::searchLow, high, high+TABLE, end-TABLE-1, 12, 1, 10);
+    }
+    
+    return low;
+  }
+  
   
   ////////////////////////////
   
@@ -376,15 +367,15 @@ public class SidFreq {
    * @return true if the table is fount
    */
   private boolean linearOctNoteTable() {
-    int i;  
     int sid;
     int high=-1;
     int low=-1;   
     
     // check for high frequency table
-    for (i=start; i<end-OCT_NOTE_TABLE; i++) {
-      if (searchOctNoteHigh(i)) {
-        high=i;
+    int[] ones=freqIndex.ones(1);
+    for (int k=SidFreqIndex.first(ones, start); k<ones.length && ones[k]<end-OCT_NOTE_TABLE; k++) {
+      if (searchOctNoteHigh(ones[k])) {
+        high=ones[k];
         break;         
       }
     }  
@@ -394,22 +385,12 @@ public class SidFreq {
     
     // check for low frequency table (first part)
     if (high>OCT_NOTE_TABLE) {
-      for (i=start; i<=high-OCT_NOTE_TABLE-6; i++) {
-        if (searchOctNoteLow(high, i)) {
-          low=i;
-          break;
-        }           
-      }
+      low=findLow(this::searchOctNoteLow, high, start, high-OCT_NOTE_TABLE-6, 16, 0, ERROR+3);
     }
     
     // check for high frequency table (second part)
     if ((low==-1) && (high<end-OCT_NOTE_TABLE*2)) {
-      for (i=high+OCT_NOTE_TABLE+6; i<end-OCT_NOTE_TABLE-6; i++) {
-        if (searchOctNoteLow(high, i)) {
-          low=i;
-          break;
-        }                 
-      }
+      low=findLow(this::searchOctNoteLow, high, high+OCT_NOTE_TABLE+6, end-OCT_NOTE_TABLE-7, 16, 0, ERROR+3);
     }
     
     // look if low table was fount
@@ -436,25 +417,17 @@ public class SidFreq {
    */
   private boolean combinedTable() {
     int sid;
-    int i, j;
     int high=-1;
     int low=-1;
      
     // check for high frequency table
-    for (i=start; i<end-TABLE*2; i++) {
-      if (searchHigh2(i)) {
-        high=i;
-        low=-1;
+    int[] ones=freqIndex.ones(2);
+    for (int k=SidFreqIndex.first(ones, start); k<ones.length && ones[k]<end-TABLE*2; k++) {
+      if (searchHigh2(ones[k])) {
+        high=ones[k];
         
         // check for low frequency table
-        for (j=start; j<end-TABLE*2; j++) {
-          if (j!=high) {
-            if (searchLow2(high, j)) {
-              low=j;
-              break;         
-            }
-          }
-        }  
+        low=findLow(this::searchLow2, high, start, end-TABLE*2-1, 24, 0, ERROR);
         if (low!=-1) break;
       }  
     }
@@ -483,14 +456,14 @@ public class SidFreq {
    */
   private boolean shortCombinedTable() {
     int sid;
-    int i;
     int high=-1;
-    int low=-1;
+    int low;
      
     // check for high frequency table
-    for (i=start; i<end-SHORT2*2; i++) {
-      if (searchShortHigh2(i)) {
-        high=i;
+    int[] ones=freqIndex.ones(2);
+    for (int k=SidFreqIndex.first(ones, start); k<ones.length && ones[k]<end-SHORT2*2; k++) {
+      if (searchShortHigh2(ones[k])) {
+        high=ones[k];
         break;         
       }
     }  
@@ -499,14 +472,7 @@ public class SidFreq {
     if (high==-1) return false;  
   
     // check for low frequency table
-    for (i=start; i<end-SHORT2*2; i++) {
-      if (i!=high) {
-        if (searchShortLow2(high, i)) {
-          low=i;
-          break;         
-        }
-      }
-    }
+    low=findLow(this::searchShortLow2, high, start, end-SHORT2*2-1, 24, 0, ERROR);
    
     // look if low table was fount
     if (low==-1) return false;  
@@ -530,14 +496,14 @@ public class SidFreq {
    */
   private boolean shortLinearTable() {
     int sid;
-    int i;
     int high=-1;
     int low=-1;
      
     // check for high frequency table
-    for (i=start; i<end-SHORT; i++) {
-      if (searchShortHigh(i)) {
-        high=i;
+    int[] ones=freqIndex.ones(1);
+    for (int k=SidFreqIndex.first(ones, start); k<ones.length && ones[k]<end-SHORT; k++) {
+      if (searchShortHigh(ones[k])) {
+        high=ones[k];
         break;         
       }
     }
@@ -546,23 +512,11 @@ public class SidFreq {
     if (high==-1) return false;
      
     // check for low frequency table (first part)
-    if (high>SHORT) {
-      for (i=start; i<=high-SHORT; i++) {
-        if (searchShortLow(high, i)) {
-          low=i;
-          break;
-        }           
-      }
-    }
+    if (high>SHORT) low=findLow(this::searchShortLow, high, start, high-SHORT, 12, 0, ERROR);
      
     // check for high frequency table (second part)
     if ((low==-1) && (high<end-SHORT*2)) {
-      for (i=high+SHORT; i<end-SHORT; i++) {
-        if (searchShortLow(high, i)) {
-          low=i;
-          break;
-        }                   
-      }
+      low=findLow(this::searchShortLow, high, high+SHORT, end-SHORT-1, 12, 0, ERROR);
     }
       
     // look if low table was fount
@@ -598,15 +552,13 @@ public class SidFreq {
          ( ((int)inB[index+0]!=0) || ((int)inB[index+1]!=1) || ((int)inB[index+2]!=1) || ((int)inB[index+3]!=1))
        ) return false;
 
-    // search for increasing numbers
-    for (i=index+3; i<index+TABLE; i++) {
+    // search for increasing numbers (going from a not decreasing run to the next)
+    for (i=index+3; i<index+TABLE; i=freqIndex.rise(i, 1)+1) {
       if ((int)(inB[i]& 0xFF)<actual) {
-        System.err.println(""+actual+" "+(int)(inB[i]& 0xFF));
         // catch a very big error on Vibrants/JO note table at 424Hz 
-        if (actual==7 && (int)(inB[i]& 0xFF)==3 && (int)(inB[i-2]& 0xFF)==3)  actual=((int)inB[i]& 0xFF); 
-        else return false;
+        if (!(actual==7 && (int)(inB[i]& 0xFF)==3 && (int)(inB[i-2]& 0xFF)==3)) return false;
       }   
-      else actual=((int)inB[i]& 0xFF);
+      actual=((int)inB[Math.min(freqIndex.rise(i, 1), index+TABLE-1)]& 0xFF);
     }
    
     return true;   
@@ -619,19 +571,11 @@ public class SidFreq {
    * @return true if there is a high frequency table in that position 
    */ 
   private boolean searchShortHigh(int index) {
-    int i;
-    int actual=1;   
-   
     // it must start with three 1 or at least with 0 1 1 1
     if ( ((int)inB[index+0]!=1) || ((int)inB[index+1]!=1) || ((int)inB[index+2]!=1)) return false;
    
     // search for increasing numbers
-    for (i=index+3; i<index+SHORT; i++) {
-      if ((int)(inB[i]& 0xFF)<actual) return false;
-      else actual=(int)(inB[i]& 0xFF);
-    }
-   
-    return true;   
+    return freqIndex.rising(index+3, index+SHORT, 1);
   } 
   
   /**
@@ -641,19 +585,11 @@ public class SidFreq {
    * @return true if there is a high frequency table in that position 
    */ 
   private boolean searchHigh2(int index) {
-    int i;
-    int actual=1;   
-   
     // it must start with three 1
     if ( ((int)(inB[index+0]& 0xFF)!=1) || ((int)(inB[index+2]& 0xFF)!=1) || ((int)(inB[index+4]& 0xFF)!=1)) return false;
    
     // search for increasing numbers
-    for (i=index+6; i<index+TABLE*2; i++, i++) {
-      if ((int)(inB[i]& 0xFF)<actual) return false;
-      else actual=(int)(inB[i]& 0xFF);
-    }
-   
-    return true;   
+    return freqIndex.rising(index+6, index+TABLE*2, 2);
   } 
   
   /**
@@ -663,19 +599,11 @@ public class SidFreq {
    * @return true if there is a high frequency table in that position 
    */ 
   private boolean searchShortHigh2(int index) {
-    int i;
-    int actual=1;   
-   
     // it must start with three 1
     if ( ((int)(inB[index+0]& 0xFF)!=1) || ((int)(inB[index+2]& 0xFF)!=1) || ((int)(inB[index+4]& 0xFF)!=1)) return false;
    
     // search for increasing numbers
-    for (i=index+6; i<index+SHORT2*2; i++, i++) {
-      if ((int)(inB[i]& 0xFF)<actual) return false;
-      else actual=(int)(inB[i]& 0xFF);
-    }
-   
-    return true;   
+    return freqIndex.rising(index+6, index+SHORT2*2, 2);
   } 
     
    /**
@@ -685,19 +613,11 @@ public class SidFreq {
    * @return true if there is a high frequency table in that position 
    */ 
   private boolean searchScaleHigh(int index) {
-    int i;
-    int actual=1;   
-   
     // it must start with three 1
     if ( ((int)inB[index+0]!=1) || ((int)inB[index+1]!=1) || ((int)inB[index+2]!=1)) return false;
    
     // search for increasing numbers
-    for (i=index+3; i<index+SCALE_TABLE; i++) {
-      if ((int)(inB[i]& 0xFF)<actual) return false;
-      else actual=(int)(inB[i]& 0xFF);
-    }
-   
-    return true;   
+    return freqIndex.rising(index+3, index+SCALE_TABLE, 1);
   } 
   
   
@@ -812,8 +732,6 @@ public class SidFreq {
       if (i<11) diff+=Math.abs(note5*2 - note6);  
       if (i<11) diff+=Math.abs(note6*2 - note7);
     
-      if (i>0) System.err.println(high+"  "+index+"   "+i+" "+diff);    
-      
       // catch error into Vibrants/JO note table at 416Hz  
       if (i==0 && diff==212) continue;  
       
@@ -1120,46 +1038,50 @@ public class SidFreq {
     }   
   }
 
+  /**
+   * Find the first low table of the range that matches the high table.
+   * Only the positions where the octave relation with the high table is
+   * satisfied for the note at shift are tested, as the others fail before
+   * the search goes beyond that note.
+   * 
+   * @param search the search of low table to use
+   * @param high the position of high table
+   * @param from the first position of range
+   * @param to the last position of range
+   * @param distance the distance of the next octave in table
+   * @param shift the note of table to use
+   * @param error the max difference allowed by search for that note
+   * @return the position of low table or -1
+   */
+  private int findLow(LowSearch search, int high, int from, int to, int distance, int shift, int error) {
+    if (from>to) return -1;
+    
+    int value=(Unsigned.done(inB[high+shift])*2-Unsigned.done(inB[high+shift+distance]))*256;
+    int size=freqIndex.octaves(distance, shift, value, error, from, to);
+    
+    for (int i=0; i<size; i++) {
+      int low=freqIndex.found[i];
+      if (low!=high && search.search(high, low)) return low;
+    }
+    return -1;
+  }
+
   /**
    * Looks for an high octave table
    * 
    * @return true if it is find
    */
   private boolean highOctave() {
-    final double STEP=Math.pow(2, 1/12);
-    int[] freq=new int[12];
-      
     for (int i=start; i<end-13*2; i++) {
       if ((int)inB[i]==0 && (int)inB[i+13]==0) {
-        freq[0]=(int)(inB[i+1]& 0xFF)+(int)(inB[i+14]& 0xFF)*256; 
-        if (freq[0]==0) continue;
-        freq[1]=(int)(inB[i+2]& 0xFF)+(int)(inB[i+15]& 0xFF)*256;
-        if (freq[1]==0 || freq[1]<=freq[0] || Math.abs(freq[1]/freq[0]-STEP)>0.00001) continue;        
-        freq[2]=(int)(inB[i+3]& 0xFF)+(int)(inB[i+16]& 0xFF)*256;
-        if (freq[2]==0 || freq[2]<=freq[1] || Math.abs(freq[2]/freq[1]-STEP)>0.00001) continue;
-        freq[3]=(int)(inB[i+4]& 0xFF)+(int)(inB[i+17]& 0xFF)*256;
-        if (freq[3]==0 || freq[3]<=freq[2] || Math.abs(freq[3]/freq[2]-STEP)>0.00001) continue;
-        freq[4]=(int)(inB[i+5]& 0xFF)+(int)(inB[i+18]& 0xFF)*256;
-        if (freq[4]==0 || freq[4]<=freq[3] || Math.abs(freq[4]/freq[3]-STEP)>0.00001) continue;
-        freq[5]=(int)(inB[i+6]& 0xFF)+(int)(inB[i+19]& 0xFF)*256;        
-        if (freq[5]==0 || freq[5]<=freq[4] || Math.abs(freq[5]/freq[4]-STEP)>0.00001) continue;
-        freq[6]=(int)(inB[i+7]& 0xFF)+(int)(inB[i+20]& 0xFF)*256;
-        if (freq[6]==0 || freq[6]<=freq[5] || Math.abs(freq[6]/freq[5]-STEP)>0.00001) continue;
-        freq[7]=(int)(inB[i+8]& 0xFF)+(int)(inB[i+21]& 0xFF)*256;
-        if (freq[7]==0 || freq[7]<=freq[6] || Math.abs(freq[7]/freq[6]-STEP)>0.00001) continue;
-        freq[8]=(int)(inB[i+9]& 0xFF)+(int)(inB[i+22]& 0xFF)*256;
-        if (freq[8]==0 || freq[8]<=freq[7] || Math.abs(freq[8]/freq[7]-STEP)>0.00001) continue;
-        freq[9]=(int)(inB[i+10]& 0xFF)+(int)(inB[i+23]& 0xFF)*256;
-        if (freq[9]==0 || freq[9]<=freq[8] || Math.abs(freq[9]/freq[8]-STEP)>0.00001) continue;
-        freq[10]=(int)(inB[i+11]& 0xFF)+(int)(inB[i+24]& 0xFF)*256;
-        if (freq[10]==0 || freq[10]<=freq[9] || Math.abs(freq[10]/freq[9]-STEP)>0.00001) continue;
-        freq[11]=(int)(inB[i+12]& 0xFF)+(int)(inB[i+25]& 0xFF)*256;
-        if (freq[11]==0 || freq[11]<=freq[10] || Math.abs(freq[11]/freq[10]-STEP)>0.00001) continue;
+        if (freqIndex.notes(i+1, 0, 13, 1)<11) continue;
+        int freq9=freqIndex.word(i+10, 0, 13);
+        int freq11=freqIndex.word(i+12, 0, 13);
         
-        if (freq[11]<62000) continue;
+        if (freq11<62000) continue;
 
         if (!checkGarbage(i, i+26)) {
-          addData(i+13, i, freq[9]/8);
+          addData(i+13, i, freq9/8);
           markMemory(i+13, i+26, 1);
           markMemory(i, i+13, 1);
         
@@ -1177,36 +1099,12 @@ public class SidFreq {
    * @return true if it is find
    */
   private boolean highOctave12() {
-    final double STEP=Math.pow(2, 1/12);
-    int[] freq=new int[12];
-      
     for (int i=start; i<end-12*2; i++) {
-      freq[0]=(int)(inB[i]& 0xFF)+(int)(inB[i+12]& 0xFF)*256; 
-      if (freq[0]==0) continue;
-      freq[1]=(int)(inB[i+1]& 0xFF)+(int)(inB[i+13]& 0xFF)*256;
-      if (freq[1]==0 || freq[1]<=freq[0] || Math.abs(freq[1]/freq[0]-STEP)>0.00001) continue;        
-      freq[2]=(int)(inB[i+2]& 0xFF)+(int)(inB[i+14]& 0xFF)*256;
-      if (freq[2]==0 || freq[2]<=freq[1] || Math.abs(freq[2]/freq[1]-STEP)>0.00001) continue;
-      freq[3]=(int)(inB[i+3]& 0xFF)+(int)(inB[i+15]& 0xFF)*256;
-      if (freq[3]==0 || freq[3]<=freq[2] || Math.abs(freq[3]/freq[2]-STEP)>0.00001) continue;
-      freq[4]=(int)(inB[i+4]& 0xFF)+(int)(inB[i+16]& 0xFF)*256;
-      if (freq[4]==0 || freq[4]<=freq[3] || Math.abs(freq[4]/freq[3]-STEP)>0.00001) continue;
-      freq[5]=(int)(inB[i+5]& 0xFF)+(int)(inB[i+17]& 0xFF)*256;        
-      if (freq[5]==0 || freq[5]<=freq[4] || Math.abs(freq[5]/freq[4]-STEP)>0.00001) continue;
-      freq[6]=(int)(inB[i+6]& 0xFF)+(int)(inB[i+18]& 0xFF)*256;
-      if (freq[6]==0 || freq[6]<=freq[5] || Math.abs(freq[6]/freq[5]-STEP)>0.00001) continue;
-      freq[7]=(int)(inB[i+7]& 0xFF)+(int)(inB[i+19]& 0xFF)*256;
-      if (freq[7]==0 || freq[7]<=freq[6] || Math.abs(freq[7]/freq[6]-STEP)>0.00001) continue;
-      freq[8]=(int)(inB[i+8]& 0xFF)+(int)(inB[i+20]& 0xFF)*256;
-      if (freq[8]==0 || freq[8]<=freq[7] || Math.abs(freq[8]/freq[7]-STEP)>0.00001) continue;
-      freq[9]=(int)(inB[i+9]& 0xFF)+(int)(inB[i+21]& 0xFF)*256;
-      if (freq[9]==0 || freq[9]<=freq[8] || Math.abs(freq[9]/freq[8]-STEP)>0.00001) continue;
-      freq[10]=(int)(inB[i+10]& 0xFF)+(int)(inB[i+22]& 0xFF)*256;
-      if (freq[10]==0 || freq[10]<=freq[9] || Math.abs(freq[10]/freq[9]-STEP)>0.00001) continue;
-      freq[11]=(int)(inB[i+11]& 0xFF)+(int)(inB[i+23]& 0xFF)*256;
-      if (freq[11]==0 || freq[11]<=freq[10] || Math.abs(freq[11]/freq[10]-STEP)>0.00001) continue;
+      if (freqIndex.notes(i, 0, 12, 1)<11) continue;
+      int freq9=freqIndex.word(i+9, 0, 12);
+      int freq11=freqIndex.word(i+11, 0, 12);
         
-      if (freq[11]<62000) continue;
+      if (freq11<62000) continue;
       
       /**
       if (inB[i]==0   && inB[i+1]==-1 &&
@@ -1218,7 +1116,7 @@ public class SidFreq {
       */
 
       if (!checkGarbage(i, i+23)) {
-        addData(i+12, i, freq[9]/8);
+        addData(i+12, i, freq9/8);
         markMemory(i+12, i+23, 1);
         markMemory(i, i+12, 1);
         
@@ -1236,40 +1134,16 @@ public class SidFreq {
    * @return true if it is find
    */
   private boolean highOctaveCombined() {
-    final double STEP=Math.pow(2, 1/12);
-    int[] freq=new int[12];
-      
     for (int i=start; i<end-13*2; i++) {
 
-        freq[0]=(int)(inB[i]& 0xFF)+(int)(inB[i+1]& 0xFF)*256; 
-        if (freq[0]==0) continue;
-        freq[1]=(int)(inB[i+2]& 0xFF)+(int)(inB[i+3]& 0xFF)*256;
-        if (freq[1]==0 || freq[1]<=freq[0] || Math.abs(freq[1]/freq[0]-STEP)>0.00001) continue;        
-        freq[2]=(int)(inB[i+4]& 0xFF)+(int)(inB[i+5]& 0xFF)*256;
-        if (freq[2]==0 || freq[2]<=freq[1] || Math.abs(freq[2]/freq[1]-STEP)>0.00001) continue;
-        freq[3]=(int)(inB[i+6]& 0xFF)+(int)(inB[i+7]& 0xFF)*256;
-        if (freq[3]==0 || freq[3]<=freq[2] || Math.abs(freq[3]/freq[2]-STEP)>0.00001) continue;
-        freq[4]=(int)(inB[i+8]& 0xFF)+(int)(inB[i+9]& 0xFF)*256;
-        if (freq[4]==0 || freq[4]<=freq[3] || Math.abs(freq[4]/freq[3]-STEP)>0.00001) continue;
-        freq[5]=(int)(inB[i+10]& 0xFF)+(int)(inB[i+11]& 0xFF)*256;        
-        if (freq[5]==0 || freq[5]<=freq[4] || Math.abs(freq[5]/freq[4]-STEP)>0.00001) continue;
-        freq[6]=(int)(inB[i+12]& 0xFF)+(int)(inB[i+13]& 0xFF)*256;
-        if (freq[6]==0 || freq[6]<=freq[5] || Math.abs(freq[6]/freq[5]-STEP)>0.00001) continue;
-        freq[7]=(int)(inB[i+14]& 0xFF)+(int)(inB[i+15]& 0xFF)*256;
-        if (freq[7]==0 || freq[7]<=freq[6] || Math.abs(freq[7]/freq[6]-STEP)>0.00001) continue;
-        freq[8]=(int)(inB[i+16]& 0xFF)+(int)(inB[i+17]& 0xFF)*256;
-        if (freq[8]==0 || freq[8]<=freq[7] || Math.abs(freq[8]/freq[7]-STEP)>0.00001) continue;
-        freq[9]=(int)(inB[i+18]& 0xFF)+(int)(inB[i+19]& 0xFF)*256;
-        if (freq[9]==0 || freq[9]<=freq[8] || Math.abs(freq[9]/freq[8]-STEP)>0.00001) continue;
-        freq[10]=(int)(inB[i+20]& 0xFF)+(int)(inB[i+21]& 0xFF)*256;
-        if (freq[10]==0 || freq[10]<=freq[9] || Math.abs(freq[10]/freq[9]-STEP)>0.00001) continue;
-        freq[11]=(int)(inB[i+22]& 0xFF)+(int)(inB[i+23]& 0xFF)*256;
-        if (freq[11]==0 || freq[11]<=freq[10] || Math.abs(freq[11]/freq[10]-STEP)>0.00001) continue;
+        if (freqIndex.notes(i, 0, 1, 2)<11) continue;
+        int freq9=freqIndex.word(i+18, 0, 1);
+        int freq11=freqIndex.word(i+22, 0, 1);
         
-        if (freq[11]<62000) continue;
+        if (freq11<62000) continue;
 
         if (!checkGarbage(i, i+26)) {
-          addData(i+1, i, freq[9]/8);
+          addData(i+1, i, freq9/8);
           markMemory(i+13, i+26, 1);
           markMemory(i, i+13, 1);
           
@@ -1287,40 +1161,16 @@ public class SidFreq {
    * @return true if it is find
    */
   private boolean highOctaveCombinedInv() {
-    final double STEP=Math.pow(2, 1/12);
-    int[] freq=new int[12];
-      
     for (int i=start; i<end-13*2; i++) {
 
-        freq[0]=(int)(inB[i]& 0xFF)*256+(int)(inB[i+1]& 0xFF); 
-        if (freq[0]==0) continue;
-        freq[1]=(int)(inB[i+2]& 0xFF)*256+(int)(inB[i+3]& 0xFF);
-        if (freq[1]==0 || freq[1]<=freq[0] || Math.abs(freq[1]/freq[0]-STEP)>0.00001) continue;        
-        freq[2]=(int)(inB[i+4]& 0xFF)*256+(int)(inB[i+5]& 0xFF);
-        if (freq[2]==0 || freq[2]<=freq[1] || Math.abs(freq[2]/freq[1]-STEP)>0.00001) continue;
-        freq[3]=(int)(inB[i+6]& 0xFF)*256+(int)(inB[i+7]& 0xFF);
-        if (freq[3]==0 || freq[3]<=freq[2] || Math.abs(freq[3]/freq[2]-STEP)>0.00001) continue;
-        freq[4]=(int)(inB[i+8]& 0xFF)*256+(int)(inB[i+9]& 0xFF);
-        if (freq[4]==0 || freq[4]<=freq[3] || Math.abs(freq[4]/freq[3]-STEP)>0.00001) continue;
-        freq[5]=(int)(inB[i+10]& 0xFF)*256+(int)(inB[i+11]& 0xFF);        
-        if (freq[5]==0 || freq[5]<=freq[4] || Math.abs(freq[5]/freq[4]-STEP)>0.00001) continue;
-        freq[6]=(int)(inB[i+12]& 0xFF)*256+(int)(inB[i+13]& 0xFF);
-        if (freq[6]==0 || freq[6]<=freq[5] || Math.abs(freq[6]/freq[5]-STEP)>0.00001) continue;
-        freq[7]=(int)(inB[i+14]& 0xFF)*256+(int)(inB[i+15]& 0xFF);
-        if (freq[7]==0 || freq[7]<=freq[6] || Math.abs(freq[7]/freq[6]-STEP)>0.00001) continue;
-        freq[8]=(int)(inB[i+16]& 0xFF)*256+(int)(inB[i+17]& 0xFF);
-        if (freq[8]==0 || freq[8]<=freq[7] || Math.abs(freq[8]/freq[7]-STEP)>0.00001) continue;
-        freq[9]=(int)(inB[i+18]& 0xFF)*256+(int)(inB[i+19]& 0xFF);
-        if (freq[9]==0 || freq[9]<=freq[8] || Math.abs(freq[9]/freq[8]-STEP)>0.00001) continue;
-        freq[10]=(int)(inB[i+20]& 0xFF)*256+(int)(inB[i+21]& 0xFF);
-        if (freq[10]==0 || freq[10]<=freq[9] || Math.abs(freq[10]/freq[9]-STEP)>0.00001) continue;
-        freq[11]=(int)(inB[i+22]& 0xFF)*256+(int)(inB[i+23]& 0xFF);
-        if (freq[11]==0 || freq[11]<=freq[10] || Math.abs(freq[11]/freq[10]-STEP)>0.00001) continue;
+        if (freqIndex.notes(i, 1, 0, 2)<11) continue;
+        int freq9=freqIndex.word(i+18, 1, 0);
+        int freq11=freqIndex.word(i+22, 1, 0);
         
-        if (freq[11]<62000) continue;
+        if (freq11<62000) continue;
 
         if (!checkGarbage(i, i+26)) {
-          addData(i+1, i, freq[9]/8);
+          addData(i+1, i, freq9/8);
           markMemory(i+13, i+26, 1);
           markMemory(i, i+13, 1);
           
@@ -1338,40 +1188,16 @@ public class SidFreq {
    * @return true if it is find
    */
   private boolean lowOctaveCombined() {
-    final double STEP=Math.pow(2, 1/12);
-    int[] freq=new int[12];
-      
     for (int i=start; i<end-13*2; i++) {
 
-        freq[0]=(int)(inB[i]& 0xFF)+(int)(inB[i+1]& 0xFF)*256; 
-        if (freq[0]==0) continue;
-        freq[1]=(int)(inB[i+2]& 0xFF)+(int)(inB[i+3]& 0xFF)*256;
-        if (freq[1]==0 || freq[1]<=freq[0] || Math.abs(freq[1]/freq[0]-STEP)>0.00001) continue;        
-        freq[2]=(int)(inB[i+4]& 0xFF)+(int)(inB[i+5]& 0xFF)*256;
-        if (freq[2]==0 || freq[2]<=freq[1] || Math.abs(freq[2]/freq[1]-STEP)>0.00001) continue;
-        freq[3]=(int)(inB[i+6]& 0xFF)+(int)(inB[i+7]& 0xFF)*256;
-        if (freq[3]==0 || freq[3]<=freq[2] || Math.abs(freq[3]/freq[2]-STEP)>0.00001) continue;
-        freq[4]=(int)(inB[i+8]& 0xFF)+(int)(inB[i+9]& 0xFF)*256;
-        if (freq[4]==0 || freq[4]<=freq[3] || Math.abs(freq[4]/freq[3]-STEP)>0.00001) continue;
-        freq[5]=(int)(inB[i+10]& 0xFF)+(int)(inB[i+11]& 0xFF)*256;        
-        if (freq[5]==0 || freq[5]<=freq[4] || Math.abs(freq[5]/freq[4]-STEP)>0.00001) continue;
-        freq[6]=(int)(inB[i+12]& 0xFF)+(int)(inB[i+13]& 0xFF)*256;
-        if (freq[6]==0 || freq[6]<=freq[5] || Math.abs(freq[6]/freq[5]-STEP)>0.00001) continue;
-        freq[7]=(int)(inB[i+14]& 0xFF)+(int)(inB[i+15]& 0xFF)*256;
-        if (freq[7]==0 || freq[7]<=freq[6] || Math.abs(freq[7]/freq[6]-STEP)>0.00001) continue;
-        freq[8]=(int)(inB[i+16]& 0xFF)+(int)(inB[i+17]& 0xFF)*256;
-        if (freq[8]==0 || freq[8]<=freq[7] || Math.abs(freq[8]/freq[7]-STEP)>0.00001) continue;
-        freq[9]=(int)(inB[i+18]& 0xFF)+(int)(inB[i+19]& 0xFF)*256;
-        if (freq[9]==0 || freq[9]<=freq[8] || Math.abs(freq[9]/freq[8]-STEP)>0.00001) continue;
-        freq[10]=(int)(inB[i+20]& 0xFF)+(int)(inB[i+21]& 0xFF)*256;
-        if (freq[10]==0 || freq[10]<=freq[9] || Math.abs(freq[10]/freq[9]-STEP)>0.00001) continue;
-        freq[11]=(int)(inB[i+22]& 0xFF)+(int)(inB[i+23]& 0xFF)*256;
-        if (freq[11]==0 || freq[11]<=freq[10] || Math.abs(freq[11]/freq[10]-STEP)>0.00001) continue;
+        if (freqIndex.notes(i, 0, 1, 2)<11) continue;
+        int freq9=freqIndex.word(i+18, 0, 1);
+        int freq11=freqIndex.word(i+22, 0, 1);
         
-        if (freq[11]>600) continue;
+        if (freq11>600) continue;
 
         if (!checkGarbage(i, i+26)) {
-          addData(i+1, i, freq[9]*16);
+          addData(i+1, i, freq9*16);
           markMemory(i+13, i+26, 1);
           markMemory(i, i+13, 1);
           
@@ -1389,15 +1215,15 @@ public class SidFreq {
    * @return true if the table is fount
    */
   private boolean linearInverseTable() {
-    int i;  
     int sid;
     int high=-1;
     int low=-1;   
     
-    // check for high frequency table
-    for (i=end-1; i>=start+ALL; i--) {
-      if (searchInverseHigh(i)) {
-        high=i;
+    // check for high frequency table (it ends with three 1)
+    int[] ones=freqIndex.ones(1);
+    for (int k=SidFreqIndex.first(ones, end-2)-1; k>=0 && ones[k]+2>=start+ALL; k--) {
+      if (searchInverseHigh(ones[k]+2)) {
+        high=ones[k]+2;
         break;         
       }
     }  
@@ -1407,21 +1233,11 @@ public class SidFreq {
 
     // check for low frequency table (first part)
     if (high>ALL) {
-      for (i=start+ALL; i<high; i++) {
-        if (searchInverseLow(high, i)) {
-          low=i;
-          break;
-        }           
-      }
+      low=findLow(this::searchInverseLow, high, start+ALL, high-1, -12, 0, ERROR);
     
       // check for high frequency table (second part)
       if ((low==-1) && (high<end-ALL)) {
-        for (i=high+ALL; i<end; i++) {
-          if (searchInverseLow(high, i)) {
-            low=i;
-            break;
-          }                 
-        }
+        low=findLow(this::searchInverseLow, high, high+ALL, end-1, -12, 0, ERROR);
       }
     
       // look if low table was fount
@@ -1449,19 +1265,11 @@ public class SidFreq {
    * @return true if there is a high frequency table in that position 
    */ 
   private boolean searchInverseHigh(int index) {
-    int i;
-    int actual=1;   
-   
     // it must start with three 1
     if ( ((int)inB[index-0]!=1) || ((int)inB[index-1]!=1) || ((int)inB[index-2]!=1)) return false;
    
     // search for increasing numbers
-    for (i=index-3; i>index-ALL; i--) {
-      if ((int)(inB[i]& 0xFF)<actual) return false;
-      else actual=((int)inB[i]& 0xFF);
-    }
-
-    return true;   
+    return freqIndex.rising(index-3, index-ALL, -1);
   }    
   
   /**
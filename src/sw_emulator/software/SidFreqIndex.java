@@ -0,0 +1,286 @@
+/*
+ * @(#)SidFreqIndex.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Index of a buffer used by SidFreq for evaluating all the table shapes
+ * without scanning the buffer for every position of a table.
+ *
+ * Every part of index is built with one pass of the buffer the first time
+ * it is used:
+ * - the positions where three 1 start (the beginning of a high table)
+ * - the end of the not decreasing run of every position
+ * - the number of following words with the ratio of a note
+ * - the positions grouped by the octave key v[p+distance]-2*v[p], so that the
+ *   low tables of a high table are searched only where the octave relation
+ *   with the high table can be satisfied
+ *
+ * @author ice
+ */
+class SidFreqIndex {
+  /** Lowest octave key */
+  private static final int MIN_KEY=-2*255;
+
+  /** Highest octave key */
+  private static final int MAX_KEY=255;
+
+  /** Buffer of data */
+  private final byte[] inB;
+
+  /** Position after the last one indexed */
+  private final int limit;
+
+  /** Positions where three 1 start, by step */
+  private final HashMap<Integer, int[]> ones=new HashMap<>();
+
+  /** Positions where 1 1 1 or 0 1 1 1 start */
+  private int[] highs;
+
+  /** Last position of the not decreasing run of every position, by step */
+  private final HashMap<Integer, int[]> rises=new HashMap<>();
+
+  /** Number of following words with the ratio of a note, by layout */
+  private final HashMap<Integer, int[]> notes=new HashMap<>();
+
+  /** First position of every octave key and positions ordered by key, by distance */
+  private final HashMap<Integer, int[][]> octaves=new HashMap<>();
+
+  /** Positions found by the last octaves search */
+  int[] found=new int[16];
+
+  /**
+   * Construct the index of the buffer
+   *
+   * @param inB the buffer
+   * @param end the last position to index
+   */
+  SidFreqIndex(byte[] inB, int end) {
+    this.inB=inB;
+    limit=Math.max(0, Math.min(inB.length, end+1));
+  }
+
+  /**
+   * Get the positions where three 1 start
+   *
+   * @param step the distance between the values
+   * @return the ascending positions
+   */
+  int[] ones(int step) {
+    int[] res=ones.get(step);
+
+    if (res==null) {
+      res=new int[16];
+      int size=0;
+      for (int i=0; i+step*2<limit; i++) {
+        if (inB[i]==1 && inB[i+step]==1 && inB[i+step*2]==1) {
+          if (size==res.length) res=Arrays.copyOf(res, size*2);
+          res[size++]=i;
+        }
+      }
+      res=Arrays.copyOf(res, size);
+      ones.put(step, res);
+    }
+    return res;
+  }
+
+  /**
+   * Get the positions where 1 1 1 or 0 1 1 1 start
+   *
+   * @return the ascending positions
+   */
+  int[] highs() {
+    if (highs==null) {
+      int[] list=ones(1);
+      int size=0;
+
+      highs=new int[list.length*2];
+      for (int pos: list) {
+        if (pos>0 && inB[pos-1]==0) highs[size++]=pos-1;
+        highs[size++]=pos;
+      }
+      highs=Arrays.copyOf(highs, size);
+    }
+    return highs;
+  }
+
+  /**
+   * Get the last position of the not decreasing run (going in the direction
+   * of step) that starts in the given position
+   *
+   * @param pos the position
+   * @param step the distance between the values (negative for going back)
+   * @return the last position of run
+   */
+  int rise(int pos, int step) {
+    int[] rise=rises.get(step);
+
+    if (rise==null) {
+      rise=new int[limit];
+      for (int k=0; k<limit; k++) {
+        int i=step>0 ? limit-1-k : k;
+        int next=i+step;
+        if (next>=0 && next<limit && (inB[next] & 0xFF)>=(inB[i] & 0xFF)) rise[i]=rise[next];
+        else rise[i]=i;
+      }
+      rises.put(step, rise);
+    }
+    return rise[pos];
+  }
+
+  /**
+   * Test if the values from the given position are not 0 and not decreasing
+   * (going in the direction of step) before the last position
+   *
+   * @param from the first position
+   * @param to the position where to stop (not included)
+   * @param step the distance between the values (negative for going back)
+   * @return true if the values are not decreasing
+   */
+  boolean rising(int from, int to, int step) {
+    if ((inB[from] & 0xFF)<1) return false;
+
+    if (step>0) return rise(from, step)>=to-step;
+    else return rise(from, step)<=to-step;
+  }
+
+  /**
+   * Get the word at the given position
+   *
+   * @param pos the position
+   * @param lo offset of low byte
+   * @param hi offset of high byte
+   * @return the word
+   */
+  int word(int pos, int lo, int hi) {
+    return (inB[pos+lo] & 0xFF)+(inB[pos+hi] & 0xFF)*256;
+  }
+
+  /**
+   * Get the number of following words that have the ratio of a note with
+   * the previous one (greater but lower than its double)
+   *
+   * @param pos the position of first word
+   * @param lo offset of low byte of words
+   * @param hi offset of high byte of words
+   * @param step distance between words
+   * @return the number of ratios
+   */
+  int notes(int pos, int lo, int hi, int step) {
+    int key=(lo<<16)|(hi<<8)|step;
+    int[] run=notes.get(key);
+
+    if (run==null) {
+      run=new int[limit];
+      for (int i=limit-1-Math.max(lo, hi)-step; i>=0; i--) {
+        int actual=word(i, lo, hi);
+        int next=word(i+step, lo, hi);
+        if (actual!=0 && next>actual && next<actual*2) run[i]=run[i+step]+1;
+      }
+      notes.put(key, run);
+    }
+    return run[pos];
+  }
+
+  /**
+   * Search the positions p from the given range where the octave key
+   * v[p+shift+distance]-2*v[p+shift] is near to the given value.
+   * The positions are stored ascending in found.
+   *
+   * @param distance the distance of the next octave
+   * @param shift the shift of the byte to use
+   * @param value the value of key
+   * @param error the error allowed for the key
+   * @param from first position of range
+   * @param to last position of range
+   * @return the number of positions found
+   */
+  int octaves(int distance, int shift, int value, int error, int from, int to) {
+    int[][] octave=octaves.get(distance);
+
+    if (octave==null) {
+      int[] starts=new int[MAX_KEY-MIN_KEY+2];
+      int first=Math.max(0, -distance);
+      int last=Math.min(limit, limit-distance);
+
+      for (int i=first; i<last; i++) {
+        starts[key(i, distance)-MIN_KEY+1]++;
+      }
+      for (int k=1; k<starts.length; k++) {
+        starts[k]+=starts[k-1];
+      }
+
+      int[] positions=new int[Math.max(0, last-first)];
+      int[] next=Arrays.copyOf(starts, starts.length);
+      for (int i=first; i<last; i++) {
+        positions[next[key(i, distance)-MIN_KEY]++]=i;
+      }
+
+      octave=new int[][] {starts, positions};
+      octaves.put(distance, octave);
+    }
+
+    int[] starts=octave[0];
+    int[] positions=octave[1];
+    int size=0;
+    for (int key=Math.max(value-error, MIN_KEY); key<=Math.min(value+error, MAX_KEY); key++) {
+      int end=starts[key-MIN_KEY+1];
+      int i=Arrays.binarySearch(positions, starts[key-MIN_KEY], end, from+shift);
+      if (i<0) i=-i-1;
+
+      for (; i<end && positions[i]<=to+shift; i++) {
+        if (size==found.length) found=Arrays.copyOf(found, size*2);
+        found[size++]=positions[i]-shift;
+      }
+    }
+    Arrays.sort(found, 0, size);
+
+    return size;
+  }
+
+  /**
+   * Get the octave key of the position
+   *
+   * @param pos the position
+   * @param distance the distance of the next octave
+   * @return the key
+   */
+  private int key(int pos, int distance) {
+    return (inB[pos+distance] & 0xFF)-(inB[pos] & 0xFF)*2;
+  }
+
+  /**
+   * Get the index of the first position not lower than the given one
+   *
+   * @param list the ascending positions
+   * @param pos the position
+   * @return the index in list
+   */
+  static int first(int[] list, int pos) {
+    int index=Arrays.binarySearch(list, pos);
+    return index<0 ? -index-1 : index;
+  }
+}
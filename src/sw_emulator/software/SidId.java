@@ -26,42 +26,64 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.util.ArrayList;
 
-/**
- * Store the information about a SID Id signature (patterns)
- */
-class SidIdRecord {
-  String name;
-  ArrayList<int[]> list;
-}
-
 /**
  * SidId from XSidplay2
  * 
+ * The configuration (players and compiled signatures) is read in the shared
+ * instance and it is not changed after reading: a new configuration replaces
+ * it. Every thread that identifies players uses its own detector created
+ * from the shared instance.
+ * 
  * @author ice00
  */
 public class SidId {
+  /**
+   * Store the information about a SID Id signature (patterns)
+   */
+  static class SidIdRecord {
+    String name;
+    ArrayList<int[]> list;
+  }
+  
   static final int END = -1;
   static final int ANY = -2;
   static final int AND = -3;
   static final int NAME = -4;  
   static final int MAX_SIGSIZE = 4096;
   
-  /** Instance of the class as singleton */
+  /** Instance of the class with the shared configuration */
   public static final SidId instance=new SidId();
   
   /** Version of the algorithm */
   public static final String VERSION = "SIDId V1.09 by Cadaver (C) 2012";
   
-  /** list of Sid IDs */
-  ArrayList<SidIdRecord> sidIdList=new ArrayList();
-    
-  /** Last players identified */
-  String lastPlayers;  
+  /** Owner of the configuration used by this detector */
+  private final SidId config;
+  
+  /** list of Sid IDs (replaced by reading a configuration) */
+  volatile ArrayList<SidIdRecord> sidIdList=new ArrayList();
+  
+  /** Signatures compiled for one scan of buffer (replaced by reading a configuration) */
+  volatile SidIdMatcher matcher=new SidIdMatcher(sidIdList);
+  
+  /** Positions found by the matcher of this detector */
+  private final SidIdMatcher.Scratch scratch=new SidIdMatcher.Scratch();
   
   /**
    * Private constructor
    */
   private SidId() {      
+    config=this;
+  }
+  
+  /**
+   * Construct a detector for one thread that uses the configuration of the 
+   * given SidId (also the one read after the construction)
+   * 
+   * @param config the SidId with the configuration
+   */
+  public SidId(SidId config) {
+    this.config=config.config;
   }
   
   /**
@@ -70,7 +92,7 @@ public class SidId {
    * @return the number of players recognized
    */ 
   public int getNumberOfPlayers() {
-    return sidIdList.size();
+    return config.sidIdList.size();
   }
 
   /**
@@ -81,7 +103,7 @@ public class SidId {
   public int getNumberOfPatterns() {
     int n = 0;
 
-    for (SidIdRecord rec : sidIdList) {
+    for (SidIdRecord rec : config.sidIdList) {
       n += rec.list.size();
     }
     return n;
@@ -99,11 +121,11 @@ public class SidId {
     String line;
     int[] temp;
     int sigsize = 0;
+    ArrayList<SidIdRecord> sidIdList=new ArrayList<>();  // new list as the actual can be in use
 
     BufferedReader in;
     try {
       in = new BufferedReader(new FileReader(name));
-      sidIdList.clear();    // clear the list as we can read a config more time
 
       while (in.ready()) {
         int len;
@@ -183,6 +205,8 @@ public class SidId {
         }
       }
       in.close();
+      config.sidIdList=sidIdList;
+      config.matcher=new SidIdMatcher(sidIdList);
     } catch (Exception e) { 
         System.err.println(e);
         return false;
@@ -194,25 +218,31 @@ public class SidId {
   /**
    * Identify the IDs of the given buffer
    * 
-   * @param buffer the buffed with the data to identify
+   * @param buffer the buffed with the data to identify (values of bytes)
    * @param length length of the buffer
    * @return the identified engines as string
    */
   public String identifyBuffer(int[] buffer, int length) {
-    lastPlayers="";
-    // scan all the engines
-    for (SidIdRecord list : sidIdList) {
-      for (int[] bytes: list.list) {
-        if (identifyBytes(bytes, buffer, length)) {
-          lastPlayers+=list.name+" ";
-          break;
-        }
-      }
+    byte[] bytes=new byte[length];
+    for (int i=0; i<length; i++) {
+      bytes[i]=(byte)buffer[i];
     }
   
-    return lastPlayers;
+    return identifyBuffer(bytes, 0, length);
   }  
   
+  /**
+   * Identify the IDs of the given part of buffer without copying it
+   * 
+   * @param buffer the buffer with the data to identify
+   * @param offset the offset of data in buffer
+   * @param length length of the data
+   * @return the identified engines as string
+   */
+  public String identifyBuffer(byte[] buffer, int offset, int length) {
+    return config.matcher.identify(buffer, offset, length, scratch);
+  }
+  
   /**
    * Identify the bytes of ID and buffer according to the pattern rules
    * 
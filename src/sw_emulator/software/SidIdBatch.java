@@ -0,0 +1,339 @@
+/*
+ * @(#)SidIdBatch.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import sw_emulator.math.Unsigned;
+
+/**
+ * Identify the players of all the SID files of a directory tree.
+ *
+ * The payload of every PSID/RSID file is identified in a pool of threads,
+ * every one with its own detector of the same configuration. The report
+ * lists the players and the time of every file and the number of files of
+ * every player, as CSV (report.csv and report-players.csv) or as JSON
+ * (report.json).
+ *
+ * Usage: SidIdBatch [-threads n] [-json] config_file sid_dir report
+ *
+ * @author ice
+ */
+public class SidIdBatch {
+  /**
+   * Result of identification of one file
+   */
+  private static class Result {
+    /** Path of file relative to directory */
+    String name;
+
+    /** Players identified */
+    String[] players;
+
+    /** Time of identification in microseconds */
+    long time;
+
+    /** Error message or null if ok */
+    String error;
+  }
+
+  /** Detector of every thread of pool (with the shared configuration) */
+  private final ThreadLocal<SidId> detector;
+
+  /**
+   * Construct the batch
+   *
+   * @param sidId the SidId with the configuration already read
+   */
+  public SidIdBatch(SidId sidId) {
+    detector=ThreadLocal.withInitial(() -> new SidId(sidId));
+  }
+
+  /**
+   * Identify all the SID files of the directory tree
+   *
+   * @param dir the directory
+   * @param threads number of threads to use
+   * @param report base path of report (without extension)
+   * @param json true for JSON report, false for CSV
+   * @return number of files with errors
+   * @throws IOException if directory cannot be read or report written
+   * @throws InterruptedException if interrupted
+   */
+  public int execute(Path dir, int threads, String report, boolean json) throws IOException, InterruptedException {
+    ArrayList<Path> files;
+    try (Stream<Path> stream=Files.walk(dir)) {
+      files=stream.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".sid"))
+                  .sorted()
+                  .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    long start=System.nanoTime();
+    ExecutorService executor=Executors.newFixedThreadPool(threads);
+    ArrayList<Future<Result>> futures=new ArrayList<>();
+    for (Path file: files) {
+      futures.add(executor.submit(() -> identify(dir, file)));
+    }
+
+    Result[] results=new Result[files.size()];
+    try {
+      for (int i=0; i<results.length; i++) {
+        results[i]=futures.get(i).get();
+      }
+    } catch (ExecutionException e) {
+        throw new IOException(e.getCause());
+      } finally {
+          executor.shutdown();
+        }
+    long elapsed=(System.nanoTime()-start)/1000000;
+
+    int errors=0;
+    int unknown=0;
+    TreeMap<String, Integer> counts=new TreeMap<>();
+    for (Result result: results) {
+      if (result.error!=null) errors++;
+      else if (result.players.length==0) unknown++;
+      else for (String player: result.players) {
+        counts.merge(player, 1, Integer::sum);
+      }
+    }
+
+    if (json) writeJson(report+".json", results, counts, unknown, elapsed);
+    else writeCsv(report, results, counts, unknown);
+
+    System.out.println("Identified "+(results.length-errors-unknown)+" files of "+
+                       results.length+" ("+unknown+" unknown, "+errors+" errors) with "+
+                       counts.size()+" players in "+elapsed+" ms");
+    return errors;
+  }
+
+  /**
+   * Identify the players of the file
+   *
+   * @param dir the base directory
+   * @param file the file
+   * @return the result
+   */
+  private Result identify(Path dir, Path file) {
+    Result result=new Result();
+    result.name=dir.relativize(file).toString();
+
+    try {
+      byte[] inB=Files.readAllBytes(file);
+      long time=System.nanoTime();
+
+      if (inB.length<0x7C || !(inB[0]=='P' || inB[0]=='R') || inB[1]!='S' || inB[2]!='I' || inB[3]!='D') {
+        result.error="Not a PSID/RSID file";
+        return result;
+      }
+
+      // payload after header (and after the load address if it is inside data)
+      int pos=Unsigned.done(inB[0x07])+Unsigned.done(inB[0x06])*256;
+      if (Unsigned.done(inB[0x09])+Unsigned.done(inB[0x08])*256==0) pos+=2;
+      if (pos>inB.length) {
+        result.error="Invalid data offset";
+        return result;
+      }
+
+      String players=detector.get().identifyBuffer(inB, pos, inB.length-pos).trim();
+      result.players=players.isEmpty() ? new String[0] : players.split(" ");
+      result.time=(System.nanoTime()-time)/1000;
+    } catch (IOException e) {
+        result.error=e.toString();
+      }
+
+    return result;
+  }
+
+  /**
+   * Write the report in CSV format
+   *
+   * @param report base path of report
+   * @param results the results of files
+   * @param counts the number of files of players
+   * @param unknown the number of files without players
+   * @throws IOException if write fails
+   */
+  private static void writeCsv(String report, Result[] results, TreeMap<String, Integer> counts, int unknown) throws IOException {
+    try (BufferedWriter out=new BufferedWriter(new FileWriter(report+".csv"))) {
+      out.write("file,players,us,result\n");
+      for (Result result: results) {
+        out.write(csv(result.name)+","+
+                  (result.players==null ? "" : csv(String.join(" ", result.players)))+","+
+                  result.time+","+(result.error==null ? "ok" : csv(result.error))+"\n");
+      }
+    }
+
+    try (BufferedWriter out=new BufferedWriter(new FileWriter(report+"-players.csv"))) {
+      out.write("player,files\n");
+      for (String player: counts.keySet()) {
+        out.write(csv(player)+","+counts.get(player)+"\n");
+      }
+      out.write("(unknown),"+unknown+"\n");
+    }
+  }
+
+  /**
+   * Write the report in JSON format
+   *
+   * @param file the file of report
+   * @param results the results of files
+   * @param counts the number of files of players
+   * @param unknown the number of files without players
+   * @param elapsed the total time in ms
+   * @throws IOException if write fails
+   */
+  private static void writeJson(String file, Result[] results, TreeMap<String, Integer> counts, int unknown, long elapsed) throws IOException {
+    try (BufferedWriter out=new BufferedWriter(new FileWriter(file))) {
+      out.write("{\n  \"version\": "+json(SidId.VERSION)+",\n");
+      out.write("  \"ms\": "+elapsed+",\n");
+      out.write("  \"unknown\": "+unknown+",\n");
+
+      out.write("  \"players\": {");
+      String sep="\n";
+      for (String player: counts.keySet()) {
+        out.write(sep+"    "+json(player)+": "+counts.get(player));
+        sep=",\n";
+      }
+      out.write("\n  },\n");
+
+      out.write("  \"files\": [");
+      sep="\n";
+      for (Result result: results) {
+        out.write(sep+"    {\"file\": "+json(result.name)+", \"us\": "+result.time);
+        if (result.error!=null) out.write(", \"error\": "+json(result.error));
+        else {
+          out.write(", \"players\": [");
+          for (int i=0; i<result.players.length; i++) {
+            if (i>0) out.write(", ");
+            out.write(json(result.players[i]));
+          }
+          out.write("]");
+        }
+        out.write("}");
+        sep=",\n";
+      }
+      out.write("\n  ]\n}\n");
+    }
+  }
+
+  /**
+   * Quote the value for CSV if needed
+   *
+   * @param value the value
+   * @return the CSV value
+   */
+  private static String csv(String value) {
+    if (value.indexOf(',')<0 && value.indexOf('"')<0) return value;
+    return "\""+value.replace("\"", "\"\"")+"\"";
+  }
+
+  /**
+   * Quote the value as JSON string
+   *
+   * @param value the value
+   * @return the JSON string
+   */
+  private static String json(String value) {
+    StringBuilder res=new StringBuilder("\"");
+    for (char c: value.toCharArray()) {
+      switch (c) {
+        case '"':
+          res.append("\\\"");
+          break;
+        case '\\':
+          res.append("\\\\");
+          break;
+        default:
+          if (c<0x20) res.append(String.format("\\u%04x", (int)c));
+          else res.append(c);
+          break;
+      }
+    }
+    return res.append("\"").toString();
+  }
+
+  /**
+   * Print the usage and exit
+   */
+  private static void usage() {
+    System.err.println("Usage: SidIdBatch [-threads n] [-json] config_file sid_dir report");
+    System.exit(2);
+  }
+
+  /**
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    int threads=Runtime.getRuntime().availableProcessors();
+    boolean json=false;
+    ArrayList<String> params=new ArrayList<>();
+
+    try {
+      for (int i=0; i<args.length; i++) {
+        switch (args[i]) {
+          case "-threads":
+            threads=Integer.parseInt(args[++i]);
+            break;
+          case "-json":
+            json=true;
+            break;
+          default:
+            params.add(args[i]);
+            break;
+        }
+      }
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        System.err.println(e);
+        usage();
+      }
+    if (params.size()!=3 || threads<1) usage();
+
+    try {
+      if (!SidId.instance.readConfig(params.get(0))) System.exit(2);
+
+      System.out.println(SidId.VERSION+": "+SidId.instance.getNumberOfPlayers()+
+                         " players, "+SidId.instance.getNumberOfPatterns()+" patterns");
+
+      int errors=new SidIdBatch(SidId.instance).execute(Paths.get(params.get(1)), threads, params.get(2), json);
+      System.exit(errors==0 ? 0 : 1);
+    } catch (Exception e) {
+        System.err.println(e);
+        System.exit(2);
+      }
+  }
+}
@@ -0,0 +1,376 @@
+/*
+ * @(#)SidIdMatcher.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import sw_emulator.software.SidId.SidIdRecord;
+import static sw_emulator.software.SidId.AND;
+import static sw_emulator.software.SidId.ANY;
+import static sw_emulator.software.SidId.END;
+
+/**
+ * Signatures of SidId compiled for identifying all the players with one scan
+ * of the buffer.
+ *
+ * A signature is a list of segments separated by AND: it matches if every
+ * segment is found after the end of the previous one, as done by
+ * SidId.identifyBytes. Every distinct segment is searched only once with an
+ * Aho-Corasick automaton built on its bytes before the first ??, then the
+ * rest of the segment is verified at the found positions. The players are
+ * then identified by the positions found for their segments.
+ *
+ * The matcher is not changed after construction: the positions found during
+ * an identification are kept in a Scratch, that can be reused by the same
+ * thread for following identifications.
+ *
+ * @author ice
+ */
+class SidIdMatcher {
+  /**
+   * Positions of segments found during an identification
+   */
+  static class Scratch {
+    /** Positions of every segment */
+    int[][] found=new int[0][];
+
+    /** Number of positions of every segment */
+    int[] counts=new int[0];
+
+    /** Segments with positions */
+    int[] used=new int[0];
+
+    /** Number of segments with positions */
+    int size;
+  }
+
+  /** Bytes of segments (?? as ANY) */
+  private final int[][] segments;
+
+  /** Bytes of segments before the first ?? */
+  private final int[] anchors;
+
+  /** Names of players */
+  private final String[] names;
+
+  /** Signatures of players as segment indexes (null if never matching) */
+  private final int[][][] signatures;
+
+  /** Keys of automaton transitions (state*256+byte, -1 if empty) */
+  private final int[] keys;
+
+  /** States of automaton transitions */
+  private final int[] values;
+
+  /** Failure state of every state */
+  private final int[] fail;
+
+  /** Nearest failure state with segments of every state (0 if none) */
+  private final int[] dict;
+
+  /** Segments ending in every state */
+  private final int[][] outputs;
+
+
+  /**
+   * Compile the signatures of players
+   *
+   * @param list the players with their signatures
+   */
+  SidIdMatcher(ArrayList<SidIdRecord> list) {
+    ArrayList<int[]> segmentList=new ArrayList<>();
+    HashMap<IntBuffer, Integer> segmentIndex=new HashMap<>();
+
+    names=new String[list.size()];
+    signatures=new int[list.size()][][];
+    for (int i=0; i<list.size(); i++) {
+      SidIdRecord rec=list.get(i);
+      names[i]=rec.name;
+      signatures[i]=new int[rec.list.size()][];
+      for (int j=0; j<rec.list.size(); j++) {
+        signatures[i][j]=compile(rec.list.get(j), segmentList, segmentIndex);
+      }
+    }
+
+    segments=segmentList.toArray(new int[0][]);
+    anchors=new int[segments.length];
+
+    // trie of anchors
+    int size=1;
+    for (int i=0; i<segments.length; i++) {
+      while (anchors[i]<segments[i].length && segments[i][anchors[i]]!=ANY) anchors[i]++;
+      size+=anchors[i];
+    }
+
+    int capacity=Integer.highestOneBit(size*2)*2;
+    keys=new int[capacity];
+    values=new int[capacity];
+    Arrays.fill(keys, -1);
+
+    int[] children=new int[size];    // first child of state
+    int[] siblings=new int[size];    // next sibling of state
+    int[] bytes=new int[size];       // byte going in state
+    ArrayList<int[]> outs=new ArrayList<>();
+    outs.add(null);
+
+    int states=1;
+    for (int i=0; i<segments.length; i++) {
+      int state=0;
+      for (int k=0; k<anchors[i]; k++) {
+        int next=get(state, segments[i][k]);
+        if (next<0) {
+          next=states++;
+          put(state, segments[i][k], next);
+          bytes[next]=segments[i][k];
+          siblings[next]=children[state];
+          children[state]=next;
+          outs.add(null);
+        }
+        state=next;
+      }
+      outs.set(state, add(outs.get(state), i));
+    }
+    outputs=outs.toArray(new int[0][]);
+
+    // failure links in breadth order
+    fail=new int[states];
+    dict=new int[states];
+    int[] queue=new int[states];
+    int head=0;
+    int tail=0;
+    for (int child=children[0]; child!=0; child=siblings[child]) {
+      queue[tail++]=child;
+    }
+    while (head<tail) {
+      int state=queue[head++];
+      for (int child=children[state]; child!=0; child=siblings[child]) {
+        queue[tail++]=child;
+
+        int f=fail[state];
+        int next;
+        while ((next=get(f, bytes[child]))<0 && f!=0) f=fail[f];
+        fail[child]=next<0 ? 0 : next;
+        dict[child]=outputs[fail[child]]!=null ? fail[child] : dict[fail[child]];
+      }
+    }
+  }
+
+  /**
+   * Identify the players of the given buffer
+   *
+   * @param buffer the buffer with the data to identify
+   * @param offset the offset of data in buffer
+   * @param length length of the data
+   * @param scratch the scratch for the positions of segments
+   * @return the identified players as string
+   */
+  String identify(byte[] buffer, int offset, int length, Scratch scratch) {
+    if (scratch.found.length<segments.length) {
+      scratch.found=new int[segments.length][];
+      scratch.counts=new int[segments.length];
+      scratch.used=new int[segments.length];
+    } else {
+        for (int i=0; i<scratch.size; i++) {
+          scratch.counts[scratch.used[i]]=0;
+        }
+      }
+    scratch.size=0;
+
+    int[][] found=scratch.found;
+    int[] counts=scratch.counts;
+    int end=offset+length;
+
+    // find all the positions of segments
+    int state=0;
+    for (int i=offset; i<end; i++) {
+      int val=buffer[i] & 0xFF;
+
+      int next;
+      while ((next=get(state, val))<0 && state!=0) state=fail[state];
+      state=next<0 ? 0 : next;
+
+      for (int out=outputs[state]!=null ? state : dict[state]; out!=0; out=dict[out]) {
+        for (int seg: outputs[out]) {
+          int start=i-anchors[seg]+1;
+          if (!verify(segments[seg], anchors[seg], buffer, start, end)) continue;
+
+          if (found[seg]==null) found[seg]=new int[4];
+          else if (counts[seg]==found[seg].length) found[seg]=Arrays.copyOf(found[seg], counts[seg]*2);
+          if (counts[seg]==0) scratch.used[scratch.size++]=seg;
+          found[seg][counts[seg]++]=start;
+        }
+      }
+    }
+
+    // match the signatures with the positions
+    StringBuilder players=new StringBuilder();
+    for (int i=0; i<names.length; i++) {
+      for (int[] signature: signatures[i]) {
+        if (signature!=null && match(signature, found, counts)) {
+          players.append(names[i]).append(" ");
+          break;
+        }
+      }
+    }
+    return players.toString();
+  }
+
+  /**
+   * Match the signature taking every segment at the first position after the
+   * end of previous segment
+   *
+   * @param signature the segments of signature
+   * @param found the positions of segments
+   * @param counts the number of positions of segments
+   * @return true if matching
+   */
+  private boolean match(int[] signature, int[][] found, int[] counts) {
+    int pos=0;
+
+    for (int seg: signature) {
+      if (counts[seg]==0) return false;
+
+      int index=Arrays.binarySearch(found[seg], 0, counts[seg], pos);
+      if (index<0) index=-index-1;
+      if (index==counts[seg]) return false;
+
+      pos=found[seg][index]+segments[seg].length;
+    }
+    return true;
+  }
+
+  /**
+   * Verify the bytes of segment after the anchor
+   *
+   * @param segment the bytes of segment
+   * @param anchor the length of anchor
+   * @param buffer the buffer
+   * @param start the start of segment in buffer
+   * @param end the end of data in buffer
+   * @return true if matching
+   */
+  private static boolean verify(int[] segment, int anchor, byte[] buffer, int start, int end) {
+    if (start+segment.length>end) return false;
+
+    for (int k=anchor; k<segment.length; k++) {
+      if (segment[k]!=ANY && segment[k]!=(buffer[start+k] & 0xFF)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Compile the signature into its segments
+   *
+   * @param bytes the bytes of signature with AND and END
+   * @param segmentList the list of distinct segments
+   * @param segmentIndex the index of distinct segments
+   * @return the indexes of segments or null if it never matches
+   */
+  private static int[] compile(int[] bytes, ArrayList<int[]> segmentList, HashMap<IntBuffer, Integer> segmentIndex) {
+    int[] res=new int[0];
+    int start=0;
+
+    for (int i=0; i<bytes.length; i++) {
+      if (bytes[i]!=AND && bytes[i]!=END) continue;
+
+      // an empty segment or one starting with ?? is never found by identifyBytes
+      if (i==start || bytes[start]==ANY) return null;
+
+      int[] segment=Arrays.copyOfRange(bytes, start, i);
+      Integer index=segmentIndex.get(IntBuffer.wrap(segment));
+      if (index==null) {
+        index=segmentList.size();
+        segmentList.add(segment);
+        segmentIndex.put(IntBuffer.wrap(segment), index);
+      }
+      res=add(res, index);
+
+      if (bytes[i]==END) return res;
+      start=i+1;
+    }
+    return null;
+  }
+
+  /**
+   * Add a value to the array
+   *
+   * @param array the array (can be null)
+   * @param value the value to add
+   * @return the new array
+   */
+  private static int[] add(int[] array, int value) {
+    if (array==null) return new int[] {value};
+
+    int[] res=Arrays.copyOf(array, array.length+1);
+    res[array.length]=value;
+    return res;
+  }
+
+  /**
+   * Get the transition of automaton
+   *
+   * @param state the actual state
+   * @param val the byte value
+   * @return the next state or -1 if not present
+   */
+  private int get(int state, int val) {
+    int key=state*256+val;
+    int mask=keys.length-1;
+
+    for (int i=hash(key) & mask; ; i=(i+1) & mask) {
+      if (keys[i]==key) return values[i];
+      if (keys[i]==-1) return -1;
+    }
+  }
+
+  /**
+   * Put the transition of automaton
+   *
+   * @param state the actual state
+   * @param val the byte value
+   * @param next the next state
+   */
+  private void put(int state, int val, int next) {
+    int key=state*256+val;
+    int mask=keys.length-1;
+
+    int i=hash(key) & mask;
+    while (keys[i]!=-1) i=(i+1) & mask;
+    keys[i]=key;
+    values[i]=next;
+  }
+
+  /**
+   * Hash of the transition key
+   *
+   * @param key the key
+   * @return the hash
+   */
+  private static int hash(int key) {
+    int h=key*0x9E3779B9;
+    return h^(h>>>16);
+  }
+}
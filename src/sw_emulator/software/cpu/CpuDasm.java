@@ -23,6 +23,7 @@
  */
 package sw_emulator.software.cpu;
 
+import java.util.BitSet;
 import java.util.Locale;
 import sw_emulator.software.Assembler;
 import sw_emulator.software.MemoryDasm;
@@ -84,6 +85,9 @@ public class CpuDasm implements disassembler {
   /** String builder global to reduce GC call */
   final StringBuilder result=new StringBuilder ("");     
   
+  /** Addresses whose label is used by the disassembly (null if not tracked) */
+  protected BitSet references;
+  
   /**
    * Set the memory dasm to use
    * 
@@ -113,6 +117,33 @@ public class CpuDasm implements disassembler {
     this.assembler=assembler;        
   }    
   
+  /**
+   * Set where to track the addresses whose label is used by the disassembly
+   * 
+   * @param references the addresses set to fill or null for no tracking
+   */
+  public void setReferences(BitSet references) {
+    this.references=references;  
+  }
+  
+  /**
+   * Get the position in buffer where the last disassembly stopped
+   * 
+   * @return the last position in buffer
+   */
+  public int getPos() {
+    return pos;  
+  }
+  
+  /**
+   * Track the given address as used by the disassembly
+   * 
+   * @param addr the address to track
+   */
+  protected void addReference(long addr) {
+    if (references!=null && addr>=0 && addr<=0xffff) references.set((int)addr);  
+  }
+  
   /**
    * Convert a unsigned byte (containing in a int) to Exe upper case 2 chars
    *
@@ -217,6 +248,8 @@ public class CpuDasm implements disassembler {
   protected String getLabelImm(long addr, long value) {
     if (addr<0 || addr>0xffff) return HexNum("??", defaultMode); 
     
+    addReference(addr);
+    
     char type=memory[(int)addr].type;
     
     // this is a data declaration            
@@ -255,7 +288,7 @@ public class CpuDasm implements disassembler {
            }
     } else {        
         if (memory[(int)addr].index!=-1) {
-          String res=constant.table[memory[(int)addr].index][(int)value];  
+          String res=constant.get(memory[(int)addr].index, (int)value);  
           if (res!=null && !"".equals(res)) return res;
         }            
         return HexNum(ByteToExe((int)value), defaultMode);
@@ -271,6 +304,8 @@ public class CpuDasm implements disassembler {
    */
   protected String getLabelZero(long addr) {
     if (addr<0 || addr>0xffff) return HexNum("??", defaultMode);
+    
+    addReference(addr);
       
     MemoryDasm mem=memory[(int)addr];          
     
@@ -325,6 +360,8 @@ public class CpuDasm implements disassembler {
    */
   protected String getLabel(long addr) {
     if (addr<0 || addr>0xffff) return HexNum("????", defaultMode);  
+    
+    addReference(addr);
       
     MemoryDasm mem=memory[(int)addr];
 
@@ -22,18 +22,20 @@
  */
 package sw_emulator.software.sidid; 
 
-
-class Output {
-  int L;
-  int R;
-};
-
 /**
  * C64 class of cRSID original by Hermit
  * 
  * @author ice00
  */
 public class C64 {
+  /**
+   * A stereo sample (left and right)
+   */
+  static class Output {
+    int L;
+    int R;
+  }
+  
   //platform-related:
   int sampleRate;
   //int bufferSize;
@@ -82,8 +84,12 @@ public class C64 {
   
   int periodCounter=0;
   int sampleAddress=0;
+  
+  /** Output of the actual sample (reused for every sample) */
+  private final Output output=new Output();
 
   //Hardware-elements:
+  Memory memory=new Memory(); //SIDLD memory access flags of this c64
   CPU cpu;
   SID[] sid=new SID[4]; //CRSID_SIDCOUNT_MAX+1];
   CIA[] cia=new CIA[2]; //CRSID_CIACOUNT+1];
@@ -135,7 +141,7 @@ public class C64 {
     sidChipCount = 1;
 
     //default c64 setup with only 1 sid and 2 CIAs and 1 VIC
-    cpu=new CPU(this);
+    cpu=new CPU(this, memory);
     sid[0]=new SID(this, 8580, PSID.CRSID_CHANNEL_BOTH, 0xD400); 
     cia[0]=new CIA(this, 0xDC00);
     cia[1]=new CIA(this, 0xDD00);
@@ -287,12 +293,17 @@ public class C64 {
     sampleCycleCnt = overSampleCycleCnt = 0;
   }
   
+  /**
+   * Emulate the c64 for the time of one sample
+   * 
+   * @return the sample (the same object is reused by the next call)
+   */
   public Output emulateC64() {
     byte InstructionCycles;
     int HQsampleCount=0;
     int Tmp;
     
-    Output output=new Output();
+    output.L = output.R = 0;
     SIDwavOutput sidWavOutput;
 
     //Cycle-based part of emulations:
@@ -341,6 +352,7 @@ public class C64 {
         irq |= vic.emulateVIC(InstructionCycles);
       }
       sampleCycleCnt += (InstructionCycles << 4);
+      memory.cycle += InstructionCycles;
 
       sid[0].emulateADSRs(InstructionCycles);
       if (sid[1].baseAddress != 0) {        
@@ -32,6 +32,9 @@ public class CPU {
   /** Reference to the containing c64 */
   C64 c64; 
   
+  /** SIDLD memory where the accesses are recorded */
+  Memory memory;
+  
   int PC;
   int A, SP;
   int X, Y, ST; //STATUS-flags: N V - B D I Z C
@@ -60,9 +63,11 @@ public class CPU {
    * Construct the cpu
    * 
    * @param c64 the c64 reference
+   * @param memory the SIDLD memory for the accesses
    */
-  public CPU(C64 c64) {
+  public CPU(C64 c64, Memory memory) {
     this.c64=c64;
+    this.memory=memory;
   }
 
   /**
@@ -98,7 +103,7 @@ public class CPU {
                }
       }
     }
-    Memory.instance.setRead(address);
+    memory.setRead(address);
     return value;
   }
   
@@ -115,7 +120,7 @@ public class CPU {
         c64.vic.acknowledgeVICrasterIRQ(); 
       }  
     }
-    Memory.instance.setWrite(address);
+    memory.setWrite(address);
   }
   
   /**
@@ -162,7 +167,7 @@ public class CPU {
            }
         }
     }
-    Memory.instance.setWrite(address);
+    memory.setWrite(address);
   }
   
   /**
@@ -172,7 +177,7 @@ public class CPU {
     ++PC; 
     addr=PC; 
     cycles=2; 
-    Memory.instance.setExecute(PC);
+    memory.setExecute(PC);
   }
  
   /** 
@@ -182,8 +187,8 @@ public class CPU {
     ++PC; 
     addr=rd(PC); 
     cycles=3; 
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    memory.setExecuteMinus(PC);
+    memory.setExecute(PC);
   } 
  
   /** 
@@ -195,8 +200,8 @@ public class CPU {
     ++PC;
     addr += rd(PC)<<8; 
     cycles=4; 
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    memory.setExecuteMinus(PC);
+    memory.setExecute(PC);
   } 
  
   /** 
@@ -208,7 +213,7 @@ public class CPU {
     ++PC; 
     addr = (rd(PC) + X) & 0xFF; 
     cycles=4; 
-    Memory.instance.setExecute(PC);
+    memory.setExecute(PC);
   } 
     
   /**
@@ -220,7 +225,7 @@ public class CPU {
     ++PC; 
     addr = (rd(PC) + Y) & 0xFF; 
     cycles=4; 
-    Memory.instance.setExecute(PC);
+    memory.setExecute(PC);
   } 
   
   /**
@@ -235,8 +240,8 @@ public class CPU {
     samePage = (addr <= 0xFF) ? 1:0; 
     addr += rd(PC)<<8; 
     cycles=5;
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    memory.setExecuteMinus(PC);
+    memory.setExecute(PC);
   }
 
   /**
@@ -251,8 +256,8 @@ public class CPU {
     samePage = (addr <= 0xFF) ? 1:0; 
     addr += rd(PC)<<8; 
     cycles=5;
-    Memory.instance.setExecuteMinus(PC);
-    Memory.instance.setExecute(PC);
+    memory.setExecuteMinus(PC);
+    memory.setExecute(PC);
   }
 
   /**
@@ -266,7 +271,7 @@ public class CPU {
     samePage = (addr <= 0xFF) ? 1:0; 
     addr += rd( (rd(PC)+1)&0xFF ) << 8; 
     cycles=6;
-    Memory.instance.setExecute(PC);
+    memory.setExecute(PC);
   }
 
   /**
@@ -278,7 +283,7 @@ public class CPU {
     ++PC; 
     addr = ( rd(rd(PC)+X)&0xFF ) + ( ( rd(rd(PC)+X+1)&0xFF ) << 8 ); 
     cycles=6;
-    Memory.instance.setExecute(PC);
+    memory.setExecute(PC);
   }
   
   /**
@@ -431,7 +436,7 @@ public class CPU {
     cycles = 2;
     samePage = 0; //'cycles': ensure smallest 6510 runtime (for implied/register instructions)
     
-    Memory.instance.setExecute(PC);
+    memory.setExecute(PC);
 
 /*System.err.println("PC="+Integer.toHexString(PC)+" "+
                    "IR="+Integer.toHexString(IR)+" "+
@@ -824,7 +829,7 @@ public class CPU {
 
       if ((IR & 0x1F) == 0x10) { //BPL/BMI/BVC/BVS/BCC/BCS/BNE/BEQ  relative branch
         ++PC;
-        Memory.instance.setExecute(PC);
+        memory.setExecute(PC);
         T = rd(PC);
         if ((T & 0x80) != 0) {
           T -= 0x100;
@@ -888,8 +893,8 @@ public class CPU {
               push((PC + 2 - 1) >> 8);
               push((PC + 2 - 1) & 0xFF);
               PC = rd(addr) + rd(addr + 1) * 256 - 1;
-              Memory.instance.setExecute(addr);
-              Memory.instance.setExecute(addr+1);
+              memory.setExecute(addr);
+              memory.setExecute(addr+1);
               cycles = 6;
             }
             break;
@@ -26,6 +26,7 @@ import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.DataLine;
 import javax.sound.sampled.SourceDataLine;
+import sw_emulator.software.sidid.C64.Output;
 
 /**
  * CRSID class of CRSID original by Hermit
@@ -54,9 +55,19 @@ public class CRSID extends Thread {
   
   
   public CRSID() {
-    init(44100);
+    this(44100);
     start();
   }
+
+  /**
+   * Construct a player without the audio thread, that generates the
+   * samples only when asked (as fast as the cpu allows)
+   * 
+   * @param samplerate the sample rate
+   */
+  public CRSID(int samplerate) {
+    init(samplerate);
+  }
   
   
   public void init(int samplerate) {
@@ -82,7 +93,7 @@ public class CRSID extends Thread {
     c64.subTune = subtune;
     c64.secondCnt = c64.playTime = /*c64.Paused =*/ 0;
     
-    Memory.instance.clear();
+    c64.memory.clear();
 
     c64.setC64(psid);
     c64.initC64();
@@ -104,9 +115,11 @@ public class CRSID extends Thread {
     if (!c64.realSIDmode) {
       //call initC64-routine:
       for (InitTimeout = 10000000; InitTimeout > 0; InitTimeout--) {
-        if ((c64.cpu.emulateCPU()&0xFF) >= 0xFE) {
+        int cycles = c64.cpu.emulateCPU()&0xFF;
+        if (cycles >= 0xFE) {
           break;
         }
+        c64.memory.cycle += cycles;
       } //give error when timed out?
     }
 
@@ -155,7 +168,7 @@ public class CRSID extends Thread {
   /**
    * Genewrate a sample
    * 
-   * @return the stereo sample
+   * @return the stereo sample (reused by the next call)
    */
   public Output generateSample() { //call this from custom buffer-filler
     Output output;
@@ -181,21 +194,46 @@ public class CRSID extends Thread {
     return output;
   }
   
+  /**
+   * Generate the next sample to play, skipping the samples of fast play and
+   * applying the main volume
+   * 
+   * @return the stereo sample (reused by the next call)
+   */
+  private Output nextSample() {
+    Output output=null;
+
+    for (int j = 0; j < c64.playbackSpeed; ++j) {
+      output = generateSample();
+    }
+    output.L = output.L * c64.mainVolume / 256;
+    output.R = output.R * c64.mainVolume / 256;
+    
+    return output;
+  }
+  
   /**
    * Genrate the sound from emulation
    * 
    * @param buf the buffer to fill with sound
    */
   public void generateSound(byte[] buf) {
+    generateSound(buf, 0, buf.length / 4);
+  }
+  
+  /**
+   * Generate the given number of samples as 16 bit little endian stereo bytes
+   * 
+   * @param buf the buffer to fill with sound
+   * @param offset the first position to fill
+   * @param samples the number of stereo samples
+   */
+  public void generateSound(byte[] buf, int offset, int samples) {
+    Output output;
+    int end = offset + samples * 4;
 
-    Output output=null;
-
-    for (int i = 0; i < buf.length; i += 4) {
-      for (int j = 0; j < c64.playbackSpeed; ++j) {
-        output = generateSample();
-      }
-      output.L = output.L * c64.mainVolume / 256;
-      output.R = output.R * c64.mainVolume / 256;
+    for (int i = offset; i < end; i += 4) {
+      output = nextSample();
 
       buf[i + 0] = (byte)(output.L & 0xFF);
       buf[i + 1] = (byte)(output.L >> 8);
@@ -204,6 +242,25 @@ public class CRSID extends Thread {
     }
   }
   
+  /**
+   * Generate the given number of samples as interleaved left/right values
+   * 
+   * @param buf the buffer to fill with sound
+   * @param offset the first position to fill
+   * @param samples the number of stereo samples
+   */
+  public void generateSound(short[] buf, int offset, int samples) {
+    Output output;
+    int end = offset + samples * 2;
+
+    for (int i = offset; i < end; i += 2) {
+      output = nextSample();
+
+      buf[i + 0] = (short)output.L;
+      buf[i + 1] = (short)output.R;
+    }
+  }
+  
   /**
    * Play the given sid file 
    * 
@@ -287,6 +344,15 @@ public class CRSID extends Thread {
     playing = false;
   }
   
+  /**
+   * Get the SIDLD memory where the accesses of the tune are recorded
+   * 
+   * @return the memory
+   */
+  public Memory getMemory() {
+    return c64.memory;
+  }
+  
   /**
    * Played time in second
    * 
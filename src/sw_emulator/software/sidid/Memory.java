@@ -25,9 +25,14 @@ package sw_emulator.software.sidid;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.util.Arrays;
 
 /**
  *Sidld memory
+ * 
+ * Every C64 of cRSID has its own memory, given to its CPU, so more tunes can
+ * be emulated at the same time. Optionally the accesses of every address can
+ * be counted and the cycle of the first access of every address stamped.
  *  
  * @author ice
  */
@@ -44,17 +49,111 @@ public class Memory {
   /** Memory of C64 */
   byte[] memory=new byte[0x10000];
   
-  /** Use static access to reduce patching of file */
-  public static Memory instance=new Memory();
+  /** Number of reads of every address (null if not counted) */
+  long[] reads;
   
-  private Memory() {    
-  }
+  /** Number of writes of every address (null if not counted) */
+  long[] writes;
+  
+  /** Number of executions of every address (null if not counted) */
+  long[] executes;
+  
+  /** Cycle of the first access of every address (-1 if never, null if not stamped) */
+  long[] firstCycles;
+  
+  /** Actual cycle of emulation */
+  long cycle;
   
   /**
    * Clear the actual data
    */
   public void clear() {
     memory=new byte[0x10000];
+    cycle=0;
+    
+    if (reads!=null) setCounters(true);
+    if (firstCycles!=null) setStamps(true);
+  }
+  
+  /**
+   * Enable or disable the counters of accesses (cleared)
+   * 
+   * @param enabled true for counting
+   */
+  public void setCounters(boolean enabled) {
+    if (enabled) {
+      reads=new long[0x10000];
+      writes=new long[0x10000];
+      executes=new long[0x10000];
+    } else {
+        reads=writes=executes=null;
+      }
+  }
+  
+  /**
+   * Enable or disable the cycle stamps of first accesses (cleared)
+   * 
+   * @param enabled true for stamping
+   */
+  public void setStamps(boolean enabled) {
+    if (enabled) {
+      firstCycles=new long[0x10000];
+      Arrays.fill(firstCycles, -1);
+    } else firstCycles=null;
+  }
+  
+  /**
+   * Get the SIDLD flags of memory
+   * 
+   * @return the flags (the actual array)
+   */
+  public byte[] getFlags() {
+    return memory;
+  }
+  
+  /**
+   * Get the number of reads of every address
+   * 
+   * @return the counters or null if not counted
+   */
+  public long[] getReads() {
+    return reads;
+  }
+  
+  /**
+   * Get the number of writes of every address
+   * 
+   * @return the counters or null if not counted
+   */
+  public long[] getWrites() {
+    return writes;
+  }
+  
+  /**
+   * Get the number of executions of every address
+   * 
+   * @return the counters or null if not counted
+   */
+  public long[] getExecutes() {
+    return executes;
+  }
+  
+  /**
+   * Get the cycle of first access of every address
+   * 
+   * @return the cycles (-1 if never) or null if not stamped
+   */
+  public long[] getFirstCycles() {
+    return firstCycles;
+  }
+  
+  /**
+   * Stamp the first access of address if needed
+   * 
+   * @param address the address
+   */
+  private void stamp(int address) {
+    if (firstCycles!=null) firstCycles[address]=cycle;
   }
   
   /**
@@ -66,7 +165,10 @@ public class Memory {
     if (--address>=0) {
       memory[address] |= MEM_EXECUTE;
     
-      if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) memory[address] |= MEM_EXECUTE_FIRST;  
+      if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) {
+        memory[address] |= MEM_EXECUTE_FIRST;  
+        stamp(address);
+      }
     } 
   }
   
@@ -78,7 +180,11 @@ public class Memory {
   public void setExecute(int address) {     
     memory[address] |= MEM_EXECUTE;
     
-    if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) memory[address] |= MEM_EXECUTE_FIRST;
+    if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) {
+      memory[address] |= MEM_EXECUTE_FIRST;
+      stamp(address);
+    }
+    if (executes!=null) executes[address]++;
   }
   
   /**
@@ -89,7 +195,11 @@ public class Memory {
   public void setRead(int address) {
     memory[address] |= MEM_READ;
     
-    if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) memory[address] |= MEM_READ_FIRST;    
+    if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) {
+      memory[address] |= MEM_READ_FIRST;    
+      stamp(address);
+    }
+    if (reads!=null) reads[address]++;
   }
   
   /**
@@ -100,7 +210,11 @@ public class Memory {
   public void setWrite(int address) {
     memory[address] |= MEM_WRITE;
     
-    if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) memory[address] |= MEM_WRITE_FIRST;    
+    if ((memory[address] & (MEM_READ_FIRST | MEM_WRITE_FIRST | MEM_EXECUTE_FIRST))==0) {
+      memory[address] |= MEM_WRITE_FIRST;    
+      stamp(address);
+    }
+    if (writes!=null) writes[address]++;
   }
   
   /**
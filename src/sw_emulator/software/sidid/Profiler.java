@@ -0,0 +1,452 @@
+/**
+ * @(#)Profiler.java 2026/10/17
+ *
+ * ICE Team Free Software Group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software.sidid;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import sw_emulator.software.memory.memoryState;
+
+/**
+ * Headless SIDLD profiling of a SID tune.
+ *
+ * The tune is emulated by cRSID without the audio line, so as fast as the cpu
+ * allows, for the given time of every subtune, and the memory flags of SIDLD
+ * are given directly (minutes of tune take a few seconds).
+ * The samples are generated without the oversampling of high quality SID, as
+ * only the registers read by the player (like OSC3) are needed.
+ *
+ * Every subtune has its own emulator, so all the subtunes are profiled in a
+ * pool of threads and their flags are merged in memory. The number of flags
+ * after every second of tune is kept, so the emulation of a subtune can stop
+ * when no new flags are set for a while (coverage converged).
+ * Optionally the accesses of every address are counted, with the cycle of
+ * the first one, for finding the hot spots of the player.
+ *
+ * Usage: Profiler [-time seconds] [-tune n] [-stable seconds] [-threads n]
+ *                 [-counters] [-report base] sid_file
+ *
+ * @author ice
+ */
+public class Profiler {
+  /**
+   * Coverage of the profiling of one subtune
+   */
+  public static class Coverage {
+    /** The subtune */
+    public final int tune;
+
+    /** Memory flags of subtune */
+    public byte[] flags;
+
+    /** Number of flags set after every second of tune */
+    public int[] covered;
+
+    /** Seconds of tune emulated */
+    public int seconds;
+
+    /** Second of tune where the last new flag was set */
+    public int last;
+
+    /** True if stopped as no new flags were set for the stable time */
+    public boolean converged;
+
+    /** Number of reads of every address (null if not counted) */
+    public long[] reads;
+
+    /** Number of writes of every address (null if not counted) */
+    public long[] writes;
+
+    /** Number of executions of every address (null if not counted) */
+    public long[] executes;
+
+    /** Cycle of first access of every address (null if not counted) */
+    public long[] firstCycles;
+
+    /**
+     * Construct the coverage of the subtune
+     *
+     * @param tune the subtune
+     */
+    Coverage(int tune) {
+      this.tune=tune;
+    }
+  }
+
+  /** Default time of tune to emulate in seconds */
+  public static final int DEFAULT_TIME=300;
+
+  /** Default seconds without new flags for stopping (0 for never stop) */
+  public static final int DEFAULT_STABLE=60;
+
+  /** Max time of tune to emulate in seconds (as counted by C64) */
+  public static final int MAX_TIME=3600;
+
+  /** Data of the SID file */
+  private final byte[] data;
+
+  /** True if accesses are counted and first ones stamped */
+  private boolean counters;
+
+  /**
+   * Construct the profiler of the SID file
+   *
+   * @param data the data of PSID/RSID file
+   * @throws IllegalArgumentException if not a PSID/RSID file
+   */
+  public Profiler(byte[] data) {
+    if (!isSID(data)) throw new IllegalArgumentException("Not a PSID/RSID file");
+    this.data=data;
+  }
+
+  /**
+   * Get the number of subtunes of the file
+   *
+   * @return the number of subtunes
+   */
+  public int getMaxTune() {
+    return Math.max(1, data[0x0F] & 0xFF);
+  }
+
+  /**
+   * Set if the accesses of every address are counted, with the cycle of the
+   * first one
+   *
+   * @param counters true for counting
+   */
+  public void setCounters(boolean counters) {
+    this.counters=counters;
+  }
+
+  /**
+   * Emulate the subtune for the given time and get the SIDLD memory flags
+   *
+   * @param tune the subtune (1..max)
+   * @param seconds the time of tune to emulate
+   * @return the memory flags of the subtune
+   */
+  public byte[] profile(int tune, int seconds) {
+    return profile(tune, seconds, 0).flags;
+  }
+
+  /**
+   * Emulate the subtune for the given time (or until no new flags are set for
+   * the stable time) and get its coverage
+   *
+   * @param tune the subtune (1..max)
+   * @param seconds the time of tune to emulate
+   * @param stable the seconds without new flags for stopping (0 for never)
+   * @return the coverage of the subtune
+   */
+  public Coverage profile(int tune, int seconds, int stable) {
+    Coverage coverage=new Coverage(tune);
+    seconds=Math.max(0, Math.min(seconds, MAX_TIME));
+    coverage.covered=new int[seconds];
+
+    // every emulator records the accesses in its own memory
+    CRSID crsid=new CRSID(C64.DEFAULT_SAMPLERATE);
+    crsid.c64.highQualitySID=false;
+
+    Memory memory=crsid.getMemory();
+    memory.setCounters(counters);
+    memory.setStamps(counters);
+
+    PSID psid=new PSID();
+    psid.processSIDfile(crsid.c64, data, data.length);
+    crsid.initSIDtune(psid, tune);
+
+    int previous=0;
+    while (crsid.c64.playTime<seconds) {
+      // stop when the profiling is cancelled
+      if (Thread.currentThread().isInterrupted()) break;
+
+      int time=crsid.c64.playTime;
+      while (crsid.c64.playTime==time) {
+        crsid.generateSample();
+      }
+
+      int covered=count(memory.getFlags());
+      coverage.covered[time]=covered;
+      coverage.seconds=time+1;
+      if (covered!=previous) coverage.last=time+1;
+      previous=covered;
+
+      if (stable>0 && coverage.seconds-coverage.last>=stable) {
+        coverage.converged=true;
+        break;
+      }
+    }
+
+    coverage.covered=Arrays.copyOf(coverage.covered, coverage.seconds);
+    coverage.flags=memory.getFlags();
+    coverage.reads=memory.getReads();
+    coverage.writes=memory.getWrites();
+    coverage.executes=memory.getExecutes();
+    coverage.firstCycles=memory.getFirstCycles();
+    return coverage;
+  }
+
+  /**
+   * Emulate all the subtunes in a pool of threads and get their coverage
+   *
+   * @param seconds the max time of every subtune to emulate
+   * @param stable the seconds without new flags for stopping (0 for never)
+   * @param threads number of threads to use
+   * @return the coverage of all subtunes
+   * @throws InterruptedException if interrupted
+   */
+  public Coverage[] profileAll(int seconds, int stable, int threads) throws InterruptedException {
+    return profileAll(seconds, stable, threads, null);
+  }
+
+  /**
+   * Emulate all the subtunes in a pool of threads and get their coverage,
+   * telling the number of subtunes done as they end.
+   * Interrupting the caller stops all the subtunes.
+   *
+   * @param seconds the max time of every subtune to emulate
+   * @param stable the seconds without new flags for stopping (0 for never)
+   * @param threads number of threads to use
+   * @param progress receiver of the subtunes done (called by the pool threads) or null
+   * @return the coverage of all subtunes
+   * @throws InterruptedException if interrupted
+   */
+  public Coverage[] profileAll(int seconds, int stable, int threads,
+                               IntConsumer progress) throws InterruptedException {
+    ExecutorService executor=Executors.newFixedThreadPool(threads);
+    ArrayList<Future<Coverage>> futures=new ArrayList<>();
+    AtomicInteger done=new AtomicInteger();
+
+    for (int tune=1; tune<=getMaxTune(); tune++) {
+      int actual=tune;
+      futures.add(executor.submit(() -> {
+        Coverage coverage=profile(actual, seconds, stable);
+        if (progress!=null) progress.accept(done.incrementAndGet());
+        return coverage;
+      }));
+    }
+
+    Coverage[] res=new Coverage[futures.size()];
+    try {
+      for (int i=0; i<res.length; i++) {
+        res[i]=futures.get(i).get();
+      }
+    } catch (ExecutionException e) {
+        // the emulation does not throw checked exceptions
+        throw new IllegalStateException(e.getCause());
+      } finally {
+          executor.shutdownNow();
+        }
+    return res;
+  }
+
+  /**
+   * Merge the flags of all the coverages
+   *
+   * @param coverages the coverages of subtunes
+   * @return the memory flags of all subtunes
+   */
+  public static byte[] merge(Coverage[] coverages) {
+    byte[] res=new byte[0x10000];
+
+    for (Coverage coverage: coverages) {
+      for (int i=0; i<res.length; i++) {
+        res[i]|=coverage.flags[i];
+      }
+    }
+    return res;
+  }
+
+  /**
+   * Count the access flags set in memory (every new flag increases it)
+   *
+   * @param memory the memory flags
+   * @return the number of flags
+   */
+  private static int count(byte[] memory) {
+    int res=0;
+
+    for (byte flag: memory) {
+      res+=Integer.bitCount(flag & (memoryState.MEM_READ | memoryState.MEM_WRITE | memoryState.MEM_EXECUTE));
+    }
+    return res;
+  }
+
+  /**
+   * True if the data is of a PSID/RSID file
+   *
+   * @param data the data
+   * @return true if of a SID file
+   */
+  public static boolean isSID(byte[] data) {
+    return data!=null && data.length>=0x7C &&
+           (data[0]=='P' || data[0]=='R') && data[1]=='S' && data[2]=='I' && data[3]=='D';
+  }
+
+  /**
+   * Write the memory flags as a SIDLD file
+   *
+   * @param name the name of file
+   * @param flags the memory flags
+   * @throws IOException if write fails
+   */
+  public static void writeBin(String name, byte[] flags) throws IOException {
+    try (FileOutputStream out=new FileOutputStream(name)) {
+      out.write("SIDLD RAM FLAGS ".getBytes());
+      out.write(flags);
+    }
+  }
+
+  /**
+   * Write the report of coverage in CSV format: the summary of subtunes
+   * (base.csv), the number of flags after every second (base-time.csv) and,
+   * if counted, the accesses of every accessed address (base-access.csv)
+   *
+   * @param report base path of report
+   * @param coverages the coverages of subtunes
+   * @throws IOException if write fails
+   */
+  public static void writeReport(String report, Coverage[] coverages) throws IOException {
+    try (BufferedWriter out=new BufferedWriter(new FileWriter(report+".csv"))) {
+      out.write("tune,seconds,last new second,converged,flags\n");
+      for (Coverage coverage: coverages) {
+        out.write(coverage.tune+","+coverage.seconds+","+coverage.last+","+coverage.converged+","+
+                  (coverage.seconds==0 ? 0 : coverage.covered[coverage.seconds-1])+"\n");
+      }
+    }
+
+    try (BufferedWriter out=new BufferedWriter(new FileWriter(report+"-time.csv"))) {
+      out.write("tune,second,flags\n");
+      for (Coverage coverage: coverages) {
+        for (int i=0; i<coverage.seconds; i++) {
+          out.write(coverage.tune+","+(i+1)+","+coverage.covered[i]+"\n");
+        }
+      }
+    }
+
+    if (coverages.length==0 || coverages[0].reads==null) return;
+
+    try (BufferedWriter out=new BufferedWriter(new FileWriter(report+"-access.csv"))) {
+      out.write("tune,address,reads,writes,executes,first cycle\n");
+      for (Coverage coverage: coverages) {
+        for (int i=0; i<coverage.flags.length; i++) {
+          if (coverage.firstCycles[i]<0) continue;
+
+          out.write(coverage.tune+","+String.format("%04X", i)+","+coverage.reads[i]+","+
+                    coverage.writes[i]+","+coverage.executes[i]+","+coverage.firstCycles[i]+"\n");
+        }
+      }
+    }
+  }
+
+  /**
+   * Print the usage and exit
+   */
+  private static void usage() {
+    System.err.println("Usage: Profiler [-time seconds] [-tune n] [-stable seconds] [-threads n] [-counters] [-report base] sid_file");
+    System.err.println("  write the SIDLD flags of every subtune (or of the given one) as sid_file_n.bin");
+    System.err.println("  and the merged flags of all subtunes as sid_file.bin");
+    System.exit(2);
+  }
+
+  /**
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    int seconds=DEFAULT_TIME;
+    int stable=0;
+    int threads=Runtime.getRuntime().availableProcessors();
+    int tune=0;
+    boolean counters=false;
+    String report=null;
+    String name=null;
+
+    try {
+      for (int i=0; i<args.length; i++) {
+        switch (args[i]) {
+          case "-time":
+            seconds=Integer.parseInt(args[++i]);
+            break;
+          case "-tune":
+            tune=Integer.parseInt(args[++i]);
+            break;
+          case "-stable":
+            stable=Integer.parseInt(args[++i]);
+            break;
+          case "-threads":
+            threads=Integer.parseInt(args[++i]);
+            break;
+          case "-counters":
+            counters=true;
+            break;
+          case "-report":
+            report=args[++i];
+            break;
+          default:
+            if (name!=null) usage();
+            name=args[i];
+            break;
+        }
+      }
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        System.err.println(e);
+        usage();
+      }
+    if (name==null || seconds<1 || tune<0 || stable<0 || threads<1) usage();
+
+    try {
+      Profiler profiler=new Profiler(Files.readAllBytes(Path.of(name)));
+      profiler.setCounters(counters);
+      long time=System.nanoTime();
+
+      Coverage[] coverages;
+      if (tune==0) coverages=profiler.profileAll(seconds, stable, threads);
+      else coverages=new Coverage[] {profiler.profile(tune, seconds, stable)};
+
+      for (Coverage coverage: coverages) {
+        writeBin(name+"_"+coverage.tune+".bin", coverage.flags);
+        System.out.println(name+"_"+coverage.tune+".bin: "+coverage.seconds+" s"+
+                           (coverage.converged ? " (converged at "+coverage.last+" s)" : ""));
+      }
+      if (tune==0) writeBin(name+".bin", merge(coverages));
+      if (report!=null) writeReport(report, coverages);
+
+      System.out.println("Profiled "+coverages.length+" tunes in "+(System.nanoTime()-time)/1000000+" ms");
+    } catch (IOException | IllegalArgumentException | InterruptedException e) {
+        System.err.println(e);
+        System.exit(2);
+      }
+  }
+}
@@ -0,0 +1,367 @@
+/**
+ * @(#)Renderer.java 2026/10/17
+ *
+ * ICE Team Free Software Group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.software.sidid;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * Offline rendering of a SID tune as WAV file.
+ *
+ * The tune is emulated by cRSID without the audio line, so as fast as the cpu
+ * allows, and the samples are streamed in blocks into the file. Optionally
+ * every voice is rendered alone (the others muted) as a stem.
+ * Every rendering has its own emulator, so many files are rendered in a pool
+ * of threads: rendered audio is used for verifying that a patched or
+ * relocated tune still sounds identical.
+ *
+ * Usage: Renderer [-time seconds] [-tune n] [-stems] [-fast] [-threads n]
+ *                 sid_file_or_dir output_dir
+ *
+ * @author ice
+ */
+public class Renderer {
+  /**
+   * Stream of the samples of an emulation, generated when read
+   */
+  private static class SampleStream extends InputStream {
+    /** Player that generates the samples */
+    private final CRSID crsid;
+
+    /** Block of generated samples */
+    private final byte[] block=new byte[BLOCK*4];
+
+    /** Bytes still to generate */
+    private long remaining;
+
+    /** Position of next byte in block */
+    private int pos;
+
+    /** Number of bytes in block */
+    private int size;
+
+    /**
+     * Construct the stream
+     *
+     * @param crsid the player with the tune already initialized
+     * @param samples the number of stereo samples to generate
+     */
+    SampleStream(CRSID crsid, long samples) {
+      this.crsid=crsid;
+      remaining=samples*4;
+    }
+
+    /**
+     * Fill the block with the next samples
+     *
+     * @return false if no more samples
+     */
+    private boolean fill() {
+      if (remaining==0) return false;
+
+      int samples=(int)Math.min(BLOCK, remaining/4);
+      crsid.generateSound(block, 0, samples);
+      remaining-=samples*4;
+      pos=0;
+      size=samples*4;
+      return true;
+    }
+
+    @Override
+    public int read() {
+      if (pos==size && !fill()) return -1;
+      return block[pos++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (len==0) return 0;
+      if (pos==size && !fill()) return -1;
+
+      int n=Math.min(len, size-pos);
+      System.arraycopy(block, pos, b, off, n);
+      pos+=n;
+      return n;
+    }
+  }
+
+  /** Default time of tune to render in seconds */
+  public static final int DEFAULT_TIME=180;
+
+  /** Number of samples generated in one block */
+  private static final int BLOCK=4096;
+
+  /** Number of voices of SID */
+  public static final int VOICES=3;
+
+  /** Format of rendered audio (as played by cRSID) */
+  private static final AudioFormat FORMAT=new AudioFormat(C64.DEFAULT_SAMPLERATE, 16, 2, true, false);
+
+  /** Data of the SID file */
+  private final byte[] data;
+
+  /** True for the high quality (oversampled) SID emulation */
+  private boolean highQuality=true;
+
+  /**
+   * Construct the renderer of the SID file
+   *
+   * @param data the data of PSID/RSID file
+   * @throws IllegalArgumentException if not a PSID/RSID file
+   */
+  public Renderer(byte[] data) {
+    if (!Profiler.isSID(data)) throw new IllegalArgumentException("Not a PSID/RSID file");
+    this.data=data;
+  }
+
+  /**
+   * Set the quality of SID emulation
+   *
+   * @param highQuality true for high quality (oversampled) emulation
+   */
+  public void setHighQuality(boolean highQuality) {
+    this.highQuality=highQuality;
+  }
+
+  /**
+   * Get the default subtune of the file
+   *
+   * @return the default subtune
+   */
+  public int getDefaultTune() {
+    return Math.max(1, data[0x11] & 0xFF);
+  }
+
+  /**
+   * Render the subtune as WAV file
+   *
+   * @param tune the subtune (1..max)
+   * @param seconds the time of tune to render
+   * @param voice the only voice to render (1..3) or 0 for all
+   * @param file the WAV file to write
+   * @throws IOException if write fails
+   */
+  public void render(int tune, int seconds, int voice, File file) throws IOException {
+    CRSID crsid=new CRSID(C64.DEFAULT_SAMPLERATE);
+    crsid.c64.highQualitySID=highQuality;
+
+    PSID psid=new PSID();
+    psid.processSIDfile(crsid.c64, data, data.length);
+    crsid.initSIDtune(psid, tune);
+
+    // the SIDs are created by the init of tune, so mute after it
+    if (voice!=0) {
+      for (int i=0; i<VOICES; i++) {
+        crsid.setVoiceMute(i, i!=voice-1);
+      }
+    }
+
+    long samples=(long)seconds*C64.DEFAULT_SAMPLERATE;
+    try (AudioInputStream stream=new AudioInputStream(new SampleStream(crsid, samples), FORMAT, samples)) {
+      AudioSystem.write(stream, AudioFileFormat.Type.WAVE, file);
+    }
+  }
+
+  /**
+   * Render the subtune as WAV file and optionally the stems of every voice
+   * (base_v1.wav...)
+   *
+   * @param tune the subtune (1..max)
+   * @param seconds the time of tune to render
+   * @param stems true for rendering also the stems
+   * @param base the base path of files (without extension)
+   * @throws IOException if write fails
+   */
+  public void render(int tune, int seconds, boolean stems, String base) throws IOException {
+    render(tune, seconds, 0, new File(base+".wav"));
+
+    if (stems) {
+      for (int voice=1; voice<=VOICES; voice++) {
+        render(tune, seconds, voice, new File(base+"_v"+voice+".wav"));
+      }
+    }
+  }
+
+  /**
+   * Render all the SID files of the input (a file or a directory tree) into
+   * the output directory in a pool of threads
+   *
+   * @param input the SID file or directory
+   * @param outDir the output directory
+   * @param tune the subtune (0 for the default one of every file)
+   * @param seconds the time of tune to render
+   * @param stems true for rendering also the stems
+   * @param highQuality true for high quality emulation
+   * @param threads number of threads to use
+   * @return number of files with errors
+   * @throws IOException if input cannot be read
+   * @throws InterruptedException if interrupted
+   */
+  public static int renderAll(Path input, Path outDir, int tune, int seconds, boolean stems,
+                              boolean highQuality, int threads) throws IOException, InterruptedException {
+    ArrayList<Path> files;
+    Path dir;
+    if (Files.isDirectory(input)) {
+      dir=input;
+      try (Stream<Path> stream=Files.walk(input)) {
+        files=stream.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".sid"))
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+      }
+    } else {
+        dir=input.toAbsolutePath().getParent();
+        files=new ArrayList<>();
+        files.add(input.toAbsolutePath());
+      }
+
+    long start=System.nanoTime();
+    ExecutorService executor=Executors.newFixedThreadPool(threads);
+    ArrayList<Future<String>> futures=new ArrayList<>();
+    for (Path file: files) {
+      futures.add(executor.submit(() -> render(dir, file, outDir, tune, seconds, stems, highQuality)));
+    }
+
+    int errors=0;
+    try {
+      for (int i=0; i<futures.size(); i++) {
+        String error=futures.get(i).get();
+        if (error!=null) errors++;
+        System.out.println(dir.relativize(files.get(i))+": "+(error==null ? "ok" : error));
+      }
+    } catch (ExecutionException e) {
+        throw new IOException(e.getCause());
+      } finally {
+          executor.shutdown();
+        }
+
+    System.out.println("Rendered "+(files.size()-errors)+" files of "+files.size()+
+                       " in "+(System.nanoTime()-start)/1000000+" ms");
+    return errors;
+  }
+
+  /**
+   * Render the file into the output directory (with the same relative path)
+   *
+   * @param dir the base directory
+   * @param file the SID file
+   * @param outDir the output directory
+   * @param tune the subtune (0 for the default one)
+   * @param seconds the time of tune to render
+   * @param stems true for rendering also the stems
+   * @param highQuality true for high quality emulation
+   * @return the error or null if ok
+   */
+  private static String render(Path dir, Path file, Path outDir, int tune, int seconds, boolean stems, boolean highQuality) {
+    try {
+      Renderer renderer=new Renderer(Files.readAllBytes(file));
+      renderer.setHighQuality(highQuality);
+
+      int actual=tune==0 ? renderer.getDefaultTune() : tune;
+      String name=dir.relativize(file).toString();
+      int dot=name.lastIndexOf('.');
+      if (dot>name.lastIndexOf(File.separatorChar)) name=name.substring(0, dot);
+      Path base=outDir.resolve(name+"_"+actual);
+      Files.createDirectories(base.getParent());
+
+      renderer.render(actual, seconds, stems, base.toString());
+      return null;
+    } catch (IOException | RuntimeException e) {
+        // a malformed file must not stop the rendering of the others
+        return e.toString();
+      }
+  }
+
+  /**
+   * Print the usage and exit
+   */
+  private static void usage() {
+    System.err.println("Usage: Renderer [-time seconds] [-tune n] [-stems] [-fast] [-threads n] sid_file_or_dir output_dir");
+    System.err.println("  write every SID file as name_tune.wav (and name_tune_vn.wav for stems of voices)");
+    System.exit(2);
+  }
+
+  /**
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    int seconds=DEFAULT_TIME;
+    int tune=0;
+    boolean stems=false;
+    boolean highQuality=true;
+    int threads=Runtime.getRuntime().availableProcessors();
+    ArrayList<String> params=new ArrayList<>();
+
+    try {
+      for (int i=0; i<args.length; i++) {
+        switch (args[i]) {
+          case "-time":
+            seconds=Integer.parseInt(args[++i]);
+            break;
+          case "-tune":
+            tune=Integer.parseInt(args[++i]);
+            break;
+          case "-stems":
+            stems=true;
+            break;
+          case "-fast":
+            highQuality=false;
+            break;
+          case "-threads":
+            threads=Integer.parseInt(args[++i]);
+            break;
+          default:
+            params.add(args[i]);
+            break;
+        }
+      }
+    } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        System.err.println(e);
+        usage();
+      }
+    if (params.size()!=2 || seconds<1 || tune<0 || threads<1) usage();
+
+    try {
+      int errors=renderAll(Path.of(params.get(0)), Path.of(params.get(1)), tune, seconds, stems, highQuality, threads);
+      System.exit(errors==0 ? 0 : 1);
+    } catch (IOException | InterruptedException e) {
+        System.err.println(e);
+        System.exit(2);
+      }
+  }
+}
@@ -84,6 +84,9 @@ public class SID {
   int output;     //not attenuated (range:0..0xFFFFF depending on sid's main-volume)
   int level;      //filtered version, good for VU-meter display  
   
+  /** Output of the waves of oversampling (reused for every call) */
+  private final SIDwavOutput sidWavOutput=new SIDwavOutput();
+  
   boolean muteVoice1 = false;
   boolean muteVoice2 = false;
   boolean muteVoice3 = false;
@@ -696,8 +699,6 @@ public class SID {
   }
   
   SIDwavOutput emulateHQwaves (int cycles) {
-    SIDwavOutput sidWavOutput=new SIDwavOutput();
-
     int WF, Envelope, FilterSwitchReso, VolumeBand;
     int utmp, phaseAccuStep, MSB, WavGenOut, PW;
     int tmp;
@@ -0,0 +1,451 @@
+/**
+ * @(#)DisassemblyWorker.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.MemoryDasm;
+import static sw_emulator.software.MemoryDasm.TYPE_MINUS;
+import static sw_emulator.software.MemoryDasm.TYPE_MINUS_MAJOR;
+import static sw_emulator.software.MemoryDasm.TYPE_MINUS_MINOR;
+import static sw_emulator.software.MemoryDasm.TYPE_PLUS;
+import static sw_emulator.software.MemoryDasm.TYPE_PLUS_MAJOR;
+import static sw_emulator.software.MemoryDasm.TYPE_PLUS_MINOR;
+import sw_emulator.swing.main.Constant;
+import sw_emulator.swing.main.FileType;
+import sw_emulator.swing.main.MPR;
+import sw_emulator.swing.main.Option;
+import sw_emulator.swing.main.Patch;
+import sw_emulator.swing.main.Project;
+import sw_emulator.swing.main.Relocate;
+import sw_emulator.swing.main.TargetType;
+
+/**
+ * Execute the disassembly of a project in a background thread.
+ *
+ * Every request supersedes the previous one: a running disassembly is
+ * stopped and the requests not yet started are skipped, so a burst of edits
+ * produces only one disassembly. The result is given to the Swing event
+ * thread only when the disassembly is done.
+ *
+ * The disassembly never touches the project: it works on a copy of memory 
+ * taken when the request is done, and the fields it computes are applied back
+ * to project memory in the event thread, together with the result.
+ *
+ * @author ice
+ */
+public class DisassemblyWorker {
+  /**
+   * Result of a disassembly (it is not changed by following disassembly)
+   */
+  public static class Result {
+    /** The disassembly with sources and carets */
+    public final Disassembly disassembly;
+
+    /** Percentage of labels named by user */
+    public final float perc;
+
+    /** True if the project must be stored for undo */
+    public final boolean storeUndo;
+
+    /** Request generation of this result */
+    final long generation;
+
+    /** The request of this result */
+    Request request;
+
+    /** Memory where the disassembly was done */
+    MemoryDasm[] memory;
+
+    /** Addresses of the locations changed by the disassembly */
+    int[] changed;
+
+    /** Values of the changed locations after the disassembly */
+    MemoryDasm[] values;
+
+    /**
+     * Construct the result
+     *
+     * @param disassembly the disassembly with sources and carets
+     * @param perc percentage of labels named by user
+     * @param storeUndo true if the project must be stored for undo
+     * @param generation request generation of this result
+     */
+    Result(Disassembly disassembly, float perc, boolean storeUndo, long generation) {
+      this.disassembly=disassembly;
+      this.perc=perc;
+      this.storeUndo=storeUndo;
+      this.generation=generation;
+    }
+  }
+
+  /**
+   * A request of disassembly with a copy of the project inputs
+   */
+  private static class Request {
+    /** Generation of request */
+    final long generation;
+
+    /** The project to update */
+    final Project project;
+
+    /** The option to use */
+    final Option option;
+
+    /** Copy of project memory */
+    final MemoryDasm[] memory;
+
+    /** Copy of project constants */
+    final Constant constant;
+
+    /** The file type */
+    final FileType fileType;
+
+    /** The buffer */
+    final byte[] inB;
+
+    /** Eventual MPR blocks */
+    final MPR mpr;
+
+    /** Copy of eventual relocates */
+    final Relocate[] relocates;
+
+    /** Copy of eventual patches */
+    final Patch[] patches;
+
+    /** Eventual CRT chip */
+    final int chip;
+
+    /** Eventual raw binary starting address */
+    final int binAddress;
+
+    /** Target machine type */
+    final TargetType targetType;
+
+    /**
+     * Construct the request copying the project (in event thread)
+     *
+     * @param generation the generation of request
+     * @param project the project to disassemble
+     * @param option the option to use
+     */
+    Request(long generation, Project project, Option option) {
+      this.generation=generation;
+      this.project=project;
+      this.option=option;
+
+      memory=new MemoryDasm[project.memory.length];
+      for (int i=0; i<memory.length; i++) memory[i]=project.memory[i].clone();
+
+      constant=(project.constant==null ? null : (Constant)project.constant.clone());
+      fileType=project.fileType;
+      inB=project.inB;
+      mpr=project.mpr;
+      relocates=(project.relocates==null ? null : project.relocates.clone());
+      patches=(project.patches==null ? null : project.patches.clone());
+      chip=project.chip;
+      binAddress=project.binAddress;
+      targetType=project.targetType;
+    }
+  }
+
+  /** Thread that executes the disassembly */
+  private final ExecutorService executor=Executors.newSingleThreadExecutor(r -> {
+    Thread thread=new Thread(r, "Disassembly");
+    thread.setDaemon(true);
+    return thread;
+  });
+  
+  /** Thread that executes the source disassembly in parallel with preview */
+  private final ExecutorService sourceExecutor=Executors.newSingleThreadExecutor(r -> {
+    Thread thread=new Thread(r, "Disassembly source");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /** Disassembly engine (used only by the executor thread) */
+  private final Disassembly engine=new Disassembly();
+
+  /** Memory used by the engine (used only by the executor thread) */
+  private MemoryDasm[] memory;
+
+  /** Generation of last request */
+  private final AtomicLong generation=new AtomicLong();
+
+  /** Generation of request in execution */
+  private volatile long running;
+
+  /** Generation of last result given to consumer */
+  private long published;
+
+  /** True if a request not yet given to consumer needs the undo */
+  private boolean pendingUndo;
+
+  /** Future of the last request */
+  private Future<Result> future;
+
+  /** Consumer of the results of last request */
+  private Consumer<Result> consumer;
+
+
+  /**
+   * Construct the worker
+   */
+  public DisassemblyWorker() {
+    engine.cancel=() -> isSuperseded();
+  }
+
+  /**
+   * Request the disassembly of the project.
+   * The consumer is called in the event thread.
+   *
+   * @param project the project to disassemble
+   * @param option the option to use
+   * @param storeUndo true if project must be stored for undo after disassembly
+   * @param consumer the consumer of the result
+   */
+  public synchronized void execute(Project project, Option option,
+                                   boolean storeUndo, Consumer<Result> consumer) {
+    Request request=new Request(generation.incrementAndGet(), project, option);
+
+    pendingUndo|=storeUndo;
+    this.consumer=consumer;
+    future=executor.submit(() -> run(request));
+  }
+
+  /**
+   * Cancel all the requests: no more result will be given to consumer
+   */
+  public synchronized void cancel() {
+    generation.incrementAndGet();
+    pendingUndo=false;
+    future=null;
+  }
+
+  /**
+   * Wait that the last request is done, giving its result to the consumer
+   * if not already done. Must be called in the event thread.
+   */
+  public void await() {
+    Future<Result> actual;
+
+    synchronized (this) {
+      actual=future;
+    }
+    if (actual==null) return;
+
+    try {
+      Result result=actual.get();
+      if (result!=null) deliver(result);
+    } catch (InterruptedException | ExecutionException | CancellationException e) {
+        System.err.println(e);
+      }
+  }
+
+  /**
+   * True if the request in execution was superseded by a new one
+   *
+   * @return true if superseded
+   */
+  private boolean isSuperseded() {
+    return running!=generation.get();
+  }
+
+  /**
+   * Execute the disassembly of the request
+   *
+   * @param request the request
+   * @return the result or null if superseded
+   */
+  private Result run(Request request) {
+    running=request.generation;
+    if (isSuperseded()) return null;
+
+    // the same memory is kept, so the engine can reuse the previous pass
+    if (memory==null || memory.length!=request.memory.length) {
+      memory=new MemoryDasm[request.memory.length];
+      for (int i=0; i<memory.length; i++) memory[i]=request.memory[i].clone();
+    } else {
+        for (int i=0; i<memory.length; i++) memory[i].set(request.memory[i]);
+      }
+
+    try {
+      engine.dissassembly(request.fileType, request.inB, request.option,
+                          memory, request.constant, request.mpr,
+                          request.relocates, request.patches,
+                          request.chip, request.binAddress,
+                          request.targetType, sourceExecutor);
+    } catch (CancellationException e) {
+        return null;
+      }
+
+    float perc=getPerc(memory);
+
+    // take what the disassembly changed in memory
+    int size=0;
+    int[] changed=new int[memory.length];
+    for (int i=0; i<memory.length; i++) {
+      if (!request.memory[i].equals(memory[i])) changed[size++]=i;
+    }
+    MemoryDasm[] values=new MemoryDasm[size];
+    for (int i=0; i<size; i++) values[i]=memory[changed[i]].clone();
+
+    boolean storeUndo;
+    synchronized (this) {
+      if (isSuperseded()) return null;
+      storeUndo=pendingUndo;
+      pendingUndo=false;
+    }
+
+    Result result=new Result(engine.detach(), perc, storeUndo, request.generation);
+    result.request=request;
+    result.memory=memory;
+    result.changed=Arrays.copyOf(changed, size);
+    result.values=values;
+    SwingUtilities.invokeLater(() -> deliver(result));
+    return result;
+  }
+
+  /**
+   * Give the result to consumer if it is still the last one
+   *
+   * @param result the result to give
+   */
+  private void deliver(Result result) {
+    Consumer<Result> actual;
+
+    synchronized (this) {
+      if (result.generation!=generation.get() || result.generation<=published) return;
+      published=result.generation;
+      actual=consumer;
+    }
+    apply(result);
+    actual.accept(result);
+  }
+
+  /**
+   * Apply the result to the project memory (in event thread).
+   * Only the fields changed by the disassembly are applied, so the user 
+   * changes done in the meantime are kept.
+   *
+   * @param result the result to apply
+   */
+  private static void apply(Result result) {
+    if (result.request==null) return;
+
+    Project project=result.request.project;
+    for (int i=0; i<result.changed.length; i++) {
+      int pos=result.changed[i];
+      merge(result.request.memory[pos], result.values[i], project.memory[pos]);
+    }
+
+    Disassembly disassembly=result.disassembly;
+    disassembly.memory=project.memory;
+    disassembly.constant=project.constant;
+    disassembly.caretsSource.remap(result.memory, project.memory);
+    disassembly.caretsPreview.remap(result.memory, project.memory);
+  }
+
+  /**
+   * Set in a location the fields that the disassembly has changed
+   *
+   * @param before the values before disassembly
+   * @param after the values after disassembly
+   * @param mem the location to change
+   */
+  private static void merge(MemoryDasm before, MemoryDasm after, MemoryDasm mem) {
+    if (!Objects.equals(before.dasmLocation, after.dasmLocation)) mem.dasmLocation=after.dasmLocation;
+    if (!Objects.equals(before.userLocation, after.userLocation)) mem.userLocation=after.userLocation;
+    if (!Objects.equals(before.dasmComment, after.dasmComment)) mem.dasmComment=after.dasmComment;
+    if (!Objects.equals(before.userComment, after.userComment)) mem.userComment=after.userComment;
+    if (!Objects.equals(before.userBlockComment, after.userBlockComment)) mem.userBlockComment=after.userBlockComment;
+    if (before.related!=after.related) mem.related=after.related;
+    if (before.type!=after.type) mem.type=after.type;
+    if (before.index!=after.index) mem.index=after.index;
+    if (before.relatedAddressBase!=after.relatedAddressBase) mem.relatedAddressBase=after.relatedAddressBase;
+    if (before.relatedAddressDest!=after.relatedAddressDest) mem.relatedAddressDest=after.relatedAddressDest;
+    if (before.isInside!=after.isInside) mem.isInside=after.isInside;
+    if (before.isCode!=after.isCode) mem.isCode=after.isCode;
+    if (before.isData!=after.isData) mem.isData=after.isData;
+    if (before.isGarbage!=after.isGarbage) mem.isGarbage=after.isGarbage;
+    if (before.copy!=after.copy) mem.copy=after.copy;
+    if (before.dataType!=after.dataType) mem.dataType=after.dataType;
+    if (before.basicType!=after.basicType) mem.basicType=after.basicType;
+  }
+
+  /**
+   * Get the percentage of work done by renaming the labels
+   *
+   * @param memory the memory of project
+   * @return the percentage of labels named by user
+   */
+  private static float getPerc(MemoryDasm[] memory) {
+    int total=0;
+    int done=0;
+    for (MemoryDasm mem:memory) {
+      if (!mem.isInside || mem.isGarbage) continue;
+
+      // look for relative locations
+      if (mem.type==TYPE_PLUS || mem.type==TYPE_MINUS) {
+        MemoryDasm memr=memory[mem.related];
+        if (memr.userLocation!=null && !"".equals(memr.userLocation)) {
+          total++;
+          done++;
+        }
+        continue;
+      }
+
+      if (mem.type==TYPE_PLUS_MAJOR || mem.type==TYPE_PLUS_MINOR ||
+          mem.type==TYPE_MINUS_MAJOR || mem.type==TYPE_MINUS_MINOR) {
+        MemoryDasm memr=memory[(mem.related>>16) & 0xFFFF];
+        if (memr.userLocation!=null && !"".equals(memr.userLocation)) {
+          total++;
+          done++;
+        }
+        continue;
+      }
+
+      // look for locations
+      if (mem.userLocation!=null && !"".equals(mem.userLocation)) {
+        total++;
+        done++;
+      } else {
+          if (mem.dasmLocation!=null && !"".equals(mem.dasmLocation)) {
+            total++;
+          }
+        }
+    }
+    if (total!=0) return (float)done/(float)total;
+    else return 0;
+  }
+}
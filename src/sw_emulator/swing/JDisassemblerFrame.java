@@ -65,6 +65,7 @@ import javax.swing.ActionMap;
 import javax.swing.InputMap;
 import javax.swing.JComponent;
 import javax.swing.JFileChooser;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
@@ -113,6 +114,7 @@ import sw_emulator.swing.main.Patch;
 import sw_emulator.swing.main.Project;
 import sw_emulator.swing.main.RecentItems;
 import sw_emulator.swing.main.Serial;
+import sw_emulator.swing.main.Symbols;
 import sw_emulator.swing.main.UndoManager;
 import sw_emulator.swing.main.userAction;
 import static sw_emulator.swing.main.userAction.SOURCE_FINDD;
@@ -146,12 +148,21 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   /** Undo manager */
   UndoManager undo=new UndoManager();
   
+  /** Index of labels used in project memory */
+  Symbols symbols=new Symbols();
+  
+  /** View of project files with their percentage icon */
+  ProjectFileView projectFileView=new ProjectFileView(option);
+  
   /** Data table for memory */
   DataTableModelMemory dataTableModelMemory=new DataTableModelMemory(option);
   
-  /** Disassembly engine  */
+  /** Last disassembly done  */
   Disassembly disassembly=new Disassembly();
   
+  /** Background disassembly engine */
+  DisassemblyWorker disassemblyWorker=new DisassemblyWorker();
+  
   /** Option dialog */
   JOptionDialog jOptionDialog;
   
@@ -282,7 +293,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     projectChooserFile.addChoosableFileFilter(new FileNameExtensionFilter("JC64Dis (*.dis)", "dis"));
     projectChooserFile.setAcceptAllFileFilterUsed(false);
     projectChooserFile.setCurrentDirectory(new File(m_prefNode.get(LAST_DIR_PROJECT, "")));
-    projectChooserFile.setFileView(new ProjectFileView(option));
+    projectChooserFile.setFileView(projectFileView);
 
     projectMergeFile.addChoosableFileFilter(new FileNameExtensionFilter("JC64Dis (*.dis)", "dis"));
     exportAsChooserFile.addChoosableFileFilter(new FileNameExtensionFilter("Source (*.txt)", "txt"));
@@ -370,6 +381,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
               MemoryDasm mem = project.memory[row];
               if (mem.dasmLocation != null) {
                 mem.dasmLocation = null;
+                symbols.update(mem);
               }
               dataTableModelMemory.fireTableDataChanged();
               if (option.forceCompilation) {
@@ -6472,6 +6484,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
           JOptionPane.showMessageDialog(this, "Needs an active project for this function");
           return;
         }
+        disassemblyWorker.await();
         jFreezeFrame.setup(project, disassembly, option);
         jFreezeFrame.setVisible(true);
         break;
@@ -7547,6 +7560,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       mem.isCode=false;
       mem.isGarbage=true;
       mem.dasmLocation=null;
+      symbols.update(mem);
       if (option.eraseDComm) mem.dasmComment=null;
       if (option.erasePlus) {         
         switch (mem.type) {
@@ -7673,20 +7687,33 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     useFont();  
       
     if (project==null) {
-      disassembly.source="";
-      disassembly.disassembly="";
-    } else {
-        disassembly.dissassembly(project.fileType, project.inB, option, 
-                                 project.memory, project.constant, project.mpr, 
-                                 project.relocates, project.patches, 
-                                 project.chip, project.binAddress, 
-                                 project.targetType, false);
-        disassembly.dissassembly(project.fileType, project.inB, option,
-                                 project.memory, project.constant, project.mpr,
-                                 project.relocates, project.patches, 
-                                 project.chip, project.binAddress,
-                                 project.targetType, true);
-      }  
+      disassemblyWorker.cancel();
+      
+      Disassembly empty=new Disassembly();
+      empty.source="";
+      empty.disassembly="";
+      showDisassembly(new DisassemblyWorker.Result(empty, 0, false, 0));
+      return;
+    }
+    
+    disassemblyWorker.execute(project, option, storeUndo, this::showDisassembly);
+  }
+  
+  /**
+   * Show the result of a disassembly
+   * 
+   * @param result the result of disassembly
+   */
+  private void showDisassembly(DisassemblyWorker.Result result) {
+    disassembly=result.disassembly;
+    
+    // labels created or removed by disassembly
+    if (project!=null && result.changed!=null && disassembly.memory==project.memory) {
+      for (int address: result.changed) {
+        symbols.update(project.memory[address]);
+      }
+    }
+      
     int lineS=0;
     int lineD=0;
     try {
@@ -7722,50 +7749,19 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     
     memoryTableCellRenderer.setDisassembly(disassembly);
     
+    if (project==null) {
+      jPanelPerc.setPerc(0);
+      return;
+    }
+    
     // repositionate in memory if option is on
     if (option.repositionate) gotoMem(rSyntaxTextAreaDis, disassembly.caretsPreview, 0);
     
     DateFormat df = new SimpleDateFormat("dd/MM/yy HH:mm:ss");    
-    if (storeUndo) undo.store(df.format(new Date()), project);
+    if (result.storeUndo) undo.store(df.format(new Date()), project);
     
     // update perc based onto the work done by renaming the labels
-    int total=0;
-    int done=0;
-    for (MemoryDasm mem:project.memory) {
-      if (!mem.isInside || mem.isGarbage) continue;
-      
-      // look for relative locations
-      if (mem.type==TYPE_PLUS || mem.type==TYPE_MINUS) {
-        MemoryDasm memr=project.memory[mem.related];
-        if (memr.userLocation!=null && !"".equals(memr.userLocation)) {
-          total++;
-          done++;
-        }                   
-        continue;
-      }  
-      
-      if (mem.type==TYPE_PLUS_MAJOR || mem.type==TYPE_PLUS_MINOR ||
-          mem.type==TYPE_MINUS_MAJOR || mem.type==TYPE_MINUS_MINOR) {
-        MemoryDasm memr=project.memory[(mem.related>>16) & 0xFFFF];
-        if (memr.userLocation!=null && !"".equals(memr.userLocation)) {
-          total++;
-          done++;
-        }                   
-        continue;
-      }  
-      
-      // look for locations
-      if (mem.userLocation!=null && !"".equals(mem.userLocation)) {
-        total++;
-        done++;
-      } else {
-          if (mem.dasmLocation!=null && !"".equals(mem.dasmLocation)) {
-            total++;  
-          }
-        }  
-    }
-    if (total!=0) jPanelPerc.setPerc((float)done/(float)total);
-    else jPanelPerc.setPerc(0);
+    jPanelPerc.setPerc(result.perc);
   }
 
   /**
@@ -7958,9 +7954,11 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       if ("".equals(label)) {
         if (option.pedantic) JOptionPane.showMessageDialog(this, "User label erased", "Information", JOptionPane.INFORMATION_MESSAGE);   
         mem.userLocation=null;
+        symbols.update(mem);
         return;
       }  
       
+        symbols.refresh(project.memory);
         String error=errorLabel(label);
         if (error!=null) {
             JOptionPane.showMessageDialog(this, error, "Error", JOptionPane.ERROR_MESSAGE);   
@@ -7968,6 +7966,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         }
       
       mem.userLocation=label;
+      symbols.update(mem);
     }  
   }
   
@@ -8238,7 +8237,10 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         
     for (int i=0; i<rows.length; i++) {
       mem= project.memory[rows[i]];
-      if (mem.dasmLocation!=null) mem.dasmLocation=null;
+      if (mem.dasmLocation!=null) {
+        mem.dasmLocation=null;
+        symbols.update(mem);
+      }
     }
     
     dataTableModelMemory.fireTableDataChanged();    
@@ -8833,6 +8835,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
               
               // delete an automatic label if present, otherwise in code instruction it will be recreated if label is no more used
               project.memory[row].dasmLocation=null;
+              symbols.update(project.memory[row]);
           }
         } else JOptionPane.showMessageDialog(this, "No row selected", "Warning", JOptionPane.WARNING_MESSAGE);  
         return;
@@ -8899,8 +8902,9 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
        
        // copy constant
        for (int i=0; i<Constant.COLS; i++) {
-         for (int j=0; i<Constant.ROWS; j++) {
-           if (project.constant.table[i][j]==null || "".equals(project.constant.table[i][j])) project.constant.table[i][j]=mergeProject.constant.table[i][j];
+         for (int k=0; k<mergeProject.constant.size(i); k++) {
+           int j=mergeProject.constant.getRow(i, k);  
+           if (project.constant.get(i, j)==null || "".equals(project.constant.get(i, j))) project.constant.set(i, j, mergeProject.constant.get(i, j));
          }  
        }      
        
@@ -8915,7 +8919,10 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
           // apply secondary information if primary are not defined
           if (memProject.userBlockComment==null || "".equals(memProject.userBlockComment)) memProject.userBlockComment=memMerge.userBlockComment;
           if (memProject.userComment==null || "".equals(memProject.userComment)) memProject.userComment=memMerge.userComment;
-          if (memProject.userLocation==null || "".equals(memProject.userLocation)) memProject.userLocation=memMerge.userLocation;
+          if (memProject.userLocation==null || "".equals(memProject.userLocation)) {
+            memProject.userLocation=memMerge.userLocation;
+            symbols.update(memProject);
+          }
           
           if (memProject.isInside) {
             if (!memProject.isCode && !memProject.isData && !memProject.isGarbage) {
@@ -9071,6 +9078,8 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     File inputFile=new File(option.tmpPath+File.separator+"input.s");
     File outputFile=new File(option.tmpPath+File.separator+"output.prg");        
     
+    disassemblyWorker.await();
+    
     if (disassembly.source==null || "".equals(disassembly.source)) {
        JOptionPane.showMessageDialog(this, "There is no source to assemble",
                "Warning", JOptionPane.WARNING_MESSAGE);
@@ -9130,6 +9139,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     if (project==null) return;
     jAutoLoHiDialog.setUp(project.memory, jTableMemory);
     jAutoLoHiDialog.setVisible(true);
+    symbols.invalidate();
   }
   
   /**
@@ -9160,6 +9170,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     
     jWizardDialog.setUp(project.memory, disassembly, project, jTableMemory.getSelectedRow());
     jWizardDialog.setVisible(true);
+    symbols.invalidate();
   }
   
   /**
@@ -9185,7 +9196,8 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
     
     String result;
     String error;
-      
+    
+    symbols.refresh(project.memory);  
     for (MemoryDasm mem:project.memory) {
       if (mem.userLocation!=null && !"".equals(mem.userLocation) && mem.userLocation.startsWith(oldPrefix)) {
         result=mem.userLocation.replaceFirst(oldPrefix, newPrefix);
@@ -9197,12 +9209,14 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
         }
         
         mem.userLocation=result;
+        symbols.update(mem);
       }
     }
   }
   
   /**
-   * Return if label gives error
+   * Return if label gives error.
+   * Symbols must be refreshed with project memory before.
    * 
    * @param label the label to check
    * @return null if ok or the error message
@@ -9213,19 +9227,15 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       if (label.length()<2) return "Label too short. Min allowed=2";
             
       // see if the label is already defined
-      for (MemoryDasm memory : project.memory) {
-        if (label.equals(memory.dasmLocation) || label.equals(memory.userLocation)) {
-          return "This label is already used into the source at: "+Shared.ShortToExe(memory.address);
-       }
+      int address=symbols.find(label);
+      if (address!=-1) {
+        return "This label is already used into the source at: "+Shared.ShortToExe(address);
       }
       
       // see if label is as constant
-      for (int i=0; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (label.equals(project.constant.table[i][j])) {
-             return "This label is already used as constant ("+i+"/"+j+")";
-           } 
-         }
+      int cell=project.constant.find(label);
+      if (cell!=-1) {
+        return "This label is already used as constant ("+cell/Constant.ROWS+"/"+cell%Constant.ROWS+")";
       }
       
       String tmp=label.toUpperCase();
@@ -9243,7 +9253,8 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   }
   
   /**
-   * Return true if label gives error without giving messages
+   * Return true if label gives error without giving messages.
+   * Symbols must be refreshed with project memory before.
    * 
    * @param label the label to check
    * @return true if error
@@ -9254,20 +9265,10 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       if (label.length()<2) return true ;
             
       // see if the label is already defined
-      for (MemoryDasm memory : project.memory) {
-        if (label.equals(memory.dasmLocation) || label.equals(memory.userLocation)) {       
-          return true;
-       }
-      }
+      if (symbols.find(label)!=-1) return true;
       
       // see if label is as constant
-      for (int i=0; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (label.equals(project.constant.table[i][j])) {
-            return true;  
-           } 
-         }
-      }
+      if (project.constant.find(label)!=-1) return true;
       
       String tmp=label.toUpperCase();
       for (String val: M6510Dasm.mnemonics) {
@@ -9307,6 +9308,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
        int done=0;
        int processed=0;
        
+       symbols.refresh(project.memory);
        while ((text = br.readLine()) != null) {
          if (text.startsWith("---")) continue;
          processed++;
@@ -9324,6 +9326,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
          if (mem.dasmLocation!=null && mem.dasmLocation.equals(mem.userLocation)) continue;
          
          mem.userLocation=label;
+         symbols.update(mem);
          done++;
        }
          
@@ -9339,53 +9342,80 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
          
   }
   
+  /**
+   * Set the percentage icon of a recent file menu item, reading the file out
+   * of event thread
+   * 
+   * @param item the menu item
+   * @param file the file of the item
+   */
+  private void setRecentIcon(JMenuItem item, File file) {
+    String name=file.getName();
+    
+    projectFileView.getIconLater(file, icon -> {
+      // the menu could have been populated again in the meantime
+      if (name.equals(item.getText())) item.setIcon(icon);
+    });
+  }
+  
   /**
    * Popolate recent file menu
    */
   private void recentFile() {
+    File file;
     String path;  
       
     recentFile.reload();       
     
     for (int i=0; i<recentFile.size(); i++) {
-      path=new File(recentFile.get(i)).getName();            
+      file=new File(recentFile.get(i));
+      path=file.getName();            
       
       switch (i) {
         case 0:
           jMenuItemRecent1.setText(path);
           jMenuItemRecent1.setEnabled(true);
+          setRecentIcon(jMenuItemRecent1, file);
           break;
         case 1:
           jMenuItemRecent2.setText(path);
           jMenuItemRecent2.setEnabled(true);
+          setRecentIcon(jMenuItemRecent2, file);
           break;  
         case 2:
           jMenuItemRecent3.setText(path);
           jMenuItemRecent3.setEnabled(true);
+          setRecentIcon(jMenuItemRecent3, file);
           break;  
         case 3:
           jMenuItemRecent4.setText(path);
           jMenuItemRecent4.setEnabled(true);
+          setRecentIcon(jMenuItemRecent4, file);
           break;    
         case 4:
           jMenuItemRecent5.setText(path);
           jMenuItemRecent5.setEnabled(true);
+          setRecentIcon(jMenuItemRecent5, file);
           break;  
         case 5:
           jMenuItemRecent6.setText(path);
           jMenuItemRecent6.setEnabled(true);
+          setRecentIcon(jMenuItemRecent6, file);
           break;  
         case 6:
           jMenuItemRecent7.setText(path);
           jMenuItemRecent7.setEnabled(true);
+          setRecentIcon(jMenuItemRecent7, file);
           break;  
         case 7:
           jMenuItemRecent8.setText(path);
           jMenuItemRecent8.setEnabled(true);
+          setRecentIcon(jMenuItemRecent8, file);
           break;    
         case 8:
           jMenuItemRecent9.setText(path);
           jMenuItemRecent9.setEnabled(true);
+          setRecentIcon(jMenuItemRecent9, file);
           break;              
       }
     }
@@ -9424,6 +9454,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
   private void clearLab() {
     for (MemoryDasm mem: project.memory) {
       mem.dasmLocation=null;  
+      symbols.update(mem);
     }  
     dataTableModelMemory.fireTableDataChanged();
   }
@@ -9634,6 +9665,7 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       
         memP.userComment=memC.userComment;
         memP.userLocation=memC.userLocation;
+        symbols.update(memP);
         memP.userBlockComment=memC.userBlockComment;
         memP.type=memC.type;
         if (memC.related>=0) {
@@ -10015,5 +10047,6 @@ public class JDisassemblerFrame extends javax.swing.JFrame implements userAction
       
       jBlockDialog.setUp(project.memory, rows[0], rows[rows.length-1]);
       jBlockDialog.setVisible(true);
+      symbols.invalidate();
     }
 }
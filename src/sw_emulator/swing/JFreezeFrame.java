@@ -44,6 +44,7 @@ import org.fife.ui.rtextarea.SearchEngine;
 import org.fife.ui.rtextarea.SearchResult;
 import sw_emulator.software.Assembler;
 import sw_emulator.software.Disassembly;
+import sw_emulator.software.MemoryDasm;
 import sw_emulator.swing.main.Freeze;
 import sw_emulator.swing.main.Option;
 import sw_emulator.swing.main.Project;
@@ -402,8 +403,12 @@ public class JFreezeFrame extends javax.swing.JFrame {
             }
           }
           
+          // use a copy of memory, as only the source is needed
+          MemoryDasm[] memory=new MemoryDasm[project.memory.length];
+          for (int i=0; i<memory.length; i++) memory[i]=project.memory[i].clone();
+          
           Disassembly dis=new Disassembly();        
-          dis.dissassembly(project.fileType, project.inB, option, project.memory,
+          dis.dissassembly(project.fileType, project.inB, option, memory,
                            project.constant, project.mpr, project.relocates, 
                            project.patches, project.chip, project.binAddress,
                            project.targetType, true);
@@ -5490,6 +5490,7 @@ public class JOptionDialog extends javax.swing.JDialog {
         public void run() {
           model.fireTableDataChanged();  
           if (option.showMiniature) {
+            frame.disassemblyWorker.await();
             frame.rSyntaxTextAreaSourceMin.setText(frame.disassembly.source);
             frame.rSyntaxTextAreaDisMin.setText(frame.disassembly.disassembly);
           } else {
@@ -26,7 +26,6 @@ import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import sw_emulator.software.sidid.CRSID;
-import sw_emulator.software.sidid.Memory;
 import sw_emulator.software.sidid.PSID;
 import sw_emulator.swing.main.FileManager;
 import sw_emulator.swing.main.Option;
@@ -283,7 +282,7 @@ public class JPlayerDialog extends javax.swing.JDialog {
     crsid.stopPlaying();
     
     Path path = Paths.get(project.file.replaceAll("[/\\\\]+", "/"));
-    Memory.instance.close(option.tmpPath+File.separator+path.getFileName(), tune);
+    crsid.getMemory().close(option.tmpPath+File.separator+path.getFileName(), tune);
   }
   
   /**
@@ -28,16 +28,21 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
 import java.util.prefs.Preferences;
 import javax.swing.JFileChooser;
 import javax.swing.JFormattedTextField;
 import javax.swing.JOptionPane;
 import javax.swing.JSpinner;
+import javax.swing.ProgressMonitor;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.text.DefaultFormatter;
 import javax.swing.text.DefaultFormatterFactory;
 import sw_emulator.software.memory.MemoryFlags;
+import sw_emulator.software.sidid.Profiler;
 import sw_emulator.swing.main.FileManager;
 import sw_emulator.swing.main.Patch;
 import sw_emulator.swing.main.Project;
@@ -301,6 +306,7 @@ public class JProjectDialog extends javax.swing.JDialog {
         jButtonClear = new javax.swing.JButton();
         jButtonAddNext = new javax.swing.JButton();
         jButtonInit = new javax.swing.JButton();
+        jButtonProfile = new javax.swing.JButton();
         jRadioButtonMPR = new javax.swing.JRadioButton();
         jLabelFileTarget = new javax.swing.JLabel();
         jRadioButtonC64 = new javax.swing.JRadioButton();
@@ -414,6 +420,14 @@ public class JProjectDialog extends javax.swing.JDialog {
             }
         });
 
+        jButtonProfile.setText("Profile");
+        jButtonProfile.setToolTipText("Add the SIDLD memory flag of all the tunes of SID, emulated without sound");
+        jButtonProfile.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                jButtonProfileActionPerformed(evt);
+            }
+        });
+
         buttonGroupFileType.add(jRadioButtonMPR);
         jRadioButtonMPR.setText("MPR");
         jRadioButtonMPR.setToolTipText("Proprietary multi-PRG file format");
@@ -642,6 +656,8 @@ public class JProjectDialog extends javax.swing.JDialog {
                                 .addComponent(jButtonInit, javax.swing.GroupLayout.PREFERRED_SIZE, 101, javax.swing.GroupLayout.PREFERRED_SIZE)
                                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                                 .addComponent(jButtonAddNext)
+                                .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
+                                .addComponent(jButtonProfile)
                                 .addGap(0, 0, Short.MAX_VALUE))))
                     .addGroup(javax.swing.GroupLayout.Alignment.LEADING, jPanelCenterLayout.createSequentialGroup()
                         .addGroup(jPanelCenterLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
@@ -779,7 +795,8 @@ public class JProjectDialog extends javax.swing.JDialog {
                     .addComponent(jButtonClear)
                     .addComponent(jLabelSidLd)
                     .addComponent(jButtonAddNext)
-                    .addComponent(jButtonInit))
+                    .addComponent(jButtonInit)
+                    .addComponent(jButtonProfile))
                 .addPreferredGap(javax.swing.LayoutStyle.ComponentPlacement.RELATED)
                 .addGroup(jPanelCenterLayout.createParallelGroup(javax.swing.GroupLayout.Alignment.BASELINE)
                     .addComponent(jLabelConstant)
@@ -1009,6 +1026,86 @@ public class JProjectDialog extends javax.swing.JDialog {
         }
     }//GEN-LAST:event_jButtonAddNextActionPerformed
 
+    private void jButtonProfileActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonProfileActionPerformed
+        if (!Profiler.isSID(project.inB)) {
+            JOptionPane.showMessageDialog(this, "Profiling is only for PSID/RSID files", "Warning", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (project.memoryFlags==null) project.memoryFlags=new byte[0x10000];
+
+        // emulate all the tunes without sound (stopping when their flags converge) out of event thread
+        Project actual=project;
+        Profiler profiler=new Profiler(project.inB);
+        int tunes=profiler.getMaxTune();
+        
+        SwingWorker<Profiler.Coverage[], Void> worker=new SwingWorker<Profiler.Coverage[], Void>() {
+          @Override
+          protected Profiler.Coverage[] doInBackground() throws InterruptedException {
+            return profiler.profileAll(Profiler.DEFAULT_TIME, Profiler.DEFAULT_STABLE,
+                                       Runtime.getRuntime().availableProcessors(),
+                                       done -> setProgress(done*100/tunes));
+          }
+        };
+        
+        ProgressMonitor monitor=new ProgressMonitor(this, "Profiling "+tunes+" subtunes", null, 0, 100);
+        monitor.setMillisToDecideToPopup(0);
+        monitor.setMillisToPopup(0);
+        
+        // the monitor has no listener for its cancel button
+        Timer timer=new Timer(200, e -> {
+          if (monitor.isCanceled()) worker.cancel(true);
+        });
+        
+        worker.addPropertyChangeListener(event -> {
+          if ("progress".equals(event.getPropertyName())) monitor.setProgress((Integer)event.getNewValue());
+          else if (event.getNewValue()==SwingWorker.StateValue.DONE) {
+            timer.stop();
+            monitor.close();
+            profileDone(worker, actual);
+          }
+        });
+        
+        jButtonProfile.setEnabled(false);
+        timer.start();
+        worker.execute();
+    }//GEN-LAST:event_jButtonProfileActionPerformed
+
+    /**
+     * Add the memory flags of the profiling to the project and tell the result
+     * 
+     * @param worker the worker that has done the profiling
+     * @param project the project profiled
+     */
+    private void profileDone(SwingWorker<Profiler.Coverage[], Void> worker, Project project) {
+        jButtonProfile.setEnabled(true);
+        
+        if (worker.isCancelled()) {
+          JOptionPane.showMessageDialog(this, "Profiling cancelled", "Information", JOptionPane.INFORMATION_MESSAGE);  
+          return;
+        }
+        
+        try {
+          Profiler.Coverage[] coverages=worker.get();
+          byte[] flags=Profiler.merge(coverages);
+          MemoryFlags memoryFlags=new MemoryFlags(flags);
+          project.memoryFlags=memoryFlags.orMemory(memoryFlags.getMemoryState(0, 0x10000), project.memoryFlags);
+          
+          int converged=0;
+          for (Profiler.Coverage coverage: coverages) {
+            if (coverage.converged) converged++;
+          }
+          int accessed=0;
+          for (byte flag: flags) {
+            if (flag!=0) accessed++;
+          }
+          
+          JOptionPane.showMessageDialog(this, "Profiled "+coverages.length+" subtunes ("+converged+" converged): "+
+                                        accessed+" memory locations accessed", "Information", JOptionPane.INFORMATION_MESSAGE);
+        } catch (InterruptedException | ExecutionException e) {
+            JOptionPane.showMessageDialog(this, "Profiling error: "+e, "Error", JOptionPane.ERROR_MESSAGE);
+          }
+    }
+
     private void jButtonClearActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonClearActionPerformed
         // clear memory flags
         project.memoryFlags=new byte[0x10000];
@@ -1283,6 +1380,7 @@ public class JProjectDialog extends javax.swing.JDialog {
     private javax.swing.JButton jButtonPatchAdd;
     private javax.swing.JButton jButtonPatchRemove;
     private javax.swing.JButton jButtonPatchRemove1;
+    private javax.swing.JButton jButtonProfile;
     private javax.swing.JButton jButtonRelocateAdd;
     private javax.swing.JButton jButtonSave;
     private javax.swing.JButton jButtonSelect;
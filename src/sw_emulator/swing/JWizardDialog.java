@@ -46,7 +46,6 @@ import static sw_emulator.software.MemoryDasm.TYPE_MINOR;
 import static sw_emulator.software.MemoryDasm.TYPE_MINUS;
 import static sw_emulator.software.MemoryDasm.TYPE_PLUS;
 import sw_emulator.software.cpu.M6510Dasm;
-import sw_emulator.swing.main.Constant;
 import sw_emulator.swing.main.Project;
 import sw_emulator.swing.table.WizardTableCellRenderer;
 
@@ -998,13 +997,9 @@ public class JWizardDialog extends javax.swing.JDialog {
           }  
       
           // see if label is as constant
-          for (int ii=0; ii<Constant.COLS; ii++) {
-            for (int j=0; j<Constant.ROWS; j++) {
-              if (label.equals(project.constant.table[ii][j])) {
-               JOptionPane.showMessageDialog(this, "This label is already used as constant", "Error", JOptionPane.ERROR_MESSAGE);  
-                return;  
-               } 
-             }
+          if (project.constant.find(label)!=-1) {
+            JOptionPane.showMessageDialog(this, "This label is already used as constant", "Error", JOptionPane.ERROR_MESSAGE);  
+            return;  
           }
       
           String tmp=label.toUpperCase();
@@ -25,23 +25,35 @@ package sw_emulator.swing;
 
 import java.io.File;
 import java.util.Hashtable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import javax.swing.Icon;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileView;
 import sw_emulator.swing.main.FileManager;
 import sw_emulator.swing.main.Option;
 
 /**
  * Add custom icon based onto % of project state
- * We cache the already reas files to speed up, that means that the perc. is 
- * the inital one, and is not update in real time
+ * We cache the already reas files to speed up, by path with the time of last
+ * change, so the perc. is read again (replacing the old one) only if the file 
+ * is changed
  * 
  * @author ice
  */
 public class ProjectFileView extends FileView {  
   Icon icon0, icon25, icon50, icon75, icon100;
-  Hashtable<String, Integer> hashFile=new Hashtable();  // remember already read files
+  Hashtable<String, long[]> hashFile=new Hashtable();  // remember already read files (last modified, perc)
   Option option;
   
+  /** Thread that reads the perc. of files out of event thread */
+  private final ExecutorService executor=Executors.newSingleThreadExecutor(r -> {
+    Thread thread=new Thread(r, "Project percentage");
+    thread.setDaemon(true);
+    return thread;
+  });
+  
   
   public ProjectFileView(Option option) {
     this.option=option;
@@ -61,11 +73,13 @@ public class ProjectFileView extends FileView {
     int perc;
     
     String key=f.getAbsolutePath();
+    long modified=f.lastModified();
     
-    if (hashFile.containsKey(key)) perc=hashFile.get(key);
+    long[] value=hashFile.get(key);
+    if (value!=null && value[0]==modified) perc=(int)value[1];
     else {
       perc=FileManager.instance.readPercProjectFile(f);
-      hashFile.put(key, perc);
+      hashFile.put(key, new long[] {modified, perc});
     }
     
     if (perc<0) return super.getIcon(f);     
@@ -76,4 +90,18 @@ public class ProjectFileView extends FileView {
     return icon100;
   }
   
+  /**
+   * Get the icon of file out of event thread, giving it to the consumer in 
+   * the event thread
+   * 
+   * @param f the file
+   * @param consumer the consumer of icon
+   */
+  public void getIconLater(File f, Consumer<Icon> consumer) {
+    executor.execute(() -> {
+      Icon icon=getIcon(f);
+      SwingUtilities.invokeLater(() -> consumer.accept(icon));
+    });
+  }
+  
 }
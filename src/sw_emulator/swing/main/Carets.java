@@ -23,30 +23,14 @@
  */
 package sw_emulator.swing.main;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import sw_emulator.software.MemoryDasm;
 
 /**
- * Caret container
- * 
- * @author ice
- */
-class Caret {
-   /** Starting caret position */  
-   public int start;
-   
-   /** Ending caret position */
-   public int end;
-   
-   /** Memory associated with those caret interval */
-   MemoryDasm memory;
-   
-   /** Type of action */
-   Carets.Type type;
-}
-
-/**
- * Carets to memory position
+ * Carets to memory position.
+ * Carets are stored in primitive arrays, and an index sorted by position is 
+ * built when all the carets are added, for fast search of positions.
  * 
  * @author ice
  */
@@ -81,18 +65,48 @@ public class Carets {
     }
       
     
-  /** List of caret */  
-  ArrayList<Caret> list=new ArrayList();
+  /** Initial size of the arrays of carets */
+  private static final int INITIAL_SIZE=16;
+  
+  /** Starting caret positions */
+  private int[] starts=new int[INITIAL_SIZE];
+  
+  /** Ending caret positions */
+  private int[] ends=new int[INITIAL_SIZE];
+  
+  /** Memory associated with those caret intervals */
+  private MemoryDasm[] memories=new MemoryDasm[INITIAL_SIZE];
+  
+  /** Type of actions */
+  private Type[] types=new Type[INITIAL_SIZE];
+  
+  /** Number of carets */
+  private int size=0;
        
    /** Offset to use for shift */
    private int offset=0;
+   
+  /** Starting positions sorted (null if index is not built) */
+  private int[] sortedStarts;
+  
+  /** Index of carets sorted by starting position */
+  private int[] sortedIndexes;
+  
+  /** Max ending position of sorted carets up to each one */
+  private int[] sortedMaxEnds;
+  
+  /** Starting position of the first caret of each memory */
+  private IdentityHashMap<MemoryDasm, Integer> positions;
   
   /**
    * Clear the actual list
    */
   public void clear() {
-    list.clear();
+    Arrays.fill(memories, 0, size, null);
+    size=0;
     this.offset=0;
+    sortedStarts=null;
+    positions=null;
   }
   
   /**
@@ -121,14 +135,141 @@ public class Carets {
    */
 
   public void add(int start, int end, MemoryDasm memory, Type type) {
-     Caret caret=new Caret();
+     if (size==starts.length) {
+       int length=size*2;
+       
+       starts=Arrays.copyOf(starts, length);
+       ends=Arrays.copyOf(ends, length);
+       memories=Arrays.copyOf(memories, length);
+       types=Arrays.copyOf(types, length);
+     }
      
-     caret.start=start+offset;
-     caret.end=end+offset;
-     caret.memory=memory;
-     caret.type=type;
+     starts[size]=start+offset;
+     ends[size]=end+offset;
+     memories[size]=memory;
+     types[size]=type;
+     size++;
      
-     list.add(caret);
+     sortedStarts=null;
+     positions=null;
+  }
+  
+  /**
+   * Get the number of carets actually stored
+   * 
+   * @return the number of carets
+   */
+  public int size() {
+    return size;  
+  }
+  
+  /**
+   * Extract the carets added from the given index, with position relative 
+   * to the actual offset
+   * 
+   * @param from the index of the first caret to extract
+   * @return the extracted carets
+   */
+  public Carets extract(int from) {
+    Carets carets=new Carets();
+    
+    for (int i=from; i<size; i++) {
+      carets.add(starts[i]-offset, ends[i]-offset, memories[i], types[i]);
+    }
+    
+    return carets;
+  }
+  
+  /**
+   * Append the given carets shifting them by the actual offset
+   * 
+   * @param carets the carets to append
+   */
+  public void append(Carets carets) {
+    for (int i=0; i<carets.size; i++) {
+      add(carets.starts[i], carets.ends[i], carets.memories[i], carets.types[i]);  
+    }  
+  }
+  
+  /**
+   * Replace the memories of carets that are in a memory with the ones at the
+   * same address of another memory
+   * 
+   * @param from the memory of carets
+   * @param to the memory to use in place of it
+   */
+  public void remap(MemoryDasm[] from, MemoryDasm[] to) {
+    for (int i=0; i<size; i++) {
+      MemoryDasm memory=memories[i];
+      
+      if (memory==null || memory.address<0 || memory.address>=from.length ||
+          memory.address>=to.length) continue;
+      if (from[memory.address]==memory) memories[i]=to[memory.address];
+    }
+    
+    sortedStarts=null;
+    positions=null;
+  }
+  
+  /**
+   * Build the index for searching positions and memories.
+   * It is done when the carets are all added, otherwise at first search.
+   */
+  public void index() {
+    long[] keys=new long[size];
+    
+    // sort by starting position, keeping the adding order for equal ones
+    for (int i=0; i<size; i++) {
+      keys[i]=((long)starts[i]<<32) | i;  
+    }
+    Arrays.sort(keys);
+    
+    int[] tmpStarts=new int[size];
+    sortedIndexes=new int[size];
+    sortedMaxEnds=new int[size];
+    
+    int max=Integer.MIN_VALUE;
+    for (int i=0; i<size; i++) {
+      int index=(int)keys[i];
+      
+      tmpStarts[i]=starts[index];  
+      sortedIndexes[i]=index;
+      max=Math.max(max, ends[index]);
+      sortedMaxEnds[i]=max;
+    }
+    
+    positions=new IdentityHashMap<>(size);
+    for (int i=0; i<size; i++) {
+      positions.putIfAbsent(memories[i], starts[i]);  
+    }
+    
+    sortedStarts=tmpStarts;
+  }
+  
+  /**
+   * Get the first added caret that contains the given position
+   * 
+   * @param position the position to search
+   * @return the index of caret or -1
+   */
+  private int find(int position) {
+    if (sortedStarts==null) index();
+      
+    // last caret that starts before or at position   
+    int pos=Arrays.binarySearch(sortedStarts, position);
+    if (pos>=0) {
+      while (pos+1<size && sortedStarts[pos+1]==position) pos++;  
+    } else pos=-pos-2;
+    
+    // look back only while some caret can still contain the position
+    int found=-1;
+    for (int i=pos; i>=0 && sortedMaxEnds[i]>=position; i--) {
+      int index=sortedIndexes[i];
+      
+      if (ends[index]>=position && (found==-1 || index<found)) found=index;
+    }
+    
+    return found;
   }
   
   /**
@@ -138,11 +279,10 @@ public class Carets {
    * @return the memory associated with that postion
    */
   public MemoryDasm getMemory(int position) {
-    for (Caret caret: list) {
-      if (position>=caret.start && position<=caret.end) return caret.memory;  
-    }  
+    int index=find(position);
     
-    return null;
+    if (index==-1) return null;
+    return memories[index];
   }
   
   /**
@@ -152,11 +292,10 @@ public class Carets {
    * @return the memory associated with that postion
    */
   public Type getType(int position) {
-    for (Caret caret: list) {
-      if (position>=caret.start && position<=caret.end) return caret.type;  
-    }  
+    int index=find(position);
     
-    return null;
+    if (index==-1) return null;
+    return types[index];
   }
   
   /**
@@ -166,10 +305,11 @@ public class Carets {
    * @return the position or -1
    */
   public int getPosition(MemoryDasm memory) {
-    for (Caret caret: list) {
-      if (caret.memory==memory) return caret.start;        
-    }  
-        
-     return -1;
+    if (sortedStarts==null) index();
+      
+    Integer position=positions.get(memory);
+    
+    if (position==null) return -1;
+    return position;
   }
 }
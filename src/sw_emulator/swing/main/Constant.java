@@ -24,6 +24,8 @@
 package sw_emulator.swing.main;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Objects;
 
 /**
  * Constant for compiler
@@ -46,12 +48,256 @@ public class Constant {
     
   /** Rows */
   public static final int ROWS=0xFFFF+1;
+  
+  /** Initial rows of a column */
+  private static final int INITIAL_SIZE=16;
     
-  /** String tables of constants  */  
-  public String[][] table=new String[COLS][ROWS];
+  /** Columns of constants (sparse rows) */  
+  private Column[] columns=new Column[COLS];
+  
+  /** Index of cells (col*ROWS+row, ascending) where a name is used */
+  private HashMap<String, int[]> names=new HashMap<>();
   
-  /** String comments of constants  */  
-  public String[][] comment=new String[COLS][ROWS];  
+  /**
+   * Sparse column of constants: only the rows with a value or a comment are 
+   * stored, with ascending row numbers
+   */
+  private static class Column {
+    /** Rows with a value or a comment */
+    int[] rows=new int[INITIAL_SIZE];
+    
+    /** Values of rows */
+    String[] values=new String[INITIAL_SIZE];
+    
+    /** Comments of rows */
+    String[] comments=new String[INITIAL_SIZE];
+    
+    /** Number of rows used */
+    int size;
+    
+    /**
+     * Copy of the column
+     * 
+     * @return the copy
+     */
+    Column copy() {
+      Column res=new Column();
+      res.rows=Arrays.copyOf(rows, rows.length);
+      res.values=Arrays.copyOf(values, values.length);
+      res.comments=Arrays.copyOf(comments, comments.length);
+      res.size=size;
+      return res;
+    }
+    
+    /**
+     * Position of the row (negative as insertion point if absent)
+     * 
+     * @param row the row to find
+     * @return the position of row
+     */
+    int find(int row) {
+      return Arrays.binarySearch(rows, 0, size, row);
+    }
+    
+    /**
+     * Set value and comment of the row, removing it if both are null
+     * 
+     * @param row the row to set
+     * @param value the value of row
+     * @param comment the comment of row
+     */
+    void set(int row, String value, String comment) {
+      int pos=find(row);
+      
+      if (pos>=0) {
+        if (value==null && comment==null) {
+          System.arraycopy(rows, pos+1, rows, pos, size-pos-1);
+          System.arraycopy(values, pos+1, values, pos, size-pos-1);
+          System.arraycopy(comments, pos+1, comments, pos, size-pos-1);
+          size--;
+          values[size]=null;
+          comments[size]=null;
+        } else {
+            values[pos]=value;
+            comments[pos]=comment;
+          }
+        return;
+      }
+      
+      if (value==null && comment==null) return;
+      
+      pos=-pos-1;
+      if (size==rows.length) {
+        rows=Arrays.copyOf(rows, size*2);
+        values=Arrays.copyOf(values, size*2);
+        comments=Arrays.copyOf(comments, size*2);
+      }
+      System.arraycopy(rows, pos, rows, pos+1, size-pos);
+      System.arraycopy(values, pos, values, pos+1, size-pos);
+      System.arraycopy(comments, pos, comments, pos+1, size-pos);
+      rows[pos]=row;
+      values[pos]=value;
+      comments[pos]=comment;
+      size++;
+    }
+  }
+  
+  /**
+   * Get the value of constant
+   * 
+   * @param col the column of constant
+   * @param row the row of constant
+   * @return the value or null if not defined
+   */
+  public String get(int col, int row) {
+    Column column=columns[col];
+    if (column==null) return null;
+    
+    int pos=column.find(row);
+    if (pos<0) return null;
+    return column.values[pos];
+  }
+  
+  /**
+   * Set the value of constant
+   * 
+   * @param col the column of constant
+   * @param row the row of constant
+   * @param value the value (null for not defined)
+   */
+  public void set(int col, int row, String value) {
+    if (row<0 || row>=ROWS) throw new ArrayIndexOutOfBoundsException(row);
+    
+    String old=get(col, row);
+    if (old!=null) removeName(old, col*ROWS+row);
+    if (value!=null) addName(value, col*ROWS+row);
+    
+    getColumn(col).set(row, value, getComment(col, row));
+  }
+  
+  /**
+   * Get the comment of constant
+   * 
+   * @param col the column of constant
+   * @param row the row of constant
+   * @return the comment or null if not defined
+   */
+  public String getComment(int col, int row) {
+    Column column=columns[col];
+    if (column==null) return null;
+    
+    int pos=column.find(row);
+    if (pos<0) return null;
+    return column.comments[pos];
+  }
+  
+  /**
+   * Set the comment of constant
+   * 
+   * @param col the column of constant
+   * @param row the row of constant
+   * @param comment the comment (null for not defined)
+   */
+  public void setComment(int col, int row, String comment) {
+    if (row<0 || row>=ROWS) throw new ArrayIndexOutOfBoundsException(row);
+    
+    getColumn(col).set(row, get(col, row), comment);
+  }
+  
+  /**
+   * Get the number of rows of the column with a value or a comment
+   * 
+   * @param col the column of constants
+   * @return the number of rows used
+   */
+  public int size(int col) {
+    Column column=columns[col];
+    if (column==null) return 0;
+    return column.size;
+  }
+  
+  /**
+   * Get the row with a value or a comment at the given index 
+   * (rows are in ascending order)
+   * 
+   * @param col the column of constants
+   * @param index the index (0 to size-1)
+   * @return the row
+   */
+  public int getRow(int col, int index) {
+    return columns[col].rows[index];
+  }
+  
+  /**
+   * Find the first cell (by column and then row) with the given value
+   * 
+   * @param value the value to find
+   * @return the cell as col*ROWS+row or -1 if not present
+   */
+  public int find(String value) {
+    if (value==null) return -1;
+    
+    int[] cells=names.get(value);
+    if (cells==null) return -1;
+    return cells[0];
+  }
+  
+  /**
+   * Get the column, creating it if needed
+   * 
+   * @param col the column of constants
+   * @return the column
+   */
+  private Column getColumn(int col) {
+    if (columns[col]==null) columns[col]=new Column();
+    return columns[col];
+  }
+  
+  /**
+   * Add the cell to the index of the name
+   * 
+   * @param name the name
+   * @param cell the cell as col*ROWS+row
+   */
+  private void addName(String name, int cell) {
+    int[] cells=names.get(name);
+    
+    if (cells==null) {
+      names.put(name, new int[] {cell});
+      return;
+    }
+    
+    int pos=-Arrays.binarySearch(cells, cell)-1;
+    int[] res=new int[cells.length+1];
+    System.arraycopy(cells, 0, res, 0, pos);
+    System.arraycopy(cells, pos, res, pos+1, cells.length-pos);
+    res[pos]=cell;
+    names.put(name, res);
+  }
+  
+  /**
+   * Remove the cell from the index of the name
+   * 
+   * @param name the name
+   * @param cell the cell as col*ROWS+row
+   */
+  private void removeName(String name, int cell) {
+    int[] cells=names.get(name);
+    if (cells==null) return;
+    
+    int pos=Arrays.binarySearch(cells, cell);
+    if (pos<0) return;
+    
+    if (cells.length==1) {
+      names.remove(name);
+      return;
+    }
+    
+    int[] res=new int[cells.length-1];
+    System.arraycopy(cells, 0, res, 0, pos);
+    System.arraycopy(cells, pos+1, res, pos, cells.length-pos-1);
+    names.put(name, res);
+  }
 
   @Override
   public boolean equals(Object obj) {
@@ -68,27 +314,48 @@ public class Constant {
     }
 
     final Constant other = (Constant) obj;
-    if (!Arrays.deepEquals(this.table, other.table)) {
-      return false;
-    }
-    
-    if (!Arrays.deepEquals(this.comment, other.comment)) {
-      return false;
+    for (int i=0; i<COLS; i++) {
+      int size=size(i);  
+      if (size!=other.size(i)) return false;
+      if (size==0) continue;
+      
+      Column column=columns[i];
+      Column otherColumn=other.columns[i];
+      for (int j=0; j<size; j++) {
+        if (column.rows[j]!=otherColumn.rows[j]) return false;  
+        if (!Objects.equals(column.values[j], otherColumn.values[j])) return false;
+        if (!Objects.equals(column.comments[j], otherColumn.comments[j])) return false;
+      }
     }
     return true;
   }
 
+  @Override
+  public int hashCode() {
+    int hash = 7;
+    for (int i=0; i<COLS; i++) {
+      int size=size(i);
+      for (int j=0; j<size; j++) {
+        Column column=columns[i];  
+        hash = 41 * hash + i*ROWS+column.rows[j];
+        hash = 41 * hash + Objects.hashCode(column.values[j]);
+        hash = 41 * hash + Objects.hashCode(column.comments[j]);
+      }
+    }
+    return hash;
+  }
+
    @Override
-   protected Object clone() {
+   public Object clone() {
      Constant res=new Constant();       
      
      for (int i=0; i<COLS; i++) {
-       for (int j=0; j<ROWS; j++) {
-         res.table[i][j]=table[i][j];
-         res.comment[i][j]=comment[i][j];
-       }     
+       if (columns[i]!=null) res.columns[i]=columns[i].copy();
      }  
      
+     // index arrays are never changed in place, so they can be shared
+     res.names.putAll(names);
+     
      return res;
    }   
    
@@ -101,13 +368,7 @@ public class Constant {
    public boolean isAllowed(String value) {
      if (value==null || "".equals(value)) return false;
        
-     for (int i=0; i<COLS; i++) {
-       for (int j=0; j<ROWS; j++) {
-         if (value.equals(table[i][j])) return false;
-       }     
-     }    
-     
-     return true;
+     return !names.containsKey(value);
    }
    
    /**
@@ -35,6 +35,10 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import sw_emulator.software.Assembler;
@@ -56,6 +60,9 @@ public class FileManager {
   
   /** Header for costant file */
   private static final String HEADER_CST="CST";
+  
+  /** Size of the project header after its size (version 13) */
+  private static final int HEADER_SIZE=8;
     
   /**
    * Singleton contructor
@@ -970,6 +977,12 @@ public class FileManager {
               new FileInputStream(file)));  
       
       byte version=in.readByte();
+      
+      if (version>12) {                         // version 13
+        in.skipNBytes(in.readInt());            // header
+        in=new DataInputStream(
+           new GZIPInputStream(in));
+      }
 
       project.name=in.readUTF();
       project.file=in.readUTF();
@@ -980,19 +993,22 @@ public class FileManager {
       
       int size=in.readInt();      
       project.inB=new byte[size];
-      
-      ///in.read(project.inB);      
-      for (int i=0; i<size;i++) {
-        project.inB[i]=in.readByte();
-      }
+      in.readFully(project.inB);
       
       size=in.readInt();
       project.memoryFlags=new byte[size];
+      in.readFully(project.memoryFlags);
+      
+      if (project.fileType==FileType.MPR) {
+        project.mpr=new MPR();
+        project.mpr.getElements(project.inB);
+      }
       
-      ///in.read(project.memoryFlags);
-      for (int i=0; i<size;i++) {
-        project.memoryFlags[i]=in.readByte();
-      }           
+      if (version>11) {                         // version 12
+        readColumns(ByteBuffer.wrap(in.readAllBytes()), project);
+        in.close();
+        return true;
+      }
       
       size=in.readInt();
       project.memory=new MemoryDasm[size];
@@ -1029,11 +1045,6 @@ public class FileManager {
         mem.related=in.readInt();
         mem.type=in.readChar();
         
-        if (project.fileType==FileType.MPR) {
-          project.mpr=new MPR();
-          project.mpr.getElements(project.inB);
-        }
-        
         if (version>2) { // version 3
           mem.index=in.readByte();
         }
@@ -1055,8 +1066,8 @@ public class FileManager {
       if (version>2)  {                         // version 3
         for (int i=0; i<Constant.MIN_COLS; i++) {
           for (int j=0; j<Constant.MIN_ROWS; j++) {
-            if (in.readBoolean()) project.constant.table[i][j]=in.readUTF();
-            else project.constant.table[i][j]=null;   
+            if (in.readBoolean()) project.constant.set(i, j, in.readUTF());
+            else project.constant.set(i, j, null);   
           }  
         }
       }
@@ -1094,8 +1105,8 @@ public class FileManager {
       if (version>5)  {                         // version 6
         for (int i=0; i<Constant.MIN_COLS; i++) {
           for (int j=Constant.MIN_ROWS; j<Constant.ROWS; j++) {
-            if (in.readBoolean()) project.constant.table[i][j]=in.readUTF();
-            else project.constant.table[i][j]=null;   
+            if (in.readBoolean()) project.constant.set(i, j, in.readUTF());
+            else project.constant.set(i, j, null);   
           }  
         }
       }
@@ -1126,8 +1137,8 @@ public class FileManager {
       if (version>7)  {                         // version 8
         for (int i=Constant.MIN_COLS; i<Constant.COLS; i++) {
           for (int j=0; j<Constant.ROWS; j++) {
-            if (in.readBoolean()) project.constant.table[i][j]=in.readUTF();
-            else project.constant.table[i][j]=null;   
+            if (in.readBoolean()) project.constant.set(i, j, in.readUTF());
+            else project.constant.set(i, j, null);   
           }  
         }
       }
@@ -1135,8 +1146,8 @@ public class FileManager {
       if (version>9)  {                         // version 10
         for (int i=0; i<Constant.COLS; i++) {
           for (int j=0; j<Constant.ROWS; j++) {
-            if (in.readBoolean()) project.constant.comment[i][j]=in.readUTF();
-            else project.constant.comment[i][j]=null;   
+            if (in.readBoolean()) project.constant.setComment(i, j, in.readUTF());
+            else project.constant.setComment(i, j, null);   
           }  
         }
       }    
@@ -1159,12 +1170,15 @@ public class FileManager {
    */
   public boolean writeProjectFile(File file, Project project) {
     try {      
-      DataOutputStream out=new DataOutputStream(
-                           new GZIPOutputStream(
-                           new BufferedOutputStream(
-                           new FileOutputStream(file)))); 
+      DataOutputStream header=new DataOutputStream(
+                              new BufferedOutputStream(
+                              new FileOutputStream(file))); 
       
-      out.writeByte(project.ACTUAL_VERSION);
+      header.writeByte(project.ACTUAL_VERSION);
+      writeHeader(header, project);             // version 13
+      
+      DataOutputStream out=new DataOutputStream(
+                           new GZIPOutputStream(header));
       
       out.writeUTF(project.name);
       out.writeUTF(project.file);
@@ -1178,155 +1192,7 @@ public class FileManager {
       out.writeInt(project.memoryFlags.length);
       out.write(project.memoryFlags);
       
-      out.writeInt(project.memory.length);
-      for (MemoryDasm memory : project.memory) {
-          out.writeInt(memory.address);
-          
-          if (memory.dasmComment!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.dasmComment);
-          } else {
-              out.writeBoolean(false);
-            }
-          
-          if (memory.userComment!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.userComment);
-          } else {
-              out.writeBoolean(false);
-            }
-          
-          if (memory.userBlockComment!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.userBlockComment);
-          } else {
-              out.writeBoolean(false);
-            }         
-          
-          if (memory.dasmLocation!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.dasmLocation);
-          } else {
-              out.writeBoolean(false);
-            }
-          
-          if (memory.userLocation!=null) {
-              out.writeBoolean(true);
-              out.writeUTF(memory.userLocation);
-          } else {
-              out.writeBoolean(false);
-            }      
-          
-          out.writeBoolean(memory.isInside);
-          out.writeBoolean(memory.isCode);
-          out.writeBoolean(memory.isData);
-          out.writeBoolean(memory.isGarbage);    // version 1
-          out.writeUTF(memory.dataType.name());  // version 1
-          out.writeByte(memory.copy);
-          out.writeInt(memory.related);
-          out.writeChar(memory.type);
-          
-          out.writeByte(memory.index);   // version 3
-          
-          out.writeInt(memory.relatedAddressBase); // version 9
-          out.writeInt(memory.relatedAddressDest); // version 9
-          out.writeUTF(memory.basicType.name());   // version 10
-      }  
-      
-      out.writeInt(project.chip);  // version 2
-      
-      // version 3
-      for (int i=0; i<Constant.MIN_COLS; i++) {
-        for (int j=0; j<Constant.MIN_ROWS; j++) {
-          if (project.constant.table[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.table[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }  
-      }
-      
-      // version 4
-      if (project.relocates==null) out.writeInt(0);
-      else {
-        out.writeInt(project.relocates.length);
-        for (Relocate relocate:project.relocates) {
-          out.writeInt(relocate.fromStart);
-          out.writeInt(relocate.fromEnd);
-          out.writeInt(relocate.toStart);
-          out.writeInt(relocate.toEnd);
-        }
-      }
-      
-      // version 5
-      if (project.patches==null) out.writeInt(0);
-      else {
-        out.writeInt(project.patches.length);
-        for (Patch patch:project.patches) {
-          out.writeInt(patch.address);
-          out.writeInt(patch.value);
-        }
-      }    
-      
-      // version 6
-      for (int i=0; i<Constant.MIN_COLS; i++) {
-        for (int j=Constant.MIN_ROWS; j<Constant.ROWS; j++) {
-          if (project.constant.table[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.table[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }  
-      }  
-      
-      // version 7
-      if (project.freezes==null) out.writeInt(0);
-      else {
-        out.writeInt(project.freezes.length);
-        for (Freeze freeze:project.freezes) {
-          out.writeUTF(freeze.name);
-          
-          // writeUTF is limited to FFFF size, so apply different way
-          if (freeze.text.length()>0xFFFF) {
-            out.writeBoolean(true);  
-            byte[] buf=freeze.text.getBytes("utf-8");
-            out.writeInt(buf.length);
-            out.write(buf);           
-          } else {
-              out.writeBoolean(false);
-              out.writeUTF(freeze.text);
-            }
-        }
-      }  
-      
-      // version 8
-      for (int i=Constant.MIN_COLS; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (project.constant.table[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.table[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }          
-      }
-      
-      // version 10
-      for (int i=0; i<Constant.COLS; i++) {
-        for (int j=0; j<Constant.ROWS; j++) {
-          if (project.constant.comment[i][j]!=null) {
-            out.writeBoolean(true);
-            out.writeUTF(project.constant.comment[i][j]);  
-          } else {
-              out.writeBoolean(false);
-            } 
-        }          
-      }      
-      
-      // version 11
-      out.writeInt(project.binAddress);  
+      writeColumns(out, project);   // version 12
       
       out.flush();
       out.close();
@@ -1335,6 +1201,442 @@ public class FileManager {
         return false;
       }  
     return true;
+  }
+  
+  /**
+   * Write the not compressed header of project (version 13) with the values
+   * to show without reading all the file: size of header, total labels and 
+   * labels named by user (as counted in readPercProjectFile)
+   * 
+   * @param out the output stream
+   * @param project the project to write
+   * @throws IOException if write fails
+   */
+  private void writeHeader(DataOutputStream out, Project project) throws IOException {
+    int total=0;
+    int done=0;
+    
+    for (MemoryDasm mem: project.memory) {
+      if (!mem.isInside || mem.isGarbage) continue;
+      if (mem.userLocation!=null) {
+        total++;
+        done++;
+      } else {
+          if (mem.dasmLocation!=null) total++;
+        }
+    }
+    
+    out.writeInt(HEADER_SIZE);
+    out.writeInt(total);
+    out.writeInt(done);
+  }
+  
+  /**
+   * Write the project memory, constants and the other values after the 
+   * memory flags in columns (version 12).
+   * Every string is kept once in a pool and referred by its index.
+   * 
+   * @param out the output stream
+   * @param project the project to write
+   * @throws IOException if write fails
+   */
+  private void writeColumns(DataOutputStream out, Project project) throws IOException {
+    ArrayList<String> pool=new ArrayList<>();
+    HashMap<String, Integer> poolIndex=new HashMap<>();
+    
+    MemoryDasm[] memory=project.memory;
+    int size=memory.length;
+    int[][] strings=new int[5][size];
+    for (int i=0; i<size; i++) {
+      strings[0][i]=getPoolIndex(pool, poolIndex, memory[i].dasmComment);
+      strings[1][i]=getPoolIndex(pool, poolIndex, memory[i].userComment);
+      strings[2][i]=getPoolIndex(pool, poolIndex, memory[i].userBlockComment);
+      strings[3][i]=getPoolIndex(pool, poolIndex, memory[i].dasmLocation);
+      strings[4][i]=getPoolIndex(pool, poolIndex, memory[i].userLocation);
+    }
+    
+    DataType[] dataTypes=DataType.values();
+    int[] dataTypeNames=new int[dataTypes.length];
+    for (int i=0; i<dataTypes.length; i++) {
+      dataTypeNames[i]=getPoolIndex(pool, poolIndex, dataTypes[i].name());
+    }
+    
+    BasicType[] basicTypes=BasicType.values();
+    int[] basicTypeNames=new int[basicTypes.length];
+    for (int i=0; i<basicTypes.length; i++) {
+      basicTypeNames[i]=getPoolIndex(pool, poolIndex, basicTypes[i].name());
+    }
+    
+    int cells=0;
+    for (int col=0; col<Constant.COLS; col++) {
+      cells+=project.constant.size(col);
+    }
+    int[] constants=new int[cells*3];
+    cells=0;
+    for (int col=0; col<Constant.COLS; col++) {
+      for (int k=0; k<project.constant.size(col); k++) {
+        int row=project.constant.getRow(col, k);
+        constants[cells++]=col*Constant.ROWS+row;
+        constants[cells++]=getPoolIndex(pool, poolIndex, project.constant.get(col, row));
+        constants[cells++]=getPoolIndex(pool, poolIndex, project.constant.getComment(col, row));
+      }
+    }
+    
+    int freezes=project.freezes==null ? 0 : project.freezes.length;
+    int[] freezeStrings=new int[freezes*2];
+    for (int i=0; i<freezes; i++) {
+      freezeStrings[i*2]=getPoolIndex(pool, poolIndex, project.freezes[i].name);
+      freezeStrings[i*2+1]=getPoolIndex(pool, poolIndex, project.freezes[i].text);
+    }
+    
+    byte[][] utf=new byte[pool.size()][];
+    int utfSize=0;
+    for (int i=0; i<utf.length; i++) {
+      utf[i]=pool.get(i).getBytes(StandardCharsets.UTF_8);
+      utfSize+=utf[i].length;
+    }
+    
+    int relocates=project.relocates==null ? 0 : project.relocates.length;
+    int patches=project.patches==null ? 0 : project.patches.length;
+    int words=(size+63)/64;
+    
+    ByteBuffer buf=ByteBuffer.allocate(4+4*utf.length+utfSize+ 
+                                       4+4*6*size+8*4*words+
+                                       4+4*dataTypes.length+4+4*basicTypes.length+
+                                       size*(1+1+2+1+1+4*3)+4+
+                                       4+4*constants.length+
+                                       4+4*4*relocates+4+4*2*patches+4+4*freezeStrings.length+4);
+    
+    // string pool
+    buf.putInt(utf.length);
+    for (byte[] val: utf) {
+      buf.putInt(val.length);
+    }
+    for (byte[] val: utf) {
+      buf.put(val);
+    }
+    
+    // memory
+    buf.putInt(size);
+    for (MemoryDasm mem: memory) {
+      buf.putInt(mem.address);
+    }
+    for (int[] column: strings) {
+      putInts(buf, column);
+    }
+    
+    long[] isInside=new long[words];
+    long[] isCode=new long[words];
+    long[] isData=new long[words];
+    long[] isGarbage=new long[words];
+    for (int i=0; i<size; i++) {
+      if (memory[i].isInside) isInside[i>>6]|=1L<<i;
+      if (memory[i].isCode) isCode[i>>6]|=1L<<i;
+      if (memory[i].isData) isData[i>>6]|=1L<<i;
+      if (memory[i].isGarbage) isGarbage[i>>6]|=1L<<i;
+    }
+    buf.asLongBuffer().put(isInside).put(isCode).put(isData).put(isGarbage);
+    buf.position(buf.position()+8*4*words);
+    
+    buf.putInt(dataTypeNames.length);
+    putInts(buf, dataTypeNames);
+    buf.putInt(basicTypeNames.length);
+    putInts(buf, basicTypeNames);
+    for (MemoryDasm mem: memory) {
+      buf.put((byte)mem.dataType.ordinal());
+    }
+    for (MemoryDasm mem: memory) {
+      buf.put((byte)mem.basicType.ordinal());
+    }
+    for (MemoryDasm mem: memory) {
+      buf.putChar(mem.type);
+    }
+    for (MemoryDasm mem: memory) {
+      buf.put(mem.copy);
+    }
+    for (MemoryDasm mem: memory) {
+      buf.put(mem.index);
+    }
+    for (MemoryDasm mem: memory) {
+      buf.putInt(mem.related);
+    }
+    for (MemoryDasm mem: memory) {
+      buf.putInt(mem.relatedAddressBase);
+    }
+    for (MemoryDasm mem: memory) {
+      buf.putInt(mem.relatedAddressDest);
+    }
+    
+    buf.putInt(project.chip);
+    
+    // constants as cell, value, comment
+    buf.putInt(constants.length/3);
+    putInts(buf, constants);
+    
+    buf.putInt(relocates);
+    for (int i=0; i<relocates; i++) {
+      buf.putInt(project.relocates[i].fromStart);
+      buf.putInt(project.relocates[i].fromEnd);
+      buf.putInt(project.relocates[i].toStart);
+      buf.putInt(project.relocates[i].toEnd);
+    }
+    
+    buf.putInt(patches);
+    for (int i=0; i<patches; i++) {
+      buf.putInt(project.patches[i].address);
+      buf.putInt(project.patches[i].value);
+    }
+    
+    // freezes as name, text
+    buf.putInt(freezes);
+    putInts(buf, freezeStrings);
+    
+    buf.putInt(project.binAddress);
+    
+    out.write(buf.array(), 0, buf.position());
+  }
+  
+  /**
+   * Read the project memory, constants and the other values after the 
+   * memory flags in columns (version 12)
+   * 
+   * @param buf the buffer with the rest of file
+   * @param project the project to fill
+   * @throws IOException if the data is not valid
+   */
+  private void readColumns(ByteBuffer buf, Project project) throws IOException {
+    // string pool
+    String[] pool=new String[buf.getInt()];
+    int[] lengths=getInts(buf, pool.length);
+    byte[] utf=buf.array();
+    for (int i=0; i<pool.length; i++) {
+      pool[i]=new String(utf, buf.position(), lengths[i], StandardCharsets.UTF_8);
+      buf.position(buf.position()+lengths[i]);
+    }
+    
+    // memory
+    int size=buf.getInt();
+    int words=(size+63)/64;
+    MemoryDasm[] memory=new MemoryDasm[size];
+    int[] address=getInts(buf, size);
+    int[] dasmComment=getInts(buf, size);
+    int[] userComment=getInts(buf, size);
+    int[] userBlockComment=getInts(buf, size);
+    int[] dasmLocation=getInts(buf, size);
+    int[] userLocation=getInts(buf, size);
+    
+    long[] isInside=new long[words];
+    long[] isCode=new long[words];
+    long[] isData=new long[words];
+    long[] isGarbage=new long[words];
+    buf.asLongBuffer().get(isInside).get(isCode).get(isData).get(isGarbage);
+    buf.position(buf.position()+8*4*words);
+    
+    DataType[] dataTypes=new DataType[buf.getInt()];
+    for (int i=0; i<dataTypes.length; i++) {
+      dataTypes[i]=DataType.valueOf(pool[buf.getInt()-1]);
+    }
+    BasicType[] basicTypes=new BasicType[buf.getInt()];
+    for (int i=0; i<basicTypes.length; i++) {
+      basicTypes[i]=BasicType.valueOf(pool[buf.getInt()-1]);
+    }
+    
+    byte[] dataType=getBytes(buf, size);
+    byte[] basicType=getBytes(buf, size);
+    char[] type=new char[size];
+    buf.asCharBuffer().get(type);
+    buf.position(buf.position()+2*size);
+    byte[] copy=getBytes(buf, size);
+    byte[] index=getBytes(buf, size);
+    int[] related=getInts(buf, size);
+    int[] relatedAddressBase=getInts(buf, size);
+    int[] relatedAddressDest=getInts(buf, size);
+    
+    MemoryDasm mem;
+    for (int i=0; i<size; i++) {
+      mem=new MemoryDasm();
+      mem.address=address[i];
+      mem.dasmComment=getPoolString(pool, dasmComment[i]);
+      mem.userComment=getPoolString(pool, userComment[i]);
+      mem.userBlockComment=getPoolString(pool, userBlockComment[i]);
+      mem.dasmLocation=getPoolString(pool, dasmLocation[i]);
+      mem.userLocation=getPoolString(pool, userLocation[i]);
+      mem.isInside=(isInside[i>>6] & (1L<<i))!=0;
+      mem.isCode=(isCode[i>>6] & (1L<<i))!=0;
+      mem.isData=(isData[i>>6] & (1L<<i))!=0;
+      mem.isGarbage=(isGarbage[i>>6] & (1L<<i))!=0;
+      mem.dataType=dataTypes[dataType[i] & 0xFF];
+      mem.basicType=basicTypes[basicType[i] & 0xFF];
+      mem.type=type[i];
+      mem.copy=copy[i];
+      mem.index=index[i];
+      mem.related=related[i];
+      mem.relatedAddressBase=relatedAddressBase[i];
+      mem.relatedAddressDest=relatedAddressDest[i];
+      memory[i]=mem;
+    }
+    project.memory=memory;
+    
+    project.chip=buf.getInt();
+    
+    // constants as cell, value, comment
+    int[] constants=getInts(buf, buf.getInt()*3);
+    for (int i=0; i<constants.length; i+=3) {
+      project.constant.set(constants[i]/Constant.ROWS, constants[i]%Constant.ROWS, getPoolString(pool, constants[i+1]));
+      project.constant.setComment(constants[i]/Constant.ROWS, constants[i]%Constant.ROWS, getPoolString(pool, constants[i+2]));
+    }
+    
+    size=buf.getInt();
+    if (size==0) project.relocates=null;
+    else {
+      project.relocates=new Relocate[size];
+      for (int i=0; i<size; i++) {
+        Relocate relocate=new Relocate();
+        relocate.fromStart=buf.getInt();
+        relocate.fromEnd=buf.getInt();
+        relocate.toStart=buf.getInt();
+        relocate.toEnd=buf.getInt();
+        project.relocates[i]=relocate;
+      }
+    }
+    
+    size=buf.getInt();
+    if (size==0) project.patches=null;
+    else {
+      project.patches=new Patch[size];
+      for (int i=0; i<size; i++) {
+        Patch patch=new Patch();
+        patch.address=buf.getInt();
+        patch.value=buf.getInt();
+        project.patches[i]=patch;
+      }
+    }
+    
+    // freezes as name, text
+    size=buf.getInt();
+    if (size==0) project.freezes=null;
+    else {
+      project.freezes=new Freeze[size];
+      for (int i=0; i<size; i++) {
+        Freeze freeze=new Freeze();
+        freeze.name=getPoolString(pool, buf.getInt());
+        freeze.text=getPoolString(pool, buf.getInt());
+        project.freezes[i]=freeze;
+      }
+    }
+    
+    project.binAddress=buf.getInt();
+  }
+  
+  /**
+   * Read percent of the project from the memory in columns (version 12)
+   * 
+   * @param buf the buffer with the rest of file
+   * @return >0 as percent
+   */
+  private int readPercColumns(ByteBuffer buf) {
+    int total=0;
+    int done=0;
+    
+    // skip string pool
+    int size=buf.getInt();
+    int[] lengths=getInts(buf, size);
+    for (int length: lengths) {
+      buf.position(buf.position()+length);
+    }
+    
+    size=buf.getInt();
+    int words=(size+63)/64;
+    buf.position(buf.position()+4*4*size);  // address and comments
+    int[] dasmLocation=getInts(buf, size);
+    int[] userLocation=getInts(buf, size);
+    
+    long[] isInside=new long[words];
+    long[] isGarbage=new long[words];
+    buf.asLongBuffer().get(isInside).position(3*words).get(isGarbage);
+    
+    for (int i=0; i<size; i++) {
+      if ((isInside[i>>6] & (1L<<i))==0 || (isGarbage[i>>6] & (1L<<i))!=0) continue;
+      if (userLocation[i]!=0) {
+        total++;
+        done++;
+      } else {
+          if (dasmLocation[i]!=0) total++;
+        }
+    }
+    
+    if (total==0) return 0;
+    return done*100/total;
+  }
+  
+  /**
+   * Get the index in pool of the string (0 for null), adding it if needed
+   * 
+   * @param pool the pool of strings
+   * @param poolIndex the index of the strings in pool
+   * @param value the string
+   * @return the index in pool plus one or 0 for null
+   */
+  private static int getPoolIndex(ArrayList<String> pool, HashMap<String, Integer> poolIndex, String value) {
+    if (value==null) return 0;
+    
+    Integer index=poolIndex.get(value);
+    if (index==null) {
+      pool.add(value);
+      index=pool.size();
+      poolIndex.put(value, index);
+    }
+    return index;
+  }
+  
+  /**
+   * Get the string in pool
+   * 
+   * @param pool the pool of strings
+   * @param index the index in pool plus one or 0 for null
+   * @return the string
+   */
+  private static String getPoolString(String[] pool, int index) {
+    if (index==0) return null;
+    return pool[index-1];
+  }
+  
+  /**
+   * Put the integers in the buffer
+   * 
+   * @param buf the buffer
+   * @param values the values to put
+   */
+  private static void putInts(ByteBuffer buf, int[] values) {
+    buf.asIntBuffer().put(values);
+    buf.position(buf.position()+4*values.length);
+  }
+  
+  /**
+   * Get integers from the buffer
+   * 
+   * @param buf the buffer
+   * @param size the number of integers
+   * @return the integers
+   */
+  private static int[] getInts(ByteBuffer buf, int size) {
+    int[] res=new int[size];
+    buf.asIntBuffer().get(res);
+    buf.position(buf.position()+4*size);
+    return res;
+  }
+  
+  /**
+   * Get bytes from the buffer
+   * 
+   * @param buf the buffer
+   * @param size the number of bytes
+   * @return the bytes
+   */
+  private static byte[] getBytes(ByteBuffer buf, int size) {
+    byte[] res=new byte[size];
+    buf.get(res);
+    return res;
   }  
   
   /**
@@ -1352,8 +1654,21 @@ public class FileManager {
     try {      
       MemoryDasm mem;  
       DataInputStream in;
+      
+      boolean gzip=isGZipped(file);
+      if (!gzip) {
+        try (RandomAccessFile raf=new RandomAccessFile(file, "r")) {
+          if (raf.readByte()>12) {              // version 13
+            raf.readInt();                      // header size
+            total=raf.readInt();
+            done=raf.readInt();
+            if (total==0) return 0;
+            return done*100/total;
+          }
+        }
+      }
  
-      if (isGZipped(file)) in=new DataInputStream(
+      if (gzip) in=new DataInputStream(
               new GZIPInputStream(
               new BufferedInputStream(
               new FileInputStream(file)))); 
@@ -1376,6 +1691,8 @@ public class FileManager {
       size=in.readInt();
       in.skipNBytes(size);      // memoryFlags
       
+      if (version>11) return readPercColumns(ByteBuffer.wrap(in.readAllBytes())); // version 12
+      
       boolean isInside;
       boolean isGarbage;
       boolean dasmLoc;
@@ -1535,9 +1852,9 @@ public class FileManager {
         out.writeUTF(HEADER_CST);              // write header    
         out.writeInt(1);                       // write version   
         
-        String[] values=constant.table[col];
-        out.writeInt(values.length);
-        for (String val:values) {
+        out.writeInt(Constant.ROWS);
+        for (int i=0; i<Constant.ROWS; i++) {
+          String val=constant.get(col, i);
           if (val==null) out.writeBoolean(false);
           else {
             out.writeBoolean(true);
@@ -1584,8 +1901,8 @@ public class FileManager {
         int size=in.readInt();
         
         for (int i=0; i<size; i++) {
-          if (in.readBoolean()) constant.table[col][i]=in.readUTF();
-          else constant.table[col][i]=null;
+          if (in.readBoolean()) constant.set(col, i, in.readUTF());
+          else constant.set(col, i, null);
         }
         
         in.close();         
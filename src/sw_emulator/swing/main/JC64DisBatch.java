@@ -0,0 +1,323 @@
+/**
+ * @(#)JC64DisBatch.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing.main;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import sw_emulator.software.Assembler.Name;
+import sw_emulator.software.Disassembly;
+import sw_emulator.software.SidId;
+
+/**
+ * Disassemble all the files of a directory without user interface.
+ *
+ * Every PRG, SID, CRT file or project (.dis) is disassembled as source by its
+ * own Disassembly in a pool of threads; the sources are written in the output
+ * directory together with a stats.csv file with the timing of every file.
+ *
+ * Usage: JC64DisBatch [-assembler name] [-target type] [-threads n]
+ *                     [-option file] input_dir output_dir
+ *
+ * @author ice
+ */
+public class JC64DisBatch {
+  /** Extensions of files to disassemble */
+  private static final String[] EXTENSIONS={".prg", ".sid", ".crt", ".dis"};
+
+  /** Name of the file with timing of disassembly */
+  private static final String STATS="stats.csv";
+
+  /**
+   * Result of the disassembly of one file
+   */
+  private static class Result {
+    /** Name of input file */
+    String name;
+
+    /** Type of input file */
+    FileType fileType;
+
+    /** Target machine */
+    TargetType targetType;
+
+    /** Size of input file */
+    int size;
+
+    /** Time for reading the file in ms */
+    long readTime;
+
+    /** Time for disassembly in ms */
+    long dasmTime;
+
+    /** Size of produced source */
+    int sourceSize;
+
+    /** Error message or null if ok */
+    String error;
+  }
+
+  /** Option to use for disassembly (shared in read only mode) */
+  private final Option option;
+
+  /** Target machine to use for files or null for the default one */
+  private final TargetType targetType;
+
+  /** Output directory */
+  private final File outDir;
+
+  /**
+   * Construct the batch
+   *
+   * @param option the option to use
+   * @param targetType target machine or null for the default one of file
+   * @param outDir the output directory
+   */
+  public JC64DisBatch(Option option, TargetType targetType, File outDir) {
+    this.option=option;
+    this.targetType=targetType;
+    this.outDir=outDir;
+  }
+
+  /**
+   * Disassemble all the files of the directory
+   *
+   * @param inDir the input directory
+   * @param threads number of threads to use
+   * @return number of files with errors
+   * @throws IOException if stats file cannot be written
+   * @throws InterruptedException if interrupted
+   */
+  public int execute(File inDir, int threads) throws IOException, InterruptedException {
+    File[] files=inDir.listFiles(f -> f.isFile() && isToDisassemble(f));
+    if (files==null) throw new IOException("Cannot read directory "+inDir);
+    Arrays.sort(files);
+
+    ExecutorService executor=Executors.newFixedThreadPool(threads);
+    ArrayList<Future<Result>> futures=new ArrayList<>();
+    long start=System.nanoTime();
+
+    for (File file: files) {
+      futures.add(executor.submit(() -> disassembly(file)));
+    }
+
+    int errors=0;
+    try (BufferedWriter out=new BufferedWriter(new FileWriter(new File(outDir, STATS)))) {
+      out.write("file,type,target,size,read ms,disassembly ms,source size,result\n");
+
+      for (Future<Result> future: futures) {
+        Result result;
+        try {
+          result=future.get();
+        } catch (ExecutionException e) {
+            // the disassembly traps its exceptions, so this is an error of the VM
+            throw new IOException(e.getCause());
+          }
+
+        if (result.error!=null) errors++;
+        out.write(result.name+","+result.fileType+","+result.targetType+","+
+                  result.size+","+result.readTime+","+result.dasmTime+","+
+                  result.sourceSize+","+(result.error==null ? "ok" : result.error.replace(',', ';'))+"\n");
+        System.out.println(result.name+": "+(result.error==null ? result.dasmTime+" ms" : result.error));
+      }
+    } finally {
+        executor.shutdown();
+      }
+
+    System.out.println("Disassembled "+(files.length-errors)+" files of "+files.length+
+                       " in "+(System.nanoTime()-start)/1000000+" ms");
+    return errors;
+  }
+
+  /**
+   * Disassemble the file writing its source into output directory
+   *
+   * @param file the file to disassemble
+   * @return the result
+   */
+  private Result disassembly(File file) {
+    Result result=new Result();
+    result.name=file.getName();
+
+    try {
+      long time=System.nanoTime();
+      Project project=new Project();
+
+      if (file.getName().toLowerCase(Locale.ROOT).endsWith(".dis")) {
+        if (!FileManager.instance.readProjectFile(file, project)) {
+          result.error="Error reading project file";
+          return result;
+        }
+        if (targetType!=null) project.targetType=targetType;
+      } else {
+          project.file=file.getAbsolutePath();
+          project.name=file.getName();
+          project.setData(FileManager.instance.readFile(project.file), false);
+          project.targetType=targetType!=null ? targetType : getTargetType(project.fileType);
+        }
+      result.fileType=project.fileType;
+      result.targetType=project.targetType;
+      result.size=project.inB==null ? 0 : project.inB.length;
+      result.readTime=(System.nanoTime()-time)/1000000;
+
+      time=System.nanoTime();
+      Disassembly disassembly=new Disassembly();
+
+      // the preview creates the labels used by the source
+      disassembly.dissassembly(project.fileType, project.inB, option,
+                               project.memory, project.constant, project.mpr,
+                               project.relocates, project.patches, project.chip,
+                               project.binAddress, project.targetType, false);
+      disassembly.dissassembly(project.fileType, project.inB, option,
+                               project.memory, project.constant, project.mpr,
+                               project.relocates, project.patches, project.chip,
+                               project.binAddress, project.targetType, true);
+      result.dasmTime=(System.nanoTime()-time)/1000000;
+      result.sourceSize=disassembly.source.length();
+
+      try (BufferedWriter out=new BufferedWriter(new FileWriter(new File(outDir, file.getName()+".txt")))) {
+        out.write(disassembly.source);
+      }
+    } catch (Exception e) {
+        result.error=e.toString();
+      }
+
+    return result;
+  }
+
+  /**
+   * True if the file is of a type to disassemble
+   *
+   * @param file the file
+   * @return true if to disassemble
+   */
+  private static boolean isToDisassemble(File file) {
+    String name=file.getName().toLowerCase(Locale.ROOT);
+
+    for (String ext: EXTENSIONS) {
+      if (name.endsWith(ext)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Get the default target machine of the file type (as in project dialog)
+   *
+   * @param fileType the type of file
+   * @return the target machine
+   */
+  private static TargetType getTargetType(FileType fileType) {
+    switch (fileType) {
+      case SAP:
+        return TargetType.ATARI;
+      case AY:
+        return TargetType.C128Z;
+      case BIN:
+        return TargetType.ODYSSEY;
+      default:
+        return TargetType.C64;
+    }
+  }
+
+  /**
+   * Print the usage and exit
+   */
+  private static void usage() {
+    System.err.println("Usage: JC64DisBatch [-assembler name] [-target type] [-threads n] [-option file] input_dir output_dir");
+    System.err.println("  assembler: "+Arrays.toString(Name.values()));
+    System.err.println("  target: "+Arrays.toString(TargetType.values()));
+    System.exit(2);
+  }
+
+  /**
+   * @param args the command line arguments
+   */
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+
+    Option option=new Option();
+    File optionFile=FileManager.OPTION_FILE;
+    Name assembler=null;
+    TargetType targetType=null;
+    int threads=Runtime.getRuntime().availableProcessors();
+    ArrayList<String> dirs=new ArrayList<>();
+
+    try {
+      for (int i=0; i<args.length; i++) {
+        switch (args[i]) {
+          case "-assembler":
+            assembler=Name.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            break;
+          case "-target":
+            targetType=TargetType.valueOf(args[++i].toUpperCase(Locale.ROOT));
+            break;
+          case "-threads":
+            threads=Integer.parseInt(args[++i]);
+            break;
+          case "-option":
+            optionFile=new File(args[++i]);
+            break;
+          default:
+            dirs.add(args[i]);
+            break;
+        }
+      }
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+        System.err.println(e);
+        usage();
+      }
+    if (dirs.size()!=2 || threads<1) usage();
+
+    if (optionFile.exists()) FileManager.instance.readOptionFile(optionFile, option);
+    if (assembler!=null) option.assembler=assembler;
+    
+    // the user interface reads the SidId configuration in the option dialog
+    if (option.showSidId && option.sidIdPath!=null && !"".equals(option.sidIdPath)) {
+      try {
+        SidId.instance.readConfig(option.sidIdPath);
+      } catch (Exception e) {
+          System.err.println(e);
+        }
+    }
+
+    File outDir=new File(dirs.get(1));
+    outDir.mkdirs();
+
+    try {
+      int errors=new JC64DisBatch(option, targetType, outDir).execute(new File(dirs.get(0)), threads);
+      System.exit(errors==0 ? 0 : 1);
+    } catch (IOException | InterruptedException e) {
+        System.err.println(e);
+        System.exit(2);
+      }
+  }
+}
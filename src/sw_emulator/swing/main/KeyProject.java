@@ -31,6 +31,6 @@ public class KeyProject {
   /** Key for search state */  
   public String key;  
   
-  /** Saved project */
-  public Project project; 
+  /** Differences for having this state from the following one */
+  UndoManager.Delta delta; 
 }
@@ -44,12 +44,14 @@ import sw_emulator.software.MemoryDasm;
  * Version 9: add related relocation addresses
  * Version 10: add basic type, add comments for contants
  * Version 11: add raw binary starting adddess
+ * Version 12: memory, constants and following values stored in columns
+ * Version 13: not compressed header with labels statistics
  * 
  * @author ice
  */
 public class Project implements Cloneable { 
   /** Actual version of project */ 
-  public static final byte ACTUAL_VERSION=11;       
+  public static final byte ACTUAL_VERSION=13;       
     
   /** Type of the file */
   public FileType fileType;
@@ -136,7 +138,7 @@ public class Project implements Cloneable {
     hash = 89 * hash + MPR.hashCode(this.mpr); 
     hash = 89 * hash + this.chip;
     hash = 89 * hash + this.binAddress;
-    hash = 89 * hash + Arrays.hashCode(this.constant.table);
+    hash = 89 * hash + Objects.hashCode(this.constant);
     hash = 89 * hash + Arrays.hashCode(this.relocates);
     hash = 89 * hash + Arrays.hashCode(this.patches);
     hash = 89 * hash + Arrays.hashCode(this.freezes);
@@ -0,0 +1,171 @@
+/**
+ * @(#)Symbols.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+package sw_emulator.swing.main;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import sw_emulator.software.MemoryDasm;
+
+/**
+ * Index of the labels (automatic and user ones) used in the memory of a
+ * project, for knowing in constant time if a name is already taken.
+ *
+ * The index is kept in sync by update at every change of the labels of a
+ * location. All the locations are scanned by refresh only when the memory
+ * is another one, or after invalidate (changes done where the index is not
+ * known).
+ *
+ * @author ice
+ */
+public class Symbols {
+  /** Number of locations */
+  private static final int SIZE=0xFFFF+1;
+
+  /** Memory that is indexed */
+  private MemoryDasm[] memory;
+
+  /** User labels as indexed for every location */
+  private final String[] users=new String[SIZE];
+
+  /** Automatic labels as indexed for every location */
+  private final String[] dasms=new String[SIZE];
+
+  /** Addresses (ascending, one for every use) where a name is used */
+  private final HashMap<String, int[]> names=new HashMap<>();
+
+  /** True if the index is in sync with all the locations of memory */
+  private boolean valid;
+
+  /**
+   * Synchronize the index with all the locations of memory, if it is another
+   * memory or the index was invalidated
+   *
+   * @param memory the memory of project
+   */
+  public void refresh(MemoryDasm[] memory) {
+    if (this.memory==memory && valid) return;
+
+    if (this.memory!=memory) {
+      this.memory=memory;
+      Arrays.fill(users, null);
+      Arrays.fill(dasms, null);
+      names.clear();
+    }
+
+    if (memory==null) return;
+
+    // only the labels not already indexed are changed
+    for (MemoryDasm mem: memory) {
+      update(mem);
+    }
+    valid=true;
+  }
+
+  /**
+   * Invalidate the index, so next refresh scans all the locations
+   */
+  public void invalidate() {
+    valid=false;
+  }
+
+  /**
+   * Synchronize the index with the labels of the location
+   *
+   * @param mem the changed memory location
+   */
+  public void update(MemoryDasm mem) {
+    int address=mem.address;
+
+    if (users[address]!=mem.userLocation) {
+      if (users[address]!=null) remove(users[address], address);
+      if (mem.userLocation!=null) add(mem.userLocation, address);
+      users[address]=mem.userLocation;
+    }
+
+    if (dasms[address]!=mem.dasmLocation) {
+      if (dasms[address]!=null) remove(dasms[address], address);
+      if (mem.dasmLocation!=null) add(mem.dasmLocation, address);
+      dasms[address]=mem.dasmLocation;
+    }
+  }
+
+  /**
+   * Find the lowest address that uses the label
+   *
+   * @param label the label to find
+   * @return the address or -1 if not used
+   */
+  public int find(String label) {
+    int[] addresses=names.get(label);
+    if (addresses==null) return -1;
+    return addresses[0];
+  }
+
+  /**
+   * Add the address to the index of the name
+   *
+   * @param name the name
+   * @param address the address
+   */
+  private void add(String name, int address) {
+    int[] addresses=names.get(name);
+
+    if (addresses==null) {
+      names.put(name, new int[] {address});
+      return;
+    }
+
+    int pos=Arrays.binarySearch(addresses, address);
+    if (pos<0) pos=-pos-1;
+    int[] res=new int[addresses.length+1];
+    System.arraycopy(addresses, 0, res, 0, pos);
+    System.arraycopy(addresses, pos, res, pos+1, addresses.length-pos);
+    res[pos]=address;
+    names.put(name, res);
+  }
+
+  /**
+   * Remove one use of the address from the index of the name
+   *
+   * @param name the name
+   * @param address the address
+   */
+  private void remove(String name, int address) {
+    int[] addresses=names.get(name);
+    if (addresses==null) return;
+
+    int pos=Arrays.binarySearch(addresses, address);
+    if (pos<0) return;
+
+    if (addresses.length==1) {
+      names.remove(name);
+      return;
+    }
+
+    int[] res=new int[addresses.length-1];
+    System.arraycopy(addresses, 0, res, 0, pos);
+    System.arraycopy(addresses, pos+1, res, pos, addresses.length-pos-1);
+    names.put(name, res);
+  }
+}
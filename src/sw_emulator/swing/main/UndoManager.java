@@ -24,10 +24,16 @@ package sw_emulator.swing.main;
 
 import com.rits.cloning.Cloner;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Objects;
+import sw_emulator.software.MemoryDasm;
 
 /**
- * Undo functionality
+ * Undo functionality.
+ * Only the last stored project is kept as a whole: any previous state is
+ * kept as the differences to apply to the following state for having it.
  * 
  * @author ice
  */
@@ -39,11 +45,122 @@ public class UndoManager {
    /** The deque for undo of project */
    ArrayDeque<KeyProject> dequeProject=new ArrayDeque(maxCapacity); 
    
+   /** Copy of the last stored project */
+   Project last;
+   
+   /** Cloner of objects */
+   Cloner cloner=new Cloner();
+   
+  /**
+   * Differences to apply to a project for going back to a previous state
+   */
+  static class Delta {
+    /** Previous memory of changed locations */
+    MemoryDasm[] memories;
+    
+    /** Previous flags of changed locations (address in high bits, value in low byte) */
+    int[] flags;
+    
+    /** Changed constants cells (column*rows+row) */
+    int[] cells;
+    
+    /** Previous constants of changed cells */
+    String[] tables;
+    
+    /** Previous constants comments of changed cells */
+    String[] comments;
+    
+    /** Previous header values of project (or null if not changed) */
+    Header header;
+  }
+  
+  /**
+   * Values of project apart memory and constants
+   */
+  static class Header {
+    /** File type */
+    FileType fileType;
+    
+    /** Name of project */
+    String name;
+    
+    /** File of project */
+    String file;
+    
+    /** Description of project */
+    String description;
+    
+    /** Data of file */
+    byte[] inB;
+    
+    /** MPR blocks */
+    MPR mpr;
+    
+    /** Target machine */
+    TargetType targetType;
+    
+    /** CRT chip */
+    int chip;
+    
+    /** Raw binary starting address */
+    int binAddress;
+    
+    /** Relocates */
+    Relocate[] relocates;
+    
+    /** Patches */
+    Patch[] patches;
+    
+    /** Freeze images */
+    Freeze[] freezes;
+    
+    /**
+     * Take the header values of project
+     * 
+     * @param project the project
+     */
+    Header(Project project) {
+      fileType=project.fileType;
+      name=project.name;
+      file=project.file;
+      description=project.description;
+      inB=project.inB;
+      mpr=project.mpr;
+      targetType=project.targetType;
+      chip=project.chip;
+      binAddress=project.binAddress;
+      relocates=project.relocates;
+      patches=project.patches;
+      freezes=project.freezes;
+    }
+    
+    /**
+     * Set the header values into the project
+     * 
+     * @param project the project to change
+     */
+    void set(Project project) {
+      project.fileType=fileType;
+      project.name=name;
+      project.file=file;
+      project.description=description;
+      project.inB=inB;
+      project.mpr=mpr;
+      project.targetType=targetType;
+      project.chip=chip;
+      project.binAddress=binAddress;
+      project.relocates=relocates;
+      project.patches=patches;
+      project.freezes=freezes;
+    }
+  }
+   
    /**
    * Clear all the undo
    */
   public void clear() {
     dequeProject.clear();
+    last=null;
   }
   
   /**
@@ -63,15 +180,12 @@ public class UndoManager {
    * @param project the project to store   
    */
   public void store(String key, Project project) {
-    Project copy;
     KeyProject keyProject=new KeyProject();
-    Cloner cloner=new Cloner();  
     
-
-    copy=cloner.deepClone(project);
+    if (last==null) last=copy(project);
+    else if (!dequeProject.isEmpty()) dequeProject.peekFirst().delta=update(project);
+      
     keyProject.key=key;
-    keyProject.project=copy;
-        
         
     dequeProject.addFirst(keyProject);
     
@@ -89,11 +203,17 @@ public class UndoManager {
     if (dequeProject.isEmpty()) return null;  
     
     KeyProject keyProject;
+    Project project=null;
     
     Iterator<KeyProject> iter=dequeProject.iterator();
     while (iter.hasNext()) {
       keyProject=iter.next();
-      if (keyProject.key.equals(key)) return keyProject.project;
+      
+      // go back from last project up to this state
+      if (project==null) project=copy(last);
+      else apply(project, keyProject.delta);
+      
+      if (keyProject.key.equals(key)) return project;
     }   
         
     return null;
@@ -108,4 +228,155 @@ public class UndoManager {
   public Iterator<KeyProject> getAll() {
     return dequeProject.iterator();
   }
+  
+  /**
+   * Update the last stored project with the given one
+   * 
+   * @param project the project to store
+   * @return the differences for going back to previous last project
+   */
+  private Delta update(Project project) {
+    Delta delta=new Delta();
+    
+    ArrayList<MemoryDasm> memories=new ArrayList<>();
+    for (int i=0; i<project.memory.length; i++) {
+      if (!project.memory[i].equals(last.memory[i])) {
+        memories.add(last.memory[i]);
+        last.memory[i]=project.memory[i].clone();
+      }
+    }
+    delta.memories=memories.toArray(new MemoryDasm[memories.size()]);
+    
+    int size=0;
+    for (int i=0; i<project.memoryFlags.length; i++) {
+      if (project.memoryFlags[i]!=last.memoryFlags[i]) size++;  
+    }
+    delta.flags=new int[size];
+    size=0;
+    for (int i=0; i<project.memoryFlags.length; i++) {
+      if (project.memoryFlags[i]!=last.memoryFlags[i]) {
+        delta.flags[size++]=(i<<8) | (last.memoryFlags[i] & 0xFF);
+        last.memoryFlags[i]=project.memoryFlags[i];
+      }
+    }
+    
+    // only the rows used in one of the two constants can be different
+    size=0;
+    for (int col=0; col<Constant.COLS; col++) {
+      size+=project.constant.size(col)+last.constant.size(col);  
+    }
+    int[] cells=new int[size];
+    size=0;
+    for (int col=0; col<Constant.COLS; col++) {
+      int i=0;
+      int j=0;
+      int actualSize=project.constant.size(col);
+      int lastSize=last.constant.size(col);
+      while (i<actualSize || j<lastSize) {
+        int row;
+        if (j==lastSize) row=project.constant.getRow(col, i++);
+        else if (i==actualSize) row=last.constant.getRow(col, j++);
+        else {
+          row=Math.min(project.constant.getRow(col, i), last.constant.getRow(col, j));
+          if (project.constant.getRow(col, i)==row) i++;
+          if (last.constant.getRow(col, j)==row) j++;
+        }
+        
+        if (!Objects.equals(project.constant.get(col, row), last.constant.get(col, row)) ||
+            !Objects.equals(project.constant.getComment(col, row), last.constant.getComment(col, row))) {
+          cells[size++]=col*Constant.ROWS+row;
+        }
+      }
+    }
+    delta.cells=Arrays.copyOf(cells, size);
+    delta.tables=new String[size];
+    delta.comments=new String[size];
+    for (int i=0; i<size; i++) {
+      int col=cells[i]/Constant.ROWS;
+      int row=cells[i]%Constant.ROWS;
+      delta.tables[i]=last.constant.get(col, row);
+      delta.comments[i]=last.constant.getComment(col, row);
+      last.constant.set(col, row, project.constant.get(col, row));
+      last.constant.setComment(col, row, project.constant.getComment(col, row));
+    }
+    
+    if (!isSameHeader(project, last)) {
+      delta.header=new Header(last);
+      cloner.deepClone(new Header(project)).set(last);
+    }
+    
+    return delta;
+  }
+  
+  /**
+   * Apply the differences to the project for going back to previous state
+   * 
+   * @param project the project to change
+   * @param delta the differences to apply
+   */
+  private void apply(Project project, Delta delta) {
+    // the project is a copy, so its locations can be changed in place
+    for (MemoryDasm mem: delta.memories) {
+      project.memory[mem.address].set(mem);
+    }
+    
+    for (int flag: delta.flags) {
+      project.memoryFlags[flag>>8]=(byte)flag;  
+    }
+    
+    for (int i=0; i<delta.cells.length; i++) {
+      project.constant.set(delta.cells[i]/Constant.ROWS, delta.cells[i]%Constant.ROWS, delta.tables[i]);
+      project.constant.setComment(delta.cells[i]/Constant.ROWS, delta.cells[i]%Constant.ROWS, delta.comments[i]);
+    }
+    
+    if (delta.header!=null) cloner.deepClone(delta.header).set(project);
+  }
+  
+  /**
+   * Copy the project: memory, flags and constants are copied directly, only 
+   * the header values are deep cloned
+   * 
+   * @param project the project to copy
+   * @return the copy
+   */
+  private Project copy(Project project) {
+    Project res=new Project();
+    
+    cloner.deepClone(new Header(project)).set(res);
+    for (int i=0; i<project.memory.length; i++) {
+      res.memory[i].set(project.memory[i]);
+    }
+    res.memoryFlags=project.memoryFlags.clone();
+    res.constant=(Constant)project.constant.clone();
+    
+    return res;
+  }
+  
+  /**
+   * Test if the header values of projects (all except memory, flags and 
+   * constants) are the same
+   * 
+   * @param project the project
+   * @param other the other project
+   * @return true if they are the same
+   */
+  private static boolean isSameHeader(Project project, Project other) {
+    if (project.fileType!=other.fileType) return false;
+    if (project.targetType!=other.targetType) return false;
+    if (project.chip!=other.chip) return false;
+    if (project.binAddress!=other.binAddress) return false;
+    if (!Objects.equals(project.name, other.name)) return false;
+    if (!Objects.equals(project.file, other.file)) return false;
+    if (!Objects.equals(project.description, other.description)) return false;
+    if (!Arrays.equals(project.inB, other.inB)) return false;
+    if (!Arrays.equals(project.relocates, other.relocates)) return false;
+    if (!Arrays.equals(project.patches, other.patches)) return false;
+    if (!Arrays.equals(project.freezes, other.freezes)) return false;
+    
+    if (project.mpr==null || other.mpr==null) return project.mpr==other.mpr;
+    if (!Objects.equals(project.mpr.header, other.mpr.header)) return false;
+    if (project.mpr.block!=other.mpr.block) return false;
+    if (project.mpr.blocks==null || other.mpr.blocks==null) return project.mpr.blocks==other.mpr.blocks;
+    return Arrays.deepEquals(project.mpr.blocks.toArray(), other.mpr.blocks.toArray());
+  }
 }
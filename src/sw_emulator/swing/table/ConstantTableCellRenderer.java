@@ -56,7 +56,7 @@ public class ConstantTableCellRenderer extends DefaultTableCellRenderer {
       
       setBackground(Color.white);
       if (row>=0 && column>0) {
-        String comment=constant.comment[column-1][row];
+        String comment=constant.getComment(column-1, row);
       
         if (comment!=null && !"".equals(comment)) {
           setToolTipText(comment);
@@ -127,45 +127,45 @@ public class DataTableModelConstant extends AbstractTableModel {
         if (rowIndex<Constant.MIN_ROWS) return Shared.ByteToExe(rowIndex);
         else return Shared.ShortToExe(rowIndex);
       case T0:
-        return constant.table[0][rowIndex];
+        return constant.get(0, rowIndex);
       case T1:
-        return constant.table[1][rowIndex];  
+        return constant.get(1, rowIndex);  
       case T2:
-        return constant.table[2][rowIndex];  
+        return constant.get(2, rowIndex);  
       case T3:
-        return constant.table[3][rowIndex];  
+        return constant.get(3, rowIndex);  
       case T4:
-        return constant.table[4][rowIndex];  
+        return constant.get(4, rowIndex);  
       case T5:
-        return constant.table[5][rowIndex];  
+        return constant.get(5, rowIndex);  
       case T6:
-        return constant.table[6][rowIndex];  
+        return constant.get(6, rowIndex);  
       case T7:
-        return constant.table[7][rowIndex];  
+        return constant.get(7, rowIndex);  
       case T8:
-        return constant.table[8][rowIndex];  
+        return constant.get(8, rowIndex);  
       case T9:
-        return constant.table[9][rowIndex];  
+        return constant.get(9, rowIndex);  
       case T10:
-        return constant.table[10][rowIndex];        
+        return constant.get(10, rowIndex);        
       case T11:
-        return constant.table[11][rowIndex];        
+        return constant.get(11, rowIndex);        
       case T12:
-        return constant.table[12][rowIndex];        
+        return constant.get(12, rowIndex);        
       case T13:
-        return constant.table[13][rowIndex];          
+        return constant.get(13, rowIndex);          
       case T14:
-        return constant.table[14][rowIndex];          
+        return constant.get(14, rowIndex);          
       case T15:
-        return constant.table[15][rowIndex];                    
+        return constant.get(15, rowIndex);                    
       case T16:
-        return constant.table[16][rowIndex];                    
+        return constant.get(16, rowIndex);                    
       case T17:
-        return constant.table[17][rowIndex];                    
+        return constant.get(17, rowIndex);                    
       case T18:
-        return constant.table[18][rowIndex];                      
+        return constant.get(18, rowIndex);                      
       case T19:
-        return constant.table[19][rowIndex];                    
+        return constant.get(19, rowIndex);                    
     }  
     
     return "";
@@ -182,64 +182,64 @@ public class DataTableModelConstant extends AbstractTableModel {
   public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
     switch (columns[columnIndex]) {
       case T0:
-        constant.table[0][rowIndex]=(String)aValue;  
+        constant.set(0, rowIndex, (String)aValue);  
         break;  
       case T1:
-        constant.table[1][rowIndex]=(String)aValue;  
+        constant.set(1, rowIndex, (String)aValue);  
         break;
       case T2:
-        constant.table[2][rowIndex]=(String)aValue;  
+        constant.set(2, rowIndex, (String)aValue);  
         break;  
       case T3:
-        constant.table[3][rowIndex]=(String)aValue;  
+        constant.set(3, rowIndex, (String)aValue);  
         break;    
       case T4:
-        constant.table[4][rowIndex]=(String)aValue;  
+        constant.set(4, rowIndex, (String)aValue);  
         break;   
       case T5:
-        constant.table[5][rowIndex]=(String)aValue;  
+        constant.set(5, rowIndex, (String)aValue);  
         break;  
       case T6:
-        constant.table[6][rowIndex]=(String)aValue;  
+        constant.set(6, rowIndex, (String)aValue);  
         break;   
       case T7:
-        constant.table[7][rowIndex]=(String)aValue;  
+        constant.set(7, rowIndex, (String)aValue);  
         break;  
       case T8:
-        constant.table[8][rowIndex]=(String)aValue;  
+        constant.set(8, rowIndex, (String)aValue);  
         break;  
       case T9:
-        constant.table[9][rowIndex]=(String)aValue;  
+        constant.set(9, rowIndex, (String)aValue);  
         break;
       case T10:
-        constant.table[10][rowIndex]=(String)aValue;  
+        constant.set(10, rowIndex, (String)aValue);  
         break;      
       case T11:
-        constant.table[11][rowIndex]=(String)aValue;  
+        constant.set(11, rowIndex, (String)aValue);  
         break;      
       case T12:
-        constant.table[12][rowIndex]=(String)aValue;  
+        constant.set(12, rowIndex, (String)aValue);  
         break;        
       case T13:
-        constant.table[13][rowIndex]=(String)aValue;  
+        constant.set(13, rowIndex, (String)aValue);  
         break;
       case T14:
-        constant.table[14][rowIndex]=(String)aValue;  
+        constant.set(14, rowIndex, (String)aValue);  
         break;           
       case T15:
-        constant.table[15][rowIndex]=(String)aValue;  
+        constant.set(15, rowIndex, (String)aValue);  
         break;
       case T16:
-        constant.table[16][rowIndex]=(String)aValue;  
+        constant.set(16, rowIndex, (String)aValue);  
         break;  
       case T17:
-        constant.table[17][rowIndex]=(String)aValue;  
+        constant.set(17, rowIndex, (String)aValue);  
         break;    
       case T18:
-        constant.table[18][rowIndex]=(String)aValue;  
+        constant.set(18, rowIndex, (String)aValue);  
         break;        
       case T19:
-        constant.table[19][rowIndex]=(String)aValue;  
+        constant.set(19, rowIndex, (String)aValue);  
         break;        
         
     }
@@ -0,0 +1,196 @@
+/**
+ * @(#)BatchMonitor.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A Monitor where the thread that calls <code>opSignal</code> can run ahead
+ * of the threads that call <code>opWait</code> for a given number of
+ * operations (the window), instead of meeting them in a barrier at every
+ * operation.
+ * The counts of signals and waits are kept in volatile variables without
+ * locks, and a thread is suspended only when it is at the limit of the
+ * window, so the threads meet once every window operations.
+ * When the signaller interacts with the chips of the waiting threads, it must
+ * call <code>opSync</code> before, so that they are at the same operation.
+ * With a window of 1 it is the same as <code>Monitor</code>.
+ *
+ * @author Ice
+ * @version 1.00 17/10/2026
+ */
+public class BatchMonitor extends Monitor {
+
+  /**
+   * A thread that does <code>opWait</code> to this monitor
+   */
+  private static class Waiter {
+    /** The thread */
+    final Thread thread=Thread.currentThread();
+
+    /** Number of <code>opWait</code> started by the thread */
+    volatile long arrived;
+
+    /** True if the thread is suspended */
+    volatile boolean parked=false;
+  }
+
+  /** Number of checks before suspending a thread */
+  private static final int SPINS=100;
+
+  /** Number of operations the signaller can run ahead */
+  protected final int window;
+
+  /** Number of <code>opSignal</code> made */
+  private volatile long signalled=0;
+
+  /** The thread that does <code>opSignal</code> */
+  private volatile Thread signaller;
+
+  /** True if the signaller is suspended */
+  private volatile boolean signallerParked=false;
+
+  /** The threads that do <code>opWait</code> */
+  private volatile Waiter[] waiters=new Waiter[0];
+
+  /** The waiter of the actual thread */
+  private final ThreadLocal<Waiter> waiter=new ThreadLocal<>();
+
+  /**
+   * Build a named batch monitor
+   *
+   * @param name the monitor debug name
+   * @param window the number of operations the signaller can run ahead
+   */
+  public BatchMonitor(String name, int window) {
+    super(name);
+    this.window=Math.max(1, window);
+  }
+
+  /**
+   * Notify the this thread will do an <code>opWait</code> to this monitor
+   */
+  @Override
+  public synchronized void opNotify() {
+    Waiter w=new Waiter();
+    w.arrived=signalled;
+    waiter.set(w);
+
+    Waiter[] list=new Waiter[waiters.length+1];
+    System.arraycopy(waiters, 0, list, 0, waiters.length);
+    list[waiters.length]=w;
+    waiters=list;
+    maxCounter++;
+  }
+
+  /**
+   * Subspend the thread until the next <code>opSignal</code> operation is
+   * made (that may be already done)
+   */
+  @Override
+  public void opWait() {
+    Waiter w=waiter.get();
+    long target=w.arrived+1;
+
+    w.arrived=target;
+    if (signallerParked) LockSupport.unpark(signaller);
+
+    for (int i=0; signalled<target; i++) {
+      if (i<SPINS) Thread.onSpinWait();
+      else {
+        w.parked=true;
+        if (signalled<target) LockSupport.park(this);
+        w.parked=false;
+      }
+    }
+  }
+
+  /**
+   * Resume the threads that are in <code>opWait</code>, after waiting that
+   * they are not behind the window
+   */
+  @Override
+  public void opSignal() {
+    long target=signalled+1;
+
+    if (signaller==null) signaller=Thread.currentThread();
+    attendArrived(target-window+1);
+
+    signalled=target;
+    for (Waiter w: waiters) {
+      if (w.parked) LockSupport.unpark(w.thread);
+    }
+  }
+
+  /**
+   * Wait that all the threads have reached the last signal, so that they are
+   * at the same operation of the signaller
+   */
+  @Override
+  public void opSync() {
+    attendArrived(signalled);
+  }
+
+  /**
+   * Return true if all threads have reached the last signal
+   *
+   * @return true if all threads have finish
+   */
+  @Override
+  public boolean isFinish() {
+    return minArrived()>=signalled;
+  }
+
+  /**
+   * Suspend the signaller until all the threads have started the given
+   * number of <code>opWait</code>
+   *
+   * @param count the number of <code>opWait</code>
+   */
+  private void attendArrived(long count) {
+    for (int i=0; minArrived()<count; i++) {
+      if (i<SPINS) Thread.onSpinWait();
+      else {
+        signallerParked=true;
+        if (minArrived()<count) LockSupport.park(this);
+        signallerParked=false;
+      }
+    }
+  }
+
+  /**
+   * Get the minimum number of <code>opWait</code> started by the threads
+   *
+   * @return the minimum number (or Long.MAX_VALUE if there are not threads)
+   */
+  private long minArrived() {
+    long min=Long.MAX_VALUE;
+
+    for (Waiter w: waiters) {
+      if (w.arrived<min) min=w.arrived;
+    }
+    return min;
+  }
+}
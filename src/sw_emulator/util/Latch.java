@@ -0,0 +1,130 @@
+/**
+ * @(#)Latch.java 2026/10/17
+ *
+ * ICE Team free software group
+ *
+ * This file is part of C64 Java Software Emulator.
+ * See README for copyright notice.
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, write to the Free Software
+ *  Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307  USA.
+ */
+
+package sw_emulator.util;
+
+/**
+ * A latch that threads attend until it is open (or closed).
+ * It is used for a lifecycle condition of a chip, like the power or the
+ * connection of its io, instead of yielding in a loop until the condition
+ * is true: a waiting thread is suspended, so it doesn't use the cpu, and it
+ * is resumed as soon as the condition changes.
+ * The state is read without locks, so <code>attendOpen</code> is fast when
+ * the latch is already open.
+ *
+ * @author Ice
+ * @version 1.00 17/10/2026
+ */
+public class Latch {
+
+  /** Contains the name of the latch (used as debug info) */
+  protected String name;
+
+  /** The state of the latch */
+  private volatile boolean open=false;
+
+  /**
+   * Build a named latch (initially closed)
+   *
+   * @param name the latch debug name
+   */
+  public Latch(String name) {
+    this.name=name;
+  }
+
+  /**
+   * Open the latch and resume the threads that attend it
+   */
+  public synchronized void open() {
+    open=true;
+    notifyAll();
+  }
+
+  /**
+   * Close the latch and resume the threads that attend it is closed
+   */
+  public synchronized void close() {
+    open=false;
+    notifyAll();
+  }
+
+  /**
+   * Set the state of the latch
+   *
+   * @param state true for open, false for close
+   */
+  public void set(boolean state) {
+    if (state) open();
+    else close();
+  }
+
+  /**
+   * Determine if the latch is open
+   *
+   * @return true if the latch is open
+   */
+  public boolean isOpen() {
+    return open;
+  }
+
+  /**
+   * Subspend the thread until the latch is open
+   */
+  public void attendOpen() {
+    if (open) return;
+    attend(true);
+  }
+
+  /**
+   * Subspend the thread until the latch is closed
+   */
+  public void attendClose() {
+    if (!open) return;
+    attend(false);
+  }
+
+  /**
+   * Subspend the thread until the latch is in the given state
+   *
+   * @param state the state to attend
+   */
+  private synchronized void attend(boolean state) {
+    while (open!=state) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+          System.err.println("Thread error for latch "+name+": "+e);
+        }
+    }
+  }
+
+  /**
+   * Return the name of the latch
+   *
+   * @return the name of the latch
+   */
+  public String getName() {
+    return name;
+  }
+}
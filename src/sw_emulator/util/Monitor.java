@@ -104,6 +104,14 @@ public class Monitor {
     phaser.arriveAndAwaitAdvance();
   }
   
+  /**
+   * Wait that all the threads are at the same operation of the caller of
+   * <code>opSignal</code>, before it interacts with them.
+   * Here the threads meet at every operation, so there is nothing to wait.
+   */
+  public void opSync() {
+  }
+
   /**
    * Return true if all threads have finish
    * 